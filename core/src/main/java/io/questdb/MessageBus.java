@@ -119,6 +119,12 @@ public interface MessageBus extends Closeable {
 
     Sequence getTextImportSubSeq();
 
+    MPSequence getUpdatePartitionPubSeq();
+
+    RingQueue<UpdatePartitionTask> getUpdatePartitionQueue();
+
+    MCSequence getUpdatePartitionSubSeq();
+
     Sequence getVectorAggregatePubSeq();
 
     RingQueue<VectorAggregateTask> getVectorAggregateQueue();
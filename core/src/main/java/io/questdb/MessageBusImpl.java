@@ -78,6 +78,9 @@ public class MessageBusImpl implements MessageBus {
     private final RingQueue<CopyRequestTask> textImportRequestQueue;
     private final SCSequence textImportRequestSubSeq;
     private final MCSequence textImportSubSeq;
+    private final MPSequence updatePartitionPubSeq;
+    private final RingQueue<UpdatePartitionTask> updatePartitionQueue;
+    private final MCSequence updatePartitionSubSeq;
     private final MPSequence vectorAggregatePubSeq;
     private final RingQueue<VectorAggregateTask> vectorAggregateQueue;
     private final MCSequence vectorAggregateSubSeq;
@@ -127,6 +130,11 @@ public class MessageBusImpl implements MessageBus {
         this.latestBySubSeq = new MCSequence(latestByQueue.getCycle());
         latestByPubSeq.then(latestBySubSeq).then(latestByPubSeq);
 
+        this.updatePartitionQueue = new RingQueue<>(UpdatePartitionTask::new, configuration.getUpdatePartitionQueueCapacity());
+        this.updatePartitionPubSeq = new MPSequence(updatePartitionQueue.getCycle());
+        this.updatePartitionSubSeq = new MCSequence(updatePartitionQueue.getCycle());
+        updatePartitionPubSeq.then(updatePartitionSubSeq).then(updatePartitionPubSeq);
+
         this.tableWriterEventQueue = new RingQueue<>(
                 TableWriterTask::new,
                 configuration.getWriterCommandQueueSlotSize(),
@@ -407,6 +415,21 @@ public class MessageBusImpl implements MessageBus {
         return textImportSubSeq;
     }
 
+    @Override
+    public MPSequence getUpdatePartitionPubSeq() {
+        return updatePartitionPubSeq;
+    }
+
+    @Override
+    public RingQueue<UpdatePartitionTask> getUpdatePartitionQueue() {
+        return updatePartitionQueue;
+    }
+
+    @Override
+    public MCSequence getUpdatePartitionSubSeq() {
+        return updatePartitionSubSeq;
+    }
+
     @Override
     public Sequence getVectorAggregatePubSeq() {
         return vectorAggregatePubSeq;
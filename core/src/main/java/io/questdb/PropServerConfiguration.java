@@ -36,6 +36,7 @@ import io.questdb.cutlass.line.tcp.LineTcpReceiverConfiguration;
 import io.questdb.cutlass.line.tcp.LineTcpReceiverConfigurationHelper;
 import io.questdb.cutlass.line.udp.LineUdpReceiverConfiguration;
 import io.questdb.cutlass.pgwire.PGWireConfiguration;
+import io.questdb.cutlass.replication.ReplicationConfiguration;
 import io.questdb.cutlass.text.CsvFileIndexer;
 import io.questdb.cutlass.text.TextConfiguration;
 import io.questdb.cutlass.text.types.InputFormatConfiguration;
@@ -145,6 +146,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean isReadOnlyInstance;
     private final JsonQueryProcessorConfiguration jsonQueryProcessorConfiguration = new PropJsonQueryProcessorConfiguration();
     private final int latestByQueueCapacity;
+    private final boolean lineHttpEnabled;
     private final String lineTcpAuthDB;
     private final boolean lineTcpEnabled;
     private final WorkerPoolConfiguration lineTcpIOWorkerPoolConfiguration = new PropLineTcpIOWorkerPoolConfiguration();
@@ -161,6 +163,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int lineUdpOwnThreadAffinity;
     private final int lineUdpReceiveBufferSize;
     private final LineUdpReceiverConfiguration lineUdpReceiverConfiguration = new PropLineUdpReceiverConfiguration();
+    private final int lineUdpSocketCount;
     private final LineProtoTimestampAdapter lineUdpTimestampAdapter;
     private final boolean lineUdpUnicast;
     private final DateLocale locale;
@@ -175,6 +178,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int o3CallbackQueueCapacity;
     private final int o3ColumnMemorySize;
     private final int o3CopyQueueCapacity;
+    private final boolean o3IOURingEnabled;
     private final int o3LagCalculationWindowsSize;
     private final int o3LastPartitionMaxSplits;
     private final long o3MaxLag;
@@ -193,6 +197,13 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int queryCacheEventQueueCapacity;
     private final int readerPoolMaxSegments;
     private final int repeatMigrationFromVersion;
+    private final int replicationBufferSize;
+    private final ReplicationConfiguration replicationConfiguration = new PropReplicationConfiguration();
+    private final IODispatcherConfiguration replicationDispatcherConfiguration = new PropReplicationDispatcherConfiguration();
+    private final long replicationPollInterval;
+    private final long replicationRetentionTimeout;
+    private final int replicationRole;
+    private final long replicationTimeout;
     private final double rerunExponentialWaitMultiplier;
     private final int rerunInitialWaitQueueSize;
     private final int rerunMaxProcessingQueueSize;
@@ -222,6 +233,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlBindVariablePoolSize;
     private final int sqlCharacterStoreCapacity;
     private final int sqlCharacterStoreSequencePoolCapacity;
+    private final long sqlColdPartitionAge;
     private final int sqlColumnCastModelPoolCapacity;
     private final int sqlColumnPoolCapacity;
     private final double sqlCompactMapLoadFactor;
@@ -279,6 +291,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlTxnScoreboardEntryCount;
     private final int sqlWithClauseModelPoolCapacity;
     private final StaticContentProcessorConfiguration staticContentProcessorConfiguration = new PropStaticContentProcessorConfiguration();
+    private final int symbolCapacityAutoScaleFactor;
     private final String systemTableNamePrefix;
     private final boolean tableTypeConversionEnabled;
     private final TelemetryConfiguration telemetryConfiguration = new PropTelemetryConfiguration();
@@ -287,12 +300,14 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean telemetryHideTables;
     private final int telemetryQueueCapacity;
     private final TextConfiguration textConfiguration = new PropTextConfiguration();
+    private final int updatePartitionQueueCapacity;
     private final PropertyValidator validator;
     private final int vectorAggregateQueueCapacity;
     private final VolumeDefinitions volumeDefinitions = new VolumeDefinitions();
     private final boolean walApplyEnabled;
     private final int walApplyLookAheadTransactionCount;
     private final WorkerPoolConfiguration walApplyPoolConfiguration = new PropWalApplyPoolConfiguration();
+    private final String walApplyPriorityTables;
     private final long walApplySleepTimeout;
     private final long walApplyTableTimeQuota;
     private final int[] walApplyWorkerAffinity;
@@ -301,11 +316,18 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long walApplyWorkerSleepThreshold;
     private final long walApplyWorkerYieldThreshold;
     private final boolean walEnabledDefault;
+    private final int walPurgeDeleteLimit;
     private final long walPurgeInterval;
+    private final int walPurgeWorkerCount;
     private final int walRecreateDistressedSequencerAttempts;
+    private final long walRetentionAge;
+    private final long walRetentionSize;
+    private final long walSegmentRolloverAge;
     private final long walSegmentRolloverRowCount;
+    private final long walSegmentRolloverSize;
     private final double walSquashUncommittedRowsMultiplier;
     private final boolean walSupported;
+    private final int walTxnLogChunkSize;
     private final int walTxnNotificationQueueCapacity;
     private final long walWriterDataAppendPageSize;
     private final long workStealTimeoutNanos;
@@ -380,6 +402,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private long lineTcpIOWorkerSleepThreshold;
     private long lineTcpIOWorkerYieldThreshold;
     private long lineTcpMaintenanceInterval;
+    private double lineTcpMaxLoadRatio;
     private int lineTcpMaxMeasurementSize;
     private int lineTcpMsgBufferSize;
     private int lineTcpNetBindIPv4Address;
@@ -390,8 +413,11 @@ public class PropServerConfiguration implements ServerConfiguration {
     private long lineTcpNetConnectionQueueTimeout;
     private int lineTcpNetConnectionRcvBuf;
     private long lineTcpNetConnectionTimeout;
+    private int lineTcpNUpdatesPerLoadRebalance;
+    private int lineTcpParallelParseChunkSize;
     private LineProtoTimestampAdapter lineTcpTimestampAdapter;
     private int lineTcpWriterQueueCapacity;
+    private int lineTcpWriterQueueTableBudget;
     private int[] lineTcpWriterWorkerAffinity;
     private int lineTcpWriterWorkerCount;
     private boolean lineTcpWriterWorkerPoolHaltOnError;
@@ -452,6 +478,10 @@ public class PropServerConfiguration implements ServerConfiguration {
     private long pgWorkerYieldThreshold;
     private String publicDirectory;
     private int recvBufferSize;
+    private int replicationBindIPv4Address;
+    private int replicationBindPort;
+    private int replicationPrimaryIPv4Address;
+    private int replicationPrimaryPort;
     private int requestHeaderBufferSize;
     private int rollBufferLimit;
     private int rollBufferSize;
@@ -498,15 +528,23 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.maxFileNameLength = getInt(properties, env, PropertyKey.CAIRO_MAX_FILE_NAME_LENGTH, 127);
         this.walEnabledDefault = getBoolean(properties, env, PropertyKey.CAIRO_WAL_ENABLED_DEFAULT, false);
         this.walPurgeInterval = getLong(properties, env, PropertyKey.CAIRO_WAL_PURGE_INTERVAL, 30_000);
+        this.walPurgeDeleteLimit = getInt(properties, env, PropertyKey.CAIRO_WAL_PURGE_DELETE_LIMIT, 0);
+        this.walPurgeWorkerCount = getInt(properties, env, PropertyKey.CAIRO_WAL_PURGE_WORKER_COUNT, 1);
+        this.walRetentionAge = getLong(properties, env, PropertyKey.CAIRO_WAL_RETENTION_AGE, 0);
+        this.walRetentionSize = getLongSize(properties, env, PropertyKey.CAIRO_WAL_RETENTION_SIZE, 0);
         this.walTxnNotificationQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_WAL_TXN_NOTIFICATION_QUEUE_CAPACITY, 4096);
         this.walRecreateDistressedSequencerAttempts = getInt(properties, env, PropertyKey.CAIRO_WAL_RECREATE_DISTRESSED_SEQUENCER_ATTEMPTS, 3);
         this.walSupported = getBoolean(properties, env, PropertyKey.CAIRO_WAL_SUPPORTED, true);
         walApplyEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_APPLY_ENABLED, true);
         this.walSegmentRolloverRowCount = getLong(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT, 200_000);
+        this.walSegmentRolloverAge = getLong(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_ROLLOVER_AGE, 0);
+        this.walSegmentRolloverSize = getLongSize(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_ROLLOVER_SIZE, 0);
         this.walWriterDataAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_WAL_WRITER_DATA_APPEND_PAGE_SIZE, Numbers.SIZE_1MB));
         this.walSquashUncommittedRowsMultiplier = getDouble(properties, env, PropertyKey.CAIRO_WAL_SQUASH_UNCOMMITTED_ROWS_MULTIPLIER, 20.0);
         this.walApplyTableTimeQuota = getLong(properties, env, PropertyKey.CAIRO_WAL_APPLY_TABLE_TIME_QUOTA, 1000);
         this.walApplyLookAheadTransactionCount = getInt(properties, env, PropertyKey.CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT, 20);
+        this.walApplyPriorityTables = getString(properties, env, PropertyKey.CAIRO_WAL_APPLY_PRIORITY_TABLES, null);
+        this.walTxnLogChunkSize = getInt(properties, env, PropertyKey.CAIRO_WAL_TXN_LOG_CHUNK_SIZE, 0);
         this.tableTypeConversionEnabled = getBoolean(properties, env, PropertyKey.TABLE_TYPE_CONVERSION_ENABLED, true);
 
         this.dbDirectory = getString(properties, env, PropertyKey.CAIRO_ROOT, DB_DIRECTORY);
@@ -788,6 +826,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.defaultMapType = getString(properties, env, PropertyKey.CAIRO_DEFAULT_MAP_TYPE, "fast");
             this.defaultSymbolCacheFlag = getBoolean(properties, env, PropertyKey.CAIRO_DEFAULT_SYMBOL_CACHE_FLAG, true);
             this.defaultSymbolCapacity = getInt(properties, env, PropertyKey.CAIRO_DEFAULT_SYMBOL_CAPACITY, 256);
+            this.symbolCapacityAutoScaleFactor = getInt(properties, env, PropertyKey.CAIRO_SYMBOL_CAPACITY_AUTO_SCALE_FACTOR, 4);
             this.fileOperationRetryCount = getInt(properties, env, PropertyKey.CAIRO_FILE_OPERATION_RETRY_COUNT, 30);
             this.idleCheckInterval = getLong(properties, env, PropertyKey.CAIRO_IDLE_CHECK_INTERVAL, 5 * 60 * 1000L);
             this.inactiveReaderMaxOpenPartitions = getInt(properties, env, PropertyKey.CAIRO_INACTIVE_READER_MAX_OPEN_PARTITIONS, 128);
@@ -805,6 +844,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sqlCharacterStoreCapacity = getInt(properties, env, PropertyKey.CAIRO_CHARACTER_STORE_CAPACITY, 1024);
             this.sqlCharacterStoreSequencePoolCapacity = getInt(properties, env, PropertyKey.CAIRO_CHARACTER_STORE_SEQUENCE_POOL_CAPACITY, 64);
             this.sqlColumnPoolCapacity = getInt(properties, env, PropertyKey.CAIRO_COLUMN_POOL_CAPACITY, 4096);
+            this.sqlColdPartitionAge = getLong(properties, env, PropertyKey.CAIRO_SQL_COLD_PARTITION_AGE, 0) * 1_000;
             this.sqlCompactMapLoadFactor = getDouble(properties, env, PropertyKey.CAIRO_COMPACT_MAP_LOAD_FACTOR, 0.7);
             this.sqlExpressionPoolCapacity = getInt(properties, env, PropertyKey.CAIRO_EXPRESSION_POOL_CAPACITY, 8192);
             this.sqlFastMapLoadFactor = getDouble(properties, env, PropertyKey.CAIRO_FAST_MAP_LOAD_FACTOR, 0.7);
@@ -944,6 +984,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.backupMkdirMode = getInt(properties, env, PropertyKey.CAIRO_SQL_BACKUP_MKDIR_MODE, 509);
             this.columnIndexerQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_COLUMN_INDEXER_QUEUE_CAPACITY, 64);
             this.vectorAggregateQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_VECTOR_AGGREGATE_QUEUE_CAPACITY, 128);
+        this.updatePartitionQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_UPDATE_PARTITION_QUEUE_CAPACITY, 64);
             this.o3CallbackQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_O3_CALLBACK_QUEUE_CAPACITY, 128);
             this.o3PartitionQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_O3_PARTITION_QUEUE_CAPACITY, 128);
             this.o3OpenColumnQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_O3_OPEN_COLUMN_QUEUE_CAPACITY, 128);
@@ -957,6 +998,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.o3MaxLag = getLong(properties, env, PropertyKey.CAIRO_O3_MAX_LAG, o3MaxLag) * 1_000;
 
             this.o3QuickSortEnabled = getBoolean(properties, env, PropertyKey.CAIRO_O3_QUICKSORT_ENABLED, false);
+            this.o3IOURingEnabled = getBoolean(properties, env, PropertyKey.CAIRO_O3_IO_URING_ENABLED, false);
             this.rndFunctionMemoryPageSize = Numbers.ceilPow2(getIntSize(properties, env, PropertyKey.CAIRO_RND_MEMORY_PAGE_SIZE, 8192));
             this.rndFunctionMemoryMaxPages = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_RND_MEMORY_MAX_PAGES, 128));
             this.sqlStrFunctionBufferMaxSize = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_SQL_STR_FUNCTION_BUFFER_MAX_SIZE, Numbers.SIZE_1MB));
@@ -990,6 +1032,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.lineUdpMsgBufferSize = getIntSize(properties, env, PropertyKey.LINE_UDP_MSG_BUFFER_SIZE, 2048);
             this.lineUdpMsgCount = getInt(properties, env, PropertyKey.LINE_UDP_MSG_COUNT, 10_000);
             this.lineUdpReceiveBufferSize = getIntSize(properties, env, PropertyKey.LINE_UDP_RECEIVE_BUFFER_SIZE, 8 * Numbers.SIZE_1MB);
+            this.lineUdpSocketCount = getInt(properties, env, PropertyKey.LINE_UDP_SOCKET_COUNT, 1);
             this.lineUdpEnabled = getBoolean(properties, env, PropertyKey.LINE_UDP_ENABLED, false);
             this.lineUdpOwnThreadAffinity = getInt(properties, env, PropertyKey.LINE_UDP_OWN_THREAD_AFFINITY, -1);
             this.lineUdpOwnThread = getBoolean(properties, env, PropertyKey.LINE_UDP_OWN_THREAD, false);
@@ -1003,6 +1046,34 @@ public class PropServerConfiguration implements ServerConfiguration {
                 this.lineUdpDefaultPartitionBy = PartitionBy.DAY;
             }
 
+            final String replicationRoleProperty = getString(properties, env, PropertyKey.REPLICATION_ROLE, "none");
+            switch (replicationRoleProperty) {
+                case "none":
+                    this.replicationRole = ReplicationConfiguration.ROLE_NONE;
+                    break;
+                case "primary":
+                    this.replicationRole = ReplicationConfiguration.ROLE_PRIMARY;
+                    break;
+                case "replica":
+                    this.replicationRole = ReplicationConfiguration.ROLE_REPLICA;
+                    break;
+                default:
+                    throw ServerConfigurationException.forInvalidKey(PropertyKey.REPLICATION_ROLE.getPropertyPath(), replicationRoleProperty);
+            }
+            parseBindTo(properties, env, PropertyKey.REPLICATION_BIND_TO, "0.0.0.0:9100", (a, p) -> {
+                this.replicationBindIPv4Address = a;
+                this.replicationBindPort = p;
+            });
+            parseBindTo(properties, env, PropertyKey.REPLICATION_PRIMARY, "127.0.0.1:9100", (a, p) -> {
+                this.replicationPrimaryIPv4Address = a;
+                this.replicationPrimaryPort = p;
+            });
+            this.replicationBufferSize = getIntSize(properties, env, PropertyKey.REPLICATION_BUFFER_SIZE, Numbers.SIZE_1MB);
+            this.replicationPollInterval = getLong(properties, env, PropertyKey.REPLICATION_POLL_INTERVAL, 1000);
+            this.replicationRetentionTimeout = getLong(properties, env, PropertyKey.REPLICATION_RETENTION_TIMEOUT, 600_000);
+            this.replicationTimeout = getLong(properties, env, PropertyKey.REPLICATION_TIMEOUT, 30_000);
+
+            this.lineHttpEnabled = getBoolean(properties, env, PropertyKey.LINE_HTTP_ENABLED, true);
             this.lineTcpEnabled = getBoolean(properties, env, PropertyKey.LINE_TCP_ENABLED, true);
             if (lineTcpEnabled) {
                 // obsolete
@@ -1029,11 +1100,13 @@ public class PropServerConfiguration implements ServerConfiguration {
                 this.lineTcpConnectionPoolInitialCapacity = getInt(properties, env, PropertyKey.LINE_TCP_CONNECTION_POOL_CAPACITY, 8);
                 this.lineTcpTimestampAdapter = getLineTimestampAdaptor(properties, env, PropertyKey.LINE_TCP_TIMESTAMP);
                 this.lineTcpMsgBufferSize = getIntSize(properties, env, PropertyKey.LINE_TCP_MSG_BUFFER_SIZE, 32768);
+                this.lineTcpParallelParseChunkSize = getIntSize(properties, env, PropertyKey.LINE_TCP_PARALLEL_PARSE_CHUNK_SIZE, 0);
                 this.lineTcpMaxMeasurementSize = getIntSize(properties, env, PropertyKey.LINE_TCP_MAX_MEASUREMENT_SIZE, 32768);
                 if (lineTcpMaxMeasurementSize > lineTcpMsgBufferSize) {
                     lineTcpMsgBufferSize = lineTcpMaxMeasurementSize;
                 }
                 this.lineTcpWriterQueueCapacity = getQueueCapacity(properties, env, PropertyKey.LINE_TCP_WRITER_QUEUE_CAPACITY, 128);
+                this.lineTcpWriterQueueTableBudget = getInt(properties, env, PropertyKey.LINE_TCP_WRITER_QUEUE_TABLE_BUDGET, 0);
                 this.lineTcpWriterWorkerCount = getInt(properties, env, PropertyKey.LINE_TCP_WRITER_WORKER_COUNT, 1);
                 cpuUsed += this.lineTcpWriterWorkerCount;
                 this.lineTcpWriterWorkerAffinity = getAffinity(properties, env, PropertyKey.LINE_TCP_WRITER_WORKER_AFFINITY, lineTcpWriterWorkerCount);
@@ -1057,6 +1130,8 @@ public class PropServerConfiguration implements ServerConfiguration {
                 this.lineTcpIOWorkerYieldThreshold = getLong(properties, env, PropertyKey.LINE_TCP_IO_WORKER_YIELD_THRESHOLD, 10);
                 this.lineTcpIOWorkerSleepThreshold = getLong(properties, env, PropertyKey.LINE_TCP_IO_WORKER_SLEEP_THRESHOLD, 10_000);
                 this.lineTcpMaintenanceInterval = getLong(properties, env, PropertyKey.LINE_TCP_MAINTENANCE_JOB_INTERVAL, 1000);
+                this.lineTcpMaxLoadRatio = getDouble(properties, env, PropertyKey.LINE_TCP_MAX_LOAD_RATIO, 1.9);
+                this.lineTcpNUpdatesPerLoadRebalance = getInt(properties, env, PropertyKey.LINE_TCP_N_UPDATES_PER_LOAD_REBALANCE, 10_000);
                 this.lineTcpCommitIntervalFraction = getDouble(properties, env, PropertyKey.LINE_TCP_COMMIT_INTERVAL_FRACTION, 0.5);
                 this.lineTcpCommitIntervalDefault = getLong(properties, env, PropertyKey.LINE_TCP_COMMIT_INTERVAL_DEFAULT, COMMIT_INTERVAL_DEFAULT);
                 if (this.lineTcpCommitIntervalDefault < 1L) {
@@ -1187,6 +1262,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         return pgWireConfiguration;
     }
 
+    @Override
+    public ReplicationConfiguration getReplicationConfiguration() {
+        return replicationConfiguration;
+    }
+
     @Override
     public WorkerPoolConfiguration getWalApplyPoolConfiguration() {
         return walApplyPoolConfiguration;
@@ -2147,6 +2227,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlCharacterStoreSequencePoolCapacity;
         }
 
+        @Override
+        public long getSqlColdPartitionAge() {
+            return sqlColdPartitionAge;
+        }
+
         @Override
         public int getSqlColumnPoolCapacity() {
             return sqlColumnPoolCapacity;
@@ -2372,6 +2457,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlStrFunctionBufferMaxSize;
         }
 
+        @Override
+        public int getSymbolCapacityAutoScaleFactor() {
+            return symbolCapacityAutoScaleFactor;
+        }
+
         @Override
         public CharSequence getSystemTableNamePrefix() {
             return systemTableNamePrefix;
@@ -2401,6 +2491,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlTxnScoreboardEntryCount;
         }
 
+        @Override
+        public int getUpdatePartitionQueueCapacity() {
+            return updatePartitionQueueCapacity;
+        }
+
         @Override
         public int getVectorAggregateQueueCapacity() {
             return vectorAggregateQueueCapacity;
@@ -2416,6 +2511,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyLookAheadTransactionCount;
         }
 
+        @Override
+        public String getWalApplyPriorityTables() {
+            return walApplyPriorityTables;
+        }
+
         @Override
         public long getWalApplyTableTimeQuota() {
             return walApplyTableTimeQuota;
@@ -2431,26 +2531,61 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walEnabledDefault;
         }
 
+        @Override
+        public int getWalPurgeDeleteLimit() {
+            return walPurgeDeleteLimit;
+        }
+
         @Override
         public long getWalPurgeInterval() {
             return walPurgeInterval;
         }
 
+        @Override
+        public int getWalPurgeWorkerCount() {
+            return walPurgeWorkerCount;
+        }
+
         @Override
         public int getWalRecreateDistressedSequencerAttempts() {
             return walRecreateDistressedSequencerAttempts;
         }
 
+        @Override
+        public long getWalRetentionAge() {
+            return walRetentionAge;
+        }
+
+        @Override
+        public long getWalRetentionSize() {
+            return walRetentionSize;
+        }
+
+        @Override
+        public long getWalSegmentRolloverAge() {
+            return walSegmentRolloverAge;
+        }
+
         @Override
         public long getWalSegmentRolloverRowCount() {
             return walSegmentRolloverRowCount;
         }
 
+        @Override
+        public long getWalSegmentRolloverSize() {
+            return walSegmentRolloverSize;
+        }
+
         @Override
         public double getWalSquashUncommittedRowsMultiplier() {
             return walSquashUncommittedRowsMultiplier;
         }
 
+        @Override
+        public int getWalTxnLogChunkSize() {
+            return walTxnLogChunkSize;
+        }
+
         @Override
         public int getWalTxnNotificationQueueCapacity() {
             return walTxnNotificationQueueCapacity;
@@ -2501,6 +2636,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return ioURingEnabled;
         }
 
+        @Override
+        public boolean isO3IOURingEnabled() {
+            return o3IOURingEnabled;
+        }
+
         @Override
         public boolean isO3QuickSortEnabled() {
             return o3QuickSortEnabled;
@@ -2893,6 +3033,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return jsonQueryProcessorConfiguration;
         }
 
+        @Override
+        public LineTcpReceiverConfiguration getLineHttpProcessorConfiguration() {
+            return lineTcpReceiverConfiguration;
+        }
+
         @Override
         public String getPoolName() {
             return "http";
@@ -2953,6 +3098,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return httpServerEnabled;
         }
 
+        @Override
+        public boolean isLineHttpEnabled() {
+            return lineHttpEnabled;
+        }
+
         @Override
         public boolean isPessimisticHealthCheckEnabled() {
             return httpPessimisticHealthCheckEnabled;
@@ -3128,6 +3278,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return maxFileNameLength;
         }
 
+        @Override
+        public double getMaxLoadRatio() {
+            return lineTcpMaxLoadRatio;
+        }
+
         @Override
         public int getMaxMeasurementSize() {
             return lineTcpMaxMeasurementSize;
@@ -3153,6 +3308,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return NetworkFacadeImpl.INSTANCE;
         }
 
+        @Override
+        public int getNUpdatesPerLoadRebalance() {
+            return lineTcpNUpdatesPerLoadRebalance;
+        }
+
+        @Override
+        public int getParallelParseChunkSize() {
+            return lineTcpParallelParseChunkSize;
+        }
+
         @Override
         public long getSymbolCacheWaitUsBeforeReload() {
             return symbolCacheWaitUsBeforeReload;
@@ -3173,6 +3338,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return lineTcpWriterQueueCapacity;
         }
 
+        @Override
+        public int getWriterQueueTableBudget() {
+            return lineTcpWriterQueueTableBudget;
+        }
+
         @Override
         public WorkerPoolConfiguration getWriterWorkerPoolConfiguration() {
             return lineTcpWriterWorkerPoolConfiguration;
@@ -3400,6 +3570,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return lineUdpReceiveBufferSize;
         }
 
+        @Override
+        public int getSocketCount() {
+            return lineUdpSocketCount;
+        }
+
         @Override
         public LineProtoTimestampAdapter getTimestampAdapter() {
             return lineUdpTimestampAdapter;
@@ -3725,6 +3900,138 @@ public class PropServerConfiguration implements ServerConfiguration {
         }
     }
 
+    private class PropReplicationConfiguration implements ReplicationConfiguration {
+
+        @Override
+        public int getBufferSize() {
+            return replicationBufferSize;
+        }
+
+        @Override
+        public IODispatcherConfiguration getDispatcherConfiguration() {
+            return replicationDispatcherConfiguration;
+        }
+
+        @Override
+        public NetworkFacade getNetworkFacade() {
+            return NetworkFacadeImpl.INSTANCE;
+        }
+
+        @Override
+        public long getPollInterval() {
+            return replicationPollInterval;
+        }
+
+        @Override
+        public int getPrimaryIPv4Address() {
+            return replicationPrimaryIPv4Address;
+        }
+
+        @Override
+        public int getPrimaryPort() {
+            return replicationPrimaryPort;
+        }
+
+        @Override
+        public long getRetentionTimeout() {
+            return replicationRetentionTimeout;
+        }
+
+        @Override
+        public int getRole() {
+            return replicationRole;
+        }
+
+        @Override
+        public long getTimeout() {
+            return replicationTimeout;
+        }
+    }
+
+    private class PropReplicationDispatcherConfiguration implements IODispatcherConfiguration {
+
+        @Override
+        public int getBindIPv4Address() {
+            return replicationBindIPv4Address;
+        }
+
+        @Override
+        public int getBindPort() {
+            return replicationBindPort;
+        }
+
+        @Override
+        public MillisecondClock getClock() {
+            return MillisecondClockImpl.INSTANCE;
+        }
+
+        @Override
+        public String getDispatcherLogName() {
+            return "replication-server";
+        }
+
+        @Override
+        public EpollFacade getEpollFacade() {
+            return EpollFacadeImpl.INSTANCE;
+        }
+
+        @Override
+        public long getHeartbeatInterval() {
+            return -1L;
+        }
+
+        @Override
+        public int getInitialBias() {
+            return BIAS_READ;
+        }
+
+        @Override
+        public KqueueFacade getKqueueFacade() {
+            return KqueueFacadeImpl.INSTANCE;
+        }
+
+        @Override
+        public int getLimit() {
+            // a handful of replicas is expected
+            return 16;
+        }
+
+        @Override
+        public NetworkFacade getNetworkFacade() {
+            return NetworkFacadeImpl.INSTANCE;
+        }
+
+        @Override
+        public long getQueueTimeout() {
+            return replicationTimeout;
+        }
+
+        @Override
+        public int getRcvBufSize() {
+            return -1;
+        }
+
+        @Override
+        public SelectFacade getSelectFacade() {
+            return SelectFacadeImpl.INSTANCE;
+        }
+
+        @Override
+        public int getSndBufSize() {
+            return -1;
+        }
+
+        @Override
+        public int getTestConnectionBufferSize() {
+            return netTestConnectionBufferSize;
+        }
+
+        @Override
+        public long getTimeout() {
+            return replicationTimeout;
+        }
+    }
+
     private class PropSqlExecutionCircuitBreakerConfiguration implements SqlExecutionCircuitBreakerConfiguration {
 
         @Override
@@ -47,6 +47,7 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_DEFAULT_MAP_TYPE("cairo.default.map.type"),
     CAIRO_DEFAULT_SYMBOL_CACHE_FLAG("cairo.default.symbol.cache.flag"),
     CAIRO_DEFAULT_SYMBOL_CAPACITY("cairo.default.symbol.capacity"),
+    CAIRO_SYMBOL_CAPACITY_AUTO_SCALE_FACTOR("cairo.symbol.capacity.auto.scale.factor"),
     CAIRO_FILE_OPERATION_RETRY_COUNT("cairo.file.operation.retry.count"),
     CAIRO_IDLE_CHECK_INTERVAL("cairo.idle.check.interval"),
     CAIRO_INACTIVE_READER_MAX_OPEN_PARTITIONS("cairo.inactive.reader.max.open.partitions"),
@@ -60,6 +61,7 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_CHARACTER_STORE_CAPACITY("cairo.character.store.capacity"),
     CAIRO_CHARACTER_STORE_SEQUENCE_POOL_CAPACITY("cairo.character.store.sequence.pool.capacity"),
     CAIRO_COLUMN_POOL_CAPACITY("cairo.column.pool.capacity"),
+    CAIRO_SQL_COLD_PARTITION_AGE("cairo.sql.cold.partition.age"),
     CAIRO_COMPACT_MAP_LOAD_FACTOR("cairo.compact.map.load.factor"),
     CAIRO_EXPRESSION_POOL_CAPACITY("cairo.expression.pool.capacity"),
     CAIRO_FAST_MAP_LOAD_FACTOR("cairo.fast.map.load.factor"),
@@ -143,6 +145,7 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_SQL_BACKUP_MKDIR_MODE("cairo.sql.backup.mkdir.mode"),
     CAIRO_COLUMN_INDEXER_QUEUE_CAPACITY("cairo.column.indexer.queue.capacity"),
     CAIRO_VECTOR_AGGREGATE_QUEUE_CAPACITY("cairo.vector.aggregate.queue.capacity"),
+    CAIRO_UPDATE_PARTITION_QUEUE_CAPACITY("cairo.update.partition.queue.capacity"),
     CAIRO_O3_CALLBACK_QUEUE_CAPACITY("cairo.o3.callback.queue.capacity"),
     CAIRO_O3_PARTITION_QUEUE_CAPACITY("cairo.o3.partition.queue.capacity"),
     CAIRO_O3_OPEN_COLUMN_QUEUE_CAPACITY("cairo.o3.open.column.queue.capacity"),
@@ -155,6 +158,7 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_COMMIT_LAG("cairo.commit.lag"),
     CAIRO_O3_MAX_LAG("cairo.o3.max.lag"),
     CAIRO_O3_QUICKSORT_ENABLED("cairo.o3.quicksort.enabled"),
+    CAIRO_O3_IO_URING_ENABLED("cairo.o3.io.uring.enabled"),
     CAIRO_RND_MEMORY_PAGE_SIZE("cairo.rnd.memory.page.size"),
     CAIRO_RND_MEMORY_MAX_PAGES("cairo.rnd.memory.max.pages"),
     CAIRO_REPLACE_BUFFER_MAX_SIZE("cairo.replace.buffer.max.size"),
@@ -262,12 +266,14 @@ public enum PropertyKey implements ConfigProperty {
     LINE_UDP_MSG_BUFFER_SIZE("line.udp.msg.buffer.size"),
     LINE_UDP_MSG_COUNT("line.udp.msg.count"),
     LINE_UDP_RECEIVE_BUFFER_SIZE("line.udp.receive.buffer.size"),
+    LINE_UDP_SOCKET_COUNT("line.udp.socket.count"),
     LINE_UDP_ENABLED("line.udp.enabled"),
     LINE_UDP_OWN_THREAD_AFFINITY("line.udp.own.thread.affinity"),
     LINE_UDP_OWN_THREAD("line.udp.own.thread"),
     LINE_UDP_UNICAST("line.udp.unicast"),
     LINE_UDP_COMMIT_MODE("line.udp.commit.mode"),
     LINE_UDP_TIMESTAMP("line.udp.timestamp"),
+    LINE_HTTP_ENABLED("line.http.enabled"),
     LINE_TCP_ENABLED("line.tcp.enabled"),
     LINE_TCP_NET_ACTIVE_CONNECTION_LIMIT("line.tcp.net.active.connection.limit"),
     LINE_TCP_NET_CONNECTION_LIMIT("line.tcp.net.connection.limit"),
@@ -284,7 +290,9 @@ public enum PropertyKey implements ConfigProperty {
     LINE_TCP_TIMESTAMP("line.tcp.timestamp"),
     LINE_TCP_MSG_BUFFER_SIZE("line.tcp.msg.buffer.size"),
     LINE_TCP_MAX_MEASUREMENT_SIZE("line.tcp.max.measurement.size"),
+    LINE_TCP_PARALLEL_PARSE_CHUNK_SIZE("line.tcp.parallel.parse.chunk.size"),
     LINE_TCP_WRITER_QUEUE_CAPACITY("line.tcp.writer.queue.capacity"),
+    LINE_TCP_WRITER_QUEUE_TABLE_BUDGET("line.tcp.writer.queue.table.budget"),
     LINE_TCP_WRITER_WORKER_COUNT("line.tcp.writer.worker.count"),
     LINE_TCP_WRITER_WORKER_AFFINITY("line.tcp.writer.worker.affinity"),
     LINE_TCP_WRITER_HALT_ON_ERROR("line.tcp.writer.halt.on.error"),
@@ -297,6 +305,8 @@ public enum PropertyKey implements ConfigProperty {
     LINE_TCP_IO_WORKER_YIELD_THRESHOLD("line.tcp.io.worker.yield.threshold"),
     LINE_TCP_IO_WORKER_SLEEP_THRESHOLD("line.tcp.io.worker.sleep.threshold"),
     LINE_TCP_MAINTENANCE_JOB_INTERVAL("line.tcp.maintenance.job.interval"),
+    LINE_TCP_MAX_LOAD_RATIO("line.tcp.max.load.ratio"),
+    LINE_TCP_N_UPDATES_PER_LOAD_REBALANCE("line.tcp.n.updates.per.load.balance"),
     LINE_TCP_COMMIT_INTERVAL_FRACTION("line.tcp.commit.interval.fraction"),
     LINE_TCP_COMMIT_INTERVAL_DEFAULT("line.tcp.commit.interval.default"),
     LINE_TCP_AUTH_DB_PATH("line.tcp.auth.db.path"),
@@ -381,7 +391,13 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_SIMULATE_CRASH_ENABLED("cairo.enable.crash.simulation"),
     CAIRO_WAL_ENABLED_DEFAULT("cairo.wal.enabled.default"),
     CAIRO_WAL_PURGE_INTERVAL("cairo.wal.purge.interval"),
+    CAIRO_WAL_PURGE_DELETE_LIMIT("cairo.wal.purge.delete.limit"),
+    CAIRO_WAL_PURGE_WORKER_COUNT("cairo.wal.purge.worker.count"),
+    CAIRO_WAL_RETENTION_AGE("cairo.wal.retention.age"),
+    CAIRO_WAL_RETENTION_SIZE("cairo.wal.retention.size"),
     CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT("cairo.wal.segment.rollover.row.count"),
+    CAIRO_WAL_SEGMENT_ROLLOVER_AGE("cairo.wal.segment.rollover.age"),
+    CAIRO_WAL_SEGMENT_ROLLOVER_SIZE("cairo.wal.segment.rollover.size"),
     CAIRO_WAL_WRITER_DATA_APPEND_PAGE_SIZE("cairo.wal.writer.data.append.page.size"),
     WAL_APPLY_WORKER_COUNT("wal.apply.worker.count"),
     WAL_APPLY_WORKER_AFFINITY("wal.apply.worker.affinity"),
@@ -398,7 +414,16 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_WAL_SQUASH_UNCOMMITTED_ROWS_MULTIPLIER("cairo.wal.squash.uncommitted.rows.multiplier"),
     CAIRO_WAL_APPLY_TABLE_TIME_QUOTA("cairo.wal.apply.table.time.quota"),
     CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT("cairo.wal.apply.look.ahead.txn.count"),
+    CAIRO_WAL_APPLY_PRIORITY_TABLES("cairo.wal.apply.priority.tables"),
+    CAIRO_WAL_TXN_LOG_CHUNK_SIZE("cairo.wal.txn.log.chunk.size"),
     READ_ONLY_INSTANCE("readonly"),
+    REPLICATION_ROLE("replication.role"),
+    REPLICATION_BIND_TO("replication.bind.to"),
+    REPLICATION_PRIMARY("replication.primary"),
+    REPLICATION_BUFFER_SIZE("replication.buffer.size"),
+    REPLICATION_POLL_INTERVAL("replication.poll.interval"),
+    REPLICATION_TIMEOUT("replication.timeout"),
+    REPLICATION_RETENTION_TIMEOUT("replication.retention.timeout"),
     CAIRO_TABLE_REGISTRY_AUTO_RELOAD_FREQUENCY("cairo.table.registry.auto.reload.frequency"),
     CAIRO_TABLE_REGISTRY_COMPACTION_THRESHOLD("cairo.table.registry.compaction.threshold"),
     CAIRO_REPEAT_MIGRATION_FROM_VERSION("cairo.repeat.migration.from.version"),
@@ -39,6 +39,9 @@ import io.questdb.cutlass.auth.DefaultAuthenticatorFactory;
 import io.questdb.cutlass.auth.EllipticCurveAuthenticatorFactory;
 import io.questdb.cutlass.http.HttpContextConfiguration;
 import io.questdb.cutlass.pgwire.*;
+import io.questdb.cutlass.replication.ReplicationClient;
+import io.questdb.cutlass.replication.ReplicationConfiguration;
+import io.questdb.cutlass.replication.ReplicationServer;
 import io.questdb.cutlass.text.CopyJob;
 import io.questdb.cutlass.text.CopyRequestJob;
 import io.questdb.griffin.DatabaseSnapshotAgent;
@@ -94,6 +97,15 @@ public class ServerMain implements Closeable {
         // snapshots
         final DatabaseSnapshotAgent snapshotAgent = freeOnExit(new DatabaseSnapshotAgent(engine));
 
+        // replication
+        final ReplicationConfiguration replicationConfig = config.getReplicationConfiguration();
+        final ReplicationClient replicationClient;
+        if (replicationConfig.getRole() == ReplicationConfiguration.ROLE_REPLICA) {
+            replicationClient = freeOnExit(new ReplicationClient(replicationConfig, engine));
+        } else {
+            replicationClient = null;
+        }
+
         // create the worker pool manager, and configure the shared pool
         final boolean walSupported = config.getCairoConfiguration().isWalSupported();
         final boolean isReadOnly = config.getCairoConfiguration().isReadOnlyInstance();
@@ -122,9 +134,23 @@ public class ServerMain implements Closeable {
                             sharedPool.assign(new CheckWalTransactionsJob(engine));
                             final WalPurgeJob walPurgeJob = new WalPurgeJob(engine);
                             snapshotAgent.setWalPurgeJobRunLock(walPurgeJob.getRunLock());
+                            if (replicationClient != null) {
+                                replicationClient.setWalPurgeJobRunLock(walPurgeJob.getRunLock());
+                                sharedPool.assign(replicationClient);
+                            }
                             walPurgeJob.delayByHalfInterval();
                             sharedPool.assign(walPurgeJob);
                             sharedPool.freeOnExit(walPurgeJob);
+                            // the purge job itself sweeps tables too, helpers are the extra threads
+                            final int walPurgeHelperCount = Math.min(
+                                    cairoConfig.getWalPurgeWorkerCount(),
+                                    sharedPool.getWorkerCount()
+                            ) - 1;
+                            for (int i = 0; i < walPurgeHelperCount; i++) {
+                                final WalPurgeJob.HelperJob helperJob = walPurgeJob.newHelperJob();
+                                sharedPool.assign(i, helperJob);
+                                sharedPool.freeOnExit(helperJob);
+                            }
 
                             if (walApplyEnabled && !config.getWalApplyPoolConfiguration().isEnabled()) {
                                 setupWalApplyJob(sharedPool, engine, getSharedWorkerCount(), ffCache);
@@ -145,8 +171,8 @@ public class ServerMain implements Closeable {
                         }
                     }
 
-                    // telemetry
-                    if (!cairoConfig.getTelemetryConfiguration().getDisableCompletely()) {
+                    // telemetry, replica does not write tables of its own
+                    if (!cairoConfig.getTelemetryConfiguration().getDisableCompletely() && replicationClient == null) {
                         final TelemetryJob telemetryJob = new TelemetryJob(engine, ffCache);
                         freeOnExitList.add(telemetryJob);
                         if (cairoConfig.getTelemetryConfiguration().getEnabled()) {
@@ -168,6 +194,12 @@ public class ServerMain implements Closeable {
             setupWalApplyJob(walApplyWorkerPool, engine, workerPoolManager.getSharedWorkerCount(), ffCache);
         }
 
+        if (replicationConfig.getRole() == ReplicationConfiguration.ROLE_PRIMARY) {
+            final ReplicationServer replicationServer = freeOnExit(new ReplicationServer(replicationConfig, engine, workerPoolManager.getSharedPool()));
+            // keeps WAL segments until replicas have fetched them
+            engine.addWalRetention(replicationServer);
+        }
+
         // http
         freeOnExit(Services.createHttpServer(
                 config.getHttpServerConfiguration(),
@@ -196,10 +228,11 @@ public class ServerMain implements Closeable {
                 metrics
         ));
 
-        if (!isReadOnly) {
+        if (!isReadOnly && replicationClient == null) {
             // ilp/tcp
             freeOnExit(Services.createLineTcpReceiver(
                     config.getLineTcpReceiverConfiguration(),
+                    config.getLineUdpReceiverConfiguration(),
                     engine,
                     workerPoolManager,
                     metrics
@@ -208,6 +241,7 @@ public class ServerMain implements Closeable {
             // ilp/udp
             freeOnExit(Services.createLineUdpReceiver(
                     config.getLineUdpReceiverConfiguration(),
+                    config.getLineTcpReceiverConfiguration(),
                     engine,
                     workerPoolManager
             ));
@@ -238,7 +272,8 @@ public class ServerMain implements Closeable {
     }
 
     public static SecurityContextFactory getSecurityContextFactory(ServerConfiguration configuration) {
-        boolean readOnlyInstance = configuration.getCairoConfiguration().isReadOnlyInstance();
+        boolean readOnlyInstance = configuration.getCairoConfiguration().isReadOnlyInstance()
+                || configuration.getReplicationConfiguration().getRole() == ReplicationConfiguration.ROLE_REPLICA;
         if (readOnlyInstance) {
             return ReadOnlySecurityContextFactory.INSTANCE;
         } else {
@@ -134,6 +134,7 @@ public abstract class WorkerPoolManager {
         PG_WIRE_SERVER("pg-wire"),
         LINE_TCP_IO("line-tcp-io"),
         LINE_TCP_WRITER("line-tcp-writer"),
+        LINE_UDP_IO("line-udp-io"),
         OTHER("other"),
         WAL_APPLY("wal-apply");
 
@@ -310,6 +310,8 @@ public interface CairoConfiguration {
 
     int getSqlCharacterStoreSequencePoolCapacity();
 
+    long getSqlColdPartitionAge();
+
     int getSqlColumnPoolCapacity();
 
     double getSqlCompactMapLoadFactor();
@@ -406,6 +408,8 @@ public interface CairoConfiguration {
 
     int getStrFunctionMaxBufferLength();
 
+    int getSymbolCapacityAutoScaleFactor();
+
     CharSequence getSystemTableNamePrefix();
 
     long getTableRegistryAutoReloadFrequency();
@@ -418,26 +422,44 @@ public interface CairoConfiguration {
 
     int getTxnScoreboardEntryCount();
 
+    int getUpdatePartitionQueueCapacity();
+
     int getVectorAggregateQueueCapacity();
 
     VolumeDefinitions getVolumeDefinitions();
 
     int getWalApplyLookAheadTransactionCount();
 
+    String getWalApplyPriorityTables();
+
     long getWalApplyTableTimeQuota();
 
     long getWalDataAppendPageSize();
 
     boolean getWalEnabledDefault();
 
+    int getWalPurgeDeleteLimit();
+
     long getWalPurgeInterval();
 
+    int getWalPurgeWorkerCount();
+
     int getWalRecreateDistressedSequencerAttempts();
 
+    long getWalRetentionAge();
+
+    long getWalRetentionSize();
+
+    long getWalSegmentRolloverAge();
+
     long getWalSegmentRolloverRowCount();
 
+    long getWalSegmentRolloverSize();
+
     double getWalSquashUncommittedRowsMultiplier();
 
+    int getWalTxnLogChunkSize();
+
     int getWalTxnNotificationQueueCapacity();
 
     int getWithClauseModelPoolCapacity();
@@ -458,6 +480,8 @@ public interface CairoConfiguration {
 
     boolean isIOURingEnabled();
 
+    boolean isO3IOURingEnabled();
+
     boolean isO3QuickSortEnabled();
 
     boolean isParallelIndexingEnabled();
@@ -34,7 +34,9 @@ import io.questdb.cairo.sql.AsyncWriterCommand;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
 import io.questdb.cairo.vm.api.MemoryMARW;
+import io.questdb.cairo.wal.WalApplyScheduler;
 import io.questdb.cairo.wal.WalReader;
+import io.questdb.cairo.wal.WalRetention;
 import io.questdb.cairo.wal.WalWriter;
 import io.questdb.cairo.wal.seq.TableSequencerAPI;
 import io.questdb.cutlass.text.CopyContext;
@@ -73,6 +75,7 @@ public class CairoEngine implements Closeable, WriterSource {
     private final MessageBusImpl messageBus;
     private final MetadataPool metadataPool;
     private final Metrics metrics;
+    private final PartitionScanCounter partitionScanCounter = new PartitionScanCounter();
     private final ReaderPool readerPool;
     private final IDGenerator tableIdGenerator;
     private final TableNameRegistry tableNameRegistry;
@@ -81,8 +84,12 @@ public class CairoEngine implements Closeable, WriterSource {
     private final Telemetry<TelemetryWalTask> telemetryWal;
     // initial value of unpublishedWalTxnCount is 1 because we want to scan for non-applied WAL transactions on startup
     private final AtomicLong unpublishedWalTxnCount = new AtomicLong(1);
+    private final WalApplyScheduler walApplyScheduler;
     private final WalWriterPool walWriterPool;
     private final WriterPool writerPool;
+    // replica accepts writes from replication only
+    private volatile boolean replica;
+    private volatile ObjList<WalRetention> walRetentions = new ObjList<>();
 
     // Kept for embedded API purposes. The second constructor (the one with metrics)
     // should be preferred for internal use.
@@ -104,6 +111,7 @@ public class CairoEngine implements Closeable, WriterSource {
         this.readerPool = new ReaderPool(configuration, messageBus);
         this.metadataPool = new MetadataPool(configuration, this);
         this.walWriterPool = new WalWriterPool(configuration, this);
+        this.walApplyScheduler = new WalApplyScheduler(configuration);
         this.engineMaintenanceJob = new EngineMaintenanceJob(configuration);
         this.telemetry = new Telemetry<>(TelemetryTask.TELEMETRY, configuration);
         this.telemetryWal = new Telemetry<>(TelemetryWalTask.WAL_TELEMETRY, configuration);
@@ -157,6 +165,16 @@ public class CairoEngine implements Closeable, WriterSource {
         }
     }
 
+    /**
+     * Registers a consumer of applied WAL segments. WalPurgeJob keeps the segments
+     * until all registered consumers allow purging them.
+     */
+    public synchronized void addWalRetention(WalRetention walRetention) {
+        final ObjList<WalRetention> retentions = new ObjList<>(walRetentions);
+        retentions.add(walRetention);
+        walRetentions = retentions;
+    }
+
     @TestOnly
     public boolean clear() {
         boolean b1 = readerPool.releaseAll();
@@ -165,6 +183,7 @@ public class CairoEngine implements Closeable, WriterSource {
         boolean b4 = metadataPool.releaseAll();
         boolean b5 = walWriterPool.releaseAll();
         messageBus.reset();
+        walApplyScheduler.clear();
         return b1 & b2 & b3 & b4 & b5;
     }
 
@@ -196,6 +215,7 @@ public class CairoEngine implements Closeable, WriterSource {
             boolean keepLock
     ) {
         securityContext.authorizeTableCreate();
+        checkNotReplica();
         final CharSequence tableName = struct.getTableName();
         validNameOrThrow(tableName);
 
@@ -251,6 +271,7 @@ public class CairoEngine implements Closeable, WriterSource {
             boolean keepLock
     ) {
         securityContext.authorizeTableCreate();
+        checkNotReplica();
         final CharSequence tableName = struct.getTableName();
         validNameOrThrow(tableName);
 
@@ -299,6 +320,7 @@ public class CairoEngine implements Closeable, WriterSource {
     }
 
     public void drop(Path path, TableToken tableToken) {
+        checkNotReplica();
         verifyTableToken(tableToken);
         if (tableToken.isWal()) {
             if (tableNameRegistry.dropTable(tableToken)) {
@@ -328,6 +350,16 @@ public class CairoEngine implements Closeable, WriterSource {
         }
     }
 
+    /**
+     * Drops WAL table on a replica, where {@link #drop(Path, TableToken)} is rejected.
+     * The drop is a transaction replicated from the primary.
+     */
+    public void dropReplicatedTable(TableToken tableToken) {
+        if (tableNameRegistry.dropTable(tableToken)) {
+            tableSequencerAPI.dropTable(tableToken, false);
+        }
+    }
+
     public TableWriter getBackupWriter(TableToken tableToken, CharSequence backupDirName) {
         verifyTableToken(tableToken);
         // There is no point in pooling/caching these writers since they are only used once, backups are not incremental
@@ -408,6 +440,10 @@ public class CairoEngine implements Closeable, WriterSource {
     }
 
     @TestOnly
+    public PartitionScanCounter getPartitionScanCounter() {
+        return partitionScanCounter;
+    }
+
     public PoolListener getPoolListener() {
         return this.writerPool.getPoolListener();
     }
@@ -510,6 +546,7 @@ public class CairoEngine implements Closeable, WriterSource {
 
     @Override
     public TableWriterAPI getTableWriterAPI(TableToken tableToken, @Nullable String lockReason) {
+        checkNotReplica();
         verifyTableToken(tableToken);
         if (!tableToken.isWal()) {
             return writerPool.get(tableToken, lockReason);
@@ -538,6 +575,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return tableNameRegistry.getTokenByDirName(tableToken.getDirName());
     }
 
+    public WalApplyScheduler getWalApplyScheduler() {
+        return walApplyScheduler;
+    }
+
     // For testing only
     @TestOnly
     public WalReader getWalReader(
@@ -554,18 +595,30 @@ public class CairoEngine implements Closeable, WriterSource {
         throw CairoException.nonCritical().put("WAL reader is not supported for table ").put(tableToken);
     }
 
+    public long getWalPurgeableSeqTxn(TableToken tableToken, long appliedSeqTxn) {
+        final ObjList<WalRetention> retentions = walRetentions;
+        long seqTxn = appliedSeqTxn;
+        for (int i = 0, n = retentions.size(); i < n; i++) {
+            seqTxn = Math.min(seqTxn, retentions.getQuick(i).getPurgeableSeqTxn(tableToken, appliedSeqTxn));
+        }
+        return seqTxn;
+    }
+
     @TestOnly
     public @NotNull WalWriter getWalWriter(TableToken tableToken) {
+        checkNotReplica();
         verifyTableToken(tableToken);
         return walWriterPool.get(tableToken);
     }
 
     public TableWriter getWriter(TableToken tableToken, String lockReason) {
+        checkNotReplica();
         verifyTableToken(tableToken);
         return writerPool.get(tableToken, lockReason);
     }
 
     public TableWriter getWriterOrPublishCommand(TableToken tableToken, @NotNull AsyncWriterCommand asyncWriterCommand) {
+        checkNotReplica();
         verifyTableToken(tableToken);
         return writerPool.getWriterOrPublishCommand(tableToken, asyncWriterCommand.getCommandName(), asyncWriterCommand);
     }
@@ -574,6 +627,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return writerPool.get(tableToken, lockReason);
     }
 
+    public boolean isReplica() {
+        return replica;
+    }
+
     public boolean isTableDropped(TableToken tableToken) {
         return tableNameRegistry.isTableDropped(tableToken);
     }
@@ -707,6 +764,12 @@ public class CairoEngine implements Closeable, WriterSource {
         }
     }
 
+    public synchronized void removeWalRetention(WalRetention walRetention) {
+        final ObjList<WalRetention> retentions = new ObjList<>(walRetentions);
+        retentions.remove(walRetention);
+        walRetentions = retentions;
+    }
+
     public TableToken rename(
             SecurityContext securityContext,
             Path path,
@@ -715,7 +778,7 @@ public class CairoEngine implements Closeable, WriterSource {
             Path otherPath,
             CharSequence newName
     ) {
-
+        checkNotReplica();
         validNameOrThrow(tableName);
         validNameOrThrow(newName);
 
@@ -767,6 +830,18 @@ public class CairoEngine implements Closeable, WriterSource {
         readerPool.setTableReaderListener(readerListener);
     }
 
+    /**
+     * Marks the engine as a read-only replica. Replica rejects table writers, table creation,
+     * renames and drops, its WAL tables change by replication only.
+     */
+    public void setReplica(boolean replica) {
+        this.replica = replica;
+    }
+
+    public void tickIdleWalWriters() {
+        walWriterPool.tickIdle();
+    }
+
     public void unlock(
             @SuppressWarnings("unused") SecurityContext securityContext,
             TableToken tableToken,
@@ -815,6 +890,12 @@ public class CairoEngine implements Closeable, WriterSource {
     }
 
     // caller has to acquire the lock before this method is called and release the lock after the call
+    private void checkNotReplica() {
+        if (replica) {
+            throw CairoException.nonCritical().put("instance is a read-only replica");
+        }
+    }
+
     private void createTableInVolumeUnsafe(MemoryMARW mem, Path path, TableStructure struct, TableToken tableToken) {
         // only create the table after it has been registered
         TableUtils.createTableInVolume(
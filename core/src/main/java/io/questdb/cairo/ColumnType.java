@@ -77,6 +77,11 @@ public final class ColumnType {    //@formatter:off
     public static final short ARRAY_STRING = REGPROCEDURE + 1;  // = 27;
     public static final short PARAMETER = ARRAY_STRING + 1;     // = 28;
     public static final short NULL = PARAMETER + 1;             // = 29;
+    // UTF-8 encoded string, it behaves as STRING in SQL and is stored in the same layout as BINARY;
+    // its SQL name is UTF8, the varchar keyword is an alias of STRING for PostgreSQL compatibility
+    public static final int VARCHAR = STRING | (1 << 18);
+    // array of doubles, it is stored in the same layout as BINARY with the payload of 8-byte elements
+    public static final int DOUBLE_ARRAY = BINARY | (1 << 18);
     // Overload matrix algo depends on the fact that MAX == NULL
     public static final short MAX = NULL;
     public static final short TYPES_SIZE = MAX + 1;
@@ -189,6 +194,10 @@ public final class ColumnType {    //@formatter:off
         return columnType == DOUBLE;
     }
 
+    public static boolean isDoubleArray(int columnType) {
+        return columnType == DOUBLE_ARRAY;
+    }
+
     public static boolean isGeoHash(int columnType) {
         return (columnType & TYPE_FLAG_GEO_HASH) != 0;
     }
@@ -210,7 +219,7 @@ public final class ColumnType {    //@formatter:off
     }
 
     public static boolean isSymbolOrString(int columnType) {
-        return columnType == SYMBOL || columnType == STRING;
+        return columnType == SYMBOL || columnType == STRING || columnType == VARCHAR;
     }
 
     public static boolean isTimestamp(int columnType) {
@@ -232,8 +241,12 @@ public final class ColumnType {    //@formatter:off
         return columnType == UNDEFINED;
     }
 
+    public static boolean isVarchar(int columnType) {
+        return columnType == VARCHAR;
+    }
+
     public static boolean isVariableLength(int columnType) {
-        return columnType == STRING || columnType == BINARY;
+        return columnType == STRING || columnType == BINARY || columnType == VARCHAR || columnType == DOUBLE_ARRAY;
     }
 
     public static String nameOf(int columnType) {
@@ -282,6 +295,17 @@ public final class ColumnType {    //@formatter:off
         return (short) (type & 0xFF);
     }
 
+    /**
+     * Tag of the on-disk layout of the column. VARCHAR values are stored as length-prefixed
+     * UTF-8 bytes, which is the layout of BINARY, and all other types are stored as their tag.
+     *
+     * @param type column type
+     * @return tag of the column type with the same storage layout
+     */
+    public static short storageTagOf(int type) {
+        return type == VARCHAR ? BINARY : tagOf(type);
+    }
+
     public static short tagOf(CharSequence name) {
         return (short) nameTypeMap.get(name);
     }
@@ -294,7 +318,7 @@ public final class ColumnType {    //@formatter:off
         if (columnType == ColumnType.STRING) {
             return Integer.BYTES;
         }
-        assert columnType == ColumnType.BINARY;
+        assert columnType == ColumnType.BINARY || columnType == ColumnType.VARCHAR || columnType == ColumnType.DOUBLE_ARRAY;
         return Long.BYTES;
     }
 
@@ -327,7 +351,8 @@ public final class ColumnType {    //@formatter:off
                 || (fromType == STRING && toTag == GEOLONG)
                 || (fromType == STRING && toTag == TIMESTAMP)
                 || (fromType == SYMBOL && toTag == TIMESTAMP)
-                || (fromType == STRING && toTag == LONG256);
+                || (fromType == STRING && toTag == LONG256)
+                || (fromType == STRING && toType == DOUBLE_ARRAY);
     }
 
     private static boolean isNarrowingCast(int fromType, int toType) {
@@ -354,7 +379,12 @@ public final class ColumnType {    //@formatter:off
                 || (fromType == SYMBOL && toType == STRING)
                 || (fromType == CHAR && toType == SYMBOL)
                 || (fromType == CHAR && toType == STRING)
-                || (fromType == UUID && toType == STRING);
+                || (fromType == UUID && toType == STRING)
+                || (fromType == STRING && toType == VARCHAR)
+                || (fromType == VARCHAR && toType == STRING)
+                || (fromType == SYMBOL && toType == VARCHAR)
+                || (fromType == CHAR && toType == VARCHAR)
+                || (fromType == UUID && toType == VARCHAR);
     }
 
     private static int mkGeoHashType(int bits, short baseType) {
@@ -392,7 +422,9 @@ public final class ColumnType {    //@formatter:off
         typeNameMap.put(CHAR, "CHAR");
         typeNameMap.put(STRING, "STRING");
         typeNameMap.put(SYMBOL, "SYMBOL");
+        typeNameMap.put(VARCHAR, "UTF8");
         typeNameMap.put(BINARY, "BINARY");
+        typeNameMap.put(DOUBLE_ARRAY, "DOUBLE[]");
         typeNameMap.put(DATE, "DATE");
         typeNameMap.put(PARAMETER, "PARAMETER");
         typeNameMap.put(TIMESTAMP, "TIMESTAMP");
@@ -417,7 +449,9 @@ public final class ColumnType {    //@formatter:off
         nameTypeMap.put("char", CHAR);
         nameTypeMap.put("string", STRING);
         nameTypeMap.put("symbol", SYMBOL);
+        nameTypeMap.put("utf8", VARCHAR);
         nameTypeMap.put("binary", BINARY);
+        nameTypeMap.put("double[]", DOUBLE_ARRAY);
         nameTypeMap.put("date", DATE);
         nameTypeMap.put("parameter", PARAMETER);
         nameTypeMap.put("timestamp", TIMESTAMP);
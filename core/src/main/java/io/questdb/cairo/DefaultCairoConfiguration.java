@@ -559,6 +559,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 64;
     }
 
+    @Override
+    public long getSqlColdPartitionAge() {
+        return 0;
+    }
+
     @Override
     public int getSqlColumnPoolCapacity() {
         return 4096;
@@ -784,6 +789,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024 * 1024;
     }
 
+    @Override
+    public int getSymbolCapacityAutoScaleFactor() {
+        return 4;
+    }
+
     @Override
     public CharSequence getSystemTableNamePrefix() {
         return "__sys";
@@ -814,6 +824,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 8192;
     }
 
+    @Override
+    public int getUpdatePartitionQueueCapacity() {
+        return 64;
+    }
+
     @Override
     public int getVectorAggregateQueueCapacity() {
         return 1024;
@@ -829,6 +844,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 20;
     }
 
+    @Override
+    public String getWalApplyPriorityTables() {
+        return null;
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return 1000L;
@@ -844,26 +864,61 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public int getWalPurgeDeleteLimit() {
+        return 0;
+    }
+
     @Override
     public long getWalPurgeInterval() {
         return 30_000;
     }
 
+    @Override
+    public int getWalPurgeWorkerCount() {
+        return 1;
+    }
+
     @Override
     public int getWalRecreateDistressedSequencerAttempts() {
         return 3;
     }
 
+    @Override
+    public long getWalRetentionAge() {
+        return 0;
+    }
+
+    @Override
+    public long getWalRetentionSize() {
+        return 0;
+    }
+
+    @Override
+    public long getWalSegmentRolloverAge() {
+        return 0;
+    }
+
     @Override
     public long getWalSegmentRolloverRowCount() {
         return 200000;
     }
 
+    @Override
+    public long getWalSegmentRolloverSize() {
+        return 0;
+    }
+
     @Override
     public double getWalSquashUncommittedRowsMultiplier() {
         return 20;
     }
 
+    @Override
+    public int getWalTxnLogChunkSize() {
+        return 0;
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return 4096;
@@ -918,6 +973,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isO3IOURingEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isO3QuickSortEnabled() {
         return false;
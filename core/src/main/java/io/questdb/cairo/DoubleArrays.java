@@ -0,0 +1,210 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.api.MemoryA;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.NumericException;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.fastdouble.FastDoubleParser;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * DOUBLE[] values are stored in the layout of BINARY values: a long header with the size of the payload,
+ * or {@link TableUtils#NULL_LEN} for null, followed by the elements as 8-byte doubles. Elements are
+ * laid out contiguously, so aggregates over a value run on the mapped memory without copying.
+ * <p>
+ * Text form of the value is a comma separated list of elements, optionally enclosed in curly
+ * or square brackets, e.g. <code>{1.5,2,3}</code>.
+ */
+public final class DoubleArrays {
+
+    private DoubleArrays() {
+    }
+
+    /**
+     * Parses text form of the array and appends elements to the data memory of DOUBLE[] column.
+     * Elements are parsed once, straight into the memory. Invalid value rewinds the memory to where
+     * the value started, so the memory is left intact.
+     *
+     * @param mem   data memory of the column
+     * @param value text form of the value, can be null
+     * @return offset of the next value, which is to be appended to the index memory of the column
+     */
+    public static long append(MemoryA mem, @Nullable CharSequence value) {
+        if (value == null) {
+            return mem.putNullBin();
+        }
+        int lo = skipWhitespace(value, 0, value.length());
+        int hi = trimWhitespace(value, lo, value.length());
+        if (hi - lo > 1) {
+            final char first = value.charAt(lo);
+            final char last = value.charAt(hi - 1);
+            if ((first == '{' && last == '}') || (first == '[' && last == ']')) {
+                lo = skipWhitespace(value, lo + 1, hi - 1);
+                hi = trimWhitespace(value, lo, hi - 1);
+            }
+        }
+
+        final long start = mem.getAppendOffset();
+        mem.putLong((long) countElements(value, lo, hi) * Double.BYTES);
+        try {
+            parse(mem, value, lo, hi);
+        } catch (CairoException e) {
+            mem.jumpTo(start);
+            throw e;
+        }
+        return mem.getAppendOffset();
+    }
+
+    /**
+     * Dot product of two arrays. Arrays of different lengths have no dot product.
+     *
+     * @return dot product or NaN when either array is null or lengths differ
+     */
+    public static double dot(@Nullable BinarySequence left, @Nullable BinarySequence right) {
+        if (left == null || right == null || left.length() != right.length()) {
+            return Double.NaN;
+        }
+        final long count = getCount(left);
+        final long leftAddress = left.getAddress();
+        final long rightAddress = right.getAddress();
+        if (leftAddress != 0 && rightAddress != 0) {
+            // four independent accumulators let the loop run without waiting on the previous addition
+            double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+            long i = 0;
+            for (long n = count & ~3L; i < n; i += 4) {
+                final long offset = i << 3;
+                s0 += Unsafe.getUnsafe().getDouble(leftAddress + offset) * Unsafe.getUnsafe().getDouble(rightAddress + offset);
+                s1 += Unsafe.getUnsafe().getDouble(leftAddress + offset + 8) * Unsafe.getUnsafe().getDouble(rightAddress + offset + 8);
+                s2 += Unsafe.getUnsafe().getDouble(leftAddress + offset + 16) * Unsafe.getUnsafe().getDouble(rightAddress + offset + 16);
+                s3 += Unsafe.getUnsafe().getDouble(leftAddress + offset + 24) * Unsafe.getUnsafe().getDouble(rightAddress + offset + 24);
+            }
+            for (; i < count; i++) {
+                s0 += Unsafe.getUnsafe().getDouble(leftAddress + (i << 3)) * Unsafe.getUnsafe().getDouble(rightAddress + (i << 3));
+            }
+            return (s0 + s1) + (s2 + s3);
+        }
+        double sum = 0;
+        for (long i = 0; i < count; i++) {
+            sum += getDouble(left, i) * getDouble(right, i);
+        }
+        return sum;
+    }
+
+    /**
+     * @return number of elements in the array or -1 for null
+     */
+    public static int getCount(@Nullable BinarySequence value) {
+        return value != null ? (int) (value.length() >>> 3) : -1;
+    }
+
+    public static double getDouble(BinarySequence value, long index) {
+        final long address = value.getAddress();
+        if (address != 0) {
+            return Unsafe.getUnsafe().getDouble(address + (index << 3));
+        }
+        long bits = 0;
+        for (int i = 7; i > -1; i--) {
+            bits = (bits << 8) | (value.byteAt((index << 3) + i) & 0xff);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Sum of elements, NaN elements are skipped. Elements in native memory are summed
+     * by the vectorized aggregation routine.
+     *
+     * @return sum of elements or NaN when array is null or has no non-NaN elements
+     */
+    public static double sum(@Nullable BinarySequence value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        final long count = getCount(value);
+        final long address = value.getAddress();
+        if (address != 0) {
+            return Vect.sumDouble(address, count);
+        }
+        double sum = 0;
+        boolean hasData = false;
+        for (long i = 0; i < count; i++) {
+            final double d = getDouble(value, i);
+            if (d == d) {
+                sum += d;
+                hasData = true;
+            }
+        }
+        return hasData ? sum : Double.NaN;
+    }
+
+    private static int countElements(CharSequence value, int lo, int hi) {
+        if (lo == hi) {
+            return 0;
+        }
+        int count = 1;
+        for (int i = lo; i < hi; i++) {
+            if (value.charAt(i) == ',') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void parse(MemoryA mem, CharSequence value, int lo, int hi) {
+        if (lo == hi) {
+            return;
+        }
+        int elementLo = lo;
+        for (int i = lo; i <= hi; i++) {
+            if (i == hi || value.charAt(i) == ',') {
+                final int l = skipWhitespace(value, elementLo, i);
+                final int h = trimWhitespace(value, l, i);
+                try {
+                    mem.putDouble(FastDoubleParser.parseDouble(value, l, h - l, true));
+                } catch (NumericException e) {
+                    throw CairoException.nonCritical().put("invalid DOUBLE[] value [value=").put(value).put(']');
+                }
+                elementLo = i + 1;
+            }
+        }
+    }
+
+    private static int skipWhitespace(CharSequence value, int lo, int hi) {
+        while (lo < hi && Character.isWhitespace(value.charAt(lo))) {
+            lo++;
+        }
+        return lo;
+    }
+
+    private static int trimWhitespace(CharSequence value, int lo, int hi) {
+        while (hi > lo && Character.isWhitespace(value.charAt(hi - 1))) {
+            hi--;
+        }
+        return hi;
+    }
+}
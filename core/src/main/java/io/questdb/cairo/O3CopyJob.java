@@ -99,6 +99,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             long partitionUpdateSinkAddr
     ) {
         final boolean mixedIOFlag = tableWriter.allowMixedIO();
+        final O3IOURingPool ringPool = tableWriter.getO3IOURingPool();
         LOG.debug().$("o3 copy [blockType=").$(blockType)
                 .$(", columnType=").$(columnType)
                 .$(", dstFixFd=").$(dstFixFd)
@@ -158,7 +159,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                             dstVarOffset,
                             dstVarAdjust,
                             dstVarSize,
-                            mixedIOFlag
+                            mixedIOFlag,
+                            ringPool
                     );
                     break;
                 case O3_BLOCK_DATA:
@@ -177,7 +179,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                             dstVarOffset,
                             dstVarAdjust,
                             dstVarSize,
-                            mixedIOFlag
+                            mixedIOFlag,
+                            ringPool
                     );
                     break;
                 default:
@@ -367,9 +370,10 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             long dstVarOffset,
             long dstVarAdjust,
             long dstVarSize,
-            boolean mixedIOFlag
+            boolean mixedIOFlag,
+            @Nullable O3IOURingPool ringPool
     ) {
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.STRING:
             case ColumnType.BINARY:
                 copyVarSizeCol(
@@ -386,7 +390,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstVarOffset,
                         dstVarAdjust,
                         dstVarSize,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             default:
@@ -399,7 +404,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstFixFileOffset,
                         dstFixFd,
                         ColumnType.pow2SizeOf(Math.abs(columnType)),
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
         }
@@ -414,12 +420,13 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             long dstFixFileOffset,
             int dstFd,
             final int shl,
-            boolean mixedIOFlag
+            boolean mixedIOFlag,
+            @Nullable O3IOURingPool ringPool
     ) {
         final long len = (srcHi - srcLo + 1) << shl;
         final long fromAddress = src + (srcLo << shl);
         if (mixedIOFlag) {
-            if (ff.write(Math.abs(dstFd), fromAddress, len, dstFixFileOffset) != len) {
+            if (O3Utils.write(ff, ringPool, Math.abs(dstFd), fromAddress, len, dstFixFileOffset) != len) {
                 throw CairoException.critical(ff.errno()).put("cannot copy fixed column prefix [fd=")
                         .put(dstFd).put(", len=").put(len).put(", offset=").put(fromAddress).put(']');
             }
@@ -569,7 +576,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             long dstVarOffset,
             long dstVarAdjust,
             long dstVarSize,
-            boolean mixedIOFlag
+            boolean mixedIOFlag,
+            @Nullable O3IOURingPool ringPool
     ) {
         final long lo = O3Utils.findVarOffset(srcFixAddr, srcLo);
         assert lo >= 0;
@@ -580,7 +588,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
         assert len <= Math.abs(dstVarSize) - dstVarOffset;
         final long offset = dstVarOffset + dstVarAdjust;
         if (mixedIOFlag) {
-            if (ff.write(Math.abs(dstVarFd), srcVarAddr + lo, len, offset) != len) {
+            if (O3Utils.write(ff, ringPool, Math.abs(dstVarFd), srcVarAddr + lo, len, offset) != len) {
                 throw CairoException.critical(ff.errno()).put("cannot copy var data column prefix [fd=").put(dstVarFd).put(", offset=").put(offset).put(", len=").put(len).put(']');
             }
         } else {
@@ -596,7 +604,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                     dstFixFileOffset,
                     dstFixFd,
                     3,
-                    mixedIOFlag
+                    mixedIOFlag,
+                    ringPool
             );
         } else {
             O3Utils.shiftCopyFixedSizeColumnData(lo - offset, srcFixAddr, srcLo, srcHi + 1, dstFixAddr);
@@ -620,7 +629,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             long dstVarOffsetEnd
     ) {
         final long rowCount = srcOooHi - srcOooLo + 1 + srcDataHi - srcDataLo + 1;
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.BOOLEAN:
             case ColumnType.BYTE:
             case ColumnType.GEOBYTE:
@@ -718,19 +727,22 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
     ) {
         try {
             boolean async = commitMode == CommitMode.ASYNC;
+            int fixFd = -1;
+            int varFd = -1;
             if (dstFixAddr != 0 && dstFixSize > 0) {
                 ff.msync(dstFixAddr, dstFixSize, async);
                 // sync FD in case we wrote data not via mmap
                 if (dstFixFd != -1 && dstFixFd != 0) {
-                    ff.fsync(Math.abs(dstFixFd));
+                    fixFd = Math.abs(dstFixFd);
                 }
             }
             if (dstVarAddr != 0 && dstVarSize > 0) {
                 ff.msync(dstVarAddr, dstVarSize, async);
                 if (dstVarFd != -1 && dstVarFd != 0) {
-                    ff.fsync(Math.abs(dstVarFd));
+                    varFd = Math.abs(dstVarFd);
                 }
             }
+            O3Utils.fsync(ff, tableWriter.getO3IOURingPool(), fixFd, varFd);
         } catch (Throwable e) {
             LOG.error()
                     .$("sync error [table=").utf8(tableWriter.getTableToken().getTableName())
@@ -1049,9 +1061,10 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             long dstVarOffset,
             long dstVarAdjust,
             long dstVarSize,
-            boolean mixedIOFlag
+            boolean mixedIOFlag,
+            @Nullable O3IOURingPool ringPool
     ) {
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.STRING:
             case ColumnType.BINARY:
                 // we can find out the edge of string column in one of two ways
@@ -1071,7 +1084,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstVarOffset,
                         dstVarAdjust,
                         dstVarSize,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             case ColumnType.BOOLEAN:
@@ -1086,7 +1100,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstFixFileOffset,
                         dstFixFd,
                         0,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             case ColumnType.CHAR:
@@ -1101,7 +1116,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstFixFileOffset,
                         dstFixFd,
                         1,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             case ColumnType.INT:
@@ -1117,7 +1133,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstFixFileOffset,
                         dstFixFd,
                         2,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             case ColumnType.LONG:
@@ -1133,7 +1150,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstFixFileOffset,
                         dstFixFd,
                         3,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             case ColumnType.TIMESTAMP:
@@ -1150,7 +1168,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                             dstFixFileOffset,
                             dstFixFd,
                             3,
-                            mixedIOFlag
+                            mixedIOFlag,
+                            ringPool
                     );
                 }
                 break;
@@ -1165,7 +1184,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstFixFileOffset,
                         dstFixFd,
                         4,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             case ColumnType.LONG256:
@@ -1178,7 +1198,8 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
                         dstFixFileOffset,
                         dstFixFd,
                         5,
-                        mixedIOFlag
+                        mixedIOFlag,
+                        ringPool
                 );
                 break;
             default:
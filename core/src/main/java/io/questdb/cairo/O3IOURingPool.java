@@ -0,0 +1,75 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.IOURing;
+import io.questdb.std.IOURingFacade;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+
+/**
+ * io_uring instances of a table writer. O3 jobs of one commit copy columns on several threads
+ * at once, each of them borrows a ring for a single batch of writes and returns it, so rings are
+ * set up once per writer and not per column copy.
+ */
+public class O3IOURingPool implements QuietCloseable {
+    private final int capacity;
+    private final IOURingFacade rf;
+    private final ObjList<IOURing> rings = new ObjList<>();
+    private boolean closed;
+
+    public O3IOURingPool(IOURingFacade rf, int capacity) {
+        this.rf = rf;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Misc.freeObjListAndClear(rings);
+    }
+
+    synchronized IOURing acquire() {
+        final int n = rings.size();
+        if (n > 0) {
+            final IOURing ring = rings.getQuick(n - 1);
+            rings.setPos(n - 1);
+            return ring;
+        }
+        return rf.newInstance(capacity);
+    }
+
+    /**
+     * Returns the ring to the pool. The ring must not have operations in flight.
+     */
+    synchronized void release(IOURing ring) {
+        if (closed) {
+            ring.close();
+        } else {
+            rings.add(ring);
+        }
+    }
+}
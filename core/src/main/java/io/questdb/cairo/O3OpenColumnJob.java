@@ -79,7 +79,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             long partitionUpdateSinkAddr
     ) {
         final long dstLen = srcOooHi - srcOooLo + 1 + srcDataMax - srcDataTop;
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.BINARY:
             case ColumnType.STRING:
                 appendVarColumn(
@@ -694,7 +694,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
         }
 
         final long dstLen = srcOooHi - srcOooLo + 1 + srcDataMax - srcDataTop;
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.BINARY:
             case ColumnType.STRING:
                 try {
@@ -1523,7 +1523,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             long columnNameTxn,
             long partitionUpdateSinkAddr
     ) {
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.BINARY:
             case ColumnType.STRING:
                 // index files are opened as normal
@@ -1690,7 +1690,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
 
         int srcDataFixFd = 0;
         int srcDataVarFd = 0;
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.BINARY:
             case ColumnType.STRING:
                 try {
@@ -29,6 +29,7 @@ import io.questdb.cairo.sql.SqlExecutionCircuitBreakerConfiguration;
 import io.questdb.cairo.sql.async.PageFrameReduceJob;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.griffin.SqlException;
+import io.questdb.griffin.UpdatePartitionJob;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.WorkerPool;
@@ -38,8 +39,48 @@ import org.jetbrains.annotations.Nullable;
 
 public class O3Utils {
 
+    static final int IO_URING_CAPACITY = 16;
+    // io_uring writes are split into chunks of this size, the chunks are written by the kernel concurrently
+    static final int IO_URING_WRITE_CHUNK_SIZE = Numbers.SIZE_1MB;
     private static final Log LOG = LogFactory.getLog(O3Utils.class);
 
+    /**
+     * Flushes up to two column files to disk. With io_uring both fsync calls are submitted
+     * at once and the caller waits for the slower one only. Negative file descriptors are skipped.
+     */
+    public static void fsync(FilesFacade ff, @Nullable O3IOURingPool ringPool, int fd1, int fd2) {
+        if (ringPool != null && fd1 > -1 && fd2 > -1) {
+            IOURing ring = null;
+            try {
+                ring = ringPool.acquire();
+                ring.enqueueFsync(fd1);
+                ring.enqueueFsync(fd2);
+                int inFlight = 2;
+                while (inFlight > 0) {
+                    ring.submitAndWait();
+                    while (ring.nextCqe()) {
+                        if (ring.getCqeRes() < 0) {
+                            LOG.error().$("could not fsync [fd=").$(fd1).$(", fd=").$(fd2).$(", errno=").$(-ring.getCqeRes()).I$();
+                        }
+                        inFlight--;
+                    }
+                }
+                ringPool.release(ring);
+                return;
+            } catch (CairoException e) {
+                // the ring may have operations in flight, it is not reused
+                Misc.free(ring);
+                LOG.error().$("could not use io_uring, falling back to fsync [error=").$(e.getFlyweightMessage()).I$();
+            }
+        }
+        if (fd1 > -1) {
+            ff.fsync(fd1);
+        }
+        if (fd2 > -1) {
+            ff.fsync(fd2);
+        }
+    }
+
     public static void setupWorkerPool(
             WorkerPool workerPool,
             CairoEngine cairoEngine,
@@ -62,6 +103,7 @@ public class O3Utils {
         workerPool.assign(new O3OpenColumnJob(messageBus));
         workerPool.assign(new O3CopyJob(messageBus));
         workerPool.assign(new O3CallbackJob(messageBus));
+        workerPool.assign(new UpdatePartitionJob(messageBus));
         workerPool.freeOnExit(purgeDiscoveryJob);
 
         final MicrosecondClock microsecondClock = messageBus.getConfiguration().getMicrosecondClock();
@@ -80,6 +122,58 @@ public class O3Utils {
         }
     }
 
+    /**
+     * Writes memory block to the file at the given offset. When io_uring ring pool is provided, blocks larger than a chunk
+     * are split into chunks submitted to the ring in batches. The kernel writes the chunks concurrently
+     * and the calling thread does not take page faults on the destination file. Failed or short ring writes
+     * are repeated by the regular write.
+     *
+     * @return number of bytes written, less than len on error
+     */
+    public static long write(FilesFacade ff, @Nullable O3IOURingPool ringPool, int fd, long addr, long len, long offset) {
+        if (ringPool != null && len > IO_URING_WRITE_CHUNK_SIZE) {
+            IOURing ring = null;
+            try {
+                ring = ringPool.acquire();
+                long enqueued = 0;
+                long written = 0;
+                int inFlight = 0;
+                boolean failed = false;
+                while ((enqueued < len && !failed) || inFlight > 0) {
+                    while (enqueued < len && !failed) {
+                        final int chunkSize = (int) Math.min(IO_URING_WRITE_CHUNK_SIZE, len - enqueued);
+                        if (ring.enqueueWrite(fd, offset + enqueued, addr + enqueued, chunkSize) < 0) {
+                            // the ring is full
+                            break;
+                        }
+                        enqueued += chunkSize;
+                        inFlight++;
+                    }
+                    ring.submitAndWait();
+                    while (ring.nextCqe()) {
+                        final int res = ring.getCqeRes();
+                        if (res < 0) {
+                            failed = true;
+                        } else {
+                            written += res;
+                        }
+                        inFlight--;
+                    }
+                }
+                ringPool.release(ring);
+                if (written == len) {
+                    return len;
+                }
+                LOG.info().$("io_uring write incomplete, retrying [fd=").$(fd).$(", len=").$(len).$(", written=").$(written).I$();
+            } catch (CairoException e) {
+                // the ring may have operations in flight, it is not reused
+                Misc.free(ring);
+                LOG.error().$("could not use io_uring, falling back to write [error=").$(e.getFlyweightMessage()).I$();
+            }
+        }
+        return ff.write(fd, addr, len, offset);
+    }
+
     static void close(FilesFacade ff, int fd) {
         if (fd > 0) {
             LOG.debug().$("closed [fd=").$(fd).$(']').$();
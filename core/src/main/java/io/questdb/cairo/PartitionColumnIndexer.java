@@ -0,0 +1,89 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMR;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.str.Path;
+
+/**
+ * Indexes symbol column of a partition the writer does not have open, e.g. when index
+ * is added to existing table. Column file is mapped by the thread doing the indexing,
+ * which lets historic partitions to be indexed on the {@link ColumnIndexerJob} queue concurrently.
+ */
+class PartitionColumnIndexer extends SymbolColumnIndexer {
+    private final MemoryMR columnMem = Vm.getMRInstance();
+    private final FilesFacade ff;
+    private final Path path = new Path();
+    private long columnTop;
+    private long partitionSize;
+
+    PartitionColumnIndexer(CairoConfiguration configuration) {
+        super(configuration);
+        this.ff = configuration.getFilesFacade();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        columnMem.close();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        Misc.free(columnMem);
+        Misc.free(path);
+    }
+
+    public long getColumnTop() {
+        return columnTop;
+    }
+
+    public long getPartitionSize() {
+        return partitionSize;
+    }
+
+    @Override
+    public void refreshSourceAndIndex(long loRow, long hiRow) {
+        final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT);
+        try (MemoryMR mem = columnMem) {
+            mem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+            index(mem, loRow, hiRow);
+        }
+    }
+
+    void of(Path partitionPath, CharSequence columnName, long columnNameTxn, long columnTop, long partitionSize) {
+        final int plen = partitionPath.length();
+        configureWriter(partitionPath, columnName, columnNameTxn, columnTop);
+        TableUtils.dFile(path.of(partitionPath.trimTo(plen)), columnName, columnNameTxn);
+        partitionPath.trimTo(plen);
+        this.columnTop = columnTop;
+        this.partitionSize = partitionSize;
+    }
+}
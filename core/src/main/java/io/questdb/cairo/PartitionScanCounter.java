@@ -0,0 +1,56 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.Hash;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts scans in progress per table partition. The counts live in a fixed array of slots indexed by
+ * the hash of the table id and the partition timestamp, entering and leaving a partition neither locks
+ * nor allocates. Partitions that share a slot share a count, a scan then sees the other partition's
+ * scans as its own neighbours, which only delays work done by the last scan to leave.
+ */
+public final class PartitionScanCounter {
+    private static final int SLOT_COUNT = 4096;
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(SLOT_COUNT);
+
+    public void enter(int tableId, long partitionTimestamp) {
+        counts.incrementAndGet(slot(tableId, partitionTimestamp));
+    }
+
+    /**
+     * @return true when no other scan is in the partition
+     */
+    public boolean leave(int tableId, long partitionTimestamp) {
+        return counts.decrementAndGet(slot(tableId, partitionTimestamp)) == 0;
+    }
+
+    private static int slot(int tableId, long partitionTimestamp) {
+        return Hash.hash(tableId, partitionTimestamp) & (SLOT_COUNT - 1);
+    }
+}
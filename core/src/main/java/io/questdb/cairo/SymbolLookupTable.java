@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.*;
+
+import java.io.Closeable;
+
+/**
+ * Off-heap open addressing table, which maps symbol value hash codes to symbol keys.
+ * Hash codes are computed over the UTF-16 chars of the value, see {@link io.questdb.std.Chars#hashCode(CharSequence)},
+ * because symbol values reach the writer as char sequences.
+ * Symbol values are not copied into the table, callers compare candidate keys
+ * against the values stored in the symbol map files. Each slot is a single long
+ * with the hash code in the upper half and key + 1 in the lower half, zero slot
+ * is vacant.
+ */
+final class SymbolLookupTable implements Closeable, Mutable {
+    private static final int MIN_CAPACITY = 16;
+    private long address;
+    private int capacity;
+    private int mask;
+    private int size;
+
+    public static int hashOf(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    public static int keyOf(long entry) {
+        return (int) entry - 1;
+    }
+
+    @Override
+    public void clear() {
+        if (address != 0) {
+            Vect.memset(address, (long) capacity << 3, 0);
+        }
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            address = Unsafe.free(address, (long) capacity << 3, MemoryTag.NATIVE_TABLE_WRITER);
+            capacity = 0;
+            mask = 0;
+        }
+        size = 0;
+    }
+
+    public long entryAt(int slot) {
+        return Unsafe.getUnsafe().getLong(address + ((long) slot << 3));
+    }
+
+    public int firstSlot(int hash) {
+        return Hash.spread(hash) & mask;
+    }
+
+    public int nextSlot(int slot) {
+        return (slot + 1) & mask;
+    }
+
+    /**
+     * Adds key to the table. Caller must make sure key is not already present.
+     *
+     * @param hash symbol value hash code
+     * @param key  symbol key
+     */
+    public void put(int hash, int key) {
+        if (size + 1 > (capacity >>> 1)) {
+            rehash(Math.max(MIN_CAPACITY, capacity << 1));
+        }
+        put0(address, mask, hash, key);
+        size++;
+    }
+
+    /**
+     * Allocates memory enough to hold the given number of keys without rehashing.
+     *
+     * @param keyCount expected key count
+     */
+    public void reserve(int keyCount) {
+        final int required = Numbers.ceilPow2(Math.max(MIN_CAPACITY, keyCount) << 1);
+        if (required > capacity) {
+            rehash(required);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes keys greater than or equal to the given key count and keeps the rest,
+     * which is what rolled back symbol map needs. Surviving entries are rehashed at
+     * the same capacity, symbol values are not read.
+     *
+     * @param keyCount number of keys to keep
+     */
+    public void truncateTo(int keyCount) {
+        if (size <= keyCount) {
+            return;
+        }
+        final long newAddress = Unsafe.calloc((long) capacity << 3, MemoryTag.NATIVE_TABLE_WRITER);
+        int newSize = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            final long entry = entryAt(slot);
+            if (entry != 0 && keyOf(entry) < keyCount) {
+                put0(newAddress, mask, hashOf(entry), keyOf(entry));
+                newSize++;
+            }
+        }
+        Unsafe.free(address, (long) capacity << 3, MemoryTag.NATIVE_TABLE_WRITER);
+        address = newAddress;
+        size = newSize;
+    }
+
+    private static void put0(long address, int mask, int hash, int key) {
+        int slot = Hash.spread(hash) & mask;
+        while (Unsafe.getUnsafe().getLong(address + ((long) slot << 3)) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        Unsafe.getUnsafe().putLong(address + ((long) slot << 3), ((long) hash << 32) | ((key + 1) & 0xffffffffL));
+    }
+
+    private void rehash(int newCapacity) {
+        final long newSize = (long) newCapacity << 3;
+        final long newAddress = Unsafe.calloc(newSize, MemoryTag.NATIVE_TABLE_WRITER);
+        final int newMask = newCapacity - 1;
+        if (address != 0) {
+            for (int slot = 0; slot < capacity; slot++) {
+                final long entry = entryAt(slot);
+                if (entry != 0) {
+                    put0(newAddress, newMask, hashOf(entry), keyOf(entry));
+                }
+            }
+            Unsafe.free(address, (long) capacity << 3, MemoryTag.NATIVE_TABLE_WRITER);
+        }
+        address = newAddress;
+        capacity = newCapacity;
+        mask = newMask;
+    }
+}
@@ -82,6 +82,10 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         return nullValue;
     }
 
+    public long getColumnNameTxn() {
+        return columnNameTxn;
+    }
+
     @Override
     public int getSymbolCapacity() {
         return symbolCapacity;
@@ -186,6 +190,13 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
 
     @Override
     public void updateSymbolCount(int symbolCount) {
+        final long movedToColumnNameTxn = offsetMem.getLong(SymbolMapWriter.HEADER_MOVED_TO_TXN);
+        if (movedToColumnNameTxn != 0) {
+            // table writer rebuilt the map under new column name txn, e.g. to grow its capacity,
+            // this map will not receive new values, and symbol count belongs to the new map
+            of(configuration, path, Chars.toString(columnNameSink), movedToColumnNameTxn, symbolCount);
+            return;
+        }
         if (symbolCount > this.symbolCount) {
             this.symbolCount = symbolCount;
             this.maxOffset = SymbolMapWriter.keyToOffset(symbolCount);
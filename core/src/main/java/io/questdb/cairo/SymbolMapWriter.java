@@ -43,15 +43,18 @@ import static io.questdb.cairo.TableUtils.offsetFileName;
 public class SymbolMapWriter implements Closeable, MapWriter {
     public static final int HEADER_CACHE_ENABLED = 4;
     public static final int HEADER_CAPACITY = 0;
+    // column name txn of the symbol map that replaced this one, zero while the map is current
+    public static final int HEADER_MOVED_TO_TXN = 16;
     public static final int HEADER_NULL_FLAG = 8;
     public static final int HEADER_SIZE = 64;
     private static final Log LOG = LogFactory.getLog(SymbolMapWriter.class);
-    private final CharSequenceIntHashMap cache;
+    private final SymbolLookupTable cache;
     private final MemoryMARW charMem;
     private final BitmapIndexWriter indexWriter;
     private final int maxHash;
     private final int symbolCapacity;
     private final SymbolValueCountCollector valueCountCollector;
+    private boolean cacheLoaded = false;
     private boolean nullValue = false;
     private MemoryMARW offsetMem;
     private int symbolIndexInTxWriter;
@@ -123,7 +126,8 @@ public class SymbolMapWriter implements Closeable, MapWriter {
             this.maxHash = Math.max(Numbers.ceilPow2(symbolCapacity / 2) - 1, 1);
 
             if (useCache) {
-                this.cache = new CharSequenceIntHashMap(symbolCapacity, 0.3, CharSequenceIntHashMap.NO_ENTRY_VALUE);
+                // the lookup table is off-heap and is populated from the symbol files on first put()
+                this.cache = new SymbolLookupTable();
             } else {
                 this.cache = null;
             }
@@ -165,6 +169,8 @@ public class SymbolMapWriter implements Closeable, MapWriter {
 
     @Override
     public void close() {
+        Misc.free(cache);
+        cacheLoaded = false;
         Misc.free(indexWriter);
         Misc.free(charMem);
         if (offsetMem != null) {
@@ -213,8 +219,7 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         }
 
         if (cache != null) {
-            int index = cache.keyIndex(symbol);
-            return index < 0 ? cache.valueAt(index) : lookupPutAndCache(index, symbol, valueCountCollector);
+            return lookupCachedAndPut(symbol, valueCountCollector);
         }
         return lookupAndPut(symbol, valueCountCollector);
     }
@@ -225,8 +230,9 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         offsetMem.jumpTo(keyToOffset(symbolCount) + Long.BYTES);
         jumpCharMemToSymbolCount(symbolCount);
         valueCountCollector.collectValueCount(symbolIndexInTxWriter, symbolCount);
-        if (cache != null) {
-            cache.clear();
+        if (cache != null && cacheLoaded) {
+            // keys below symbol count are still valid, there is no need to reload them
+            cache.truncateTo(symbolCount);
         }
     }
 
@@ -253,7 +259,9 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         charMem.truncate();
         indexWriter.truncate();
         if (cache != null) {
+            // table may not be allocated yet, loading empty map allocates it without reading any values
             cache.clear();
+            cacheLoaded = false;
         }
     }
 
@@ -276,6 +284,16 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         }
     }
 
+    private void loadCache() {
+        final int symbolCount = getSymbolCount();
+        cache.clear();
+        cache.reserve(symbolCount);
+        for (int key = 0; key < symbolCount; key++) {
+            cache.put(Chars.hashCode(valueOf(key)), key);
+        }
+        cacheLoaded = true;
+    }
+
     private int lookupAndPut(CharSequence symbol, SymbolValueCountCollector countCollector) {
         int hash = Hash.boundedHash(symbol, maxHash);
         RowCursor cursor = indexWriter.getCursor(hash);
@@ -288,10 +306,27 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         return put0(symbol, hash, countCollector);
     }
 
-    private int lookupPutAndCache(int index, CharSequence symbol, SymbolValueCountCollector countCollector) {
-        final int result = lookupAndPut(symbol, countCollector);
-        cache.putAt(index, symbol.toString(), result);
-        return result;
+    private int lookupCachedAndPut(CharSequence symbol, SymbolValueCountCollector countCollector) {
+        if (!cacheLoaded) {
+            loadCache();
+        }
+        final int hash = Chars.hashCode(symbol);
+        for (int slot = cache.firstSlot(hash); ; slot = cache.nextSlot(slot)) {
+            final long entry = cache.entryAt(slot);
+            if (entry == 0) {
+                break;
+            }
+            if (SymbolLookupTable.hashOf(entry) == hash) {
+                final int key = SymbolLookupTable.keyOf(entry);
+                if (Chars.equals(symbol, valueOf(key))) {
+                    return key;
+                }
+            }
+        }
+        // the table holds every symbol in the map, so there is no need to consult the index
+        final int key = put0(symbol, Hash.boundedHash(symbol, maxHash), countCollector);
+        cache.put(hash, key);
+        return key;
     }
 
     private int put0(CharSequence symbol, int hash, SymbolValueCountCollector countCollector) {
@@ -303,6 +338,14 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         return symIndex;
     }
 
+    void markMovedTo(long columnNameTxn) {
+        offsetMem.putLong(HEADER_MOVED_TO_TXN, columnNameTxn);
+    }
+
+    CharSequence valueOf(int key) {
+        return charMem.getStr(offsetMem.getLong(keyToOffset(key)));
+    }
+
     static long keyToOffset(int key) {
         return HEADER_SIZE + key * 8L;
     }
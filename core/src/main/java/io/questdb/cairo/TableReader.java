@@ -468,6 +468,9 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
         try {
             reloadSlow(true);
+            if (txColumnVersion != txFile.getColumnVersion()) {
+                reloadMovedSymbolMaps();
+            }
             // partition reload will apply truncate if necessary
             // applyTruncate for non-partitioned tables only
             reconcileOpenPartitions(txPartitionVersion, txColumnVersion, txTruncateVersion);
@@ -1180,6 +1183,23 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    private void reloadMovedSymbolMaps() {
+        // table writer may rebuild symbol map under new column name txn, e.g. to grow its capacity
+        int symbolMapIndex = 0;
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            if (ColumnType.isSymbol(metadata.getColumnType(columnIndex))) {
+                final SymbolMapReader symbolMapReader = symbolMapReaders.getQuick(columnIndex);
+                final int symbolCount = txFile.getSymbolValueCount(symbolMapIndex++);
+                if (symbolMapReader instanceof SymbolMapReaderImpl) {
+                    final long columnNameTxn = columnVersionReader.getDefaultColumnNameTxn(metadata.getWriterIndex(columnIndex));
+                    if (((SymbolMapReaderImpl) symbolMapReader).getColumnNameTxn() != columnNameTxn) {
+                        ((SymbolMapReaderImpl) symbolMapReader).of(configuration, path, metadata.getColumnName(columnIndex), columnNameTxn, symbolCount);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Updates boundaries of all columns in partition.
      *
@@ -46,6 +46,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
     private int tableId;
     private TableToken tableToken;
     private MemoryMR transitionMeta;
+    private long ttl;
     private boolean walEnabled;
 
     public TableReaderMetadata(CairoConfiguration configuration, TableToken tableToken) {
@@ -82,6 +83,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
         this.metadataVersion = metaMem.getInt(TableUtils.META_OFFSET_METADATA_VERSION);
         this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
         this.o3MaxLag = metaMem.getLong(TableUtils.META_OFFSET_O3_MAX_LAG);
+        this.ttl = metaMem.getLong(TableUtils.META_OFFSET_TTL);
         this.walEnabled = metaMem.getBool(TableUtils.META_OFFSET_WAL_ENABLED);
         long offset = TableUtils.getColumnNameOffset(columnCount);
 
@@ -222,6 +224,10 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
         return tableToken;
     }
 
+    public long getTtl() {
+        return ttl;
+    }
+
     public boolean isWalEnabled() {
         return walEnabled;
     }
@@ -237,6 +243,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
             this.tableId = metaMem.getInt(TableUtils.META_OFFSET_TABLE_ID);
             this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
             this.o3MaxLag = metaMem.getLong(TableUtils.META_OFFSET_O3_MAX_LAG);
+            this.ttl = metaMem.getLong(TableUtils.META_OFFSET_TTL);
             this.metadataVersion = metaMem.getInt(TableUtils.META_OFFSET_METADATA_VERSION);
             this.walEnabled = metaMem.getBool(TableUtils.META_OFFSET_WAL_ENABLED);
             this.columnMetadata.clear();
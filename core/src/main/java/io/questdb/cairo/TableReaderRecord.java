@@ -30,6 +30,8 @@ import io.questdb.std.str.CharSink;
 
 public class TableReaderRecord implements Record, Sinkable {
 
+    private final Varchars.View varcharViewA = new Varchars.View();
+    private final Varchars.View varcharViewB = new Varchars.View();
     private int columnBase;
     private TableReader reader;
     private long recordIndex = 0;
@@ -230,9 +232,11 @@ public class TableReaderRecord implements Record, Sinkable {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStr(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        if (ColumnType.isVarchar(reader.getMetadata().getColumnType(col))) {
+            return varcharViewA.of(reader.getColumn(absoluteColumnIndex), offset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStr(offset);
     }
 
     @Override
@@ -240,9 +244,11 @@ public class TableReaderRecord implements Record, Sinkable {
         final int index = TableReader.getPrimaryColumnIndex(columnBase, col);
         final long recordIndex = getAdjustedRecordIndex(col) * Long.BYTES;
         final int absoluteColumnIndex = ifOffsetNegThen0ElseValue(recordIndex, index);
-        return reader.getColumn(absoluteColumnIndex).getStr2(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        if (ColumnType.isVarchar(reader.getMetadata().getColumnType(col))) {
+            return varcharViewB.of(reader.getColumn(absoluteColumnIndex), offset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStr2(offset);
     }
 
     @Override
@@ -250,9 +256,11 @@ public class TableReaderRecord implements Record, Sinkable {
         final int index = TableReader.getPrimaryColumnIndex(columnBase, col);
         final long recordIndex = getAdjustedRecordIndex(col) * Long.BYTES;
         final int absoluteColumnIndex = ifOffsetNegThen0ElseValue(recordIndex, index);
-        return reader.getColumn(absoluteColumnIndex).getStrLen(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        if (ColumnType.isVarchar(reader.getMetadata().getColumnType(col))) {
+            return Varchars.getStrLen(reader.getColumn(absoluteColumnIndex), offset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStrLen(offset);
     }
 
     @Override
@@ -34,6 +34,8 @@ import static io.questdb.cairo.TableReaderRecord.ifOffsetNegThen0ElseValue;
 public class TableReaderSelectedColumnRecord implements Record {
 
     private final IntList columnIndexes;
+    private final Varchars.View varcharViewA = new Varchars.View();
+    private final Varchars.View varcharViewB = new Varchars.View();
     private int columnBase;
     private TableReader reader;
     private long recordIndex = 0;
@@ -236,6 +238,9 @@ public class TableReaderSelectedColumnRecord implements Record {
         );
         long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
         assert recordIndex != 0 || (offset == 0 || offset == Numbers.LONG_NaN);
+        if (ColumnType.isVarchar(reader.getMetadata().getColumnType(col))) {
+            return varcharViewA.of(reader.getColumn(absoluteColumnIndex), offset);
+        }
         return reader.getColumn(absoluteColumnIndex).getStr(offset);
     }
 
@@ -247,9 +252,11 @@ public class TableReaderSelectedColumnRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStr2(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        if (ColumnType.isVarchar(reader.getMetadata().getColumnType(col))) {
+            return varcharViewB.of(reader.getColumn(absoluteColumnIndex), offset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStr2(offset);
     }
 
     @Override
@@ -260,9 +267,11 @@ public class TableReaderSelectedColumnRecord implements Record {
                 recordIndex,
                 TableReader.getPrimaryColumnIndex(columnBase, col)
         );
-        return reader.getColumn(absoluteColumnIndex).getStrLen(
-                reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex)
-        );
+        final long offset = reader.getColumn(absoluteColumnIndex + 1).getLong(recordIndex);
+        if (ColumnType.isVarchar(reader.getMetadata().getColumnType(col))) {
+            return Varchars.getStrLen(reader.getColumn(absoluteColumnIndex), offset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStrLen(offset);
     }
 
     @Override
@@ -40,6 +40,8 @@ public interface TableStructure extends TableDescriptor {
 
     CharSequence getTableName();
 
+    long getTtl();
+
     boolean isIndexed(int columnIndex);
 
     boolean isSequential(int columnIndex);
@@ -77,6 +77,7 @@ public final class TableUtils {
     public static final long META_OFFSET_PARTITION_BY = 4;
     public static final long META_OFFSET_TABLE_ID = 16;
     public static final long META_OFFSET_TIMESTAMP_INDEX = 8;
+    public static final long META_OFFSET_TTL = 48; // LONG
     public static final long META_OFFSET_VERSION = 12;
     public static final long META_OFFSET_WAL_ENABLED = 40; // BOOLEAN
     public static final String META_PREV_FILE_NAME = "_meta.prev";
@@ -563,6 +564,10 @@ public final class TableUtils {
         return type;
     }
 
+    public static int getMaxSymbolCapacity(boolean cached) {
+        return cached ? MAX_SYMBOL_CAPACITY_CACHED : MAX_SYMBOL_CAPACITY;
+    }
+
     public static long getPartitionTableIndexOffset(int symbolWriterCount, int index) {
         return getPartitionTableIndexOffset(getPartitionTableSizeOffset(symbolWriterCount), index);
     }
@@ -1434,6 +1439,8 @@ public final class TableUtils {
             mem.putLong(structure.getO3MaxLag());
             mem.putLong(0); // Structure version.
             mem.putInt(structure.isWalEnabled() ? 1 : 0);
+            mem.jumpTo(TableUtils.META_OFFSET_TTL);
+            mem.putLong(structure.getTtl());
             mem.jumpTo(TableUtils.META_OFFSET_COLUMN_TYPES);
 
             assert count > 0;
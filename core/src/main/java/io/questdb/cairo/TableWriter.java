@@ -57,9 +57,11 @@ import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.DirectByteCharSequence;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.SingleCharCharSequence;
 import io.questdb.std.str.StringSink;
 import io.questdb.tasks.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 import java.io.Closeable;
@@ -107,6 +109,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private static final int ROW_ACTION_O3 = 3;
     private static final int ROW_ACTION_OPEN_PARTITION = 0;
     private static final int ROW_ACTION_SWITCH_PARTITION = 4;
+    // symbol values copied to the map with grown capacity per tick() and the most that commit copies before swapping it in
+    private static final int SYMBOL_SCALE_BATCH_SIZE = 64 * 1024;
+    private static final int SYMBOL_SCALE_COMMIT_BACKLOG = 1024;
     final ObjList<MemoryMA> columns;
     // Latest command sequence per command source.
     // Publisher source is identified by a long value
@@ -146,6 +151,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final ObjList<MemoryCR> o3ColumnOverrides;
     private final SOUnboundedCountDownLatch o3DoneLatch = new SOUnboundedCountDownLatch();
     private final AtomicInteger o3ErrorCount = new AtomicInteger();
+    private final O3IOURingPool o3IOURingPool;
     private final long[] o3LastTimestampSpreads;
     private final AtomicLong o3PartitionUpdRemaining = new AtomicLong();
     private final boolean o3QuickSortEnabled;
@@ -221,6 +227,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private PurgingOperator purgingOperator;
     private boolean removeDirOnCancelRow = true;
     private int rowAction = ROW_ACTION_OPEN_PARTITION;
+    // symbol map with grown capacity, which is being filled, and the state it is valid for
+    private int scaledSymbolColumnIndex = -1;
+    private String scaledSymbolColumnName;
+    private long scaledSymbolColumnNameTxn;
+    private SymbolMapWriter scaledSymbolMapWriter;
+    private long scaledSymbolMetadataVersion;
+    private long scaledSymbolTruncateVersion;
     private TableToken tableToken;
     private final O3ColumnUpdateMethod o3MoveWalFromFilesToLastPartitionRef = this::o3MoveWalFromFilesToLastPartition;
     private final O3ColumnUpdateMethod o3SortFixColumnRef = this::o3SortFixColumn;
@@ -252,6 +265,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         this.configuration = configuration;
         this.partitionFrameFactory = new PartitionFrameFactory(configuration);
         this.mixedIOFlag = configuration.isWriterMixedIOEnabled();
+        final IOURingFacade rf = configuration.getIOURingFacade();
+        this.o3IOURingPool = configuration.isO3IOURingEnabled() && rf.isAvailable() ? new O3IOURingPool(rf, O3Utils.IO_URING_CAPACITY) : null;
         this.metrics = metrics;
         this.ownMessageBus = ownMessageBus;
         this.messageBus = ownMessageBus != null ? ownMessageBus : messageBus;
@@ -932,6 +947,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             // Bookmark masterRef to track how many rows is in uncommitted state
             committedMasterRef = masterRef;
             processPartitionRemoveCandidates();
+            finishSymbolCapacityScale();
+            enforceTtl();
 
             metrics.tableWriter().incrementCommits();
             metrics.tableWriter().addCommittedRows(rowsAdded);
@@ -1350,7 +1367,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     @Override
     public UpdateOperator getUpdateOperator() {
         if (updateOperatorImpl == null) {
-            updateOperatorImpl = new UpdateOperatorImpl(configuration, this, path, rootLen, getPurgingOperator());
+            updateOperatorImpl = new UpdateOperatorImpl(configuration, messageBus, this, path, rootLen, getPurgingOperator());
         }
         return updateOperatorImpl;
     }
@@ -2027,6 +2044,32 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    @Override
+    public void setMetaTtl(long ttl) {
+        if (!PartitionBy.isPartitioned(partitionBy)) {
+            throw CairoException.nonCritical().put("TTL can only be used on partitioned tables");
+        }
+        try {
+            commit();
+            long metaSize = copyMetadataAndUpdateVersion();
+            openMetaSwapFileByIndex(ff, ddlMem, path, rootLen, this.metaSwapIndex);
+            try {
+                ddlMem.jumpTo(META_OFFSET_TTL);
+                ddlMem.putLong(ttl);
+                ddlMem.jumpTo(metaSize);
+            } finally {
+                ddlMem.close();
+            }
+
+            finishMetaSwapUpdate();
+            metadata.setTtl(ttl);
+            clearTodoLog();
+        } finally {
+            ddlMem.close();
+        }
+        enforceTtl();
+    }
+
     public void setSeqTxn(long seqTxn) {
         assert txWriter.getLagRowCount() == 0 && txWriter.getLagTxnCount() == 0;
         txWriter.setSeqTxn(seqTxn);
@@ -2068,6 +2111,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         // Some alter table trigger commit() which trigger tick()
         // If already inside the tick(), do not re-enter it.
         processCommandQueue(contextAllowsAnyStructureChanges);
+        scaleSymbolCapacities();
     }
 
     @Override
@@ -2128,7 +2172,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     }
 
     private static void configureNullSetters(ObjList<Runnable> nullers, int type, MemoryA mem1, MemoryA mem2) {
-        switch (ColumnType.tagOf(type)) {
+        switch (ColumnType.storageTagOf(type)) {
             case ColumnType.BOOLEAN:
             case ColumnType.BYTE:
                 nullers.add(() -> mem1.putByte((byte) 0));
@@ -2699,7 +2743,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                         continue;
                     }
                     long columnNameTxn = columnVersionWriter.getDefaultColumnNameTxn(columnIndex);
-                    switch (ColumnType.tagOf(columnType)) {
+                    switch (ColumnType.storageTagOf(columnType)) {
                         case ColumnType.INT:
                         case ColumnType.LONG:
                         case ColumnType.BOOLEAN:
@@ -2780,6 +2824,15 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         masterRef++;
     }
 
+    private void cancelSymbolCapacityScale() {
+        if (scaledSymbolMapWriter != null) {
+            scaledSymbolMapWriter = Misc.free(scaledSymbolMapWriter);
+            removeSymbolMapFilesQuiet(scaledSymbolColumnName, scaledSymbolColumnNameTxn);
+            scaledSymbolColumnIndex = -1;
+            scaledSymbolColumnName = null;
+        }
+    }
+
     private void checkColumnName(CharSequence name) {
         if (!TableUtils.isValidColumnName(name, configuration.getMaxFileNameLength())) {
             throw CairoException.nonCritical().put("invalid column name [table=").put(tableToken.getTableName()).put(", column=").putAsPrintable(name).put(']');
@@ -2921,6 +2974,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             // Bookmark masterRef to track how many rows is in uncommitted state
             this.committedMasterRef = masterRef;
             processPartitionRemoveCandidates();
+            finishSymbolCapacityScale();
+            enforceTtl();
 
             metrics.tableWriter().incrementCommits();
             metrics.tableWriter().addCommittedRows(rowsAdded);
@@ -2977,7 +3032,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             oooPrimary = Vm.getCARWInstance(o3ColumnMemorySize, configuration.getO3MemMaxPages(), MemoryTag.NATIVE_O3);
             oooPrimary2 = Vm.getCARWInstance(o3ColumnMemorySize, configuration.getO3MemMaxPages(), MemoryTag.NATIVE_O3);
 
-            switch (ColumnType.tagOf(type)) {
+            switch (ColumnType.storageTagOf(type)) {
                 case ColumnType.BINARY:
                 case ColumnType.STRING:
                     secondary = Vm.getMAInstance(configuration.getCommitMode());
@@ -3131,6 +3186,38 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return res;
     }
 
+    /**
+     * Copies committed symbol values to the map with grown capacity.
+     *
+     * @param limit max number of values to copy
+     * @return true when the map with grown capacity holds all committed values
+     */
+    private boolean copyScaledSymbols(int limit) {
+        if (metadata.getMetadataVersion() != scaledSymbolMetadataVersion || getTruncateVersion() != scaledSymbolTruncateVersion) {
+            // column was changed or table truncated since the copy started
+            cancelSymbolCapacityScale();
+            return false;
+        }
+        final SymbolMapWriter symbolMapWriter = (SymbolMapWriter) symbolMapWriters.getQuick(scaledSymbolColumnIndex);
+        // uncommitted values can be rolled back, they are copied once committed
+        final int committedCount = txWriter.unsafeReadSymbolWriterIndexOffset(denseSymbolMapWriters.indexOf(symbolMapWriter));
+        final int copiedCount = scaledSymbolMapWriter.getSymbolCount();
+        final int count = Math.min(committedCount, copiedCount + limit);
+        try {
+            for (int key = copiedCount; key < count; key++) {
+                scaledSymbolMapWriter.put(symbolMapWriter.valueOf(key), SymbolValueCountCollector.NOOP);
+            }
+        } catch (CairoException e) {
+            LOG.error().$("could not scale symbol capacity [table=").utf8(tableToken.getTableName())
+                    .$(", column=").utf8(scaledSymbolColumnName)
+                    .$(", e=").$((Sinkable) e)
+                    .I$();
+            cancelSymbolCapacityScale();
+            return false;
+        }
+        return count == committedCount;
+    }
+
     private void copyVersionAndLagValues() {
         ddlMem.putInt(ColumnType.VERSION);
         ddlMem.putInt(metaMem.getInt(META_OFFSET_TABLE_ID));
@@ -3138,6 +3225,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         ddlMem.putLong(metaMem.getLong(META_OFFSET_O3_MAX_LAG));
         ddlMem.putLong(txWriter.getMetadataVersion() + 1);
         ddlMem.putBool(metaMem.getBool(META_OFFSET_WAL_ENABLED));
+        ddlMem.jumpTo(META_OFFSET_TTL);
+        ddlMem.putLong(metaMem.getLong(META_OFFSET_TTL));
         metadata.setMetadataVersion(txWriter.getMetadataVersion() + 1);
     }
 
@@ -3247,6 +3336,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private void doClose(boolean truncate) {
         // destroy() may have already closed everything
         boolean tx = inTransaction();
+        cancelSymbolCapacityScale();
         freeSymbolMapWriters();
         freeIndexers();
         Misc.free(txWriter);
@@ -3277,6 +3367,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             Misc.free(path);
             Misc.free(o3TimestampMem);
             Misc.free(o3TimestampMemCpy);
+            Misc.free(o3IOURingPool);
             Misc.free(ownMessageBus);
             if (tempMem16b != 0) {
                 Unsafe.free(tempMem16b, 16, MemoryTag.NATIVE_TABLE_WRITER);
@@ -3376,6 +3467,33 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return true;
     }
 
+    private void enforceTtl() {
+        final long ttl = metadata.getTtl();
+        if (ttl < 1 || !PartitionBy.isPartitioned(partitionBy) || txWriter.getLagRowCount() > 0) {
+            return;
+        }
+
+        // Partition expires once its upper boundary falls behind the TTL counted
+        // back from the table's max timestamp, or from wall clock time when max timestamp
+        // is in the future, so that a single future row does not expire the rest of the table.
+        // The last partition is never dropped.
+        final long expiryTimestamp = Math.min(txWriter.getMaxTimestamp(), configuration.getMicrosecondClock().getTicks()) - ttl;
+        while (txWriter.getPartitionCount() > 1) {
+            final long partitionTimestamp = txWriter.getPartitionTimestampByIndex(0);
+            final long partitionCeiling = txWriter.ceilPartitionTimestamp(txWriter.getLogicalPartitionTimestamp(partitionTimestamp));
+            if (partitionCeiling > expiryTimestamp) {
+                break;
+            }
+            LOG.info().$("dropping expired partition [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(partitionTimestamp)
+                    .$(", ttl=").$(ttl)
+                    .I$();
+            if (!dropPartitionByExactTimestamp(partitionTimestamp)) {
+                break;
+            }
+        }
+    }
+
     private long findMinSplitPartitionTimestamp() {
         for (int i = 0, n = txWriter.getPartitionCount(); i < n; i++) {
             long partitionTimestamp = txWriter.getPartitionTimestampByIndex(i);
@@ -3473,6 +3591,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return fileNameSink;
     }
 
+    private void finishSymbolCapacityScale() {
+        if (scaledSymbolMapWriter != null && copyScaledSymbols(SYMBOL_SCALE_COMMIT_BACKLOG)) {
+            swapScaledSymbolMap();
+        }
+    }
+
     private void freeAndRemoveColumnPair(ObjList<MemoryMA> columns, int pi, int si) {
         Misc.free(columns.getAndSetQuick(pi, NullMemory.INSTANCE));
         Misc.free(columns.getAndSetQuick(si, NullMemory.INSTANCE));
@@ -3588,24 +3712,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             PurgingOperator purgingOperator = getPurgingOperator();
             long newColumnNameTxn = getTxn();
             long defaultColumnNameTxn = columnVersionWriter.getDefaultColumnNameTxn(columnIndex);
-            if (PartitionBy.isPartitioned(partitionBy)) {
-                for (int i = txWriter.getPartitionCount() - 1; i > -1L; i--) {
-                    // Link files in each partition.
-                    long partitionTimestamp = txWriter.getPartitionTimestampByIndex(i);
-                    long partitionNameTxn = txWriter.getPartitionNameTxn(i);
-                    long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, columnIndex);
-                    hardLinkAndPurgeColumnFiles(columnName, columnIndex, columnType, newName, partitionTimestamp, partitionNameTxn, newColumnNameTxn, columnNameTxn);
-                    if (columnVersionWriter.getRecordIndex(partitionTimestamp, columnIndex) > -1L) {
-                        long columnTop = columnVersionWriter.getColumnTop(partitionTimestamp, columnIndex);
-                        columnVersionWriter.upsert(partitionTimestamp, columnIndex, newColumnNameTxn, columnTop);
-                    }
-                }
-            } else {
-                long columnNameTxn = columnVersionWriter.getColumnNameTxn(txWriter.getLastPartitionTimestamp(), columnIndex);
-                hardLinkAndPurgeColumnFiles(columnName, columnIndex, columnType, newName, txWriter.getLastPartitionTimestamp(), -1L, newColumnNameTxn, columnNameTxn);
-                long columnTop = columnVersionWriter.getColumnTop(txWriter.getLastPartitionTimestamp(), columnIndex);
-                columnVersionWriter.upsert(txWriter.getLastPartitionTimestamp(), columnIndex, newColumnNameTxn, columnTop);
-            }
+            hardLinkAndPurgePartitionColumnFiles(columnName, columnIndex, columnType, newName, newColumnNameTxn);
 
             if (ColumnType.isSymbol(columnType)) {
                 // Link .o, .c, .k, .v symbol files in the table root folder
@@ -3639,13 +3746,40 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         purgingOperator.add(columnIndex, columnNameTxn, partitionTimestamp, partitionNameTxn);
     }
 
+    private void hardLinkAndPurgePartitionColumnFiles(CharSequence columnName, int columnIndex, int columnType, CharSequence newName, long newColumnNameTxn) {
+        if (PartitionBy.isPartitioned(partitionBy)) {
+            for (int i = txWriter.getPartitionCount() - 1; i > -1L; i--) {
+                // Link files in each partition.
+                long partitionTimestamp = txWriter.getPartitionTimestampByIndex(i);
+                long partitionNameTxn = txWriter.getPartitionNameTxn(i);
+                long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, columnIndex);
+                hardLinkAndPurgeColumnFiles(columnName, columnIndex, columnType, newName, partitionTimestamp, partitionNameTxn, newColumnNameTxn, columnNameTxn);
+                if (columnVersionWriter.getRecordIndex(partitionTimestamp, columnIndex) > -1L) {
+                    long columnTop = columnVersionWriter.getColumnTop(partitionTimestamp, columnIndex);
+                    columnVersionWriter.upsert(partitionTimestamp, columnIndex, newColumnNameTxn, columnTop);
+                }
+            }
+        } else {
+            long columnNameTxn = columnVersionWriter.getColumnNameTxn(txWriter.getLastPartitionTimestamp(), columnIndex);
+            hardLinkAndPurgeColumnFiles(columnName, columnIndex, columnType, newName, txWriter.getLastPartitionTimestamp(), -1L, newColumnNameTxn, columnNameTxn);
+            long columnTop = columnVersionWriter.getColumnTop(txWriter.getLastPartitionTimestamp(), columnIndex);
+            columnVersionWriter.upsert(txWriter.getLastPartitionTimestamp(), columnIndex, newColumnNameTxn, columnTop);
+        }
+    }
+
     private void indexHistoricPartitions(SymbolColumnIndexer indexer, CharSequence columnName, int indexValueBlockSize) {
         long ts = this.txWriter.getMaxTimestamp();
         if (ts > Numbers.LONG_NaN) {
             final int columnIndex = metadata.getColumnIndex(columnName);
+            // Index last partition separately
+            final int partitionCount = txWriter.getPartitionCount() - 1;
+            if (parallelIndexerEnabled && partitionCount > 1) {
+                Misc.free(indexer);
+                indexHistoricPartitionsParallel(columnName, columnIndex, partitionCount, indexValueBlockSize);
+                return;
+            }
             try (final MemoryMR roMem = indexMem) {
-                // Index last partition separately
-                for (int i = 0, n = txWriter.getPartitionCount() - 1; i < n; i++) {
+                for (int i = 0; i < partitionCount; i++) {
 
                     long timestamp = txWriter.getPartitionTimestampByIndex(i);
                     path.trimTo(rootLen);
@@ -3682,6 +3816,60 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void indexHistoricPartitionsParallel(CharSequence columnName, int columnIndex, int partitionCount, int indexValueBlockSize) {
+        // index files are created here, while the columns are indexed on the queue;
+        // partitions are processed in batches to limit the number of index files open at once
+        final int batchSize = messageBus.getIndexerQueue().getCycle();
+        final ObjList<PartitionColumnIndexer> partitionIndexers = new ObjList<>();
+        LOG.info().$("parallel indexing of historic partitions [table=").utf8(tableToken.getTableName())
+                .$(", column=").utf8(columnName)
+                .$(", partitionCount=").$(partitionCount)
+                .I$();
+        try {
+            int partitionIndex = 0;
+            while (partitionIndex < partitionCount) {
+                int indexerCount = 0;
+                for (; partitionIndex < partitionCount && indexerCount < batchSize; partitionIndex++) {
+                    long timestamp = txWriter.getPartitionTimestampByIndex(partitionIndex);
+                    path.trimTo(rootLen);
+                    setStateForTimestamp(path, timestamp);
+
+                    if (ff.exists(path.$())) {
+                        final int plen = path.length();
+
+                        long columnNameTxn = columnVersionWriter.getColumnNameTxn(timestamp, columnIndex);
+                        TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
+
+                        if (ff.exists(path)) {
+
+                            path.trimTo(plen);
+                            LOG.info().$("indexing [path=").$(path).I$();
+
+                            createIndexFiles(columnName, columnNameTxn, indexValueBlockSize, plen, true);
+                            final long partitionSize = txWriter.getPartitionSizeByPartitionTimestamp(timestamp);
+                            final long columnTop = columnVersionWriter.getColumnTop(timestamp, columnIndex);
+
+                            if (columnTop > -1L && partitionSize > columnTop) {
+                                final PartitionColumnIndexer partitionIndexer;
+                                if (indexerCount < partitionIndexers.size()) {
+                                    partitionIndexer = partitionIndexers.getQuick(indexerCount);
+                                } else {
+                                    partitionIndexer = new PartitionColumnIndexer(configuration);
+                                    partitionIndexers.add(partitionIndexer);
+                                }
+                                partitionIndexer.of(path.trimTo(plen), columnName, columnNameTxn, columnTop, partitionSize);
+                                indexerCount++;
+                            }
+                        }
+                    }
+                }
+                indexPartitionsParallel(partitionIndexers, indexerCount);
+            }
+        } finally {
+            Misc.freeObjList(partitionIndexers);
+        }
+    }
+
     private void indexLastPartition(SymbolColumnIndexer indexer, CharSequence columnName, long columnNameTxn, int columnIndex, int indexValueBlockSize) {
         final int plen = path.length();
 
@@ -3695,6 +3883,64 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         indexer.refreshSourceAndIndex(0, txWriter.getTransientRowCount());
     }
 
+    private void indexPartitionsParallel(ObjList<PartitionColumnIndexer> partitionIndexers, int indexerCount) {
+        indexSequences.clear();
+        indexLatch.setCount(indexerCount);
+        final Sequence indexPubSequence = this.messageBus.getIndexerPubSequence();
+        final RingQueue<ColumnIndexerTask> indexerQueue = this.messageBus.getIndexerQueue();
+
+        for (int i = 0; i < indexerCount; i++) {
+            final PartitionColumnIndexer indexer = partitionIndexers.getQuick(i);
+            final long sequence = indexer.getSequence();
+            indexSequences.add(sequence);
+
+            long cursor;
+            do {
+                cursor = indexPubSequence.next();
+                if (cursor == -2) {
+                    // CAS issue, retry
+                    Os.pause();
+                }
+            } while (cursor == -2);
+
+            if (cursor == -1) {
+                // queue is full, process index in the current thread
+                if (indexer.tryLock(sequence)) {
+                    indexAndCountDown(indexer, indexer.getColumnTop(), indexer.getPartitionSize(), indexLatch);
+                }
+                continue;
+            }
+
+            final ColumnIndexerTask queueItem = indexerQueue.get(cursor);
+            queueItem.indexer = indexer;
+            queueItem.lo = indexer.getColumnTop();
+            queueItem.hi = indexer.getPartitionSize();
+            queueItem.countDownLatch = indexLatch;
+            queueItem.sequence = sequence;
+            indexPubSequence.done(cursor);
+        }
+
+        // steal the partitions workers did not get to yet
+        for (int i = 0; i < indexerCount; i++) {
+            final PartitionColumnIndexer indexer = partitionIndexers.getQuick(i);
+            if (indexer.tryLock(indexSequences.getQuick(i))) {
+                indexAndCountDown(indexer, indexer.getColumnTop(), indexer.getPartitionSize(), indexLatch);
+            }
+        }
+        indexLatch.await();
+
+        boolean distressed = false;
+        for (int i = 0; i < indexerCount; i++) {
+            final PartitionColumnIndexer indexer = partitionIndexers.getQuick(i);
+            distressed |= indexer.isDistressed();
+            indexer.clear();
+        }
+
+        if (distressed) {
+            throw CairoException.critical(0).put("could not index historic partitions [table=").put(tableToken.getTableName()).put(']');
+        }
+    }
+
     private boolean isLastPartitionClosed() {
         for (int i = 0; i < columnCount; i++) {
             if (metadata.getColumnType(i) > 0) {
@@ -4399,7 +4645,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                                 destDataAddr,
                                 0L
                         );
-                    } else if (columnType == ColumnType.BINARY) {
+                    } else if (ColumnType.storageTagOf(columnType) == ColumnType.BINARY) {
                         Vect.oooMergeCopyBinColumn(
                                 mergedTimestampAddress,
                                 rowCount,
@@ -4754,7 +5000,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                         sourceOffset = 0;
                     }
                     MemoryCARW o3MemBuff = (MemoryCARW) o3SrcDataMem;
-                    long bytesWritten = ff.write(o3DstDataMem.getFd(), o3MemBuff.addressOf(sourceOffset), size, destOffset);
+                    long bytesWritten = O3Utils.write(ff, o3IOURingPool, o3DstDataMem.getFd(), o3MemBuff.addressOf(sourceOffset), size, destOffset);
                     if (bytesWritten != size) {
                         throw CairoException.critical(ff.errno()).put("Could not copy data from WAL lag [fd=")
                                 .put(o3DstDataMem.getFd()).put(", size=").put(size).put(", bytesWritten=").put(bytesWritten).put(']');
@@ -6630,6 +6876,17 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         processPartitionRemoveCandidates();
     }
 
+    // Grows capacity of a symbol map whose symbol count outgrew it. The new map is filled from
+    // tick(), a batch of values at a time, commits only swap it in once the copy has caught up.
+    private void scaleSymbolCapacities() {
+        if (distressed || (scaledSymbolMapWriter == null && !startSymbolCapacityScale())) {
+            return;
+        }
+        if (copyScaledSymbols(SYMBOL_SCALE_BATCH_SIZE) && !inTransaction()) {
+            swapScaledSymbolMap();
+        }
+    }
+
     private void scheduleRemoveAllPartitions() {
         for (int i = txWriter.getPartitionCount() - 1; i > -1L; i--) {
             long timestamp = txWriter.getPartitionTimestampByIndex(i);
@@ -6658,7 +6915,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 if (pos > 0) {
                     // subtract column top
                     final long m1pos;
-                    switch (ColumnType.tagOf(type)) {
+                    switch (ColumnType.storageTagOf(type)) {
                         case ColumnType.BINARY:
                         case ColumnType.STRING:
                             assert mem2 != null;
@@ -6902,6 +7159,72 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private boolean startSymbolCapacityScale() {
+        final int scaleFactor = configuration.getSymbolCapacityAutoScaleFactor();
+        if (scaleFactor < 1) {
+            return false;
+        }
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            final MapWriter mapWriter = symbolMapWriters.getQuick(columnIndex);
+            if (
+                    mapWriter instanceof SymbolMapWriter
+                            && mapWriter.getSymbolCount() > (long) mapWriter.getSymbolCapacity() * scaleFactor
+                            && startSymbolCapacityScale((SymbolMapWriter) mapWriter, columnIndex)
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean startSymbolCapacityScale(SymbolMapWriter symbolMapWriter, int columnIndex) {
+        final int symbolCount = symbolMapWriter.getSymbolCount();
+        final boolean cached = symbolMapWriter.isCached();
+        final int symbolCapacity = (int) Math.min(Numbers.ceilPow2((long) symbolCount) << 1, TableUtils.getMaxSymbolCapacity(cached));
+        final long newColumnNameTxn = getTxn();
+        if (symbolCapacity <= symbolMapWriter.getSymbolCapacity() || newColumnNameTxn <= columnVersionWriter.getDefaultColumnNameTxn(columnIndex)) {
+            // capacity is at its maximum or symbol files are already named after the last txn
+            return false;
+        }
+
+        final CharSequence columnName = metadata.getColumnName(columnIndex);
+        LOG.info().$("scaling symbol capacity [table=").utf8(tableToken.getTableName())
+                .$(", column=").utf8(columnName)
+                .$(", symbolCount=").$(symbolCount)
+                .$(", capacity=").$(symbolMapWriter.getSymbolCapacity())
+                .$(", newCapacity=").$(symbolCapacity)
+                .I$();
+
+        // Symbol map is copied under the new column name txn, keys are preserved, so
+        // column data is hard linked rather than rewritten. The current map remains
+        // valid until the new column version is committed.
+        try {
+            MapWriter.createSymbolMapFiles(ff, ddlMem, path, columnName, newColumnNameTxn, symbolCapacity, cached);
+            scaledSymbolMapWriter = new SymbolMapWriter(
+                    configuration,
+                    path.trimTo(rootLen),
+                    columnName,
+                    newColumnNameTxn,
+                    0,
+                    denseSymbolMapWriters.indexOf(symbolMapWriter),
+                    txWriter
+            );
+        } catch (CairoException e) {
+            LOG.error().$("could not scale symbol capacity [table=").utf8(tableToken.getTableName())
+                    .$(", column=").utf8(columnName)
+                    .$(", e=").$((Sinkable) e)
+                    .I$();
+            removeSymbolMapFilesQuiet(columnName, newColumnNameTxn);
+            return false;
+        }
+        scaledSymbolColumnIndex = columnIndex;
+        scaledSymbolColumnName = Chars.toString(columnName);
+        scaledSymbolColumnNameTxn = newColumnNameTxn;
+        scaledSymbolMetadataVersion = metadata.getMetadataVersion();
+        scaledSymbolTruncateVersion = getTruncateVersion();
+        return true;
+    }
+
     private void swapMetaFile(CharSequence columnName) {
         // close _meta so we can rename it
         metaMem.close();
@@ -6945,6 +7268,66 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         activeNullSetters = o3NullSetters;
     }
 
+    private void swapScaledSymbolMap() {
+        final int columnIndex = scaledSymbolColumnIndex;
+        final long newColumnNameTxn = scaledSymbolColumnNameTxn;
+        final long columnNameTxn = columnVersionWriter.getDefaultColumnNameTxn(columnIndex);
+        boolean nameTxnTaken = columnNameTxn >= newColumnNameTxn;
+        if (PartitionBy.isPartitioned(partitionBy)) {
+            for (int i = 0, n = txWriter.getPartitionCount(); i < n && !nameTxnTaken; i++) {
+                nameTxnTaken = columnVersionWriter.getColumnNameTxn(txWriter.getPartitionTimestampByIndex(i), columnIndex) >= newColumnNameTxn;
+            }
+        } else {
+            nameTxnTaken = nameTxnTaken || columnVersionWriter.getColumnNameTxn(txWriter.getLastPartitionTimestamp(), columnIndex) >= newColumnNameTxn;
+        }
+        if (nameTxnTaken) {
+            // column was written since the copy started, e.g. by UPDATE, under the txn the new map is named after
+            cancelSymbolCapacityScale();
+            return;
+        }
+
+        final SymbolMapWriter symbolMapWriter = (SymbolMapWriter) symbolMapWriters.getQuick(columnIndex);
+        final SymbolMapWriter newSymbolMapWriter = scaledSymbolMapWriter;
+        final int denseSymbolIndex = denseSymbolMapWriters.indexOf(symbolMapWriter);
+        final CharSequence columnName = metadata.getColumnName(columnIndex);
+        LOG.info().$("swapping scaled symbol map [table=").utf8(tableToken.getTableName())
+                .$(", column=").utf8(columnName)
+                .$(", symbolCount=").$(newSymbolMapWriter.getSymbolCount())
+                .$(", capacity=").$(newSymbolMapWriter.getSymbolCapacity())
+                .I$();
+        try {
+            newSymbolMapWriter.updateNullFlag(symbolMapWriter.getNullFlag());
+            newSymbolMapWriter.sync(false);
+            getPurgingOperator();
+            hardLinkAndPurgePartitionColumnFiles(columnName, columnIndex, metadata.getColumnType(columnIndex), columnName, newColumnNameTxn);
+            purgingOperator.add(columnIndex, columnNameTxn, PurgingOperator.TABLE_ROOT_PARTITION, -1L);
+            columnVersionWriter.upsertDefaultTxnName(columnIndex, newColumnNameTxn, columnVersionWriter.getColumnTopPartitionTimestamp(columnIndex));
+            symbolMapWriters.setQuick(columnIndex, newSymbolMapWriter);
+            denseSymbolMapWriters.setQuick(denseSymbolIndex, newSymbolMapWriter);
+            scaledSymbolMapWriter = null;
+            scaledSymbolColumnIndex = -1;
+            scaledSymbolColumnName = null;
+            if (metadata.isWalEnabled()) {
+                // metadata version of WAL table follows its sequencer, readers
+                // reopen the map on column version change
+                columnVersionWriter.commit();
+                txWriter.setColumnVersion(columnVersionWriter.getVersion());
+                txWriter.commit(denseSymbolMapWriters);
+            } else {
+                // capacity is stored in the symbol map header, same as the cache flag, new structure
+                // version makes readers and compiled queries pick up the new map
+                updateMetaStructureVersion();
+            }
+        } catch (CairoException e) {
+            throwDistressException(e);
+        }
+
+        // readers holding the old map, e.g. ILP symbol caches, use the mark to reopen it
+        symbolMapWriter.markMovedTo(newColumnNameTxn);
+        Misc.free(symbolMapWriter);
+        finishColumnPurge();
+    }
+
     private void switchPartition(long timestamp) {
         // Before partition can be switched we need to index records
         // added so far. Index writers will start point to different
@@ -7324,6 +7707,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return messageBus.getO3CopyQueue();
     }
 
+    @Nullable
+    O3IOURingPool getO3IOURingPool() {
+        return o3IOURingPool;
+    }
+
     Sequence getO3OpenColumnPubSeq() {
         return messageBus.getO3OpenColumnPubSeq();
     }
@@ -7840,25 +8228,54 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
         @Override
         public void putStr(int columnIndex, CharSequence value) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStr(value));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                offset = Varchars.append(getPrimaryColumn(columnIndex), value);
+            } else if (ColumnType.isDoubleArray(metadata.getColumnType(columnIndex))) {
+                offset = DoubleArrays.append(getPrimaryColumn(columnIndex), value);
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStr(value);
+            }
+            getSecondaryColumn(columnIndex).putLong(offset);
             setRowValueNotNull(columnIndex);
         }
 
         @Override
         public void putStr(int columnIndex, char value) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStr(value));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                offset = Varchars.append(getPrimaryColumn(columnIndex), SingleCharCharSequence.get(value));
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStr(value);
+            }
+            getSecondaryColumn(columnIndex).putLong(offset);
             setRowValueNotNull(columnIndex);
         }
 
         @Override
         public void putStr(int columnIndex, CharSequence value, int pos, int len) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStr(value, pos, len));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                offset = Varchars.append(getPrimaryColumn(columnIndex), value, pos, pos + len);
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStr(value, pos, len);
+            }
+            getSecondaryColumn(columnIndex).putLong(offset);
             setRowValueNotNull(columnIndex);
         }
 
         @Override
         public void putStrUtf8AsUtf16(int columnIndex, DirectByteCharSequence value, boolean hasNonAsciiChars) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStrUtf8AsUtf16(value, hasNonAsciiChars));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                // VARCHAR keeps UTF-8 as it is
+                offset = Varchars.appendUtf8(getPrimaryColumn(columnIndex), value, hasNonAsciiChars);
+            } else if (ColumnType.isDoubleArray(metadata.getColumnType(columnIndex))) {
+                offset = DoubleArrays.append(getPrimaryColumn(columnIndex), value);
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStrUtf8AsUtf16(value, hasNonAsciiChars);
+            }
+            getSecondaryColumn(columnIndex).putLong(offset);
             setRowValueNotNull(columnIndex);
         }
 
@@ -36,6 +36,7 @@ class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordM
     private int symbolMapCount;
     private int tableId;
     private TableToken tableToken;
+    private long ttl;
     private int version;
     private boolean walEnabled;
 
@@ -82,6 +83,10 @@ class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordM
         return version;
     }
 
+    public long getTtl() {
+        return ttl;
+    }
+
     @Override
     public boolean isWalEnabled() {
         return walEnabled;
@@ -94,6 +99,7 @@ class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordM
         this.tableId = metaMem.getInt(TableUtils.META_OFFSET_TABLE_ID);
         this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
         this.o3MaxLag = metaMem.getLong(TableUtils.META_OFFSET_O3_MAX_LAG);
+        this.ttl = metaMem.getLong(TableUtils.META_OFFSET_TTL);
         TableUtils.validateMeta(metaMem, columnNameIndexMap, ColumnType.VERSION);
         this.timestampIndex = metaMem.getInt(TableUtils.META_OFFSET_TIMESTAMP_INDEX);
         this.columnMetadata.clear();
@@ -144,6 +150,10 @@ class TableWriterMetadata extends AbstractRecordMetadata implements TableRecordM
         version = ColumnType.VERSION;
     }
 
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
     public void updateTableToken(TableToken tableToken) {
         this.tableToken = tableToken;
     }
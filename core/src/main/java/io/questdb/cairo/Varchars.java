@@ -0,0 +1,212 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.api.MemoryA;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.Chars;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.DirectByteCharSequence;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * VARCHAR values are UTF-8 encoded. Each value is stored in the data file as a long header with the size
+ * of the payload, or {@link TableUtils#NULL_LEN} for null, followed by the payload. This is the layout of
+ * BINARY values, so merge, copy and column top routines of BINARY columns apply to VARCHAR as they are.
+ * <p>
+ * The payload starts with a flags byte followed by the UTF-8 bytes. ASCII values are flagged on write,
+ * readers return them as a char sequence over the mapped bytes without decoding. Header, flags and the
+ * first bytes of the value share the cache line, comparisons reject most values on the size alone and
+ * short values are compared without touching another line.
+ * <p>
+ * The long header is what the native BINARY merge kernels read to find the end of the value, a shorter
+ * header would need kernels of its own. A value of n ASCII chars takes 9 + n bytes against 4 + 2 * n bytes
+ * of STRING, it is larger for values of up to 4 chars, equal at 5 and approaches half the size from there on.
+ * Short repetitive values are better stored as SYMBOL.
+ */
+public final class Varchars {
+    public static final byte FLAG_ASCII = 1;
+    public static final int HEADER_SIZE = Long.BYTES + Byte.BYTES;
+
+    private Varchars() {
+    }
+
+    /**
+     * Appends UTF-8 encoded value to the data memory of VARCHAR column.
+     *
+     * @param mem   data memory of the column
+     * @param value value to append, can be null
+     * @return offset of the next value, which is to be appended to the index memory of the column
+     */
+    public static long append(MemoryA mem, @Nullable CharSequence value) {
+        if (value == null) {
+            return mem.putNullBin();
+        }
+        return append(mem, value, 0, value.length());
+    }
+
+    /**
+     * Appends UTF-8 encoded chars of value between lo, inclusive, and hi, exclusive.
+     *
+     * @param mem   data memory of the column
+     * @param value chars to append
+     * @param lo    index of the first char
+     * @param hi    index past the last char
+     * @return offset of the next value
+     */
+    public static long append(MemoryA mem, CharSequence value, int lo, int hi) {
+        final long size = utf8Size(value, lo, hi);
+        mem.putLong(size + Byte.BYTES);
+        mem.putByte(size == hi - lo ? FLAG_ASCII : 0);
+        for (int i = lo; i < hi; ) {
+            final char c = value.charAt(i++);
+            if (c < 128) {
+                mem.putByte((byte) c);
+            } else if (c < 2048) {
+                mem.putByte((byte) (192 | c >> 6));
+                mem.putByte((byte) (128 | c & 63));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i < hi && Character.isLowSurrogate(value.charAt(i))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(i++));
+                    mem.putByte((byte) (240 | codePoint >> 18));
+                    mem.putByte((byte) (128 | codePoint >> 12 & 63));
+                    mem.putByte((byte) (128 | codePoint >> 6 & 63));
+                    mem.putByte((byte) (128 | codePoint & 63));
+                } else {
+                    mem.putByte((byte) '?');
+                }
+            } else {
+                mem.putByte((byte) (224 | c >> 12));
+                mem.putByte((byte) (128 | c >> 6 & 63));
+                mem.putByte((byte) (128 | c & 63));
+            }
+        }
+        return mem.getAppendOffset();
+    }
+
+    /**
+     * Appends value that is UTF-8 encoded already, the bytes are copied as they are.
+     *
+     * @param mem              data memory of the column
+     * @param value            UTF-8 bytes
+     * @param hasNonAsciiChars false when all bytes are ASCII
+     * @return offset of the next value
+     */
+    public static long appendUtf8(MemoryA mem, DirectByteCharSequence value, boolean hasNonAsciiChars) {
+        final long size = value.length();
+        mem.putLong(size + Byte.BYTES);
+        mem.putByte(hasNonAsciiChars ? 0 : FLAG_ASCII);
+        mem.putBlockOfBytes(value.getLo(), size);
+        return mem.getAppendOffset();
+    }
+
+    /**
+     * @param address address of the value header
+     * @return length of the value in UTF-16 chars or {@link TableUtils#NULL_LEN} for null
+     */
+    public static int getStrLen(long address) {
+        final long size = Unsafe.getUnsafe().getLong(address);
+        if (size == TableUtils.NULL_LEN) {
+            return TableUtils.NULL_LEN;
+        }
+        final long lo = address + HEADER_SIZE;
+        final long hi = address + Long.BYTES + size;
+        if ((Unsafe.getUnsafe().getByte(address + Long.BYTES) & FLAG_ASCII) != 0) {
+            return (int) (hi - lo);
+        }
+        int len = 0;
+        for (long p = lo; p < hi; p++) {
+            final int b = Unsafe.getUnsafe().getByte(p) & 0xff;
+            // continuation bytes do not start chars, four byte sequences decode to surrogate pairs
+            if ((b & 0xc0) != 0x80) {
+                len += b >= 0xf0 ? 2 : 1;
+            }
+        }
+        return len;
+    }
+
+    public static int getStrLen(MemoryR mem, long offset) {
+        if (mem.getBinLen(offset) == TableUtils.NULL_LEN) {
+            return TableUtils.NULL_LEN;
+        }
+        return getStrLen(mem.addressOf(offset));
+    }
+
+    private static long utf8Size(CharSequence value, int lo, int hi) {
+        long size = 0;
+        for (int i = lo; i < hi; ) {
+            final char c = value.charAt(i++);
+            if (c < 128) {
+                size++;
+            } else if (c < 2048) {
+                size += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i < hi && Character.isLowSurrogate(value.charAt(i))) {
+                    i++;
+                    size += 4;
+                } else {
+                    size++;
+                }
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Flyweight, which reads VARCHAR values as UTF-16 char sequences. ASCII values are not copied,
+     * other values are decoded into a sink owned by the view. Returned sequence is valid until
+     * the next call.
+     */
+    public static class View {
+        private final DirectByteCharSequence asciiView = new DirectByteCharSequence();
+        private final StringSink utf16Sink = new StringSink();
+
+        public CharSequence of(long address) {
+            final long size = Unsafe.getUnsafe().getLong(address);
+            if (size == TableUtils.NULL_LEN) {
+                return null;
+            }
+            final long lo = address + HEADER_SIZE;
+            final long hi = address + Long.BYTES + size;
+            if ((Unsafe.getUnsafe().getByte(address + Long.BYTES) & FLAG_ASCII) != 0) {
+                return asciiView.of(lo, hi);
+            }
+            utf16Sink.clear();
+            Chars.utf8toUtf16(lo, hi, utf16Sink);
+            return utf16Sink;
+        }
+
+        public CharSequence of(MemoryR mem, long offset) {
+            if (mem.getBinLen(offset) == TableUtils.NULL_LEN) {
+                return null;
+            }
+            return of(mem.addressOf(offset));
+        }
+    }
+}
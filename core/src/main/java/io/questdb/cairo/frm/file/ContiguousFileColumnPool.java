@@ -72,7 +72,7 @@ public class ContiguousFileColumnPool implements FrameColumnPool, Closeable {
         @Override
         public FrameColumn create(Path partitionPath, CharSequence columnName, long columnTxn, int columnType, int indexBlockCapacity, long columnTop, int columnIndex) {
             boolean isIndexed = indexBlockCapacity > 0;
-            switch (columnType) {
+            switch (ColumnType.storageTagOf(columnType)) {
                 case ColumnType.SYMBOL:
                     if (canWrite && isIndexed) {
                         ContiguousFileIndexedFrameColumn indexedColumn = getIndexedColumn();
@@ -355,7 +355,7 @@ final class FastMapRecord implements MapRecord {
                 final int len = Unsafe.getUnsafe().getInt(addr);
                 addr += Integer.BYTES;
                 if (len != TableUtils.NULL_LEN) {
-                    if (ColumnType.isString(columnType)) {
+                    if (ColumnType.tagOf(columnType) == ColumnType.STRING) {
                         addr += (long) len << 1;
                     } else {
                         addr += len;
@@ -210,6 +210,36 @@ public abstract class AbstractMultiTenantPool<T extends PoolTenant> extends Abst
         return true;
     }
 
+    /**
+     * Gives tenants that are idle in the pool a chance to do housekeeping, see {@link #tickIdleTenant(PoolTenant)}.
+     * Tenants in use are skipped, tenants that fail the tick are closed.
+     */
+    public void tickIdle() {
+        final long thread = Thread.currentThread().getId();
+        for (Entry<T> e : entries.values()) {
+            do {
+                for (int i = 0; i < ENTRY_SIZE; i++) {
+                    if (!isClosed() && e.getTenant(i) != null && Unsafe.cas(e.allocations, i, UNALLOCATED, thread)) {
+                        final T tenant = e.getTenant(i);
+                        try {
+                            if (tenant != null) {
+                                tickIdleTenant(tenant);
+                            }
+                        } catch (Throwable th) {
+                            LOG.error().$("could not tick idle tenant [table=`").utf8(tenant.getTableToken().getDirName())
+                                    .$("`, error=").$(th)
+                                    .I$();
+                            closeTenant(thread, e, i, PoolListener.EV_EXPIRE, PoolConstants.CR_DISTRESSED);
+                        } finally {
+                            Unsafe.arrayPutOrdered(e.allocations, i, UNALLOCATED);
+                        }
+                    }
+                }
+                e = e.next;
+            } while (e != null);
+        }
+    }
+
     public void unlock(TableToken tableToken) {
         Entry<T> e = entries.get(tableToken.getDirName());
         long thread = Thread.currentThread().getId();
@@ -383,6 +413,9 @@ public abstract class AbstractMultiTenantPool<T extends PoolTenant> extends Abst
         throw CairoException.critical(0).put("double close [table=").put(tableToken.getDirName()).put(", index=").put(index).put(']');
     }
 
+    protected void tickIdleTenant(T tenant) {
+    }
+
     public static final class Entry<T> {
         private final long[] allocations = new long[ENTRY_SIZE];
         private final int index;
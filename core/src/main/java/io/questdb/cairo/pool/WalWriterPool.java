@@ -50,6 +50,12 @@ public class WalWriterPool extends AbstractMultiTenantPool<WalWriterPool.WalWrit
         return new WalWriterTenant(this, entry, index, tableToken, engine.getTableSequencerAPI(), engine.getMetrics());
     }
 
+    @Override
+    protected void tickIdleTenant(WalWriterTenant tenant) {
+        // rolls segments that outlived the rollover age while no rows were written
+        tenant.tick();
+    }
+
     public static class WalWriterTenant extends WalWriter implements PoolTenant {
         private final int index;
         private Entry<WalWriterTenant> entry;
@@ -31,6 +31,7 @@ import io.questdb.std.*;
 public class PageAddressCache implements Mutable {
 
     private final long cacheSizeThreshold;
+    private final IntList columnTypes = new IntList();
     // Index remapping for variable length columns.
     private final IntList varLenColumnIndexes = new IntList();
     private int columnCount;
@@ -63,6 +64,7 @@ public class PageAddressCache implements Mutable {
     @Override
     public void clear() {
         varLenColumnIndexes.clear();
+        columnTypes.clear();
         if (pageAddresses.size() < cacheSizeThreshold) {
             pageAddresses.clear();
             indexPageAddresses.clear();
@@ -80,6 +82,10 @@ public class PageAddressCache implements Mutable {
         return columnCount;
     }
 
+    public int getColumnType(int columnIndex) {
+        return columnTypes.getQuick(columnIndex);
+    }
+
     public long getIndexPageAddress(int frameIndex, int columnIndex) {
         assert indexPageAddresses.size() >= varLenColumnCount * (frameIndex + 1);
         int varLenColumnIndex = varLenColumnIndexes.getQuick(columnIndex);
@@ -113,8 +119,10 @@ public class PageAddressCache implements Mutable {
         this.columnCount = metadata.getColumnCount();
         this.varLenColumnIndexes.setAll(columnCount, -1);
         this.varLenColumnCount = 0;
+        this.columnTypes.setAll(columnCount, ColumnType.UNDEFINED);
         for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
             final int columnType = metadata.getColumnType(columnIndex);
+            columnTypes.setQuick(columnIndex, columnType);
             if (ColumnType.isVariableLength(columnType)) {
                 varLenColumnIndexes.setQuick(columnIndex, varLenColumnCount++);
             }
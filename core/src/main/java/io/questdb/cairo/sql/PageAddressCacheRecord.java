@@ -25,7 +25,9 @@
 package io.questdb.cairo.sql;
 
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.Varchars;
 import io.questdb.cairo.vm.NullMemoryMR;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCR;
@@ -42,6 +44,8 @@ public class PageAddressCacheRecord implements Record, Closeable {
     private final Long256Impl long256A = new Long256Impl();
     private final Long256Impl long256B = new Long256Impl();
     private final ObjList<SymbolTable> symbolTableCache = new ObjList<>();
+    private final Varchars.View varcharViewA = new Varchars.View();
+    private final Varchars.View varcharViewB = new Varchars.View();
     private int frameIndex;
     private PageAddressCache pageAddressCache;
     private long rowIndex;
@@ -247,6 +251,9 @@ public class PageAddressCacheRecord implements Record, Closeable {
         }
         final long indexPageAddress = pageAddressCache.getIndexPageAddress(frameIndex, columnIndex);
         final long offset = Unsafe.getUnsafe().getLong(indexPageAddress + rowIndex * Long.BYTES);
+        if (ColumnType.isVarchar(pageAddressCache.getColumnType(columnIndex))) {
+            return varcharViewA.of(dataPageAddress + offset);
+        }
         final long size = pageAddressCache.getPageSize(frameIndex, columnIndex);
         return getStr(dataPageAddress, offset, size, csview);
     }
@@ -259,6 +266,9 @@ public class PageAddressCacheRecord implements Record, Closeable {
         }
         final long indexPageAddress = pageAddressCache.getIndexPageAddress(frameIndex, columnIndex);
         final long offset = Unsafe.getUnsafe().getLong(indexPageAddress + rowIndex * Long.BYTES);
+        if (ColumnType.isVarchar(pageAddressCache.getColumnType(columnIndex))) {
+            return varcharViewB.of(dataPageAddress + offset);
+        }
         final long size = pageAddressCache.getPageSize(frameIndex, columnIndex);
         return getStr(dataPageAddress, offset, size, csview2);
     }
@@ -271,6 +281,9 @@ public class PageAddressCacheRecord implements Record, Closeable {
         }
         final long indexPageAddress = pageAddressCache.getIndexPageAddress(frameIndex, columnIndex);
         final long offset = Unsafe.getUnsafe().getLong(indexPageAddress + rowIndex * Long.BYTES);
+        if (ColumnType.isVarchar(pageAddressCache.getColumnType(columnIndex))) {
+            return Varchars.getStrLen(dataPageAddress + offset);
+        }
         return Unsafe.getUnsafe().getInt(dataPageAddress + offset);
     }
 
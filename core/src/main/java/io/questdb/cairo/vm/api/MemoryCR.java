@@ -143,6 +143,11 @@ public interface MemoryCR extends MemoryC, MemoryR {
             Vect.memcpy(address, addr, bytesRemaining);
         }
 
+        @Override
+        public long getAddress() {
+            return address;
+        }
+
         @Override
         public long length() {
             return len;
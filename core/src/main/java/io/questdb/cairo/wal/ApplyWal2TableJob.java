@@ -46,6 +46,7 @@ import io.questdb.std.str.Path;
 import io.questdb.tasks.TelemetryTask;
 import io.questdb.tasks.TelemetryWalTask;
 import io.questdb.tasks.WalTxnNotificationTask;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
@@ -70,6 +71,7 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
     private final WalMetrics metrics;
     private final MicrosecondClock microClock;
     private final OperationCompiler operationCompiler;
+    private final WalApplyScheduler scheduler;
     private final long tableTimeQuotaMicros;
     private final Telemetry<TelemetryTask> telemetry;
     private final TelemetryFacade telemetryFacade;
@@ -80,6 +82,7 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
     public ApplyWal2TableJob(CairoEngine engine, int workerCount, int sharedWorkerCount, @Nullable FunctionFactoryCache ffCache) {
         super(engine.getMessageBus().getWalTxnNotificationQueue(), engine.getMessageBus().getWalTxnNotificationSubSequence());
         this.engine = engine;
+        scheduler = engine.getWalApplyScheduler();
         walTelemetry = engine.getTelemetryWal();
         walTelemetryFacade = walTelemetry.isEnabled() ? this::doStoreWalTelemetry : this::storeWalTelemetryNoop;
         telemetry = engine.getTelemetry();
@@ -99,6 +102,22 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         Misc.free(walEventReader);
     }
 
+    @Override
+    public boolean run(int workerId, @NotNull RunStatus runStatus) {
+        final boolean notified = drainNotifications();
+        final WalApplyScheduler.Table table = scheduler.next();
+        if (table == null) {
+            return notified;
+        }
+        long appliedTxn = WAL_APPLY_IGNORE_ERROR;
+        try {
+            appliedTxn = applyScheduledTable(table.getTableToken(), table.getScheduledTxn(), runStatus);
+        } finally {
+            scheduler.done(table, appliedTxn, microClock.getTicks());
+        }
+        return true;
+    }
+
     private static boolean cleanDroppedTableDirectory(CairoEngine engine, Path tempPath, TableToken tableToken) {
         // Clean all the files inside table folder name except WAL directories and SEQ_DIR directory
         boolean allClean = true;
@@ -250,9 +269,13 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
 
                 isTerminating = runStatus.isTerminating();
                 final long timeLimit = microClock.getTicks() + tableTimeQuotaMicros;
+                final boolean priorityTable = scheduler.isPriorityTable(tableToken);
+                // preemption is checked once per batch of look-ahead transactions, it drains the notification queue
+                boolean preempted = false;
+                int batchTransactionCount = 0;
                 boolean firstRun = true;
                 WHILE_TRANSACTION_CURSOR:
-                while (!isTerminating && ((finishedAll = microClock.getTicks() <= timeLimit) || firstRun) && transactionLogCursor.hasNext()) {
+                while (!isTerminating && ((finishedAll = microClock.getTicks() <= timeLimit && !preempted) || firstRun) && transactionLogCursor.hasNext()) {
                     firstRun = false;
                     final int walId = transactionLogCursor.getWalId();
                     final int segmentId = transactionLogCursor.getSegmentId();
@@ -346,6 +369,10 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                                 rowsAdded += added;
                                 iTransaction++;
                                 physicalRowsAdded += writer.getPhysicallyWrittenRowsSinceLastCommit();
+                                if (++batchTransactionCount >= lookAheadTransactionCount) {
+                                    batchTransactionCount = 0;
+                                    preempted = isPreempted(priorityTable);
+                                }
                             }
                             if (added == -2L || isTerminating) {
                                 // transaction cursor goes beyond prepared transactionMeta or termination requested. Re-run the loop.
@@ -378,6 +405,30 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         }
     }
 
+    private long applyScheduledTable(TableToken tableToken, long seqTxn, RunStatus runStatus) {
+        final int tableId = tableToken.getTableId();
+        if (lastAppliedSeqTxns.get(tableId) < seqTxn) {
+            // Check, maybe we already processed this table to higher txn.
+            final long txn = applyWAL(tableToken, engine, operationCompiler, runStatus);
+            if (txn > -1L) {
+                lastAppliedSeqTxns.put(tableId, txn);
+            } else if (txn == WAL_APPLY_FAILED) {
+                // Set processed transaction marker as Long.MAX_VALUE - 1
+                // so that when the table is unsuspended it's notified with transaction Long.MAX_VALUE
+                // and is picked up for processing by this apply job.
+                lastAppliedSeqTxns.put(tableId, Long.MAX_VALUE - 1);
+                try {
+                    engine.getTableSequencerAPI().suspendTable(tableToken);
+                } catch (CairoException e) {
+                    LOG.critical().$("could not suspend table [table=").$(tableToken.getTableName()).$(", error=").$(e.getFlyweightMessage()).I$();
+                }
+            }
+            return txn;
+        }
+        LOG.debug().$("Skipping WAL processing for table, already processed [table=").$(tableToken).$(", txn=").$(seqTxn).I$();
+        return WAL_APPLY_IGNORE_ERROR;
+    }
+
     private void doStoreTelemetry(short event, short origin) {
         TelemetryTask.store(telemetry, origin, event);
     }
@@ -386,6 +437,28 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         TelemetryWalTask.store(walTelemetry, event, tableToken.getTableId(), walId, seqTxn, rowCount, physicalRowCount, latencyUs);
     }
 
+    // Moves the notifications published since the last call from the queue to the scheduler,
+    // returns true if there were any.
+    private boolean drainNotifications() {
+        boolean drained = false;
+        long cursor;
+        while ((cursor = subSeq.next()) != -1L) {
+            if (cursor > -1L) {
+                drained |= doRun(0, cursor, null);
+            }
+        }
+        return drained;
+    }
+
+    // The time quota of a regular table ends early when a priority table is waiting for the apply.
+    private boolean isPreempted(boolean priorityTable) {
+        if (priorityTable) {
+            return false;
+        }
+        drainNotifications();
+        return scheduler.hasWaitingPriorityTable();
+    }
+
     private long processWalCommit(
             TableWriter writer,
             int walId,
@@ -558,38 +631,13 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
 
     @Override
     protected boolean doRun(int workerId, long cursor, RunStatus runStatus) {
-        final TableToken tableToken;
-        final long seqTxn;
-
         try {
             WalTxnNotificationTask task = queue.get(cursor);
-            tableToken = task.getTableToken();
-            seqTxn = task.getTxn();
+            scheduler.notify(task.getTableToken(), task.getTxn(), microClock.getTicks());
         } finally {
-            // Don't hold the queue until the all the transactions applied to the table
+            // Tables are applied in the scheduler order, the queue only delivers the notifications
             subSeq.done(cursor);
         }
-
-        final int tableId = tableToken.getTableId();
-        if (lastAppliedSeqTxns.get(tableId) < seqTxn) {
-            // Check, maybe we already processed this table to higher txn.
-            final long txn = applyWAL(tableToken, engine, operationCompiler, runStatus);
-            if (txn > -1L) {
-                lastAppliedSeqTxns.put(tableId, txn);
-            } else if (txn == WAL_APPLY_FAILED) {
-                // Set processed transaction marker as Long.MAX_VALUE - 1
-                // so that when the table is unsuspended it's notified with transaction Long.MAX_VALUE
-                // and is picked up for processing by this apply job.
-                lastAppliedSeqTxns.put(tableId, Long.MAX_VALUE - 1);
-                try {
-                    engine.getTableSequencerAPI().suspendTable(tableToken);
-                } catch (CairoException e) {
-                    LOG.critical().$("could not suspend table [table=").$(tableToken.getTableName()).$(", error=").$(e.getFlyweightMessage()).I$();
-                }
-            }
-        } else {
-            LOG.debug().$("Skipping WAL processing for table, already processed [table=").$(tableToken).$(", txn=").$(seqTxn).I$();
-        }
         return true;
     }
 
@@ -101,5 +101,7 @@ public interface MetadataService {
 
     void setMetaO3MaxLag(long o3MaxLagUs);
 
+    void setMetaTtl(long ttl);
+
     void tick();
 }
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.TableToken;
+import io.questdb.std.IntObjHashMap;
+import io.questdb.std.LowerCaseCharSequenceHashSet;
+import io.questdb.std.ObjList;
+import io.questdb.std.datetime.microtime.Timestamps;
+
+/**
+ * Orders the tables with outstanding WAL transactions for the apply jobs. Tables listed
+ * in cairo.wal.apply.priority.tables are picked before any other table. Tables of the same
+ * priority are picked in the order they started waiting for the apply, a table ejected after
+ * using up its time quota waits behind the tables queued while it was applied. Waiting times
+ * are compared in buckets of the table time quota, within a bucket the table with the smaller
+ * transaction lag goes first, it is the quickest to catch up.
+ * <p>
+ * The scheduler is shared by all apply jobs of the engine, a table is handed out to one job at a time.
+ * Waiting tables are kept in a heap per priority, so that picking the next table does not scan them all.
+ */
+public class WalApplyScheduler {
+    private final TableHeap priorityHeap = new TableHeap();
+    private final LowerCaseCharSequenceHashSet priorityTables = new LowerCaseCharSequenceHashSet();
+    private final TableHeap regularHeap = new TableHeap();
+    private final IntObjHashMap<Table> tables = new IntObjHashMap<>();
+    private final long waitBucketMicros;
+    private volatile int waitingPriorityTableCount;
+
+    public WalApplyScheduler(CairoConfiguration configuration) {
+        final String tableNames = configuration.getWalApplyPriorityTables();
+        if (tableNames != null) {
+            for (String tableName : tableNames.split(",")) {
+                tableName = tableName.trim();
+                if (tableName.length() > 0) {
+                    priorityTables.add(tableName);
+                }
+            }
+        }
+        final long timeQuota = configuration.getWalApplyTableTimeQuota();
+        this.waitBucketMicros = timeQuota > 0 ? timeQuota * 1000L : Timestamps.SECOND_MICROS;
+    }
+
+    public synchronized void clear() {
+        priorityHeap.clear();
+        regularHeap.clear();
+        tables.clear();
+        waitingPriorityTableCount = 0;
+    }
+
+    /**
+     * Releases the table handed out by {@link #next()}. The table stays scheduled when it was notified
+     * while it was applied, it then waits behind the tables already queued.
+     *
+     * @param table      table returned by {@link #next()}
+     * @param appliedTxn last sequencer transaction applied to the table or a negative value when unknown
+     * @param now        current time in micros
+     */
+    public synchronized void done(Table table, long appliedTxn, long now) {
+        table.running = false;
+        if (appliedTxn > table.appliedTxn) {
+            table.appliedTxn = appliedTxn;
+        }
+        if (table.renotified) {
+            table.waitBucket = now / waitBucketMicros;
+            table.waitingSince = now;
+            enqueue(table);
+        } else {
+            tables.remove(table.tableToken.getTableId());
+        }
+    }
+
+    public synchronized int getScheduledTableCount() {
+        return tables.size();
+    }
+
+    /**
+     * Checks whether a priority table waits for an apply job. The check does not lock the scheduler,
+     * apply jobs use it to end the time quota of a regular table early.
+     *
+     * @return true when at least one priority table is not being applied
+     */
+    public boolean hasWaitingPriorityTable() {
+        return waitingPriorityTableCount > 0;
+    }
+
+    public boolean isPriorityTable(TableToken tableToken) {
+        return priorityTables.contains(tableToken.getTableName());
+    }
+
+    /**
+     * Hands out the table to apply next, see the class description for the order.
+     *
+     * @return the table or null when all scheduled tables are being applied by other jobs
+     */
+    public synchronized Table next() {
+        Table table = priorityHeap.poll();
+        if (table != null) {
+            waitingPriorityTableCount = priorityHeap.size();
+        } else {
+            table = regularHeap.poll();
+        }
+        if (table != null) {
+            table.running = true;
+            table.renotified = false;
+            table.scheduledTxn = table.txn;
+        }
+        return table;
+    }
+
+    public synchronized void notify(TableToken tableToken, long txn, long now) {
+        final int tableId = tableToken.getTableId();
+        Table table = tables.get(tableId);
+        if (table == null) {
+            table = new Table();
+            table.tableToken = tableToken;
+            table.txn = txn;
+            table.waitBucket = now / waitBucketMicros;
+            table.waitingSince = now;
+            table.priority = isPriorityTable(tableToken);
+            tables.put(tableId, table);
+            enqueue(table);
+            return;
+        }
+
+        // the table could be renamed since the last notification, in or out of the priority list
+        table.tableToken = tableToken;
+        final boolean priority = isPriorityTable(tableToken);
+        if (table.running) {
+            table.priority = priority;
+            table.txn = Math.max(table.txn, txn);
+            table.renotified = true;
+        } else if (priority != table.priority) {
+            getHeap(table.priority).remove(table);
+            table.priority = priority;
+            table.txn = Math.max(table.txn, txn);
+            enqueue(table);
+        } else if (txn > table.txn) {
+            // the lag has grown
+            table.txn = txn;
+            getHeap(priority).update(table);
+        }
+    }
+
+    private void enqueue(Table table) {
+        getHeap(table.priority).add(table);
+        waitingPriorityTableCount = priorityHeap.size();
+    }
+
+    private TableHeap getHeap(boolean priority) {
+        return priority ? priorityHeap : regularHeap;
+    }
+
+    public static class Table {
+        private long appliedTxn = -1;
+        private int heapIndex = -1;
+        private boolean priority;
+        private boolean renotified;
+        private boolean running;
+        private long scheduledTxn;
+        private TableToken tableToken;
+        private long txn;
+        private long waitBucket;
+        private long waitingSince;
+
+        public long getScheduledTxn() {
+            return scheduledTxn;
+        }
+
+        public TableToken getTableToken() {
+            return tableToken;
+        }
+
+        public boolean isPriority() {
+            return priority;
+        }
+
+        private long getLag() {
+            // applied txn is not known until the table is applied once, consider it is fully behind
+            return appliedTxn > -1 ? txn - appliedTxn : txn;
+        }
+
+        private boolean isBefore(Table that) {
+            if (waitBucket != that.waitBucket) {
+                return waitBucket < that.waitBucket;
+            }
+            final long lag = getLag();
+            final long thatLag = that.getLag();
+            if (lag != thatLag) {
+                return lag < thatLag;
+            }
+            return waitingSince < that.waitingSince;
+        }
+    }
+
+    // binary min-heap, tables know their position to be updated or removed in place
+    private static class TableHeap {
+        private final ObjList<Table> heap = new ObjList<>();
+
+        public void add(Table table) {
+            table.heapIndex = heap.size();
+            heap.add(table);
+            siftUp(table.heapIndex);
+        }
+
+        public void clear() {
+            heap.clear();
+        }
+
+        public Table poll() {
+            if (heap.size() == 0) {
+                return null;
+            }
+            final Table table = heap.getQuick(0);
+            remove(table);
+            return table;
+        }
+
+        public void remove(Table table) {
+            final int index = table.heapIndex;
+            final int last = heap.size() - 1;
+            final Table lastTable = heap.getQuick(last);
+            heap.remove(last);
+            table.heapIndex = -1;
+            if (index < last) {
+                heap.setQuick(index, lastTable);
+                lastTable.heapIndex = index;
+                update(lastTable);
+            }
+        }
+
+        public int size() {
+            return heap.size();
+        }
+
+        public void update(Table table) {
+            siftDown(siftUp(table.heapIndex));
+        }
+
+        private void set(int index, Table table) {
+            heap.setQuick(index, table);
+            table.heapIndex = index;
+        }
+
+        private void siftDown(int index) {
+            final Table table = heap.getQuick(index);
+            final int n = heap.size();
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= n) {
+                    break;
+                }
+                if (child + 1 < n && heap.getQuick(child + 1).isBefore(heap.getQuick(child))) {
+                    child++;
+                }
+                final Table childTable = heap.getQuick(child);
+                if (!childTable.isBefore(table)) {
+                    break;
+                }
+                set(index, childTable);
+                index = child;
+            }
+            set(index, table);
+        }
+
+        private int siftUp(int index) {
+            final Table table = heap.getQuick(index);
+            while (index > 0) {
+                final int parent = (index - 1) >> 1;
+                final Table parentTable = heap.getQuick(parent);
+                if (!table.isBefore(parentTable)) {
+                    break;
+                }
+                set(index, parentTable);
+                index = parent;
+            }
+            set(index, table);
+            return index;
+        }
+    }
+}
@@ -24,7 +24,9 @@
 
 package io.questdb.cairo.wal;
 
+import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.GeoHashes;
+import io.questdb.cairo.Varchars;
 import io.questdb.cairo.sql.Record;
 import io.questdb.std.*;
 import io.questdb.std.str.CharSink;
@@ -32,6 +34,8 @@ import io.questdb.std.str.CharSink;
 import static io.questdb.cairo.wal.WalReader.getPrimaryColumnIndex;
 
 public class WalDataRecord implements Record, Sinkable {
+    private final Varchars.View varcharViewA = new Varchars.View();
+    private final Varchars.View varcharViewB = new Varchars.View();
     private WalReader reader;
     private long recordIndex = 0;
 
@@ -189,21 +193,33 @@ public class WalDataRecord implements Record, Sinkable {
     public CharSequence getStr(int col) {
         final long offset = recordIndex * Long.BYTES;
         final int absoluteColumnIndex = getPrimaryColumnIndex(col);
-        return reader.getColumn(absoluteColumnIndex).getStr(reader.getColumn(absoluteColumnIndex + 1).getLong(offset));
+        final long dataOffset = reader.getColumn(absoluteColumnIndex + 1).getLong(offset);
+        if (ColumnType.isVarchar(reader.getColumnType(col))) {
+            return varcharViewA.of(reader.getColumn(absoluteColumnIndex), dataOffset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStr(dataOffset);
     }
 
     @Override
     public CharSequence getStrB(int col) {
         final long offset = recordIndex * Long.BYTES;
         final int absoluteColumnIndex = getPrimaryColumnIndex(col);
-        return reader.getColumn(absoluteColumnIndex).getStr2(reader.getColumn(absoluteColumnIndex + 1).getLong(offset));
+        final long dataOffset = reader.getColumn(absoluteColumnIndex + 1).getLong(offset);
+        if (ColumnType.isVarchar(reader.getColumnType(col))) {
+            return varcharViewB.of(reader.getColumn(absoluteColumnIndex), dataOffset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStr2(dataOffset);
     }
 
     @Override
     public int getStrLen(int col) {
         final long offset = recordIndex * Long.BYTES;
         final int absoluteColumnIndex = getPrimaryColumnIndex(col);
-        return reader.getColumn(absoluteColumnIndex).getStrLen(reader.getColumn(absoluteColumnIndex + 1).getLong(offset));
+        final long dataOffset = reader.getColumn(absoluteColumnIndex + 1).getLong(offset);
+        if (ColumnType.isVarchar(reader.getColumnType(col))) {
+            return Varchars.getStrLen(reader.getColumn(absoluteColumnIndex), dataOffset);
+        }
+        return reader.getColumn(absoluteColumnIndex).getStrLen(dataOffset);
     }
 
     @Override
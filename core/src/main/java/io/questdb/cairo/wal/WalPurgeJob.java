@@ -29,6 +29,8 @@ import io.questdb.cairo.wal.seq.TableSequencerAPI;
 import io.questdb.cairo.wal.seq.TransactionLogCursor;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.Job;
+import io.questdb.mp.SOUnboundedCountDownLatch;
 import io.questdb.mp.SimpleWaitingLock;
 import io.questdb.mp.SynchronizedJob;
 import io.questdb.std.*;
@@ -37,29 +39,35 @@ import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.std.str.NativeLPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class WalPurgeJob extends SynchronizedJob implements Closeable {
     private static final Log LOG = LogFactory.getLog(WalPurgeJob.class);
-    private final TableSequencerAPI.TableSequencerCallback broadSweepRef;
     private final long checkInterval;
     private final MicrosecondClock clock;
     private final CairoConfiguration configuration;
+    private final AtomicInteger deleteBudget = new AtomicInteger();
+    private final int deleteLimit;
     private final CairoEngine engine;
     private final FilesFacade ff;
-    private final NativeLPSZ fileName = new NativeLPSZ();
-    private final Logic logic;
     private final MillisecondClock millisecondClock;
-    private final IntHashSet onDiskWalIDSet = new IntHashSet();
-    private final Path path = new Path();
+    private final WalRetentionPolicy retentionPolicy;
     private final SimpleWaitingLock runLock = new SimpleWaitingLock();
     private final long spinLockTimeout;
+    private final TableSequencerAPI.TableSequencerCallback sweepCollectRef;
+    private final SOUnboundedCountDownLatch sweepDoneLatch = new SOUnboundedCountDownLatch();
+    private final LongList sweepLastTxns = new LongList();
+    // table count in the high int, index of the next table to claim in the low int
+    private final AtomicLong sweepPosition = new AtomicLong();
+    private final ObjList<TableToken> sweepTokens = new ObjList<>();
+    private final TableSweeper sweeper;
     private final ObjHashSet<TableToken> tableTokenBucket = new ObjHashSet<>();
-    private final TxReader txReader;
-    private final NativeLPSZ walName = new NativeLPSZ();
+    private final boolean txnLogChunked;
     private long last = 0;
-    private TableToken tableToken;
 
     public WalPurgeJob(CairoEngine engine, FilesFacade ff, MicrosecondClock clock) {
         this.engine = engine;
@@ -68,15 +76,17 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
         this.checkInterval = engine.getConfiguration().getWalPurgeInterval() * 1000;
         this.millisecondClock = engine.getConfiguration().getMillisecondClock();
         this.spinLockTimeout = engine.getConfiguration().getSpinLockTimeout();
-        this.txReader = new TxReader(ff);
-        this.broadSweepRef = this::broadSweep;
+        this.sweepCollectRef = this::collectTable;
 
         // some code here assumes that WAL_NAME_BASE is "wal", this is to fail the tests if it is not
         //noinspection ConstantConditions
         assert WalUtils.WAL_NAME_BASE.equals("wal");
         configuration = engine.getConfiguration();
+        txnLogChunked = configuration.getWalTxnLogChunkSize() > 0;
+        deleteLimit = configuration.getWalPurgeDeleteLimit();
+        retentionPolicy = WalRetentionPolicy.isEnabled(configuration) ? new WalRetentionPolicy(engine, clock) : null;
 
-        logic = new Logic(new FsDeleter());
+        sweeper = new TableSweeper();
     }
 
     public WalPurgeJob(CairoEngine engine) {
@@ -85,8 +95,7 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
 
     @Override
     public void close() {
-        this.txReader.close();
-        path.close();
+        sweeper.close();
     }
 
     /**
@@ -102,6 +111,15 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
         return runLock;
     }
 
+    /**
+     * Creates a job that helps this job to sweep tables in parallel. Helper jobs only
+     * pick up work while a broad sweep is in progress, so they are cheap to keep assigned
+     * to a worker pool. The caller owns the returned job and must close it.
+     */
+    public HelperJob newHelperJob() {
+        return new HelperJob();
+    }
+
     /**
      * Validate equivalent of "^\d+$" regex.
      */
@@ -118,7 +136,7 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
     /**
      * Validate equivalent of "^wal\d+$" regex.
      */
-    private static boolean matchesWalNamePattern(CharSequence name) {
+    static boolean matchesWalNamePattern(CharSequence name) {
         final int len = name.length();
         if (len < (WalUtils.WAL_NAME_BASE.length() + 1)) {
             return false;
@@ -138,265 +156,59 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
         return true;
     }
 
+    private boolean acquireDeleteBudget() {
+        if (deleteBudget.getAndDecrement() > 0) {
+            return true;
+        }
+        LOG.debug().$("WAL purge delete limit is reached, postponing to the next sweep").$();
+        return false;
+    }
+
     /**
      * Perform a broad sweep that searches for all tables that have closed
      * WAL segments across the database and deletes any which are no longer needed.
+     * Tables are claimed one by one by this job and by its helper jobs, if any.
      */
     private void broadSweep() {
-        engine.getTableSequencerAPI().forAllWalTables(tableTokenBucket, true, broadSweepRef);
-    }
-
-    private void broadSweep(int tableId, final TableToken tableToken, long lastTxn) {
-        try {
-            this.tableToken = tableToken;
-            this.logic.reset(tableToken);
-            onDiskWalIDSet.clear();
-
-            boolean tableDropped = false;
-            discoverWalSegments();
-            if (logic.hasOnDiskSegments()) {
-
-                tableDropped = fetchSequencerPairs();
-
-                // Any of the calls above may leave outstanding `discoveredWalIds` that are still on the filesystem
-                // and don't have any active segments. Any unlocked walNNN directories may be deleted if they don't have
-                // pending segments that are yet to be applied to the table.
-                // Note that this also handles cases where a wal directory was created shortly before a crash and thus
-                // never recorded and tracked by the sequencer for that table.
-                logic.run();
-            }
-
-            if (tableDropped || (lastTxn < 0 && engine.isTableDropped(tableToken))) {
-                if (logic.hasPendingTasks()) {
-                    LOG.info().$("table is dropped, but has WALs containing segments with pending tasks ")
-                            .$("[tableDir=").$(tableToken.getDirName()).I$();
-                } else if (
-                        TableUtils.exists(
-                                ff,
-                                Path.getThreadLocal(""),
-                                configuration.getRoot(),
-                                tableToken.getDirName()
-                        ) != TableUtils.TABLE_EXISTS
-                ) {
-                    // Fully deregister the table
-                    LOG.info().$("table is fully dropped [tableDir=").$(tableToken.getDirName()).I$();
-                    Path pathToDelete = Path.getThreadLocal(configuration.getRoot()).concat(tableToken).$();
-                    Path symLinkTarget = null;
-                    if (ff.isSoftLink(path)) {
-                        symLinkTarget = Path.getThreadLocal2("");
-                        if (!ff.readLink(pathToDelete, symLinkTarget)) {
-                            symLinkTarget = null;
-                        }
-                    }
-                    ff.rmdir(pathToDelete);
-                    if (symLinkTarget != null) {
-                        ff.rmdir(symLinkTarget);
-                    }
-                    TableUtils.lockName(pathToDelete);
-                    ff.remove(pathToDelete);
-                    engine.removeTableToken(tableToken);
-                } else {
-                    LOG.info().$("table is not fully dropped, pinging WAL Apply job to delete table files [tableDir=").$(tableToken.getDirName()).I$();
-                    // Ping ApplyWal2TableJob to clean up the table files
-                    engine.notifyWalTxnRepublisher();
-                }
-            }
-        } catch (CairoException ce) {
-            LOG.error().$("broad sweep failed [table=").$(tableToken)
-                    .$(", msg=").$((Throwable) ce)
-                    .$(", errno=").$(ff.errno()).$(']').$();
+        sweepTokens.clear();
+        sweepLastTxns.clear();
+        engine.getTableSequencerAPI().forAllWalTables(tableTokenBucket, true, sweepCollectRef);
+
+        final int tableCount = sweepTokens.size();
+        deleteBudget.set(deleteLimit > 0 ? deleteLimit : Integer.MAX_VALUE);
+        sweepDoneLatch.reset();
+        // publish the sweep, helpers cannot claim anything before this point since
+        // all tables of the previous sweep are claimed already
+        sweepPosition.set(Numbers.encodeLowHighInts(0, tableCount));
+
+        //noinspection StatementWithEmptyBody
+        while (sweepNextTable(sweeper)) {
         }
+        // remaining tables are claimed by helpers, wait for them to finish
+        sweepDoneLatch.await(tableCount);
     }
 
-    private boolean deleteFile(Path path) {
-        if (!ff.remove(path)) {
-            final int errno = ff.errno();
-            if (errno != 2) {
-                LOG.error().$("Could not delete file [path=").$(path)
-                        .$(", errno=").$(errno).$(']').$();
-                return false;
-            }
-        }
-        return true;
+    private void collectTable(int tableId, final TableToken tableToken, long lastTxn) {
+        sweepTokens.add(tableToken);
+        sweepLastTxns.add(lastTxn);
     }
 
-    private void discoverWalSegments() {
-        Path path = setTablePath(tableToken);
-        long p = ff.findFirst(path);
-        int rootPathLen = path.length();
-        if (p > 0) {
-            try {
-                do {
-                    int type = ff.findType(p);
-                    long pUtf8NameZ = ff.findName(p);
-
-                    if (type == Files.DT_DIR && matchesWalNamePattern(walName.of(pUtf8NameZ))) {
-                        try {
-                            final int walId = Numbers.parseInt(walName, 3, walName.length());
-                            onDiskWalIDSet.add(walId);
-                            final boolean walInUse = walIsInUse(tableToken, walId);
-                            boolean walHasPendingTasks = false;
-
-                            // Search for segments.
-                            path.trimTo(rootPathLen).concat(pUtf8NameZ);
-                            final int walPathLen = path.length();
-                            final long sp = ff.findFirst(path.$());
-
-                            try {
-                                do {
-                                    type = ff.findType(sp);
-                                    pUtf8NameZ = ff.findName(sp);
-
-                                    if (type == Files.DT_DIR && matchesSegmentName(walName.of(pUtf8NameZ))) {
-                                        try {
-                                            final int segmentId = Numbers.parseInt(walName);
-                                            if ((segmentId < WalUtils.SEG_MIN_ID) || (segmentId > WalUtils.SEG_MAX_ID)) {
-                                                throw NumericException.INSTANCE;
-                                            }
-                                            final Path segmentPath = path.trimTo(walPathLen).slash().put(segmentId);
-                                            TableUtils.lockName(segmentPath);
-                                            final boolean locked = !unlocked(segmentPath.$());
-                                            final boolean pendingTasks = segmentHasPendingTasks(walId, segmentId);
-                                            if (pendingTasks) {
-                                                walHasPendingTasks = true;
-                                            }
-                                            logic.trackDiscoveredSegment(walId, segmentId, pendingTasks, locked);
-                                        } catch (NumericException ne) {
-                                            // Non-Segment directory, ignore.
-                                        }
-                                    }
-                                } while (ff.findNext(sp) > 0);
-                            } finally {
-                                ff.findClose(sp);
-                            }
-                            logic.trackDiscoveredWal(walId, walHasPendingTasks, walInUse);
-                        } catch (NumericException ne) {
-                            // Non-WAL directory, ignore.
-                        }
-                    }
-                } while (ff.findNext(p) > 0);
-            } finally {
-                ff.findClose(p);
+    private boolean sweepNextTable(TableSweeper sweeper) {
+        while (true) {
+            final long position = sweepPosition.get();
+            final int index = Numbers.decodeLowInt(position);
+            if (index >= Numbers.decodeHighInt(position)) {
+                return false;
             }
-        }
-    }
-
-    private boolean fetchSequencerPairs() {
-        setTxnPath(tableToken);
-        if (!engine.isTableDropped(tableToken)) {
-            try {
-                txReader.ofRO(path, PartitionBy.NONE);
-                TableUtils.safeReadTxn(txReader, millisecondClock, spinLockTimeout);
-                final long lastAppliedTxn = txReader.getSeqTxn();
-
-                TableSequencerAPI tableSequencerAPI = engine.getTableSequencerAPI();
-                try (TransactionLogCursor transactionLogCursor = tableSequencerAPI.getCursor(tableToken, lastAppliedTxn)) {
-                    while (onDiskWalIDSet.size() > 0 && transactionLogCursor.hasNext()) {
-                        int walId = transactionLogCursor.getWalId();
-                        if (onDiskWalIDSet.remove(walId) != -1) {
-                            int segmentId = transactionLogCursor.getSegmentId();
-                            logic.trackNextToApplySegment(walId, segmentId);
-                        }
-                    }
-                } catch (CairoException e) {
-                    if (e.isTableDropped()) {
-                        // there was a race, we lost
-                        return true;
-                    } else {
-                        throw e;
-                    }
+            if (sweepPosition.compareAndSet(position, position + 1)) {
+                try {
+                    sweeper.sweep(sweepTokens.getQuick(index), sweepLastTxns.getQuick(index));
+                } finally {
+                    sweepDoneLatch.countDown();
                 }
-            } finally {
-                txReader.close();
+                return true;
             }
         }
-        return false;
-        // If table is dropped, all wals can be deleted.
-        // No need to do anything, all discovered segments / wals will be deleted
-    }
-
-    private void recursiveDelete(Path path) {
-        final int errno = ff.rmdir(path);
-        if (errno > 0 && !CairoException.errnoRemovePathDoesNotExist(errno)) {
-            LOG.error().$("could not delete directory [path=").utf8(path)
-                    .$(", errno=").$(errno).$(']').$();
-        }
-    }
-
-    /**
-     * Check if the segment directory has any outstanding ".pending" marker files in a ".pending" directory.
-     */
-    private boolean segmentHasPendingTasks(int walId, int segmentId) {
-        final Path pendingPath = setSegmentPendingPath(tableToken, walId, segmentId);
-        final long p = ff.findFirst(pendingPath);
-        if (p > 0) {
-            try {
-                do {
-                    final int type = ff.findType(p);
-                    final long pUtf8NameZ = ff.findName(p);
-                    fileName.of(pUtf8NameZ);
-                    if ((type == Files.DT_FILE) && Chars.endsWith(fileName, ".pending")) {
-                        return true;
-                    }
-                } while (ff.findNext(p) > 0);
-            } finally {
-                ff.findClose(p);
-            }
-        }
-        return false;
-    }
-
-    private Path setSegmentLockPath(TableToken tableName, int walId, int segmentId) {
-        path.of(configuration.getRoot())
-                .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId);
-        TableUtils.lockName(path);
-        return path;
-    }
-
-    private Path setSegmentPath(TableToken tableName, int walId, int segmentId) {
-        return path.of(configuration.getRoot())
-                .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId).$();
-    }
-
-    private Path setSegmentPendingPath(TableToken tableName, int walId, int segmentId) {
-        return path.of(configuration.getRoot())
-                .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId).concat(".pending").slash$();
-    }
-
-    private Path setTablePath(TableToken tableName) {
-        return path.of(configuration.getRoot())
-                .concat(tableName).$();
-    }
-
-    private void setTxnPath(TableToken tableName) {
-        path.of(configuration.getRoot())
-                .concat(tableName)
-                .concat(TableUtils.TXN_FILE_NAME).$();
-    }
-
-    private Path setWalLockPath(TableToken tableName, int walId) {
-        path.of(configuration.getRoot())
-                .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId);
-        TableUtils.lockName(path);
-        return path;
-    }
-
-    private Path setWalPath(TableToken tableName, int walId) {
-        return path.of(configuration.getRoot())
-                .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).$();
-    }
-
-    private boolean unlocked(Path path) {
-        final int lockFd = TableUtils.lock(ff, path, false);
-        if (lockFd != -1) {
-            ff.close(lockFd);
-            return true; // Could lock/unlock.
-        }
-        return false; // Could not obtain lock.
-    }
-
-    private boolean walIsInUse(TableToken tableName, int walId) {
-        return !unlocked(setWalLockPath(tableName, walId));
     }
 
     @Override
@@ -406,6 +218,8 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
             last = t;
             if (runLock.tryLock()) {
                 try {
+                    // idle writers never commit, roll their aged segments here so that the sweep can purge them
+                    engine.tickIdleWalWriters();
                     broadSweep();
                 } finally {
                     runLock.unlock();
@@ -586,23 +400,324 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
         }
     }
 
-    private class FsDeleter implements Deleter {
+    public class HelperJob implements Job, Closeable {
+        private final TableSweeper sweeper = new TableSweeper();
+
         @Override
-        public void deleteSegmentDirectory(int walId, int segmentId) {
-            LOG.info().$("deleting WAL segment directory [table=").utf8(tableToken.getDirName())
-                    .$(", walId=").$(walId)
-                    .$(", segmentId=").$(segmentId).$(']').$();
-            if (deleteFile(setSegmentLockPath(tableToken, walId, segmentId))) {
-                recursiveDelete(setSegmentPath(tableToken, walId, segmentId));
-            }
+        public void close() {
+            sweeper.close();
+        }
+
+        @Override
+        public boolean run(int workerId, @NotNull RunStatus runStatus) {
+            return sweepNextTable(sweeper);
         }
+    }
+
+    private class TableSweeper implements QuietCloseable {
+        private final NativeLPSZ fileName = new NativeLPSZ();
+        private final Logic logic = new Logic(new FsDeleter());
+        private final IntHashSet onDiskWalIDSet = new IntHashSet();
+        private final Path path = new Path();
+        private final TxReader txReader = new TxReader(ff);
+        private final NativeLPSZ walName = new NativeLPSZ();
+        private TableToken tableToken;
 
         @Override
-        public void deleteWalDirectory(int walId) {
-            LOG.info().$("deleting WAL directory [table=").utf8(tableToken.getDirName())
-                    .$(", walId=").$(walId).$(']').$();
-            if (deleteFile(setWalLockPath(tableToken, walId))) {
-                recursiveDelete(setWalPath(tableToken, walId));
+        public void close() {
+            txReader.close();
+            path.close();
+        }
+
+        private boolean deleteFile(Path path) {
+            if (!ff.remove(path)) {
+                final int errno = ff.errno();
+                if (errno != 2) {
+                    LOG.error().$("Could not delete file [path=").$(path)
+                            .$(", errno=").$(errno).$(']').$();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void discoverWalSegments() {
+            Path path = setTablePath(tableToken);
+            long p = ff.findFirst(path);
+            int rootPathLen = path.length();
+            if (p > 0) {
+                try {
+                    do {
+                        int type = ff.findType(p);
+                        long pUtf8NameZ = ff.findName(p);
+
+                        if (type == Files.DT_DIR && matchesWalNamePattern(walName.of(pUtf8NameZ))) {
+                            try {
+                                final int walId = Numbers.parseInt(walName, 3, walName.length());
+                                onDiskWalIDSet.add(walId);
+                                final boolean walInUse = walIsInUse(tableToken, walId);
+                                boolean walHasPendingTasks = false;
+
+                                // Search for segments.
+                                path.trimTo(rootPathLen).concat(pUtf8NameZ);
+                                final int walPathLen = path.length();
+                                final long sp = ff.findFirst(path.$());
+
+                                try {
+                                    do {
+                                        type = ff.findType(sp);
+                                        pUtf8NameZ = ff.findName(sp);
+
+                                        if (type == Files.DT_DIR && matchesSegmentName(walName.of(pUtf8NameZ))) {
+                                            try {
+                                                final int segmentId = Numbers.parseInt(walName);
+                                                if ((segmentId < WalUtils.SEG_MIN_ID) || (segmentId > WalUtils.SEG_MAX_ID)) {
+                                                    throw NumericException.INSTANCE;
+                                                }
+                                                final Path segmentPath = path.trimTo(walPathLen).slash().put(segmentId);
+                                                TableUtils.lockName(segmentPath);
+                                                final boolean locked = !unlocked(segmentPath.$());
+                                                final boolean pendingTasks = segmentHasPendingTasks(walId, segmentId);
+                                                if (pendingTasks) {
+                                                    walHasPendingTasks = true;
+                                                }
+                                                logic.trackDiscoveredSegment(walId, segmentId, pendingTasks, locked);
+                                            } catch (NumericException ne) {
+                                                // Non-Segment directory, ignore.
+                                            }
+                                        }
+                                    } while (ff.findNext(sp) > 0);
+                                } finally {
+                                    ff.findClose(sp);
+                                }
+                                logic.trackDiscoveredWal(walId, walHasPendingTasks, walInUse);
+                            } catch (NumericException ne) {
+                                // Non-WAL directory, ignore.
+                            }
+                        }
+                    } while (ff.findNext(p) > 0);
+                } finally {
+                    ff.findClose(p);
+                }
+            }
+        }
+
+        private boolean fetchSequencerPairs() {
+            setTxnPath(tableToken);
+            if (!engine.isTableDropped(tableToken)) {
+                try {
+                    txReader.ofRO(path, PartitionBy.NONE);
+                    TableUtils.safeReadTxn(txReader, millisecondClock, spinLockTimeout);
+                    // segments of the applied transactions may still be retained, e.g. for replication
+                    long purgeableTxn = engine.getWalPurgeableSeqTxn(tableToken, txReader.getSeqTxn());
+                    if (retentionPolicy != null) {
+                        purgeableTxn = Math.min(purgeableTxn, retentionPolicy.getPurgeableSeqTxn(tableToken, txReader.getSeqTxn()));
+                    }
+
+                    TableSequencerAPI tableSequencerAPI = engine.getTableSequencerAPI();
+                    // the log of purged transactions cannot be read, whatever the retention asks for
+                    purgeableTxn = Math.max(purgeableTxn, tableSequencerAPI.getMinCursorTxn(tableToken));
+                    try (TransactionLogCursor transactionLogCursor = tableSequencerAPI.getCursor(tableToken, purgeableTxn)) {
+                        while (onDiskWalIDSet.size() > 0 && transactionLogCursor.hasNext()) {
+                            int walId = transactionLogCursor.getWalId();
+                            if (onDiskWalIDSet.remove(walId) != -1) {
+                                int segmentId = transactionLogCursor.getSegmentId();
+                                logic.trackNextToApplySegment(walId, segmentId);
+                            }
+                        }
+                        if (txnLogChunked) {
+                            // transactions up to the purgeable one will not be read from the sequencer again
+                            tableSequencerAPI.purgeTxnLogChunks(tableToken, purgeableTxn);
+                        }
+                    } catch (CairoException e) {
+                        if (e.isTableDropped()) {
+                            // there was a race, we lost
+                            return true;
+                        } else {
+                            throw e;
+                        }
+                    }
+                } finally {
+                    txReader.close();
+                }
+            } else if (retentionPolicy != null) {
+                retentionPolicy.removeTable(tableToken);
+            }
+            return false;
+            // If table is dropped, all wals can be deleted.
+            // No need to do anything, all discovered segments / wals will be deleted
+        }
+
+        private void recursiveDelete(Path path) {
+            final int errno = ff.rmdir(path);
+            if (errno > 0 && !CairoException.errnoRemovePathDoesNotExist(errno)) {
+                LOG.error().$("could not delete directory [path=").utf8(path)
+                        .$(", errno=").$(errno).$(']').$();
+            }
+        }
+
+        /**
+         * Check if the segment directory has any outstanding ".pending" marker files in a ".pending" directory.
+         */
+        private boolean segmentHasPendingTasks(int walId, int segmentId) {
+            final Path pendingPath = setSegmentPendingPath(tableToken, walId, segmentId);
+            final long p = ff.findFirst(pendingPath);
+            if (p > 0) {
+                try {
+                    do {
+                        final int type = ff.findType(p);
+                        final long pUtf8NameZ = ff.findName(p);
+                        fileName.of(pUtf8NameZ);
+                        if ((type == Files.DT_FILE) && Chars.endsWith(fileName, ".pending")) {
+                            return true;
+                        }
+                    } while (ff.findNext(p) > 0);
+                } finally {
+                    ff.findClose(p);
+                }
+            }
+            return false;
+        }
+
+        private Path setSegmentLockPath(TableToken tableName, int walId, int segmentId) {
+            path.of(configuration.getRoot())
+                    .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId);
+            TableUtils.lockName(path);
+            return path;
+        }
+
+        private Path setSegmentPath(TableToken tableName, int walId, int segmentId) {
+            return path.of(configuration.getRoot())
+                    .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId).$();
+        }
+
+        private Path setSegmentPendingPath(TableToken tableName, int walId, int segmentId) {
+            return path.of(configuration.getRoot())
+                    .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId).concat(".pending").slash$();
+        }
+
+        private Path setTablePath(TableToken tableName) {
+            return path.of(configuration.getRoot())
+                    .concat(tableName).$();
+        }
+
+        private void setTxnPath(TableToken tableName) {
+            path.of(configuration.getRoot())
+                    .concat(tableName)
+                    .concat(TableUtils.TXN_FILE_NAME).$();
+        }
+
+        private Path setWalLockPath(TableToken tableName, int walId) {
+            path.of(configuration.getRoot())
+                    .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId);
+            TableUtils.lockName(path);
+            return path;
+        }
+
+        private Path setWalPath(TableToken tableName, int walId) {
+            return path.of(configuration.getRoot())
+                    .concat(tableName).concat(WalUtils.WAL_NAME_BASE).put(walId).$();
+        }
+
+        void sweep(final TableToken tableToken, long lastTxn) {
+            try {
+                this.tableToken = tableToken;
+                this.logic.reset(tableToken);
+                onDiskWalIDSet.clear();
+
+                boolean tableDropped = false;
+                discoverWalSegments();
+                if (logic.hasOnDiskSegments()) {
+
+                    tableDropped = fetchSequencerPairs();
+
+                    // Any of the calls above may leave outstanding `discoveredWalIds` that are still on the filesystem
+                    // and don't have any active segments. Any unlocked walNNN directories may be deleted if they don't have
+                    // pending segments that are yet to be applied to the table.
+                    // Note that this also handles cases where a wal directory was created shortly before a crash and thus
+                    // never recorded and tracked by the sequencer for that table.
+                    logic.run();
+                }
+
+                if (tableDropped || (lastTxn < 0 && engine.isTableDropped(tableToken))) {
+                    if (logic.hasPendingTasks()) {
+                        LOG.info().$("table is dropped, but has WALs containing segments with pending tasks ")
+                                .$("[tableDir=").$(tableToken.getDirName()).I$();
+                    } else if (
+                            TableUtils.exists(
+                                    ff,
+                                    Path.getThreadLocal(""),
+                                    configuration.getRoot(),
+                                    tableToken.getDirName()
+                            ) != TableUtils.TABLE_EXISTS
+                    ) {
+                        // Fully deregister the table
+                        LOG.info().$("table is fully dropped [tableDir=").$(tableToken.getDirName()).I$();
+                        Path pathToDelete = Path.getThreadLocal(configuration.getRoot()).concat(tableToken).$();
+                        Path symLinkTarget = null;
+                        if (ff.isSoftLink(path)) {
+                            symLinkTarget = Path.getThreadLocal2("");
+                            if (!ff.readLink(pathToDelete, symLinkTarget)) {
+                                symLinkTarget = null;
+                            }
+                        }
+                        ff.rmdir(pathToDelete);
+                        if (symLinkTarget != null) {
+                            ff.rmdir(symLinkTarget);
+                        }
+                        TableUtils.lockName(pathToDelete);
+                        ff.remove(pathToDelete);
+                        engine.removeTableToken(tableToken);
+                    } else {
+                        LOG.info().$("table is not fully dropped, pinging WAL Apply job to delete table files [tableDir=").$(tableToken.getDirName()).I$();
+                        // Ping ApplyWal2TableJob to clean up the table files
+                        engine.notifyWalTxnRepublisher();
+                    }
+                }
+            } catch (CairoException ce) {
+                LOG.error().$("broad sweep failed [table=").$(tableToken)
+                        .$(", msg=").$((Throwable) ce)
+                        .$(", errno=").$(ff.errno()).$(']').$();
+            }
+        }
+
+        private boolean unlocked(Path path) {
+            final int lockFd = TableUtils.lock(ff, path, false);
+            if (lockFd != -1) {
+                ff.close(lockFd);
+                return true; // Could lock/unlock.
+            }
+            return false; // Could not obtain lock.
+        }
+
+        private boolean walIsInUse(TableToken tableName, int walId) {
+            return !unlocked(setWalLockPath(tableName, walId));
+        }
+
+        private class FsDeleter implements Deleter {
+            @Override
+            public void deleteSegmentDirectory(int walId, int segmentId) {
+                if (!acquireDeleteBudget()) {
+                    return;
+                }
+                LOG.info().$("deleting WAL segment directory [table=").utf8(tableToken.getDirName())
+                        .$(", walId=").$(walId)
+                        .$(", segmentId=").$(segmentId).$(']').$();
+                if (deleteFile(setSegmentLockPath(tableToken, walId, segmentId))) {
+                    recursiveDelete(setSegmentPath(tableToken, walId, segmentId));
+                }
+            }
+
+            @Override
+            public void deleteWalDirectory(int walId) {
+                if (!acquireDeleteBudget()) {
+                    return;
+                }
+                LOG.info().$("deleting WAL directory [table=").utf8(tableToken.getDirName())
+                        .$(", walId=").$(walId).$(']').$();
+                if (deleteFile(setWalLockPath(tableToken, walId))) {
+                    recursiveDelete(setWalPath(tableToken, walId));
+                }
             }
         }
     }
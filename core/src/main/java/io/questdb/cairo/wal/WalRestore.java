@@ -0,0 +1,281 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCMARW;
+import io.questdb.cairo.wal.seq.TableTransactionLog;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+import static io.questdb.cairo.TableUtils.openSmallFile;
+import static io.questdb.cairo.wal.WalUtils.*;
+
+/**
+ * Rolls WAL tables of a database restored from a snapshot forward to a later point in time.
+ * Sequencer transactions committed after the snapshot are taken, together with their WAL segments,
+ * from the database the snapshot was taken from. That database has to retain WAL segments past apply,
+ * see cairo.wal.retention.age and cairo.wal.retention.size. The transactions are replayed by
+ * WAL apply once the restored database is started.
+ * <p>
+ * Tables whose structure changed, or which were dropped, after the restore target cannot be restored.
+ */
+public class WalRestore implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(WalRestore.class);
+    private final CairoConfiguration configuration;
+    private final Path dstPath = new Path();
+    private final FilesFacade ff;
+    private final NativeLPSZ fileName = new NativeLPSZ();
+    private final MemoryCMARW memFile = Vm.getCMARWInstance();
+    private final LongList seqTxns = new LongList();
+    private final Path srcPath = new Path();
+    private final StringSink tableDirName = new StringSink();
+    private final ObjList<String> tableDirNames = new ObjList<>();
+    private final TxReader txReader;
+
+    /**
+     * @param configuration configuration of the restored database
+     */
+    public WalRestore(CairoConfiguration configuration) {
+        this.configuration = configuration;
+        this.ff = configuration.getFilesFacade();
+        this.txReader = new TxReader(ff);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(dstPath);
+        Misc.free(memFile);
+        Misc.free(srcPath);
+        Misc.free(txReader);
+    }
+
+    /**
+     * Rolls a WAL table forward to the last transaction committed at or before the given timestamp
+     * and not above the given sequencer transaction.
+     *
+     * @param walRoot      root of the database the snapshot was taken from
+     * @param tableDirName directory name of the table
+     * @param timestamp    commit timestamp to restore to, in microseconds
+     * @param seqTxn       sequencer transaction to restore to, Long.MAX_VALUE for no limit
+     * @return sequencer transaction the table is restored to
+     */
+    public long restoreTable(CharSequence walRoot, CharSequence tableDirName, long timestamp, long seqTxn) {
+        final long snapshotSeqTxn = readSnapshotSeqTxn(tableDirName);
+        final long targetSeqTxn = findTargetSeqTxn(walRoot, tableDirName, timestamp, seqTxn, snapshotSeqTxn);
+        if (targetSeqTxn == snapshotSeqTxn) {
+            LOG.info().$("table is already at the restore target [table=").utf8(tableDirName).$(", seqTxn=").$(snapshotSeqTxn).I$();
+            return snapshotSeqTxn;
+        }
+        restoreTable0(walRoot, tableDirName, snapshotSeqTxn, targetSeqTxn);
+        return targetSeqTxn;
+    }
+
+    /**
+     * Rolls all WAL tables of the restored database forward to the given timestamp. All tables are
+     * checked before any of them is modified, so a table that cannot be restored leaves the
+     * database as it was.
+     *
+     * @param walRoot   root of the database the snapshot was taken from
+     * @param timestamp commit timestamp to restore to, in microseconds
+     * @return number of restored tables
+     */
+    public int restoreToTimestamp(CharSequence walRoot, long timestamp) {
+        tableDirNames.clear();
+        dstPath.of(configuration.getRoot());
+        final int rootLen = dstPath.length();
+        ff.iterateDir(dstPath.$(), (pUtf8NameZ, type) -> {
+            if (ff.isDirOrSoftLinkDirNoDots(dstPath, rootLen, pUtf8NameZ, type, tableDirName)) {
+                dstPath.concat(SEQ_DIR).$();
+                if (ff.exists(dstPath)) {
+                    tableDirNames.add(Chars.toString(tableDirName));
+                }
+                dstPath.trimTo(rootLen);
+            }
+        });
+
+        // snapshot and target txn of every table, or -1 when the table is skipped
+        seqTxns.clear();
+        for (int i = 0, n = tableDirNames.size(); i < n; i++) {
+            final String dirName = tableDirNames.getQuick(i);
+            srcPath.of(walRoot).concat(dirName).concat(SEQ_DIR).$();
+            if (!ff.exists(srcPath)) {
+                LOG.info().$("table is not found in WAL root, skipping [table=").utf8(dirName).I$();
+                seqTxns.add(-1, -1);
+                continue;
+            }
+            final long snapshotSeqTxn = readSnapshotSeqTxn(dirName);
+            seqTxns.add(snapshotSeqTxn, findTargetSeqTxn(walRoot, dirName, timestamp, Long.MAX_VALUE, snapshotSeqTxn));
+        }
+
+        int restored = 0;
+        for (int i = 0, n = tableDirNames.size(); i < n; i++) {
+            final long snapshotSeqTxn = seqTxns.getQuick(2 * i);
+            final long targetSeqTxn = seqTxns.getQuick(2 * i + 1);
+            if (targetSeqTxn > snapshotSeqTxn) {
+                restoreTable0(walRoot, tableDirNames.getQuick(i), snapshotSeqTxn, targetSeqTxn);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    private void copyFile(Path src, Path dst) {
+        if (ff.copy(src, dst) < 0) {
+            throw CairoException.critical(ff.errno()).put("could not copy [from=").put(src).put(", to=").put(dst).put(']');
+        }
+    }
+
+    private void copyRecursive(Path src, Path dst) {
+        if (ff.exists(dst.$())) {
+            final int errno = ff.rmdir(dst);
+            if (errno > 0 && !CairoException.errnoRemovePathDoesNotExist(errno)) {
+                throw CairoException.critical(errno).put("could not remove directory [path=").put(dst).put(']');
+            }
+        }
+        if (ff.copyRecursive(src, dst, configuration.getMkDirMode()) < 0) {
+            throw CairoException.critical(ff.errno()).put("could not copy [from=").put(src).put(", to=").put(dst).put(']');
+        }
+    }
+
+    private void copyWal(int srcTableLen, CharSequence tableDirName) {
+        dstPath.of(configuration.getRoot()).concat(tableDirName);
+        final int dstTableLen = dstPath.length();
+        srcPath.trimTo(srcTableLen);
+        final long p = ff.findFirst(srcPath.$());
+        if (p > 0) {
+            try {
+                do {
+                    if (ff.findType(p) == Files.DT_DIR) {
+                        fileName.of(ff.findName(p));
+                        if (WalPurgeJob.matchesWalNamePattern(fileName)) {
+                            srcPath.trimTo(srcTableLen).concat(fileName);
+                            dstPath.trimTo(dstTableLen).concat(fileName);
+                            copyRecursive(srcPath, dstPath);
+                        }
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+            }
+        }
+
+        // the sequencer directory is copied last, the WAL segments it refers to are in place by then
+        srcPath.trimTo(srcTableLen).concat(SEQ_DIR);
+        dstPath.trimTo(dstTableLen).concat(SEQ_DIR);
+        copyRecursive(srcPath, dstPath);
+        srcPath.trimTo(srcTableLen);
+    }
+
+    private long findTargetSeqTxn(CharSequence walRoot, CharSequence tableDirName, long timestamp, long seqTxn, long snapshotSeqTxn) {
+        // find the target transaction and check that everything up to it is retained
+        srcPath.of(walRoot).concat(tableDirName);
+        final int srcTableLen = srcPath.length();
+        srcPath.concat(SEQ_DIR);
+        long targetSeqTxn = snapshotSeqTxn;
+        boolean pastTarget = false;
+        try (TransactionLogCursor cursor = TableTransactionLog.getCursor(ff, srcPath, snapshotSeqTxn)) {
+            while (cursor.hasNext()) {
+                final long txn = cursor.getTxn();
+                final int walId = cursor.getWalId();
+                pastTarget |= txn > seqTxn || cursor.getCommitTimestamp() > timestamp;
+                if (!pastTarget) {
+                    if (txn != targetSeqTxn + 1) {
+                        throw CairoException.nonCritical().put("transaction log is not retained [table=").put(tableDirName)
+                                .put(", seqTxn=").put(targetSeqTxn + 1)
+                                .put(']');
+                    }
+                    if (walId > 0) {
+                        srcPath.trimTo(srcTableLen).concat(WAL_NAME_BASE).put(walId).slash().put(cursor.getSegmentId()).$();
+                        if (!ff.exists(srcPath)) {
+                            throw CairoException.nonCritical().put("WAL segment is not retained [table=").put(tableDirName)
+                                    .put(", seqTxn=").put(txn)
+                                    .put(", path=").put(srcPath)
+                                    .put(']');
+                        }
+                    }
+                    targetSeqTxn = txn;
+                } else if (walId < 0) {
+                    // sequencer metadata is taken from the source, it has to match the target transaction
+                    throw CairoException.nonCritical().put("table structure changed after the restore target [table=").put(tableDirName)
+                            .put(", seqTxn=").put(txn)
+                            .put(']');
+                }
+            }
+        }
+        return targetSeqTxn;
+    }
+
+    private long readSnapshotSeqTxn(CharSequence tableDirName) {
+        // table files of a snapshot pending recovery take precedence over the ones in the table directory
+        dstPath.of(configuration.getSnapshotRoot()).concat(configuration.getDbDirectory()).concat(tableDirName).concat(TableUtils.TXN_FILE_NAME).$();
+        if (!ff.exists(dstPath)) {
+            dstPath.of(configuration.getRoot()).concat(tableDirName).concat(TableUtils.TXN_FILE_NAME).$();
+        }
+        try {
+            txReader.ofRO(dstPath, PartitionBy.NONE);
+            TableUtils.safeReadTxn(txReader, configuration.getMillisecondClock(), configuration.getSpinLockTimeout());
+            return txReader.getSeqTxn();
+        } finally {
+            txReader.close();
+        }
+    }
+
+    private void restoreTable0(CharSequence walRoot, CharSequence tableDirName, long snapshotSeqTxn, long targetSeqTxn) {
+        srcPath.of(walRoot).concat(tableDirName);
+        final int srcTableLen = srcPath.length();
+        copyWal(srcTableLen, tableDirName);
+
+        // truncate the copied transaction log at the target
+        dstPath.of(configuration.getRoot()).concat(tableDirName).concat(SEQ_DIR);
+        openSmallFile(ff, dstPath, dstPath.length(), memFile, TXNLOG_FILE_NAME, MemoryTag.MMAP_TX_LOG);
+        memFile.putLong(TableTransactionLog.MAX_TXN_OFFSET, targetSeqTxn);
+        memFile.close(false);
+
+        // pending snapshot recovery truncates the transaction log to the snapshot, move its mark to the target
+        dstPath.of(configuration.getSnapshotRoot()).concat(configuration.getDbDirectory()).concat(tableDirName).concat(SEQ_DIR);
+        final int snapshotSeqLen = dstPath.length();
+        if (ff.exists(dstPath.concat(TableUtils.TXN_FILE_NAME).$())) {
+            openSmallFile(ff, dstPath.trimTo(snapshotSeqLen), snapshotSeqLen, memFile, TableUtils.TXN_FILE_NAME, MemoryTag.MMAP_TX_LOG);
+            memFile.putLong(0, targetSeqTxn);
+            memFile.close(false);
+            srcPath.trimTo(srcTableLen).concat(SEQ_DIR).concat(TableUtils.META_FILE_NAME).$();
+            dstPath.trimTo(snapshotSeqLen).concat(TableUtils.META_FILE_NAME).$();
+            copyFile(srcPath, dstPath);
+        }
+
+        LOG.info().$("restored table [table=").utf8(tableDirName)
+                .$(", fromSeqTxn=").$(snapshotSeqTxn)
+                .$(", toSeqTxn=").$(targetSeqTxn)
+                .I$();
+    }
+}
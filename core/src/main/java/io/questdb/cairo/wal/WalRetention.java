@@ -0,0 +1,46 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.TableToken;
+
+/**
+ * Holds WAL segments back from being purged after they are applied to the table,
+ * for consumers that read them later, such as replication.
+ */
+@FunctionalInterface
+public interface WalRetention {
+
+    /**
+     * Returns sequencer transaction up to which WAL segments of the table can be purged.
+     * Segments of the transactions above the returned one are retained.
+     *
+     * @param tableToken    table token
+     * @param appliedSeqTxn the last sequencer transaction applied to the table
+     * @return sequencer transaction, not greater than appliedSeqTxn
+     */
+    long getPurgeableSeqTxn(TableToken tableToken, long appliedSeqTxn);
+}
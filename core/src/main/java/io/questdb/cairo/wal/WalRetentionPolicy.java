@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.Path;
+
+/**
+ * Retains WAL segments after they are applied to the table, so that a snapshot can be rolled
+ * forward to a later point in time. A segment is released when its last transaction is older
+ * than the configured age or when the segments retained for the table exceed the configured size,
+ * whichever comes first.
+ */
+public class WalRetentionPolicy implements WalRetention {
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final long maxAgeUs;
+    private final long maxSize;
+    private final MicrosecondClock microsecondClock;
+    private final CharSequence root;
+    private final ConcurrentHashMap<TableRetention> tables = new ConcurrentHashMap<>();
+
+    public WalRetentionPolicy(CairoEngine engine, MicrosecondClock microsecondClock) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.microsecondClock = microsecondClock;
+        this.root = configuration.getRoot();
+        this.maxAgeUs = configuration.getWalRetentionAge() * 1000;
+        this.maxSize = configuration.getWalRetentionSize();
+    }
+
+    public static boolean isEnabled(CairoConfiguration configuration) {
+        return configuration.getWalRetentionAge() > 0 || configuration.getWalRetentionSize() > 0;
+    }
+
+    @Override
+    public long getPurgeableSeqTxn(TableToken tableToken, long appliedSeqTxn) {
+        final TableRetention retention = tables.computeIfAbsent(tableToken.getDirName(), name -> new TableRetention());
+        synchronized (retention) {
+            return retention.update(tableToken, appliedSeqTxn);
+        }
+    }
+
+    public void removeTable(TableToken tableToken) {
+        tables.remove(tableToken.getDirName());
+    }
+
+    private class TableRetention {
+        // retained segment keys to their block in the segments list
+        private final LongIntHashMap segmentIndex = new LongIntHashMap();
+        // blocks of [walId:segmentId, first txn, last commit timestamp, size] in the order of the first txn
+        private final LongList segments = new LongList();
+        private int head;
+        private long scannedTxn;
+
+        private void addTransaction(long key, long txn, long commitTimestamp) {
+            final int index = segmentIndex.keyIndex(key);
+            if (index > -1) {
+                segmentIndex.putAt(index, key, segments.size());
+                segments.add(key, txn, commitTimestamp, -1L);
+            } else {
+                final int block = segmentIndex.valueAt(index);
+                segments.setQuick(block + 2, commitTimestamp);
+                // the segment grew, its size is to be measured again
+                segments.setQuick(block + 3, -1L);
+            }
+        }
+
+        private void compact() {
+            final int n = segments.size();
+            segments.arrayCopy(head, 0, n - head);
+            segments.setPos(n - head);
+            head = 0;
+            segmentIndex.clear();
+            for (int i = 0, m = segments.size(); i < m; i += 4) {
+                segmentIndex.put(segments.getQuick(i), i);
+            }
+        }
+
+        private long measureRetainedSize(TableToken tableToken) {
+            long retainedSize = 0;
+            final Path path = Path.PATH2.get().of(root).concat(tableToken);
+            final int tableLen = path.length();
+            for (int i = head, n = segments.size(); i < n; i += 4) {
+                long size = segments.getQuick(i + 3);
+                if (size < 0) {
+                    final long key = segments.getQuick(i);
+                    path.trimTo(tableLen).concat(WalUtils.WAL_NAME_BASE).put(Numbers.decodeHighInt(key))
+                            .slash().put(Numbers.decodeLowInt(key)).$();
+                    size = ff.getDirSize(path);
+                    segments.setQuick(i + 3, size);
+                }
+                retainedSize += size;
+            }
+            return retainedSize;
+        }
+
+        private long update(TableToken tableToken, long appliedSeqTxn) {
+            if (appliedSeqTxn > scannedTxn) {
+                // after a restart the log is rescanned from the first transaction that is not purged
+                scannedTxn = Math.max(scannedTxn, engine.getTableSequencerAPI().getMinCursorTxn(tableToken));
+                try (TransactionLogCursor cursor = engine.getTableSequencerAPI().getCursor(tableToken, scannedTxn)) {
+                    while (cursor.hasNext() && cursor.getTxn() <= appliedSeqTxn) {
+                        final int walId = cursor.getWalId();
+                        if (walId > 0) {
+                            addTransaction(
+                                    Numbers.encodeLowHighInts(cursor.getSegmentId(), walId),
+                                    cursor.getTxn(),
+                                    cursor.getCommitTimestamp()
+                            );
+                        }
+                        scannedTxn = cursor.getTxn();
+                    }
+                }
+            }
+
+            final long minCommitTimestamp = maxAgeUs > 0 ? microsecondClock.getTicks() - maxAgeUs : Long.MIN_VALUE;
+            long retainedSize = maxSize > 0 ? measureRetainedSize(tableToken) : 0;
+            final int n = segments.size();
+            while (head < n) {
+                final long lastCommitTimestamp = segments.getQuick(head + 2);
+                if (lastCommitTimestamp >= minCommitTimestamp && (maxSize < 1 || retainedSize <= maxSize)) {
+                    break;
+                }
+                segmentIndex.remove(segments.getQuick(head));
+                retainedSize -= segments.getQuick(head + 3);
+                head += 4;
+            }
+            if (head > 0 && head * 2 >= n) {
+                compact();
+            }
+
+            // segments are purged once all of their transactions are at or below the purgeable one
+            return head < segments.size() ? Math.min(appliedSeqTxn, segments.getQuick(head + 1) - 1) : appliedSeqTxn;
+        }
+    }
+}
@@ -46,6 +46,8 @@ public class WalUtils {
     public static final long SEQ_META_OFFSET_COLUMNS = SEQ_META_SUSPENDED + Byte.BYTES;
     public static final String TABLE_REGISTRY_NAME_FILE = "tables.d";
     public static final String TXNLOG_FILE_NAME = "_txnlog";
+    // transaction log split into chunk files, the single file log keeps WAL_FORMAT_VERSION
+    public static final int TXNLOG_FORMAT_VERSION_CHUNKED = 1;
     public static final String TXNLOG_FILE_NAME_META_INX = "_txnlog.meta.i";
     public static final String TXNLOG_FILE_NAME_META_VAR = "_txnlog.meta.d";
     public static final int WALE_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
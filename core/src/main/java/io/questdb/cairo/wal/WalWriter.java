@@ -78,6 +78,9 @@ public class WalWriter implements TableWriterAPI {
     private final int rootLen;
     private final RowImpl row = new RowImpl();
     private final LongList rowValueIsNotNull = new LongList();
+    private final long segmentRolloverAgeUs;
+    private final long segmentRolloverRowCount;
+    private final long segmentRolloverSize;
     private final TableSequencerAPI sequencer;
     private final MemoryMAR symbolMapMem;
     private final BoolList symbolMapNullFlags = new BoolList();
@@ -85,6 +88,8 @@ public class WalWriter implements TableWriterAPI {
     private final ObjList<CharSequenceIntHashMap> symbolMaps = new ObjList<>();
     private final ObjList<ByteCharSequenceIntHashMap> utf8SymbolMaps = new ObjList<>();
     private final Uuid uuid = new Uuid();
+    // end offsets of the data files of var-size columns, as last seen by the size tracking
+    private final LongList varColumnDataSizes = new LongList();
     private final int walId;
     private final WalInitializer walInitializer;
     private final String walName;
@@ -97,7 +102,10 @@ public class WalWriter implements TableWriterAPI {
     private boolean rollSegmentOnNextRow = false;
     private int segmentId = -1;
     private int segmentLockFd = -1;
+    private long segmentFixedRowSize;
+    private long segmentOpenTimestamp;
     private long segmentRowCount = -1;
+    private long segmentVarDataSize;
     private TableToken tableToken;
     private TxReader txReader;
     private long txnMaxTimestamp = -1;
@@ -126,6 +134,9 @@ public class WalWriter implements TableWriterAPI {
         this.metrics = metrics;
         this.open = true;
         this.symbolMapMem = Vm.getMARInstance(configuration.getCommitMode());
+        this.segmentRolloverRowCount = configuration.getWalSegmentRolloverRowCount();
+        this.segmentRolloverSize = configuration.getWalSegmentRolloverSize();
+        this.segmentRolloverAgeUs = configuration.getWalSegmentRolloverAge() * 1000;
 
         try {
             lockWal();
@@ -489,6 +500,7 @@ public class WalWriter implements TableWriterAPI {
                     throw e;
                 }
                 switchColumnsToNewSegment(newColumnFiles);
+                recalculateSegmentSize();
                 rollLastWalEventRecord(newSegmentId, uncommittedRows);
                 segmentId = newSegmentId;
                 segmentRowCount = uncommittedRows;
@@ -523,6 +535,17 @@ public class WalWriter implements TableWriterAPI {
         return true;
     }
 
+    /**
+     * Rolls the current segment when it is due to roll but no new row has arrived to trigger it,
+     * e.g. the segment outlived the rollover age on an idle table. The writer must not be in a transaction.
+     */
+    public void tick() {
+        if (!distressed && segmentRowCount > 0 && !inTransaction() && (rollSegmentOnNextRow || shouldRollSegment())) {
+            rollSegment();
+            rollSegmentOnNextRow = false;
+        }
+    }
+
     @Override
     public String toString() {
         return "WalWriter{" +
@@ -552,7 +575,7 @@ public class WalWriter implements TableWriterAPI {
     }
 
     private static void configureNullSetters(ObjList<Runnable> nullers, int type, MemoryMA mem1, MemoryMA mem2) {
-        switch (ColumnType.tagOf(type)) {
+        switch (ColumnType.storageTagOf(type)) {
             case ColumnType.BOOLEAN:
             case ColumnType.BYTE:
                 nullers.add(() -> mem1.putByte((byte) 0));
@@ -965,7 +988,7 @@ public class WalWriter implements TableWriterAPI {
     }
 
     private MemoryMA createSecondaryMem(int columnType) {
-        switch (ColumnType.tagOf(columnType)) {
+        switch (ColumnType.storageTagOf(columnType)) {
             case ColumnType.BINARY:
             case ColumnType.STRING:
                 return Vm.getMAInstance(configuration.getCommitMode());
@@ -1027,6 +1050,11 @@ public class WalWriter implements TableWriterAPI {
         return columns.getQuick(getSecondaryColumnIndex(column));
     }
 
+    private long getSegmentSize() {
+        // approximate, nulls written to var-size columns are counted by their next non-null value only
+        return segmentRowCount * segmentFixedRowSize + segmentVarDataSize;
+    }
+
     private long getSequencerTxn() {
         long seqTxn;
         do {
@@ -1070,7 +1098,7 @@ public class WalWriter implements TableWriterAPI {
     }
 
     private void mayRollSegmentOnNextRow() {
-        if (!rollSegmentOnNextRow && (segmentRowCount >= configuration.getWalSegmentRolloverRowCount()) || lastSegmentTxn > Integer.MAX_VALUE - 2) {
+        if (!rollSegmentOnNextRow && shouldRollSegment() || lastSegmentTxn > Integer.MAX_VALUE - 2) {
             rollSegmentOnNextRow = true;
         }
     }
@@ -1152,6 +1180,7 @@ public class WalWriter implements TableWriterAPI {
             }
 
             segmentRowCount = 0;
+            recalculateSegmentSize();
             metadata.switchTo(path, segmentPathLen);
             events.openEventFile(path, segmentPathLen);
             if (commitMode != CommitMode.NOSYNC) {
@@ -1162,6 +1191,7 @@ public class WalWriter implements TableWriterAPI {
                 ff.fsyncAndClose(dirFd);
             }
             lastSegmentTxn = 0;
+            segmentOpenTimestamp = configuration.getMicrosecondClock().getTicks();
             LOG.info().$("opened WAL segment [path='").$(path).$('\'').I$();
         } finally {
             if (oldSegmentLockFd > -1) {
@@ -1171,6 +1201,36 @@ public class WalWriter implements TableWriterAPI {
         }
     }
 
+    /**
+     * Recalculates the segment size tracked by commits and var-size column writes. Loops over
+     * all columns, so it is called when the columns or their append positions change wholesale.
+     */
+    private void recalculateSegmentSize() {
+        segmentFixedRowSize = 0;
+        segmentVarDataSize = 0;
+        varColumnDataSizes.setPos(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            final int columnType = metadata.getColumnType(i);
+            long dataSize = 0;
+            if (columnType > 0) {
+                if (ColumnType.isVariableLength(columnType)) {
+                    final MemoryMA primaryColumn = getPrimaryColumn(i);
+                    if (primaryColumn.isOpen()) {
+                        dataSize = primaryColumn.getAppendOffset();
+                    }
+                    segmentFixedRowSize += Long.BYTES;
+                    segmentVarDataSize += dataSize;
+                } else if (i == metadata.getTimestampIndex()) {
+                    // WAL timestamp column stores the row index along with the timestamp
+                    segmentFixedRowSize += 2 * Long.BYTES;
+                } else {
+                    segmentFixedRowSize += ColumnType.sizeOf(columnType);
+                }
+            }
+            varColumnDataSizes.setQuick(i, dataSize);
+        }
+    }
+
     private void releaseSegmentLock(int segmentId, int segmentLockFd) {
         if (ff.close(segmentLockFd)) {
             LOG.debug().$("released segment lock [walId=").$(walId)
@@ -1297,6 +1357,7 @@ public class WalWriter implements TableWriterAPI {
                 rowValueIsNotNull.setQuick(i, segmentRowCount - 1);
             }
         }
+        recalculateSegmentSize();
     }
 
     private void setColumnNull(int columnType, int columnIndex, long rowCount, int commitMode) {
@@ -1316,7 +1377,7 @@ public class WalWriter implements TableWriterAPI {
             if (size > 0) {
                 // subtract column top
                 final long m1pos;
-                switch (ColumnType.tagOf(type)) {
+                switch (ColumnType.storageTagOf(type)) {
                     case ColumnType.BINARY:
                     case ColumnType.STRING:
                         assert mem2 != null;
@@ -1397,6 +1458,19 @@ public class WalWriter implements TableWriterAPI {
         }
     }
 
+    private boolean shouldRollSegment() {
+        if (segmentRolloverAgeUs > 0 && segmentRowCount > 0
+                && configuration.getMicrosecondClock().getTicks() - segmentOpenTimestamp >= segmentRolloverAgeUs) {
+            // segment written under light load, roll it so that it can be purged once applied
+            return true;
+        }
+        if (segmentRolloverSize > 0) {
+            // segments grow larger under heavy load instead of being capped by the row count
+            return getSegmentSize() >= segmentRolloverSize;
+        }
+        return segmentRowCount >= segmentRolloverRowCount;
+    }
+
     private void switchColumnsToNewSegment(LongList newColumnFiles) {
         for (int i = 0; i < columnCount; i++) {
             int newPrimaryFd = (int) newColumnFiles.get(i * NEW_COL_RECORD_SIZE);
@@ -1555,6 +1629,7 @@ public class WalWriter implements TableWriterAPI {
                     if (uncommittedRows > 0) {
                         setColumnNull(columnType, columnIndex, segmentRowCount, configuration.getCommitMode());
                     }
+                    recalculateSegmentSize();
                     LOG.info().$("added column to WAL [path=").$(path).$(Files.SEPARATOR).$(segmentId).$(", columnName=").utf8(columnName).I$();
                 } else {
                     throw CairoException.critical(0).put("column '").put(columnName)
@@ -1611,6 +1686,7 @@ public class WalWriter implements TableWriterAPI {
                             removeSymbolMapReader(index);
                         }
                         markColumnRemoved(index);
+                        recalculateSegmentSize();
                         LOG.info().$("removed column from WAL [path=").$(path).$(", columnName=").utf8(columnName).I$();
                     } else {
                         throw CairoException.critical(0).put("column '").put(columnName)
@@ -1682,13 +1758,13 @@ public class WalWriter implements TableWriterAPI {
 
         @Override
         public void putBin(int columnIndex, long address, long len) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putBin(address, len));
+            putVarOffset(columnIndex, getPrimaryColumn(columnIndex).putBin(address, len));
             setRowValueNotNull(columnIndex);
         }
 
         @Override
         public void putBin(int columnIndex, BinarySequence sequence) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putBin(sequence));
+            putVarOffset(columnIndex, getPrimaryColumn(columnIndex).putBin(sequence));
             setRowValueNotNull(columnIndex);
         }
 
@@ -1792,25 +1868,54 @@ public class WalWriter implements TableWriterAPI {
 
         @Override
         public void putStr(int columnIndex, CharSequence value) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStr(value));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                offset = Varchars.append(getPrimaryColumn(columnIndex), value);
+            } else if (ColumnType.isDoubleArray(metadata.getColumnType(columnIndex))) {
+                offset = DoubleArrays.append(getPrimaryColumn(columnIndex), value);
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStr(value);
+            }
+            putVarOffset(columnIndex, offset);
             setRowValueNotNull(columnIndex);
         }
 
         @Override
         public void putStr(int columnIndex, char value) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStr(value));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                offset = Varchars.append(getPrimaryColumn(columnIndex), SingleCharCharSequence.get(value));
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStr(value);
+            }
+            putVarOffset(columnIndex, offset);
             setRowValueNotNull(columnIndex);
         }
 
         @Override
         public void putStr(int columnIndex, CharSequence value, int pos, int len) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStr(value, pos, len));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                offset = Varchars.append(getPrimaryColumn(columnIndex), value, pos, pos + len);
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStr(value, pos, len);
+            }
+            putVarOffset(columnIndex, offset);
             setRowValueNotNull(columnIndex);
         }
 
         @Override
         public void putStrUtf8AsUtf16(int columnIndex, DirectByteCharSequence value, boolean hasNonAsciiChars) {
-            getSecondaryColumn(columnIndex).putLong(getPrimaryColumn(columnIndex).putStrUtf8AsUtf16(value, hasNonAsciiChars));
+            final long offset;
+            if (ColumnType.isVarchar(metadata.getColumnType(columnIndex))) {
+                // VARCHAR keeps UTF-8 as it is
+                offset = Varchars.appendUtf8(getPrimaryColumn(columnIndex), value, hasNonAsciiChars);
+            } else if (ColumnType.isDoubleArray(metadata.getColumnType(columnIndex))) {
+                offset = DoubleArrays.append(getPrimaryColumn(columnIndex), value);
+            } else {
+                offset = getPrimaryColumn(columnIndex).putStrUtf8AsUtf16(value, hasNonAsciiChars);
+            }
+            putVarOffset(columnIndex, offset);
             setRowValueNotNull(columnIndex);
         }
 
@@ -1907,5 +2012,12 @@ public class WalWriter implements TableWriterAPI {
                     symbolMapReader
             );
         }
+
+        private void putVarOffset(int columnIndex, long offset) {
+            getSecondaryColumn(columnIndex).putLong(offset);
+            // offset is the end of the value in the data file
+            segmentVarDataSize += offset - varColumnDataSizes.getQuick(columnIndex);
+            varColumnDataSizes.setQuick(columnIndex, offset);
+        }
     }
 }
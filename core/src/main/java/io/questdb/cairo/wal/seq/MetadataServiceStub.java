@@ -86,6 +86,11 @@ public interface MetadataServiceStub extends MetadataService {
         throw CairoException.critical(0).put("change of o3MaxLag does not update sequencer metadata");
     }
 
+    @Override
+    default void setMetaTtl(long ttl) {
+        throw CairoException.critical(0).put("change of TTL does not update sequencer metadata");
+    }
+
     @Override
     default void tick() {
         // no-op
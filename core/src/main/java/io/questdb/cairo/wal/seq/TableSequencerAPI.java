@@ -163,6 +163,20 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
+    /**
+     * Calls back while holding the read lock of the table sequencer. The lock blocks new transactions
+     * and structure changes, so the callback sees sequencer files consistent with the last txn it gets.
+     */
+    public void forWalTableReadLocked(final TableToken tableToken, TableSequencerCallback callback) {
+        try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.READ)) {
+            try {
+                callback.onTable(tableToken.getTableId(), tableToken, tableSequencer.lastTxn());
+            } finally {
+                tableSequencer.unlockRead();
+            }
+        }
+    }
+
     public @NotNull TransactionLogCursor getCursor(final TableToken tableToken, long seqTxn) {
         try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.READ)) {
             TransactionLogCursor cursor;
@@ -187,6 +201,16 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
+    /**
+     * Returns the lowest transaction a transaction log cursor of the table can start at,
+     * the log of the transactions up to it is purged.
+     */
+    public long getMinCursorTxn(final TableToken tableToken) {
+        try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.NONE)) {
+            return tableSequencer.getMinCursorTxn();
+        }
+    }
+
     public int getNextWalId(final TableToken tableToken) {
         try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.READ)) {
             int walId;
@@ -258,7 +282,9 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
-    @TestOnly
+    /**
+     * Reopens sequencer files of the table, e.g. after they are replaced by replication.
+     */
     public void openSequencer(TableToken tableToken) {
         try (TableSequencerImpl sequencer = openSequencerLocked(tableToken, SequencerLockType.WRITE)) {
             try {
@@ -269,6 +295,22 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
+    public void purgeTxnLogChunks(final TableToken tableToken, long seqTxnLo) {
+        try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.NONE)) {
+            // most sweeps have nothing to purge, do not block writers for them
+            if (!tableSequencer.hasPurgeableTxnLogChunks(seqTxnLo)) {
+                return;
+            }
+        }
+        try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.WRITE)) {
+            try {
+                tableSequencer.purgeTxnLogChunks(seqTxnLo);
+            } finally {
+                tableSequencer.unlockWrite();
+            }
+        }
+    }
+
     public void registerTable(int tableId, final TableDescriptor tableDescriptor, final TableToken tableToken) {
         try (
                 TableSequencerImpl tableSequencer = getTableSequencerEntry(tableToken, SequencerLockType.WRITE, (key, tt) -> {
@@ -76,7 +76,7 @@ public class TableSequencerImpl implements TableSequencer {
             metadata = new SequencerMetadata(ff);
             metadataSvc = new SequencerMetadataService(metadata, tableToken);
             walIdGenerator = new IDGenerator(configuration, WAL_INDEX_FILE_NAME);
-            tableTransactionLog = new TableTransactionLog(ff);
+            tableTransactionLog = new TableTransactionLog(configuration);
             microClock = engine.getConfiguration().getMicrosecondClock();
         } catch (Throwable th) {
             LOG.critical().$("could not create sequencer [name=").utf8(tableToken.getDirName())
@@ -122,6 +122,10 @@ public class TableSequencerImpl implements TableSequencer {
         return tableTransactionLog.getTableMetadataChangeLog(tableToken, structureVersionLo, alterCommandWalFormatter);
     }
 
+    public long getMinCursorTxn() {
+        return tableTransactionLog.getMinCursorTxn();
+    }
+
     @Override
     public int getNextWalId() {
         return (int) walIdGenerator.getNextId();
@@ -186,6 +190,10 @@ public class TableSequencerImpl implements TableSequencer {
         return tableTransactionLog.getCursor(seqTxn);
     }
 
+    public boolean hasPurgeableTxnLogChunks(long seqTxnLo) {
+        return tableTransactionLog.hasPurgeableChunks(seqTxnLo);
+    }
+
     public boolean isClosed() {
         return closed;
     }
@@ -308,6 +316,11 @@ public class TableSequencerImpl implements TableSequencer {
         }
     }
 
+    public void purgeTxnLogChunks(long seqTxnLo) {
+        checkDropped();
+        tableTransactionLog.purgeChunks(seqTxnLo);
+    }
+
     @Override
     public void rename(TableToken newTableToken) {
         checkDropped();
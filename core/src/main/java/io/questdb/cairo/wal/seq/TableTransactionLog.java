@@ -24,6 +24,7 @@
 
 package io.questdb.cairo.wal.seq;
 
+import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.MemorySerializer;
 import io.questdb.cairo.TableToken;
@@ -51,7 +52,11 @@ public class TableTransactionLog implements Closeable {
     public static final long MAX_TXN_OFFSET = Integer.BYTES;
     public static final long HEADER_SIZE = MAX_TXN_OFFSET + Long.BYTES + HEADER_RESERVED;
     public static final int STRUCTURAL_CHANGE_WAL_ID = -1;
+    // chunked log header fields, stored in the reserved area of the header
+    public static final long TX_LOG_CHUNK_SIZE_OFFSET = MAX_TXN_OFFSET + Long.BYTES;
+    public static final long TX_LOG_CHUNK_LO_OFFSET = TX_LOG_CHUNK_SIZE_OFFSET + Integer.BYTES;
     private static final Log LOG = LogFactory.getLog(TableTransactionLog.class);
+    private static final long TX_LOG_FORMAT_VERSION_OFFSET = 0L;
     private static final long TX_LOG_STRUCTURE_VERSION_OFFSET = 0L;
     private static final long TX_LOG_WAL_ID_OFFSET = TX_LOG_STRUCTURE_VERSION_OFFSET + Long.BYTES;
     private static final long TX_LOG_SEGMENT_OFFSET = TX_LOG_WAL_ID_OFFSET + Integer.BYTES;
@@ -60,16 +65,48 @@ public class TableTransactionLog implements Closeable {
     public static final long RECORD_SIZE = TX_LOG_COMMIT_TIMESTAMP_OFFSET + Long.BYTES;
     private static final ThreadLocal<AlterOperation> tlAlterOperation = new ThreadLocal<>();
     private static final ThreadLocal<TableMetadataChangeLogImpl> tlStructChangeCursor = new ThreadLocal<>();
+    private static final ThreadLocal<TransactionLogChunkedCursorImpl> tlTransactionLogChunkedCursor = new ThreadLocal<>();
     private static final ThreadLocal<TransactionLogCursorImpl> tlTransactionLogCursor = new ThreadLocal<>();
+    private final int configuredChunkSize;
     private final FilesFacade ff;
     private final AtomicLong maxTxn = new AtomicLong();
     private final StringSink rootPath = new StringSink();
+    private final MemoryCMARW txnChunkMem = Vm.getCMARWInstance();
     private final MemoryCMARW txnMem = Vm.getCMARWInstance();
     private final MemoryCMARW txnMetaMem = Vm.getCMARWInstance();
     private final MemoryCMARW txnMetaMemIndex = Vm.getCMARWInstance();
+    // First retained chunk, read without the sequencer lock to check if there is anything to purge.
+    private volatile long chunkLo;
+    private Path chunkPath;
+    // Number of transaction records per chunk file, 0 when all records are stored in the _txnlog file.
+    private int chunkSize;
+    private long txnChunkId = -1;
+
+    TableTransactionLog(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.configuredChunkSize = configuration.getWalTxnLogChunkSize();
+    }
 
-    TableTransactionLog(FilesFacade ff) {
-        this.ff = ff;
+    /**
+     * Opens a cursor over the transaction log stored in the given sequencer directory
+     * without opening the sequencer. The cursor has to be closed by the caller.
+     */
+    public static TransactionLogCursor getCursor(FilesFacade ff, @Transient Path path, long txnLo) {
+        final int txnFd = openFileRO(ff, path, TXNLOG_FILE_NAME);
+        final int chunkSize;
+        try {
+            chunkSize = readChunkSize(
+                    ff.readNonNegativeInt(txnFd, TX_LOG_FORMAT_VERSION_OFFSET),
+                    ff.readNonNegativeInt(txnFd, TX_LOG_CHUNK_SIZE_OFFSET),
+                    path
+            );
+        } finally {
+            ff.close(txnFd);
+        }
+        if (chunkSize > 0) {
+            return new TransactionLogChunkedCursorImpl().of(ff, txnLo, path, chunkSize);
+        }
+        return new TransactionLogCursorImpl(ff, txnLo, path);
     }
 
     @Override
@@ -78,9 +115,22 @@ public class TableTransactionLog implements Closeable {
             long maxTxnInFile = txnMem.getLong(MAX_TXN_OFFSET);
             assert maxTxnInFile == maxTxn.get() : "Max txn in the file " + maxTxnInFile + " but in memory is " + maxTxn.get();
             txnMem.close(false);
+            txnChunkMem.close(false);
             txnMetaMem.close(false);
             txnMetaMemIndex.close(false);
         }
+        txnChunkId = -1;
+        chunkPath = Misc.free(chunkPath);
+    }
+
+    private static int openChunkRO(final FilesFacade ff, final Path path, long chunkId) {
+        final int rootLen = path.length();
+        path.concat(TXNLOG_FILE_NAME).put('.').put(chunkId).$();
+        try {
+            return TableUtils.openRO(ff, path, LOG);
+        } finally {
+            path.trimTo(rootLen);
+        }
     }
 
     private static int openFileRO(final FilesFacade ff, final Path path, final String fileName) {
@@ -93,12 +143,82 @@ public class TableTransactionLog implements Closeable {
         }
     }
 
+    /**
+     * Returns the number of records per chunk file, 0 for the single file log. Logs written by a
+     * newer version are rejected rather than misread.
+     */
+    private static int readChunkSize(int formatVersion, int chunkSize, CharSequence path) {
+        if (formatVersion == WAL_FORMAT_VERSION) {
+            return 0;
+        }
+        if (formatVersion == TXNLOG_FORMAT_VERSION_CHUNKED && chunkSize > 0) {
+            return chunkSize;
+        }
+        throw CairoException.critical(0).put("unsupported transaction log format [path=").put(path)
+                .put(", formatVersion=").put(formatVersion)
+                .put(", chunkSize=").put(chunkSize)
+                .put(']');
+    }
+
+    private static long readLastStructureVersion(final FilesFacade ff, final Path path, int txnFd, long txnCount) {
+        final int chunkSize = readChunkSize(
+                ff.readNonNegativeInt(txnFd, TX_LOG_FORMAT_VERSION_OFFSET),
+                ff.readNonNegativeInt(txnFd, TX_LOG_CHUNK_SIZE_OFFSET),
+                path
+        );
+        if (chunkSize < 1) {
+            return ff.readNonNegativeLong(txnFd, HEADER_SIZE + (txnCount - 1) * RECORD_SIZE + TX_LOG_STRUCTURE_VERSION_OFFSET);
+        }
+        if (txnCount < 1) {
+            return 0L;
+        }
+        final int chunkFd = openChunkRO(ff, path, (txnCount - 1) / chunkSize);
+        try {
+            return ff.readNonNegativeLong(chunkFd, ((txnCount - 1) % chunkSize) * RECORD_SIZE + TX_LOG_STRUCTURE_VERSION_OFFSET);
+        } finally {
+            ff.close(chunkFd);
+        }
+    }
+
     public void sync() {
         txnMetaMemIndex.sync(false);
         txnMetaMem.sync(false);
+        if (txnChunkMem.isOpen()) {
+            txnChunkMem.sync(false);
+        }
         txnMem.sync(false);
     }
 
+    private void openChunk(long chunkId) {
+        if (txnChunkMem.isOpen()) {
+            txnChunkMem.sync(false);
+        }
+        final long chunkBytes = chunkSize * RECORD_SIZE;
+        chunkPath.of(rootPath).concat(TXNLOG_FILE_NAME).put('.').put(chunkId).$();
+        // chunk files are allocated to their full size upfront, readers map the whole chunk
+        txnChunkMem.of(ff, chunkPath, chunkBytes, chunkBytes, MemoryTag.MMAP_TX_LOG, CairoConfiguration.O_NONE, -1);
+        txnChunkId = chunkId;
+    }
+
+    /**
+     * Positions memory to append the record of the next transaction. In chunked mode
+     * this switches to the next chunk file once the current one is full.
+     *
+     * @return memory to append the record to
+     */
+    private MemoryCMARW recordMem() {
+        if (chunkSize == 0) {
+            return txnMem;
+        }
+        final long txnIndex = maxTxn.get();
+        final long chunkId = txnIndex / chunkSize;
+        if (chunkId != txnChunkId) {
+            openChunk(chunkId);
+        }
+        txnChunkMem.jumpTo((txnIndex - chunkId * chunkSize) * RECORD_SIZE);
+        return txnChunkMem;
+    }
+
     @NotNull
     static TableMetadataChangeLog getTableMetadataChangeLog() {
         TableMetadataChangeLogImpl instance = tlStructChangeCursor.get();
@@ -109,15 +229,19 @@ public class TableTransactionLog implements Closeable {
     }
 
     long addEntry(long structureVersion, int walId, int segmentId, int segmentTxn, long timestamp) {
-        txnMem.putLong(structureVersion);
-        txnMem.putInt(walId);
-        txnMem.putInt(segmentId);
-        txnMem.putInt(segmentTxn);
-        txnMem.putLong(timestamp);
+        final MemoryCMARW recordMem = recordMem();
+        recordMem.putLong(structureVersion);
+        recordMem.putInt(walId);
+        recordMem.putInt(segmentId);
+        recordMem.putInt(segmentTxn);
+        recordMem.putLong(timestamp);
 
         Unsafe.getUnsafe().storeFence();
         long maxTxn = this.maxTxn.incrementAndGet();
         txnMem.putLong(MAX_TXN_OFFSET, maxTxn);
+        if (chunkSize > 0) {
+            txnChunkMem.sync(false);
+        }
         txnMem.sync(false);
         // Transactions are 1 based here
         return maxTxn;
@@ -126,11 +250,12 @@ public class TableTransactionLog implements Closeable {
     void beginMetadataChangeEntry(long newStructureVersion, MemorySerializer serializer, Object instance, long timestamp) {
         assert newStructureVersion == txnMetaMemIndex.getAppendOffset() / Long.BYTES;
 
-        txnMem.putLong(newStructureVersion);
-        txnMem.putInt(STRUCTURAL_CHANGE_WAL_ID);
-        txnMem.putInt(-1);
-        txnMem.putInt(-1);
-        txnMem.putLong(timestamp);
+        final MemoryCMARW recordMem = recordMem();
+        recordMem.putLong(newStructureVersion);
+        recordMem.putInt(STRUCTURAL_CHANGE_WAL_ID);
+        recordMem.putInt(-1);
+        recordMem.putInt(-1);
+        recordMem.putLong(timestamp);
 
         txnMetaMem.putInt(0);
         long varMemBegin = txnMetaMem.getAppendOffset();
@@ -154,6 +279,14 @@ public class TableTransactionLog implements Closeable {
 
     TransactionLogCursor getCursor(long txnLo) {
         final Path path = Path.PATH.get().of(rootPath);
+        if (chunkSize > 0) {
+            TransactionLogChunkedCursorImpl cursor = tlTransactionLogChunkedCursor.get();
+            if (cursor == null) {
+                cursor = new TransactionLogChunkedCursorImpl();
+                tlTransactionLogChunkedCursor.set(cursor);
+            }
+            return cursor.of(ff, txnLo, path, chunkSize);
+        }
         TransactionLogCursorImpl cursor = tlTransactionLogCursor.get();
         if (cursor == null) {
             cursor = new TransactionLogCursorImpl(ff, txnLo, path);
@@ -163,6 +296,15 @@ public class TableTransactionLog implements Closeable {
         return cursor.of(ff, txnLo, path);
     }
 
+    /**
+     * Returns the lowest transaction a cursor can be positioned at, the log of the transactions
+     * up to it is purged.
+     */
+    long getMinCursorTxn() {
+        final int chunkSize = this.chunkSize;
+        return chunkSize > 0 ? chunkLo * chunkSize : 0;
+    }
+
     @NotNull
     TableMetadataChangeLog getTableMetadataChangeLog(TableToken tableToken, long structureVersionLo, MemorySerializer serializer) {
         final TableMetadataChangeLogImpl cursor = (TableMetadataChangeLogImpl) getTableMetadataChangeLog();
@@ -170,6 +312,17 @@ public class TableTransactionLog implements Closeable {
         return cursor;
     }
 
+    /**
+     * Checks if there are chunk files which contain only transactions before the given one.
+     * Can be called without holding the sequencer lock, the answer is a hint then.
+     *
+     * @param seqTxnLo the lowest transaction that readers may still position the cursor at
+     */
+    boolean hasPurgeableChunks(long seqTxnLo) {
+        final int chunkSize = this.chunkSize;
+        return chunkSize > 0 && seqTxnLo > 0 && chunkLo < (Math.min(seqTxnLo, maxTxn.get()) - 1) / chunkSize;
+    }
+
     long lastTxn() {
         return maxTxn.get();
     }
@@ -185,11 +338,22 @@ public class TableTransactionLog implements Closeable {
 
         long lastTxn = txnMem.getLong(MAX_TXN_OFFSET);
         maxTxn.set(lastTxn);
+        txnChunkMem.close(false);
+        txnChunkId = -1;
+        // when the log is empty it is safe to switch it to the configured layout
+        chunkSize = lastTxn == 0
+                ? Math.max(configuredChunkSize, 0)
+                : readChunkSize(txnMem.getInt(TX_LOG_FORMAT_VERSION_OFFSET), txnMem.getInt(TX_LOG_CHUNK_SIZE_OFFSET), rootPath);
+        if (chunkSize > 0 && chunkPath == null) {
+            chunkPath = new Path();
+        }
+        chunkLo = lastTxn == 0 ? 0 : txnMem.getLong(TX_LOG_CHUNK_LO_OFFSET);
 
         if (lastTxn == 0) {
             txnMem.jumpTo(0L);
-            txnMem.putInt(WAL_FORMAT_VERSION);
+            txnMem.putInt(chunkSize > 0 ? TXNLOG_FORMAT_VERSION_CHUNKED : WAL_FORMAT_VERSION);
             txnMem.putLong(0L);
+            txnMem.putInt(chunkSize);
             txnMem.putLong(0L);
             txnMem.jumpTo(HEADER_SIZE);
 
@@ -197,8 +361,15 @@ public class TableTransactionLog implements Closeable {
             txnMetaMemIndex.putLong(0L); // N + 1, first entry is 0.
             txnMetaMem.jumpTo(0L);
         } else {
-            long maxStructureVersion = txnMem.getLong(HEADER_SIZE + (lastTxn - 1) * RECORD_SIZE + TX_LOG_STRUCTURE_VERSION_OFFSET);
-            txnMem.jumpTo(HEADER_SIZE + lastTxn * RECORD_SIZE);
+            final long maxStructureVersion;
+            if (chunkSize > 0) {
+                final long lastTxnIndex = lastTxn - 1;
+                openChunk(lastTxnIndex / chunkSize);
+                maxStructureVersion = txnChunkMem.getLong((lastTxnIndex % chunkSize) * RECORD_SIZE + TX_LOG_STRUCTURE_VERSION_OFFSET);
+            } else {
+                maxStructureVersion = txnMem.getLong(HEADER_SIZE + (lastTxn - 1) * RECORD_SIZE + TX_LOG_STRUCTURE_VERSION_OFFSET);
+                txnMem.jumpTo(HEADER_SIZE + lastTxn * RECORD_SIZE);
+            }
             long structureAppendOffset = maxStructureVersion * Long.BYTES;
             long txnMetaMemSize = txnMetaMemIndex.getLong(structureAppendOffset);
             txnMetaMemIndex.jumpTo(structureAppendOffset + Long.BYTES);
@@ -206,6 +377,30 @@ public class TableTransactionLog implements Closeable {
         }
     }
 
+    /**
+     * Removes chunk files which contain only transactions before the given one. Not applicable
+     * when the log is stored in a single file.
+     *
+     * @param seqTxnLo the lowest transaction that readers may still position the cursor at
+     */
+    void purgeChunks(long seqTxnLo) {
+        if (hasPurgeableChunks(seqTxnLo)) {
+            final long chunkLo = this.chunkLo;
+            final long chunkHi = (Math.min(seqTxnLo, maxTxn.get()) - 1) / chunkSize;
+            // move the header index first, a crash between the two steps leaves orphan files only
+            txnMem.putLong(TX_LOG_CHUNK_LO_OFFSET, chunkHi);
+            txnMem.sync(false);
+            this.chunkLo = chunkHi;
+            for (long chunkId = chunkLo; chunkId < chunkHi; chunkId++) {
+                chunkPath.of(rootPath).concat(TXNLOG_FILE_NAME).put('.').put(chunkId).$();
+                if (!ff.remove(chunkPath) && !CairoException.errnoRemovePathDoesNotExist(ff.errno())) {
+                    LOG.error().$("could not remove txn log chunk [path=").utf8(chunkPath).$(", errno=").$(ff.errno()).I$();
+                }
+            }
+            LOG.info().$("purged txn log chunks [path=").utf8(rootPath).$(", chunkLo=").$(chunkLo).$(", chunkHi=").$(chunkHi).I$();
+        }
+    }
+
     AlterOperation readTableMetadataChangeLog(long structureVersion, MemorySerializer serializer) {
         long txnMetaOffset = txnMetaMemIndex.getLong(structureVersion * Long.BYTES);
         int recordSize = txnMetaMem.getInt(txnMetaOffset);
@@ -289,7 +484,7 @@ public class TableTransactionLog implements Closeable {
                 long txnCount = ff.readNonNegativeLong(txnFd, MAX_TXN_OFFSET);
                 if (txnCount > -1L) {
 
-                    long maxStructureVersion = ff.readNonNegativeLong(txnFd, HEADER_SIZE + (txnCount - 1) * RECORD_SIZE + TX_LOG_STRUCTURE_VERSION_OFFSET);
+                    long maxStructureVersion = readLastStructureVersion(ff, path, txnFd, txnCount);
                     if (maxStructureVersion > structureVersionLo) {
                         txnMetaOffset = ff.readNonNegativeLong(txnMetaIndexFd, structureVersionLo * Long.BYTES);
                         if (txnMetaOffset > -1L) {
@@ -327,6 +522,159 @@ public class TableTransactionLog implements Closeable {
         }
     }
 
+    private static class TransactionLogChunkedCursorImpl implements TransactionLogCursor {
+        private long chunkAddress;
+        private long chunkId = -1;
+        private int chunkSize;
+        private int fd = -1;
+        private FilesFacade ff;
+        private Path path;
+        // txn of the record the getters read, can lag behind txn after setPosition()
+        private long recordTxn;
+        private long txn;
+        private long txnCount;
+        private long txnLo;
+
+        @Override
+        public void close() {
+            unmapChunk();
+            if (fd > -1) {
+                ff.close(fd);
+                fd = -1;
+            }
+            path = Misc.free(path);
+        }
+
+        @Override
+        public long getCommitTimestamp() {
+            return Unsafe.getUnsafe().getLong(recordAddress() + TX_LOG_COMMIT_TIMESTAMP_OFFSET);
+        }
+
+        @Override
+        public int getSegmentId() {
+            return Unsafe.getUnsafe().getInt(recordAddress() + TX_LOG_SEGMENT_OFFSET);
+        }
+
+        @Override
+        public int getSegmentTxn() {
+            return Unsafe.getUnsafe().getInt(recordAddress() + TX_LOG_SEGMENT_TXN_OFFSET);
+        }
+
+        @Override
+        public long getStructureVersion() {
+            return Unsafe.getUnsafe().getLong(recordAddress() + TX_LOG_STRUCTURE_VERSION_OFFSET);
+        }
+
+        @Override
+        public long getTxn() {
+            return txn;
+        }
+
+        @Override
+        public int getWalId() {
+            return Unsafe.getUnsafe().getInt(recordAddress() + TX_LOG_WAL_ID_OFFSET);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (recordTxn < txnCount) {
+                recordTxn++;
+                txn++;
+                return true;
+            }
+
+            final long newTxnCount = ff.readNonNegativeLong(fd, MAX_TXN_OFFSET);
+            if (newTxnCount > txnCount) {
+                txnCount = newTxnCount;
+                if (recordTxn < txnCount) {
+                    recordTxn++;
+                    txn++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean setPosition() {
+            final long newTxnCount = ff.readNonNegativeLong(fd, MAX_TXN_OFFSET);
+            if (newTxnCount > txnCount) {
+                txnCount = newTxnCount;
+                this.txnLo = txn - 1;
+                this.recordTxn--;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void setPosition(long txn) {
+            this.recordTxn = txn;
+            this.txn = txn;
+        }
+
+        @Override
+        public void toTop() {
+            if (txnCount > -1L) {
+                this.recordTxn = txnLo;
+                this.txn = txnLo;
+            }
+        }
+
+        private void mapChunk(long chunkId) {
+            unmapChunk();
+            final int chunkFd = openChunkRO(ff, path, chunkId);
+            try {
+                chunkAddress = TableUtils.mapRO(ff, chunkFd, chunkSize * RECORD_SIZE, MemoryTag.MMAP_TX_LOG_CURSOR);
+            } finally {
+                ff.close(chunkFd);
+            }
+            this.chunkId = chunkId;
+        }
+
+        @NotNull
+        private TransactionLogChunkedCursorImpl of(FilesFacade ff, long txnLo, Path rootPath, int chunkSize) {
+            this.ff = ff;
+            if (path == null) {
+                path = new Path();
+            }
+            path.of(rootPath);
+            this.fd = openFileRO(ff, path, TXNLOG_FILE_NAME);
+            this.txnCount = ff.readNonNegativeLong(fd, MAX_TXN_OFFSET);
+            this.chunkSize = chunkSize;
+            this.chunkId = -1;
+            final long minTxnLo = ff.readNonNegativeLong(fd, TX_LOG_CHUNK_LO_OFFSET) * chunkSize;
+            if (txnLo < minTxnLo) {
+                close();
+                throw CairoException.critical(0).put("transaction log is purged [path=").put(rootPath)
+                        .put(", txnLo=").put(txnLo)
+                        .put(", minTxnLo=").put(minTxnLo)
+                        .put(']');
+            }
+            this.txnLo = txnLo;
+            this.recordTxn = txnLo;
+            this.txn = txnLo;
+            return this;
+        }
+
+        private long recordAddress() {
+            final long txnIndex = recordTxn - 1;
+            final long chunkId = txnIndex / chunkSize;
+            if (chunkId != this.chunkId) {
+                mapChunk(chunkId);
+            }
+            return chunkAddress + (txnIndex - chunkId * chunkSize) * RECORD_SIZE;
+        }
+
+        private void unmapChunk() {
+            if (chunkAddress != 0) {
+                ff.munmap(chunkAddress, chunkSize * RECORD_SIZE, MemoryTag.MMAP_TX_LOG_CURSOR);
+                chunkAddress = 0;
+            }
+            chunkId = -1;
+        }
+    }
+
     private static class TransactionLogCursorImpl implements TransactionLogCursor {
         private long address;
         private int fd;
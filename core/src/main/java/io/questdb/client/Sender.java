@@ -27,14 +27,14 @@ package io.questdb.client;
 import io.questdb.cutlass.line.LineChannel;
 import io.questdb.cutlass.line.LineSenderException;
 import io.questdb.cutlass.line.LineTcpSender;
+import io.questdb.cutlass.line.PooledLineTcpSender;
 import io.questdb.cutlass.auth.AuthUtils;
+import io.questdb.cutlass.line.tcp.AsyncLineChannel;
 import io.questdb.cutlass.line.tcp.DelegatingTlsChannel;
 import io.questdb.cutlass.line.tcp.PlainTcpLineChannel;
 import io.questdb.network.NetworkFacade;
 import io.questdb.network.NetworkFacadeImpl;
-import io.questdb.std.Chars;
-import io.questdb.std.Numbers;
-import io.questdb.std.NumericException;
+import io.questdb.std.*;
 
 import javax.security.auth.DestroyFailedException;
 import java.io.Closeable;
@@ -229,11 +229,17 @@ public interface Sender extends Closeable {
         private static final int MIN_BUFFER_SIZE_FOR_AUTH = 512 + 1; // challenge size + 1;
         // indicate that port was not set explicitly
         private static final byte PORT_DEFAULT = 0;
+        private boolean asyncFlushEnabled;
+        private long autoFlushIntervalMillis;
+        private int autoFlushRows;
+        private boolean binaryEncodingEnabled;
         private int bufferCapacity = BUFFER_CAPACITY_DEFAULT;
+        private int connectionCount;
         private String host;
         private String keyId;
         private int port = PORT_DEFAULT;
         private PrivateKey privateKey;
+        private long reconnectTimeoutMillis;
         private boolean shouldDestroyPrivKey;
         private boolean tlsEnabled;
         private TlsValidationMode tlsValidationMode = TlsValidationMode.DEFAULT;
@@ -306,6 +312,45 @@ public interface Sender extends Closeable {
             return new AdvancedTlsSettings();
         }
 
+        /**
+         * Flush buffered rows after the given time has elapsed since the previous flush. The time is
+         * checked when a row is finished, an idle sender does not flush on its own.
+         *
+         * @param autoFlushIntervalMillis time since the previous flush in milliseconds
+         * @return this instance for method chaining
+         */
+        public LineSenderBuilder autoFlushIntervalMillis(long autoFlushIntervalMillis) {
+            if (this.autoFlushIntervalMillis != 0) {
+                throw new LineSenderException("auto flush interval was already configured ")
+                        .put("[configured-interval=").put(this.autoFlushIntervalMillis).put("]");
+            }
+            if (autoFlushIntervalMillis < 1) {
+                throw new LineSenderException("auto flush interval must be positive ")
+                        .put("[interval=").put(autoFlushIntervalMillis).put("]");
+            }
+            this.autoFlushIntervalMillis = autoFlushIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Flush buffered rows once the given number of rows is buffered.
+         *
+         * @param autoFlushRows number of rows
+         * @return this instance for method chaining
+         */
+        public LineSenderBuilder autoFlushRows(int autoFlushRows) {
+            if (this.autoFlushRows != 0) {
+                throw new LineSenderException("auto flush rows were already configured ")
+                        .put("[configured-rows=").put(this.autoFlushRows).put("]");
+            }
+            if (autoFlushRows < 1) {
+                throw new LineSenderException("auto flush rows must be positive ")
+                        .put("[rows=").put(autoFlushRows).put("]");
+            }
+            this.autoFlushRows = autoFlushRows;
+            return this;
+        }
+
         /**
          * Configure capacity of an internal buffer.
          * Bigger buffer increase batching effect.
@@ -332,43 +377,50 @@ public interface Sender extends Closeable {
             configureDefaults();
             validateParameters();
 
-            NetworkFacade nf = NetworkFacadeImpl.INSTANCE;
-            LineChannel channel = new PlainTcpLineChannel(nf, host, port, bufferCapacity * 2);
-            LineTcpSender sender;
-            if (tlsEnabled) {
-                assert (trustStorePath == null) == (trustStorePassword == null); //either both null or both non-null
-                DelegatingTlsChannel tlsChannel;
-                try {
-                    tlsChannel = new DelegatingTlsChannel(channel, trustStorePath, trustStorePassword, tlsValidationMode, host);
-                } catch (Throwable t) {
-                    channel.close();
-                    throw rethrow(t);
-                }
-                channel = tlsChannel;
-            }
             try {
-                sender = new LineTcpSender(channel, bufferCapacity);
-            } catch (Throwable t) {
-                channel.close();
-                throw rethrow(t);
-            }
-            if (privateKey != null) {
+                if (connectionCount < 2) {
+                    return newSender();
+                }
+                final ObjList<Sender> senders = new ObjList<>(connectionCount);
                 try {
-                    sender.authenticate(keyId, privateKey);
+                    for (int i = 0; i < connectionCount; i++) {
+                        senders.add(newSender());
+                    }
+                    return new PooledLineTcpSender(senders);
                 } catch (Throwable t) {
-                    sender.close();
+                    Misc.freeObjList(senders);
                     throw rethrow(t);
-                } finally {
-                    if (shouldDestroyPrivKey) {
-                        try {
-                            privateKey.destroy();
-                        } catch (DestroyFailedException e) {
-                            // not much we can do
-                        }
+                }
+            } finally {
+                if (privateKey != null && shouldDestroyPrivKey) {
+                    try {
+                        privateKey.destroy();
+                    } catch (DestroyFailedException e) {
+                        // not much we can do
                     }
                 }
             }
-            return sender;
+        }
+
+        /**
+         * Open the given number of connections to the server. Rows are spread over the connections by table,
+         * all rows of a table are sent over the same connection, so their order is preserved. This lets
+         * a single client keep several network threads of the server busy.
+         *
+         * @param connectionCount number of connections
+         * @return this instance for method chaining
+         */
+        public LineSenderBuilder connectionCount(int connectionCount) {
+            if (this.connectionCount != 0) {
+                throw new LineSenderException("connection count was already configured ")
+                        .put("[configured-count=").put(this.connectionCount).put("]");
+            }
+            if (connectionCount < 1) {
+                throw new LineSenderException("connection count must be positive ")
+                        .put("[count=").put(connectionCount).put("]");
+            }
+            this.connectionCount = connectionCount;
+            return this;
         }
 
         /**
@@ -386,6 +438,37 @@ public interface Sender extends Closeable {
             return new LineSenderBuilder.AuthBuilder();
         }
 
+        /**
+         * Instruct a client to send data from a background thread. Calls to {@link Sender#flush()}
+         * return once the data is copied to a send buffer and block only when the previous buffer
+         * is still being sent. Errors of the background thread are reported by subsequent calls.
+         *
+         * @return this instance for method chaining.
+         * @see #reconnectTimeoutMillis(long)
+         */
+        public LineSenderBuilder enableAsyncFlush() {
+            if (asyncFlushEnabled) {
+                throw new LineSenderException("async flush was already enabled");
+            }
+            asyncFlushEnabled = true;
+            return this;
+        }
+
+        /**
+         * Instruct a client to send doubles and timestamps as raw little-endian values.
+         * This saves the server from parsing their text representation, but requires
+         * a QuestDB server that understands the binary encoding.
+         *
+         * @return this instance for method chaining.
+         */
+        public LineSenderBuilder enableBinaryEncoding() {
+            if (binaryEncodingEnabled) {
+                throw new LineSenderException("binary encoding was already enabled");
+            }
+            binaryEncodingEnabled = true;
+            return this;
+        }
+
         /**
          * Instruct a client to use TLS when connecting to a QuestDB server
          *
@@ -414,6 +497,27 @@ public interface Sender extends Closeable {
             return this;
         }
 
+        /**
+         * Keep reconnecting for the given time when the background thread fails to send data.
+         * The buffer that failed is sent again over the new connection, so rows the server received
+         * before the connection broke may be written twice. Requires {@link #enableAsyncFlush()}.
+         *
+         * @param reconnectTimeoutMillis how long to keep reconnecting in milliseconds
+         * @return this instance for method chaining
+         */
+        public LineSenderBuilder reconnectTimeoutMillis(long reconnectTimeoutMillis) {
+            if (this.reconnectTimeoutMillis != 0) {
+                throw new LineSenderException("reconnect timeout was already configured ")
+                        .put("[configured-timeout=").put(this.reconnectTimeoutMillis).put("]");
+            }
+            if (reconnectTimeoutMillis < 1) {
+                throw new LineSenderException("reconnect timeout must be positive ")
+                        .put("[timeout=").put(reconnectTimeoutMillis).put("]");
+            }
+            this.reconnectTimeoutMillis = reconnectTimeoutMillis;
+            return this;
+        }
+
         private static RuntimeException rethrow(Throwable t) {
             if (t instanceof LineSenderException) {
                 throw (LineSenderException) t;
@@ -430,6 +534,60 @@ public interface Sender extends Closeable {
             }
         }
 
+        private LineChannel newChannel() {
+            NetworkFacade nf = NetworkFacadeImpl.INSTANCE;
+            LineChannel channel = new PlainTcpLineChannel(nf, host, port, bufferCapacity * 2);
+            if (tlsEnabled) {
+                assert (trustStorePath == null) == (trustStorePassword == null); //either both null or both non-null
+                try {
+                    return new DelegatingTlsChannel(channel, trustStorePath, trustStorePassword, tlsValidationMode, host);
+                } catch (Throwable t) {
+                    channel.close();
+                    throw rethrow(t);
+                }
+            }
+            return channel;
+        }
+
+        private LineTcpSender newSender() {
+            LineChannel channel = newChannel();
+            LineTcpSender sender;
+            if (asyncFlushEnabled) {
+                try {
+                    channel = new AsyncLineChannel(
+                            channel,
+                            reconnectTimeoutMillis > 0 ? this::newChannel : null,
+                            bufferCapacity,
+                            reconnectTimeoutMillis
+                    );
+                } catch (Throwable t) {
+                    channel.close();
+                    throw rethrow(t);
+                }
+            }
+            try {
+                sender = new LineTcpSender(channel, bufferCapacity);
+                if (binaryEncodingEnabled) {
+                    sender.enableBinaryEncoding();
+                }
+                if (autoFlushRows > 0 || autoFlushIntervalMillis > 0) {
+                    sender.setAutoFlush(autoFlushRows, autoFlushIntervalMillis);
+                }
+            } catch (Throwable t) {
+                channel.close();
+                throw rethrow(t);
+            }
+            if (privateKey != null) {
+                try {
+                    sender.authenticate(keyId, privateKey);
+                } catch (Throwable t) {
+                    sender.close();
+                    throw rethrow(t);
+                }
+            }
+            return sender;
+        }
+
         private void validateParameters() {
             if (host == null) {
                 throw new LineSenderException("questdb server address not set");
@@ -447,6 +605,13 @@ public interface Sender extends Closeable {
                         .put(", requested-capacity=").put(bufferCapacity)
                         .put("]");
             }
+            if (reconnectTimeoutMillis > 0 && !asyncFlushEnabled) {
+                throw new LineSenderException("reconnect timeout configured, but async flush was not enabled");
+            }
+            if (reconnectTimeoutMillis > 0 && keyId != null) {
+                // private key is not kept after the initial authentication
+                throw new LineSenderException("reconnect is not supported with authentication");
+            }
         }
 
         public class AdvancedTlsSettings {
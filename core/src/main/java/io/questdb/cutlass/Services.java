@@ -45,11 +45,15 @@ import io.questdb.cutlass.pgwire.PGWireServer;
 import io.questdb.griffin.DatabaseSnapshotAgent;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
 import io.questdb.mp.WorkerPool;
+import io.questdb.mp.WorkerPoolConfiguration;
 import io.questdb.std.Os;
 import org.jetbrains.annotations.Nullable;
 
 public final class Services {
+    private static final Log LOG = LogFactory.getLog(Services.class);
 
     private Services() {
         throw new UnsupportedOperationException("not instantiatable");
@@ -126,6 +130,17 @@ public final class Services {
             CairoEngine cairoEngine,
             WorkerPoolManager workerPoolManager,
             Metrics metrics
+    ) {
+        return createLineTcpReceiver(config, null, cairoEngine, workerPoolManager, metrics);
+    }
+
+    @Nullable
+    public static LineTcpReceiver createLineTcpReceiver(
+            LineTcpReceiverConfiguration config,
+            @Nullable LineUdpReceiverConfiguration udpConfig,
+            CairoEngine cairoEngine,
+            WorkerPoolManager workerPoolManager,
+            Metrics metrics
     ) {
         if (!config.isEnabled()) {
             return null;
@@ -152,6 +167,46 @@ public final class Services {
                 metrics.health(),
                 Requester.LINE_TCP_WRITER
         );
+        if (udpConfig != null && isLineUdpServedByTcp(udpConfig, config)) {
+            // The udpPool is DEDICATED with one worker per UDP socket
+            final WorkerPoolConfiguration ioPoolConfig = config.getIOWorkerPoolConfiguration();
+            final WorkerPool udpPool = workerPoolManager.getInstance(
+                    new WorkerPoolConfiguration() {
+                        @Override
+                        public String getPoolName() {
+                            return "ilpudp";
+                        }
+
+                        @Override
+                        public long getSleepThreshold() {
+                            return ioPoolConfig.getSleepThreshold();
+                        }
+
+                        @Override
+                        public long getSleepTimeout() {
+                            return ioPoolConfig.getSleepTimeout();
+                        }
+
+                        @Override
+                        public int getWorkerCount() {
+                            return udpConfig.getSocketCount();
+                        }
+
+                        @Override
+                        public long getYieldThreshold() {
+                            return ioPoolConfig.getYieldThreshold();
+                        }
+
+                        @Override
+                        public boolean haltOnError() {
+                            return ioPoolConfig.haltOnError();
+                        }
+                    },
+                    metrics.health(),
+                    Requester.LINE_UDP_IO
+            );
+            return new LineTcpReceiver(config, cairoEngine, ioPool, writerPool, udpConfig, udpPool);
+        }
         return new LineTcpReceiver(config, cairoEngine, ioPool, writerPool);
     }
 
@@ -160,11 +215,31 @@ public final class Services {
             LineUdpReceiverConfiguration config,
             CairoEngine cairoEngine,
             WorkerPoolManager workerPoolManager
+    ) {
+        return createLineUdpReceiver(config, null, cairoEngine, workerPoolManager);
+    }
+
+    @Nullable
+    public static AbstractLineProtoUdpReceiver createLineUdpReceiver(
+            LineUdpReceiverConfiguration config,
+            @Nullable LineTcpReceiverConfiguration tcpConfig,
+            CairoEngine cairoEngine,
+            WorkerPoolManager workerPoolManager
     ) {
         if (!config.isEnabled()) {
             return null;
         }
 
+        if (config.getSocketCount() > 1) {
+            if (tcpConfig != null && isLineUdpServedByTcp(config, tcpConfig)) {
+                // sockets are opened by the TCP receiver
+                return null;
+            }
+            LOG.advisory().$("using single UDP socket, multiple sockets require unicast and enabled TCP receiver [line.udp.socket.count=")
+                    .$(config.getSocketCount())
+                    .I$();
+        }
+
         // The pool is always the SHARED pool
         if (Os.isLinux()) {
             return new LinuxMMLineUdpReceiver(config, cairoEngine, workerPoolManager.getSharedPool());
@@ -277,4 +352,9 @@ public final class Services {
                 registry
         );
     }
+
+    private static boolean isLineUdpServedByTcp(LineUdpReceiverConfiguration udpConfig, LineTcpReceiverConfiguration tcpConfig) {
+        // multicast datagrams are delivered to every socket of the group, load is spread only for unicast
+        return udpConfig.isEnabled() && udpConfig.getSocketCount() > 1 && udpConfig.isUnicast() && tcpConfig.isEnabled();
+    }
 }
@@ -28,6 +28,8 @@ import io.questdb.DefaultFactoryProvider;
 import io.questdb.FactoryProvider;
 import io.questdb.cutlass.http.processors.JsonQueryProcessorConfiguration;
 import io.questdb.cutlass.http.processors.StaticContentProcessorConfiguration;
+import io.questdb.cutlass.line.tcp.DefaultLineTcpReceiverConfiguration;
+import io.questdb.cutlass.line.tcp.LineTcpReceiverConfiguration;
 import io.questdb.network.DefaultIODispatcherConfiguration;
 import io.questdb.network.IODispatcherConfiguration;
 import io.questdb.std.FilesFacade;
@@ -85,6 +87,7 @@ public class DefaultHttpServerConfiguration implements HttpServerConfiguration {
             return Long.MAX_VALUE;
         }
     };
+    private final LineTcpReceiverConfiguration lineHttpProcessorConfiguration = new DefaultLineTcpReceiverConfiguration();
     private final StaticContentProcessorConfiguration staticContentProcessorConfiguration = new StaticContentProcessorConfiguration() {
         @Override
         public FilesFacade getFilesFacade() {
@@ -148,6 +151,11 @@ public class DefaultHttpServerConfiguration implements HttpServerConfiguration {
         return jsonQueryProcessorConfiguration;
     }
 
+    @Override
+    public LineTcpReceiverConfiguration getLineHttpProcessorConfiguration() {
+        return lineHttpProcessorConfiguration;
+    }
+
     @Override
     public String getPoolName() {
         return "http";
@@ -203,6 +211,11 @@ public class DefaultHttpServerConfiguration implements HttpServerConfiguration {
         return 2;
     }
 
+    @Override
+    public boolean isLineHttpEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isPessimisticHealthCheckEnabled() {
         return false;
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http;
+
+import io.questdb.network.PeerDisconnectedException;
+import io.questdb.network.PeerIsSlowToReadException;
+import io.questdb.network.ServerDisconnectException;
+import io.questdb.std.Mutable;
+import io.questdb.std.Unsafe;
+
+/**
+ * Decodes request content sent with "Transfer-Encoding: chunked" and passes the chunk data
+ * to {@link HttpContentListener} without copying. Chunk extensions and trailer fields are skipped.
+ */
+public class HttpChunkedContentParser implements Mutable {
+    private static final int CHUNK_DATA = 3;
+    private static final int CHUNK_DATA_END = 4;
+    private static final int CHUNK_EXTENSION = 2;
+    private static final int CHUNK_SIZE = 1;
+    private static final int DONE = 6;
+    // chunk size fits 60 bits, the value is a long
+    private static final int MAX_CHUNK_SIZE_DIGITS = 15;
+    private static final int TRAILER = 5;
+    private long chunkRemaining;
+    private int chunkSizeDigits;
+    private int state;
+    private boolean trailerLineEmpty;
+
+    public HttpChunkedContentParser() {
+        clear();
+    }
+
+    @Override
+    public void clear() {
+        state = CHUNK_SIZE;
+        chunkRemaining = 0;
+        chunkSizeDigits = 0;
+        trailerLineEmpty = true;
+    }
+
+    /**
+     * Decodes the next part of the content.
+     *
+     * @param lo       address of the first byte
+     * @param hi       address past the last byte
+     * @param listener receives chunk data
+     * @return true once the last chunk and the trailer are decoded, bytes that follow are not part of the content
+     */
+    public boolean parse(
+            long lo,
+            long hi,
+            HttpContentListener listener
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException {
+        long ptr = lo;
+        while (ptr < hi) {
+            switch (state) {
+                case CHUNK_SIZE: {
+                    final byte b = Unsafe.getUnsafe().getByte(ptr++);
+                    final int digit = hexDigit(b);
+                    if (digit > -1) {
+                        if (++chunkSizeDigits > MAX_CHUNK_SIZE_DIGITS) {
+                            throw HttpException.instance("chunk size is too large");
+                        }
+                        chunkRemaining = (chunkRemaining << 4) | digit;
+                    } else if (chunkSizeDigits == 0) {
+                        throw HttpException.instance("malformed chunk size");
+                    } else if (b == '\n') {
+                        onChunkSize();
+                    } else if (b == ';' || b == ' ' || b == '\t' || b == '\r') {
+                        state = CHUNK_EXTENSION;
+                    } else {
+                        throw HttpException.instance("malformed chunk size");
+                    }
+                    break;
+                }
+                case CHUNK_EXTENSION:
+                    if (Unsafe.getUnsafe().getByte(ptr++) == '\n') {
+                        onChunkSize();
+                    }
+                    break;
+                case CHUNK_DATA: {
+                    final long len = Math.min(hi - ptr, chunkRemaining);
+                    listener.onChunk(ptr, ptr + len);
+                    ptr += len;
+                    chunkRemaining -= len;
+                    if (chunkRemaining == 0) {
+                        state = CHUNK_DATA_END;
+                    }
+                    break;
+                }
+                case CHUNK_DATA_END:
+                    switch (Unsafe.getUnsafe().getByte(ptr++)) {
+                        case '\r':
+                            break;
+                        case '\n':
+                            state = CHUNK_SIZE;
+                            break;
+                        default:
+                            throw HttpException.instance("chunk data is longer than chunk size");
+                    }
+                    break;
+                case TRAILER:
+                    switch (Unsafe.getUnsafe().getByte(ptr++)) {
+                        case '\r':
+                            break;
+                        case '\n':
+                            if (trailerLineEmpty) {
+                                state = DONE;
+                                return true;
+                            }
+                            trailerLineEmpty = true;
+                            break;
+                        default:
+                            trailerLineEmpty = false;
+                            break;
+                    }
+                    break;
+                default:
+                    return true;
+            }
+        }
+        return state == DONE;
+    }
+
+    private static int hexDigit(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private void onChunkSize() {
+        chunkSizeDigits = 0;
+        // the last chunk has zero size and is followed by optional trailer fields
+        state = chunkRemaining > 0 ? CHUNK_DATA : TRAILER;
+    }
+}
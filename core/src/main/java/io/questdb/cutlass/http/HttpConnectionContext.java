@@ -40,6 +40,7 @@ import static io.questdb.network.IODispatcher.*;
 
 public class HttpConnectionContext extends IOContext<HttpConnectionContext> implements Locality, Retry {
     private static final Log LOG = LogFactory.getLog(HttpConnectionContext.class);
+    private final HttpChunkedContentParser chunkedContentParser = new HttpChunkedContentParser();
     private final HttpContextConfiguration configuration;
     private final ObjectPool<DirectByteCharSequence> csPool;
     private final boolean dumpNetworkTraffic;
@@ -58,6 +59,9 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         LOG.info().$("Retry is requested after successful writer allocation. Retry will be re-scheduled [thread=").$(Thread.currentThread().getId()).$(']');
         throw RetryOperationException.INSTANCE;
     };
+    private boolean chunkedContent;
+    private long contentLength;
+    private long contentReceived;
     private SecurityContext securityContext;
     private int nCompletedRequests;
     private boolean pendingRetry = false;
@@ -104,6 +108,10 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         this.retryAttemptAttributes.lastRunTimestamp = 0;
         this.retryAttemptAttributes.attempt = 0;
         this.receivedBytes = 0;
+        this.chunkedContent = false;
+        this.chunkedContentParser.clear();
+        this.contentLength = 0;
+        this.contentReceived = 0;
         clearSuspendEvent();
     }
 
@@ -352,6 +360,84 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         }
     }
 
+    private boolean consumeContent(
+            int fd,
+            HttpRequestProcessor processor,
+            long headerEnd,
+            int read,
+            boolean newRequest
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException, QueryPausedException {
+        if (newRequest) {
+            chunkedContent = Chars.equalsIgnoreCaseNc("chunked", headerParser.getHeader("Transfer-Encoding"));
+            if (!chunkedContent) {
+                contentLength = parseContentLength();
+                if (contentLength < 0) {
+                    return rejectRequest(411, "Bad request. Content-Length or chunked Transfer-Encoding header expected.");
+                }
+            }
+            contentReceived = 0;
+            processor.onHeadersReady(this);
+        }
+
+        processor.resumeRecv(this);
+
+        final HttpContentListener contentListener = (HttpContentListener) processor;
+        final long bufferEnd = recvBuffer + read;
+
+        if (chunkedContent) {
+            // content length is not known up front, the end of the content is found by the decoder
+            boolean done = headerEnd < bufferEnd && chunkedContentParser.parse(headerEnd, bufferEnd, contentListener);
+            while (!done) {
+                final int n = nf.recv(fd, recvBuffer, recvBufferSize);
+                if (n < 0) {
+                    dispatcher.disconnect(this, DISCONNECT_REASON_PEER_DISCONNECT_AT_RECV);
+                    return false;
+                }
+
+                if (n == 0) {
+                    LOG.debug().$("peer is slow [content]").$();
+                    dispatcher.registerChannel(this, IOOperation.READ);
+                    return false;
+                }
+
+                dumpBuffer(recvBuffer, n);
+                contentReceived += n;
+                done = chunkedContentParser.parse(recvBuffer, recvBuffer + n, contentListener);
+            }
+        } else {
+            // part of the content may have arrived together with the headers
+            if (headerEnd < bufferEnd) {
+                final long len = Math.min(bufferEnd - headerEnd, contentLength - contentReceived);
+                contentListener.onChunk(headerEnd, headerEnd + len);
+                contentReceived += len;
+            }
+
+            while (contentReceived < contentLength) {
+                final int n = nf.recv(fd, recvBuffer, (int) Math.min(recvBufferSize, contentLength - contentReceived));
+                if (n < 0) {
+                    dispatcher.disconnect(this, DISCONNECT_REASON_PEER_DISCONNECT_AT_RECV);
+                    return false;
+                }
+
+                if (n == 0) {
+                    LOG.debug().$("peer is slow [content]").$();
+                    dispatcher.registerChannel(this, IOOperation.READ);
+                    return false;
+                }
+
+                dumpBuffer(recvBuffer, n);
+                contentListener.onChunk(recvBuffer, recvBuffer + n);
+                contentReceived += n;
+            }
+        }
+
+        LOG.debug().$("good [fd=").$(fd).$(", chunked=").$(chunkedContent).$(", contentReceived=").$(contentReceived).$(']').$();
+        processor.onRequestComplete(this);
+        resumeProcessor = null;
+        clear();
+        return true;
+    }
+
     private boolean consumeMultipart(
             int fd,
             HttpRequestProcessor processor,
@@ -584,6 +670,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
 
             final boolean multipartRequest = Chars.equalsNc("multipart/form-data", headerParser.getContentType());
             final boolean multipartProcessor = processor instanceof HttpMultipartContentListener;
+            final boolean contentProcessor = processor instanceof HttpContentListener;
 
             if (configuration.allowDeflateBeforeSend() && Chars.contains(headerParser.getHeader("Accept-Encoding"), "gzip")) {
                 responseSink.setDeflateBeforeSend(true);
@@ -598,6 +685,8 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
                     busyRecv = rejectRequest("Bad request. Multipart POST expected.");
                 } else if (multipartProcessor) {
                     busyRecv = consumeMultipart(fd, processor, headerEnd, read, newRequest, rescheduleContext);
+                } else if (contentProcessor) {
+                    busyRecv = consumeContent(fd, processor, headerEnd, read, newRequest);
                 } else {
 
                     // Do not expect any more bytes to be sent to us before
@@ -709,10 +798,26 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         return false;
     }
 
+    private long parseContentLength() {
+        final DirectByteCharSequence value = headerParser.getHeader("Content-Length");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Numbers.parseLong(value);
+        } catch (NumericException e) {
+            return -1;
+        }
+    }
+
     private boolean rejectRequest(CharSequence userMessage) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        return rejectRequest(404, userMessage);
+    }
+
+    private boolean rejectRequest(int code, CharSequence userMessage) throws PeerDisconnectedException, PeerIsSlowToReadException {
         clear();
         LOG.error().$(userMessage).$();
-        simpleResponse().sendStatus(404, userMessage);
+        simpleResponse().sendStatus(code, userMessage);
         dispatcher.registerChannel(this, IOOperation.READ);
         return false;
     }
@@ -26,6 +26,7 @@ package io.questdb.cutlass.http;
 
 import io.questdb.cutlass.http.processors.JsonQueryProcessorConfiguration;
 import io.questdb.cutlass.http.processors.StaticContentProcessorConfiguration;
+import io.questdb.cutlass.line.tcp.LineTcpReceiverConfiguration;
 import io.questdb.mp.WorkerPoolConfiguration;
 
 public interface HttpServerConfiguration extends WorkerPoolConfiguration, HttpMinServerConfiguration {
@@ -35,6 +36,9 @@ public interface HttpServerConfiguration extends WorkerPoolConfiguration, HttpMi
 
     JsonQueryProcessorConfiguration getJsonQueryProcessorConfiguration();
 
+    // ILP over HTTP shares column type defaults, table auto-creation and symbol caching settings with ILP over TCP
+    LineTcpReceiverConfiguration getLineHttpProcessorConfiguration();
+
     int getQueryCacheBlockCount();
 
     int getQueryCacheRowCount();
@@ -43,5 +47,7 @@ public interface HttpServerConfiguration extends WorkerPoolConfiguration, HttpMi
 
     WaitProcessorConfiguration getWaitProcessorConfiguration();
 
+    boolean isLineHttpEnabled();
+
     boolean isQueryCacheEnabled();
 }
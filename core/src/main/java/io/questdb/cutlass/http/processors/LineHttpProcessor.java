@@ -0,0 +1,93 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cutlass.http.HttpConnectionContext;
+import io.questdb.cutlass.http.HttpContentListener;
+import io.questdb.cutlass.http.HttpRequestProcessor;
+import io.questdb.cutlass.http.LocalValue;
+import io.questdb.cutlass.line.tcp.LineTcpReceiverConfiguration;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.network.PeerDisconnectedException;
+import io.questdb.network.PeerIsSlowToReadException;
+
+/**
+ * Accepts ILP text in the request body and appends it to the tables as it arrives.
+ * The request is acknowledged with "204 No Content" only once all the tables it touched
+ * are committed. On the first error the rows are rolled back and the client receives
+ * "400 Bad request" with the error message, so that the whole batch can be retried.
+ */
+public class LineHttpProcessor implements HttpRequestProcessor, HttpContentListener {
+    private static final Log LOG = LogFactory.getLog(LineHttpProcessor.class);
+    // processor instances are per worker, the state is per connection
+    private static final LocalValue<LineHttpProcessorState> LV = new LocalValue<>();
+    private final LineTcpReceiverConfiguration configuration;
+    private final CairoEngine engine;
+    private LineHttpProcessorState transientState;
+
+    public LineHttpProcessor(CairoEngine engine, LineTcpReceiverConfiguration configuration) {
+        this.engine = engine;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void onChunk(long lo, long hi) {
+        transientState.onChunk(lo, hi);
+    }
+
+    @Override
+    public void onHeadersReady(HttpConnectionContext context) {
+        LineHttpProcessorState state = LV.get(context);
+        if (state == null) {
+            LV.set(context, state = new LineHttpProcessorState(engine, configuration));
+        }
+        state.of(context.getSecurityContext());
+    }
+
+    @Override
+    public void onRequestComplete(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final LineHttpProcessorState state = LV.get(context);
+        state.onRequestComplete();
+        if (state.isOk()) {
+            context.simpleResponse().sendStatus(204);
+        } else {
+            LOG.info().$("rejected line data [fd=").$(context.getFd()).$(", error=").$(state.getError()).I$();
+            context.simpleResponse().sendStatus(400, state.getError());
+        }
+    }
+
+    @Override
+    public void resumeRecv(HttpConnectionContext context) {
+        transientState = LV.get(context);
+    }
+
+    @Override
+    public void resumeSend(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        context.resumeResponseSend();
+    }
+}
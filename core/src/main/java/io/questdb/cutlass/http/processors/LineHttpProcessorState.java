@@ -0,0 +1,350 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMARW;
+import io.questdb.cutlass.line.tcp.*;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.ByteCharSequence;
+import io.questdb.std.str.DirectByteCharSequence;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+import java.io.Closeable;
+
+class LineHttpProcessorState implements Mutable, Closeable {
+    private static final Log LOG = LogFactory.getLog(LineHttpProcessorState.class);
+    private final LineWalAppender appender;
+    private final boolean autoCreateNewColumns;
+    private final boolean autoCreateNewTables;
+    // holds the line that is split between receive buffer chunks, one extra byte
+    // is reserved to terminate the last line of the request when it lacks EOL
+    private final long bufEnd;
+    private final long bufStart;
+    private final LineTcpReceiverConfiguration configuration;
+    private final MemoryMARW ddlMem = Vm.getMARWInstance();
+    private final DefaultColumnTypes defaultColumnTypes;
+    private final CairoEngine engine;
+    private final StringSink error = new StringSink();
+    private final LineTcpParser parser;
+    private final Path path = new Path();
+    private final StringSink tableNameUtf16 = new StringSink();
+    private final TableStructureAdapter tableStructureAdapter;
+    private final ByteCharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf8 = new ByteCharSequenceObjHashMap<>();
+    private final ObjList<SymbolCache> unusedSymbolCaches = new ObjList<>();
+    private long bufPos;
+    private long lineCount;
+    private SecurityContext securityContext;
+
+    LineHttpProcessorState(CairoEngine engine, LineTcpReceiverConfiguration configuration) {
+        this.engine = engine;
+        this.configuration = configuration;
+        this.autoCreateNewColumns = configuration.getAutoCreateNewColumns();
+        this.autoCreateNewTables = configuration.getAutoCreateNewTables();
+        this.defaultColumnTypes = new DefaultColumnTypes(configuration);
+        this.tableStructureAdapter = new TableStructureAdapter(
+                engine.getConfiguration(),
+                defaultColumnTypes,
+                configuration.getDefaultPartitionBy(),
+                true
+        );
+        this.appender = new LineWalAppender(configuration, engine.getConfiguration().getMaxFileNameLength(), true);
+        this.parser = new LineTcpParser(configuration.isStringAsTagSupported(), configuration.isSymbolAsFieldSupported());
+        final int bufSize = configuration.getMaxMeasurementSize();
+        this.bufStart = Unsafe.malloc(bufSize + 1, MemoryTag.NATIVE_ILP_RSS);
+        this.bufEnd = bufStart + bufSize;
+        this.bufPos = bufStart;
+    }
+
+    @Override
+    public void clear() {
+        // uncommitted rows belong to a request that failed or was abandoned
+        // by the client, they must not become visible
+        rollback();
+        bufPos = bufStart;
+        lineCount = 0;
+        error.clear();
+        securityContext = null;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        ObjList<ByteCharSequence> keys = tableUpdateDetailsUtf8.keys();
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            Misc.free(tableUpdateDetailsUtf8.get(keys.getQuick(i)));
+        }
+        tableUpdateDetailsUtf8.clear();
+        Misc.freeObjList(unusedSymbolCaches);
+        Misc.free(ddlMem);
+        Misc.free(path);
+        Unsafe.free(bufStart, bufEnd - bufStart + 1, MemoryTag.NATIVE_ILP_RSS);
+    }
+
+    CharSequence getError() {
+        return error;
+    }
+
+    boolean isOk() {
+        return error.length() == 0;
+    }
+
+    void of(SecurityContext securityContext) {
+        this.securityContext = securityContext;
+    }
+
+    void onChunk(long lo, long hi) {
+        if (!isOk()) {
+            // request has failed, drain the remaining content
+            return;
+        }
+        try {
+            while (lo < hi && isOk()) {
+                if (bufPos == bufStart) {
+                    // nothing is pending, parse straight from the receive buffer
+                    parser.of(lo);
+                    final long pending = parseLines(lo, hi);
+                    final long len = hi - pending;
+                    if (len > 0) {
+                        if (len > bufEnd - bufStart) {
+                            lineTooLong();
+                            return;
+                        }
+                        Vect.memcpy(bufStart, pending, len);
+                        parser.shl(pending - bufStart);
+                        bufPos = bufStart + len;
+                    }
+                    lo = hi;
+                } else {
+                    // complete the pending line with the new content
+                    final long len = Math.min(hi - lo, bufEnd - bufPos);
+                    Vect.memcpy(bufPos, lo, len);
+                    bufPos += len;
+                    lo += len;
+                    if (!compactBuffer(parseLines(bufStart, bufPos))) {
+                        return;
+                    }
+                }
+            }
+        } catch (Throwable th) {
+            setError(th);
+        }
+    }
+
+    void onRequestComplete() {
+        if (isOk() && bufPos > bufStart) {
+            // the last line of the request is not terminated
+            Unsafe.getUnsafe().putByte(bufPos++, (byte) '\n');
+            try {
+                if (parseLines(bufStart, bufPos) < bufPos) {
+                    setError(parser.getErrorCode().name());
+                }
+            } catch (Throwable th) {
+                setError(th);
+            }
+        }
+
+        if (isOk()) {
+            commit();
+        }
+
+        if (!isOk()) {
+            rollback();
+        }
+        releaseWriters();
+    }
+
+    private void commit() {
+        ObjList<ByteCharSequence> keys = tableUpdateDetailsUtf8.keys();
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            final TableUpdateDetails tud = tableUpdateDetailsUtf8.get(keys.getQuick(i));
+            try {
+                tud.commit(false);
+            } catch (CommitFailedException e) {
+                LOG.error().$("could not commit [table=").$(tud.getTableNameUtf16()).$(", e=").$(e.getMessage()).I$();
+                error.clear();
+                error.put("commit failed [table=").put(tud.getTableNameUtf16()).put(", error=").put(e.getMessage()).put(']');
+                // tables that committed before this one cannot be rolled back
+                return;
+            }
+        }
+    }
+
+    private boolean compactBuffer(long pending) {
+        final long len = bufPos - pending;
+        if (len == bufEnd - bufStart) {
+            lineTooLong();
+            return false;
+        }
+        if (pending > bufStart) {
+            Vect.memmove(bufStart, pending, len);
+            parser.shl(pending - bufStart);
+            bufPos = bufStart + len;
+        }
+        return true;
+    }
+
+    private TableUpdateDetails getTableUpdateDetails() {
+        final DirectByteCharSequence tableNameUtf8 = parser.getMeasurementName();
+        int keyIndex = tableUpdateDetailsUtf8.keyIndex(tableNameUtf8);
+        if (keyIndex < 0) {
+            final TableUpdateDetails tud = tableUpdateDetailsUtf8.valueAt(keyIndex);
+            if (!tud.isWriterInError()) {
+                return tud;
+            }
+            tableUpdateDetailsUtf8.removeAt(keyIndex);
+            tud.close();
+            keyIndex = tableUpdateDetailsUtf8.keyIndex(tableNameUtf8);
+        }
+
+        tableNameUtf16.clear();
+        Chars.utf8toUtf16(tableNameUtf8.getLo(), tableNameUtf8.getHi(), tableNameUtf16);
+        TableToken tableToken = engine.getTableTokenIfExists(tableNameUtf16);
+        if (engine.getTableStatus(path, tableToken) != TableUtils.TABLE_EXISTS) {
+            if (!autoCreateNewTables) {
+                throw CairoException.nonCritical()
+                        .put("table does not exist, creating new tables is disabled [table=").put(tableNameUtf16)
+                        .put(']');
+            }
+            if (!autoCreateNewColumns) {
+                throw CairoException.nonCritical()
+                        .put("table does not exist, cannot create table, creating new columns is disabled [table=").put(tableNameUtf16)
+                        .put(']');
+            }
+            final TableStructureAdapter tsa = tableStructureAdapter.of(tableNameUtf16, parser);
+            if (!tsa.isWalEnabled()) {
+                throw CairoException.nonCritical()
+                        .put("cannot create table, WAL tables require a partitioned table [table=").put(tableNameUtf16)
+                        .put(", partitionBy=").put(PartitionBy.toString(tsa.getPartitionBy()))
+                        .put(']');
+            }
+            for (int i = 0, n = tsa.getColumnCount(); i < n; i++) {
+                if (tsa.getColumnType(i) == LineTcpParser.ENTITY_TYPE_NULL) {
+                    throw CairoException.nonCritical().put("unknown column type [columnName=").put(tsa.getColumnName(i)).put(']');
+                }
+            }
+            tableToken = engine.createTable(securityContext, ddlMem, path, true, tsa, false);
+            LOG.info().$("created table [tableName=").$(tableNameUtf16).I$();
+        } else if (!tableToken.isWal()) {
+            // a non-WAL writer would be held exclusively for as long as the client takes to send the request
+            throw CairoException.nonCritical()
+                    .put("cannot write to non-WAL table over HTTP, convert the table to WAL [table=").put(tableNameUtf16)
+                    .put(']');
+        }
+
+        final TableUpdateDetails tud = new TableUpdateDetails(
+                configuration,
+                engine,
+                engine.getTableWriterAPI(tableToken, "ilpHttp"),
+                unusedSymbolCaches,
+                defaultColumnTypes,
+                ByteCharSequence.newInstance(tableNameUtf8)
+        );
+        tableUpdateDetailsUtf8.putAt(keyIndex, tud.getTableNameUtf8(), tud);
+        return tud;
+    }
+
+    private void lineTooLong() {
+        error.clear();
+        error.put("line is too long [line=").put(lineCount + 1).put(", maxMeasurementSize=").put(bufEnd - bufStart).put(']');
+    }
+
+    /**
+     * Parses and appends complete lines in the given range.
+     *
+     * @return address of the incomplete line at the end of the range, hi when all lines are complete, or hi when the request failed
+     */
+    private long parseLines(long lo, long hi) throws CommitFailedException {
+        long lineStart = lo;
+        while (true) {
+            switch (parser.parseMeasurement(hi)) {
+                case MEASUREMENT_COMPLETE:
+                    lineCount++;
+                    appender.appendToWal(securityContext, parser, getTableUpdateDetails(), 0);
+                    parser.startNextMeasurement();
+                    lineStart = parser.getBufferAddress();
+                    if (lineStart == hi) {
+                        return hi;
+                    }
+                    break;
+                case ERROR:
+                    error.clear();
+                    error.put("could not parse measurement [line=").put(lineCount + 1).put(", error=").put(parser.getErrorCode().name()).put(']');
+                    return hi;
+                default:
+                    return lineStart;
+            }
+        }
+    }
+
+    private void releaseWriters() {
+        // WAL writers are kept for the next request on this connection,
+        // writers that failed are returned to the pool
+        ObjList<ByteCharSequence> keys = tableUpdateDetailsUtf8.keys();
+        for (int i = keys.size() - 1; i > -1; i--) {
+            final ByteCharSequence tableNameUtf8 = keys.getQuick(i);
+            final TableUpdateDetails tud = tableUpdateDetailsUtf8.get(tableNameUtf8);
+            if (tud.isWriterInError()) {
+                tableUpdateDetailsUtf8.remove(tableNameUtf8);
+                tud.close();
+            }
+        }
+    }
+
+    private void rollback() {
+        ObjList<ByteCharSequence> keys = tableUpdateDetailsUtf8.keys();
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            final TableUpdateDetails tud = tableUpdateDetailsUtf8.get(keys.getQuick(i));
+            try {
+                tud.rollback();
+            } catch (Throwable th) {
+                LOG.error().$("could not rollback [table=").$(tud.getTableNameUtf16()).$(", e=").$(th).I$();
+                tud.setWriterInError();
+            }
+        }
+    }
+
+    private void setError(Throwable th) {
+        LOG.error().$("could not process line data [line=").$(lineCount).$(", table=").$(parser.getMeasurementName()).$(", ex=").$(th).I$();
+        error.clear();
+        error.put("could not process line data [line=").put(lineCount).put(", table=").put(parser.getMeasurementName()).put(", error=");
+        if (th instanceof CairoException) {
+            error.put(((CairoException) th).getFlyweightMessage());
+        } else {
+            error.put(th.getMessage());
+        }
+        error.put(']');
+    }
+
+    private void setError(CharSequence parseError) {
+        error.clear();
+        error.put("could not parse measurement [line=").put(lineCount + 1).put(", error=").put(parseError).put(']');
+    }
+}
@@ -27,7 +27,10 @@ package io.questdb.cutlass.line;
 import io.questdb.cairo.TableUtils;
 import io.questdb.client.Sender;
 import io.questdb.cutlass.auth.AuthUtils;
+import io.questdb.cutlass.line.tcp.LineTcpParser;
 import io.questdb.std.*;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.datetime.millitime.MillisecondClockImpl;
 import io.questdb.std.str.AbstractCharSink;
 import io.questdb.std.str.CharSink;
 
@@ -39,15 +42,21 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
     protected final int capacity;
     private final long bufA;
     private final long bufB;
+    private final MillisecondClock clock = MillisecondClockImpl.INSTANCE;
     protected LineChannel lineChannel;
+    private long autoFlushIntervalMillis;
+    private int autoFlushRows;
+    private boolean binaryEncoding;
     private boolean closed;
     private boolean enableValidation;
     private boolean hasColumns;
     private boolean hasSymbols;
     private boolean hasTable;
     private long hi;
+    private long lastFlushMillis;
     private long lineStart;
     private long lo;
+    private int pendingRows;
     private long ptr;
     private boolean quoted = false;
 
@@ -66,8 +75,7 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
     }
 
     public void $(long timestamp) {
-        put(' ').put(timestamp);
-        atNow();
+        at(timestamp);
     }
 
     public void $() {
@@ -76,7 +84,12 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
 
     @Override
     public final void at(long timestamp) {
-        put(' ').put(timestamp);
+        put(' ');
+        if (binaryEncoding) {
+            putBinaryValue(LineTcpParser.BINARY_FORMAT_TIMESTAMP, timestamp);
+        } else {
+            put(timestamp);
+        }
         atNow();
     }
 
@@ -91,6 +104,10 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
         hasTable = false;
         hasColumns = false;
         hasSymbols = false;
+        pendingRows++;
+        if (isAutoFlushDue()) {
+            flush();
+        }
     }
 
     public final void authenticate(String keyId, PrivateKey privateKey) {
@@ -139,6 +156,14 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
         return field(name, value);
     }
 
+    /**
+     * Sends doubles and timestamps as raw little-endian values instead of text. Only TCP receiver
+     * understands the binary encoding, UDP receiver would reject such lines.
+     */
+    public void enableBinaryEncoding() {
+        binaryEncoding = true;
+    }
+
     public AbstractLineSender field(CharSequence name, long value) {
         writeFieldName(name).put(value).put('i');
         return this;
@@ -154,7 +179,12 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
     }
 
     public AbstractLineSender field(CharSequence name, double value) {
-        writeFieldName(name).put(value);
+        if (binaryEncoding) {
+            writeFieldName(name);
+            putBinaryValue(LineTcpParser.BINARY_FORMAT_DOUBLE, Double.doubleToRawLongBits(value));
+        } else {
+            writeFieldName(name).put(value);
+        }
         return this;
     }
 
@@ -270,6 +300,20 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
         }
     }
 
+    /**
+     * Flushes buffered rows once the given number of rows is buffered or the given time has elapsed
+     * since the previous flush, whichever comes first. Both conditions are checked when a row is
+     * finished, there is no timer thread. Zero disables the respective condition.
+     *
+     * @param rows           number of rows that triggers a flush
+     * @param intervalMillis time since the previous flush that triggers a flush
+     */
+    public void setAutoFlush(int rows, long intervalMillis) {
+        autoFlushRows = rows;
+        autoFlushIntervalMillis = intervalMillis;
+        lastFlushMillis = clock.getTicks();
+    }
+
     @Override
     public final AbstractLineSender stringColumn(CharSequence name, CharSequence value) {
         return field(name, value);
@@ -300,7 +344,12 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
 
     @Override
     public final AbstractLineSender timestampColumn(CharSequence name, long value) {
-        writeFieldName(name).put(value).put('t');
+        if (binaryEncoding) {
+            writeFieldName(name);
+            putBinaryValue(LineTcpParser.BINARY_FORMAT_TIMESTAMP, value);
+        } else {
+            writeFieldName(name).put(value).put('t');
+        }
         return this;
     }
 
@@ -314,6 +363,29 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
         return -1;
     }
 
+    private boolean isAutoFlushDue() {
+        return (autoFlushRows > 0 && pendingRows >= autoFlushRows)
+                || (autoFlushIntervalMillis > 0 && clock.getTicks() - lastFlushMillis >= autoFlushIntervalMillis);
+    }
+
+    private void onFlush() {
+        pendingRows = 0;
+        if (autoFlushIntervalMillis > 0) {
+            lastFlushMillis = clock.getTicks();
+        }
+    }
+
+    private void putBinaryValue(byte format, long value) {
+        validateNotClosed();
+        if (ptr + LineTcpParser.BINARY_VALUE_SIZE >= hi) {
+            send00();
+        }
+        Unsafe.getUnsafe().putByte(ptr, (byte) '=');
+        Unsafe.getUnsafe().putByte(ptr + 1, format);
+        Unsafe.getUnsafe().putLong(ptr + 2, value);
+        ptr += LineTcpParser.BINARY_VALUE_SIZE;
+    }
+
     private byte[] receiveChallengeBytes() {
         int n = 0;
         for (; ; ) {
@@ -346,6 +418,7 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
         if (lo < lineStart) {
             int len = (int) (lineStart - lo);
             lineChannel.send(lo, len);
+            onFlush();
         }
     }
 
@@ -406,8 +479,9 @@ public abstract class AbstractLineSender extends AbstractCharSink implements Clo
         validateNotClosed();
         if (lo < ptr) {
             int len = (int) (ptr - lo);
-            lineChannel.send(lo, len);
+            lineChannel.send(lo, len, (int) (lineStart - lo));
             lineStart = ptr = lo;
+            onFlush();
         }
     }
 
@@ -34,4 +34,13 @@ public interface LineChannel extends Closeable {
     int receive(long ptr, int len);
 
     void send(long ptr, int len);
+
+    /**
+     * Sends data, of which only the first linesLen bytes are complete lines. The rest is
+     * the beginning of a line, continued by the next call. Channels that replay data after
+     * a reconnect use the boundary to never split a line, others send the data as is.
+     */
+    default void send(long ptr, int len, int linesLen) {
+        send(ptr, len);
+    }
 }
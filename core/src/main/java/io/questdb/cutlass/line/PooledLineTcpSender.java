@@ -0,0 +1,181 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line;
+
+import io.questdb.client.Sender;
+import io.questdb.std.*;
+
+/**
+ * Sender that spreads rows over several connections. All rows of a table are sent over the same
+ * connection, so they reach the server in the order they were written. A table is assigned to
+ * a connection when it is seen for the first time, the connection that has sent the fewest rows
+ * so far is chosen.
+ * <p>
+ * Connections are served by different network IO threads on the server, this lets a single
+ * client use more than one of them. As with other senders, an instance must not be shared
+ * between threads.
+ */
+public class PooledLineTcpSender implements Sender {
+    private final LongList rowCounts = new LongList();
+    private final ObjList<Sender> senders;
+    private final LowerCaseCharSequenceIntHashMap tableSenders = new LowerCaseCharSequenceIntHashMap();
+    private boolean closed;
+    private int current = -1;
+
+    /**
+     * @param senders connected senders, the pool takes ownership of them
+     */
+    public PooledLineTcpSender(ObjList<Sender> senders) {
+        assert senders.size() > 0;
+        this.senders = senders;
+        rowCounts.setAll(senders.size(), 0);
+    }
+
+    @Override
+    public void at(long timestamp) {
+        currentSender().at(timestamp);
+        rowCounts.increment(current);
+    }
+
+    @Override
+    public void atNow() {
+        currentSender().atNow();
+        rowCounts.increment(current);
+    }
+
+    @Override
+    public PooledLineTcpSender boolColumn(CharSequence name, boolean value) {
+        currentSender().boolColumn(name, value);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LineSenderException error = null;
+        for (int i = 0, n = senders.size(); i < n; i++) {
+            try {
+                senders.getQuick(i).close();
+            } catch (LineSenderException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        senders.clear();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    @Override
+    public PooledLineTcpSender doubleColumn(CharSequence name, double value) {
+        currentSender().doubleColumn(name, value);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        validateNotClosed();
+        for (int i = 0, n = senders.size(); i < n; i++) {
+            senders.getQuick(i).flush();
+        }
+    }
+
+    public int getConnectionCount() {
+        return senders.size();
+    }
+
+    @Override
+    public PooledLineTcpSender longColumn(CharSequence name, long value) {
+        currentSender().longColumn(name, value);
+        return this;
+    }
+
+    @Override
+    public PooledLineTcpSender stringColumn(CharSequence name, CharSequence value) {
+        currentSender().stringColumn(name, value);
+        return this;
+    }
+
+    @Override
+    public PooledLineTcpSender symbol(CharSequence name, CharSequence value) {
+        currentSender().symbol(name, value);
+        return this;
+    }
+
+    @Override
+    public PooledLineTcpSender table(CharSequence table) {
+        validateNotClosed();
+        int index = tableSenders.keyIndex(table);
+        final int senderIndex;
+        if (index < 0) {
+            senderIndex = tableSenders.valueAt(index);
+        } else {
+            senderIndex = leastLoadedSender();
+            tableSenders.putAt(index, Chars.toString(table), senderIndex);
+        }
+        senders.getQuick(senderIndex).table(table);
+        current = senderIndex;
+        return this;
+    }
+
+    @Override
+    public PooledLineTcpSender timestampColumn(CharSequence name, long value) {
+        currentSender().timestampColumn(name, value);
+        return this;
+    }
+
+    private Sender currentSender() {
+        validateNotClosed();
+        if (current == -1) {
+            throw new LineSenderException("table expected");
+        }
+        return senders.getQuick(current);
+    }
+
+    private int leastLoadedSender() {
+        int index = 0;
+        long min = rowCounts.getQuick(0);
+        for (int i = 1, n = rowCounts.size(); i < n; i++) {
+            final long count = rowCounts.getQuick(i);
+            if (count < min) {
+                min = count;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private void validateNotClosed() {
+        if (closed) {
+            throw new LineSenderException("sender already closed");
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.cutlass.line.LineChannel;
+import io.questdb.cutlass.line.LineSenderException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SCSequence;
+import io.questdb.mp.SPSequence;
+import io.questdb.std.*;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.datetime.millitime.MillisecondClockImpl;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Channel that sends data from a background thread. Data passed to {@link #send(long, int)} is
+ * copied to one of the channel buffers and the call returns as soon as a buffer is available,
+ * the calling thread blocks only when all buffers are waiting to be sent. Errors of the background
+ * thread are reported by subsequent calls.
+ * <p>
+ * When a channel factory is provided, a failed send is retried on a new connection until the
+ * reconnect timeout elapses. The buffer that was being sent is replayed from its start, rows
+ * the server had received before the connection broke are sent again. Buffers are published
+ * only up to the line boundary passed by the sender, see {@link #send(long, int, int)}, so a
+ * replayed buffer never starts or ends in the middle of a line. The channel does not look for
+ * line ends in the data, a line end byte can be escaped or be a part of a binary value.
+ */
+public class AsyncLineChannel implements LineChannel {
+    private static final int BUFFER_COUNT = 2;
+    private static final Log LOG = LogFactory.getLog(AsyncLineChannel.class);
+    private static final long MAX_RECONNECT_PAUSE_MILLIS = 1000;
+    private static final long MIN_RECONNECT_PAUSE_MILLIS = 10;
+    private static final long WAIT_NANOS = 100_000;
+    private final int bufferCapacity;
+    private final @Nullable ObjectFactory<LineChannel> channelFactory;
+    private final MillisecondClock clock = MillisecondClockImpl.INSTANCE;
+    private final Thread flushThread;
+    private final SPSequence pubSeq;
+    private final RingQueue<Buffer> queue;
+    private final long reconnectTimeoutMillis;
+    private final SCSequence subSeq;
+    private LineChannel channel;
+    private boolean closed;
+    private volatile Throwable error;
+    // buffer being filled by send(), -1 when there is none
+    private long fillCursor = -1;
+    private long publishedCount;
+    private volatile boolean running = true;
+    private volatile long sentCount;
+
+    /**
+     * @param channel                connected channel
+     * @param channelFactory         factory of new connections, null disables reconnecting
+     * @param bufferCapacity         largest amount of data passed to a single send() call, channel
+     *                               buffers are twice as large to also fit an incomplete line left
+     *                               over by the previous call
+     * @param reconnectTimeoutMillis how long to keep reconnecting after a send failure
+     */
+    public AsyncLineChannel(
+            LineChannel channel,
+            @Nullable ObjectFactory<LineChannel> channelFactory,
+            int bufferCapacity,
+            long reconnectTimeoutMillis
+    ) {
+        this.channel = channel;
+        this.channelFactory = channelFactory;
+        this.bufferCapacity = 2 * bufferCapacity;
+        this.reconnectTimeoutMillis = reconnectTimeoutMillis;
+        this.queue = new RingQueue<>(Buffer::new, this.bufferCapacity, BUFFER_COUNT, MemoryTag.NATIVE_ILP_RSS);
+        this.pubSeq = new SPSequence(BUFFER_COUNT);
+        this.subSeq = new SCSequence();
+        pubSeq.then(subSeq).then(pubSeq);
+        this.flushThread = new Thread(this::runFlushLoop, "questdb-ilp-flush");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            publishIncompleteLine();
+            awaitSent();
+        } finally {
+            running = false;
+            LockSupport.unpark(flushThread);
+            try {
+                flushThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            channel = Misc.free(channel);
+            Misc.free(queue);
+        }
+    }
+
+    @Override
+    public int errno() {
+        return channel != null ? channel.errno() : 0;
+    }
+
+    @Override
+    public int receive(long ptr, int len) {
+        // the server replies only to what we have sent already
+        publishIncompleteLine();
+        awaitSent();
+        return channel.receive(ptr, len);
+    }
+
+    @Override
+    public void send(long ptr, int len) {
+        // callers that do not pass the line boundary send complete lines only
+        send(ptr, len, len);
+    }
+
+    /**
+     * Copies data to a channel buffer and publishes the buffer up to the end of the last
+     * complete line. The incomplete line is kept until the call that completes it.
+     *
+     * @param ptr      data address
+     * @param len      data length
+     * @param linesLen length of complete lines at the start of the data
+     */
+    @Override
+    public void send(long ptr, int len, int linesLen) {
+        if (fillCursor < 0) {
+            fillCursor = nextBuffer();
+            queue.get(fillCursor).len = 0;
+        }
+        final Buffer buffer = queue.get(fillCursor);
+        if (len > bufferCapacity - buffer.len) {
+            buffer.len = 0;
+            throw new LineSenderException("line too long. increase buffer size.");
+        }
+        Vect.memcpy(buffer.address + buffer.len, ptr, len);
+        final int linesEnd = buffer.len + linesLen;
+        buffer.len += len;
+        if (linesLen > 0) {
+            publishCompleteLines(buffer, linesEnd);
+        }
+    }
+
+    private void awaitSent() {
+        while (sentCount < publishedCount) {
+            checkError();
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+        checkError();
+    }
+
+    private void checkError() {
+        final Throwable th = error;
+        if (th != null) {
+            if (th instanceof LineSenderException) {
+                throw (LineSenderException) th;
+            }
+            throw new LineSenderException("could not send data in background", th);
+        }
+    }
+
+    private long nextBuffer() {
+        long cursor;
+        while ((cursor = pubSeq.next()) < 0) {
+            // all buffers are in flight
+            checkError();
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+        return cursor;
+    }
+
+    private void publish(long cursor) {
+        pubSeq.done(cursor);
+        publishedCount++;
+        LockSupport.unpark(flushThread);
+    }
+
+    private void publishCompleteLines(Buffer buffer, int lineEnd) {
+        final int tailLen = buffer.len - lineEnd;
+        buffer.len = lineEnd;
+        publish(fillCursor);
+        fillCursor = -1;
+        if (tailLen > 0) {
+            // the flush thread sends the buffer up to lineEnd only, the incomplete line
+            // stays intact until it is copied to the next buffer
+            fillCursor = nextBuffer();
+            final Buffer next = queue.get(fillCursor);
+            Vect.memcpy(next.address, buffer.address + lineEnd, tailLen);
+            next.len = tailLen;
+        }
+    }
+
+    private void publishIncompleteLine() {
+        if (fillCursor > -1) {
+            if (queue.get(fillCursor).len > 0) {
+                publish(fillCursor);
+            }
+            fillCursor = -1;
+        }
+    }
+
+    private void reconnect(LineSenderException ex, long deadline) {
+        channel = Misc.free(channel);
+        if (channelFactory == null) {
+            throw ex;
+        }
+        long pause = MIN_RECONNECT_PAUSE_MILLIS;
+        while (true) {
+            if (clock.getTicks() >= deadline) {
+                throw ex;
+            }
+            Os.sleep(pause);
+            try {
+                channel = channelFactory.newInstance();
+                LOG.info().$("reconnected").$();
+                return;
+            } catch (LineSenderException e) {
+                LOG.info().$("could not reconnect [msg=").$(e.getMessage()).I$();
+                pause = Math.min(pause * 2, MAX_RECONNECT_PAUSE_MILLIS);
+            }
+        }
+    }
+
+    private void runFlushLoop() {
+        try {
+            while (true) {
+                final long cursor = subSeq.next();
+                if (cursor > -1) {
+                    final Buffer buffer = queue.get(cursor);
+                    sendWithRetry(buffer.address, buffer.len);
+                    subSeq.done(cursor);
+                    sentCount++;
+                } else if (cursor == -1) {
+                    if (!running) {
+                        break;
+                    }
+                    // send() and close() unpark the thread
+                    LockSupport.park();
+                }
+            }
+        } catch (Throwable th) {
+            error = th;
+        }
+    }
+
+    private void sendWithRetry(long ptr, int len) {
+        long deadline = Long.MIN_VALUE;
+        while (true) {
+            try {
+                channel.send(ptr, len);
+                return;
+            } catch (LineSenderException e) {
+                LOG.info().$("could not send, reconnecting [msg=").$(e.getMessage()).I$();
+                if (deadline == Long.MIN_VALUE) {
+                    deadline = clock.getTicks() + reconnectTimeoutMillis;
+                }
+                // the whole buffer is sent again over the new connection
+                reconnect(e, deadline);
+            }
+        }
+    }
+
+    private static class Buffer {
+        private final long address;
+        private int len;
+
+        private Buffer(long address, long size) {
+            this.address = address;
+        }
+    }
+}
@@ -140,6 +140,11 @@ public class DefaultLineTcpReceiverConfiguration implements LineTcpReceiverConfi
         return 127;
     }
 
+    @Override
+    public double getMaxLoadRatio() {
+        return 1.9;
+    }
+
     @Override
     public int getMaxMeasurementSize() {
         return 512;
@@ -165,6 +170,16 @@ public class DefaultLineTcpReceiverConfiguration implements LineTcpReceiverConfi
         return NetworkFacadeImpl.INSTANCE;
     }
 
+    @Override
+    public int getNUpdatesPerLoadRebalance() {
+        return 10_000;
+    }
+
+    @Override
+    public int getParallelParseChunkSize() {
+        return 0;
+    }
+
     @Override
     public FactoryProvider getFactoryProvider() {
         return DefaultFactoryProvider.INSTANCE;
@@ -190,6 +205,11 @@ public class DefaultLineTcpReceiverConfiguration implements LineTcpReceiverConfi
         return 64;
     }
 
+    @Override
+    public int getWriterQueueTableBudget() {
+        return 0;
+    }
+
     @Override
     public WorkerPoolConfiguration getWriterWorkerPoolConfiguration() {
         return SHARED_CONFIGURATION;
@@ -35,6 +35,7 @@ import io.questdb.cutlass.auth.AuthenticatorException;
 import io.questdb.cutlass.line.tcp.LineTcpParser.ParseResult;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.SOCountDownLatch;
 import io.questdb.network.IOContext;
 import io.questdb.network.IODispatcher;
 import io.questdb.network.NetworkFacade;
@@ -56,10 +57,15 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
     private final long idleTimeout;
     private final Metrics metrics;
     private final MillisecondClock milliClock;
+    private final int parallelParseChunkSize;
+    private final ObjList<LineTcpParseChunk> parseChunks = new ObjList<>();
+    private final SOCountDownLatch parseLatch = new SOCountDownLatch();
     private final LineTcpParser parser;
     private final LineTcpMeasurementScheduler scheduler;
     private final ByteCharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf8 = new ByteCharSequenceObjHashMap<>();
     protected boolean peerDisconnected;
+    // the last measurement could not be scheduled, the socket is not read until it is
+    protected boolean queueFull;
     protected long recvBufEnd;
     protected long recvBufPos;
     protected long recvBufStart;
@@ -69,15 +75,29 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
     private long lastQueueFullLogMillis = 0;
     private long nextCheckIdleTime;
     private long nextCommitTime;
+    private boolean parallelParseAttempted;
+    private int parseChunkCount;
+    private int parseChunkIndex;
+    private int parseLineIndex;
 
     public LineTcpConnectionContext(LineTcpReceiverConfiguration configuration, LineTcpMeasurementScheduler scheduler, Metrics metrics) {
+        this(configuration, scheduler, metrics, configuration.getDisconnectOnError());
+    }
+
+    protected LineTcpConnectionContext(
+            LineTcpReceiverConfiguration configuration,
+            LineTcpMeasurementScheduler scheduler,
+            Metrics metrics,
+            boolean disconnectOnError
+    ) {
         this.configuration = configuration;
         nf = configuration.getNetworkFacade();
-        disconnectOnError = configuration.getDisconnectOnError();
+        this.disconnectOnError = disconnectOnError;
         this.scheduler = scheduler;
         this.metrics = metrics;
         this.milliClock = configuration.getMillisecondClock();
         parser = new LineTcpParser(configuration.isStringAsTagSupported(), configuration.isSymbolAsFieldSupported());
+        parallelParseChunkSize = configuration.getParallelParseChunkSize();
         recvBufStart = Unsafe.malloc(configuration.getNetMsgBufferSize(), MemoryTag.NATIVE_ILP_RSS);
         recvBufEnd = recvBufStart + configuration.getNetMsgBufferSize();
         clear();
@@ -106,6 +126,8 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
         securityContext = DenyAllSecurityContext.INSTANCE;
         recvBufPos = recvBufStart;
         peerDisconnected = false;
+        queueFull = false;
+        parseChunkCount = 0;
         resetParser();
         ObjList<ByteCharSequence> keys = tableUpdateDetailsUtf8.keys();
         for (int n = keys.size() - 1; n >= 0; --n) {
@@ -174,9 +196,12 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
 
     public IOContextResult handleIO(NetworkIOJob netIoJob) {
         if (authenticator.isAuthenticated()) {
-            read();
+            if (!queueFull) {
+                read();
+            }
             try {
                 IOContextResult parasResult = parseMeasurements(netIoJob);
+                queueFull = parasResult == IOContextResult.QUEUE_FULL;
                 doMaintenance(milliClock.getTicks());
                 return parasResult;
             } finally {
@@ -252,18 +277,131 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
         }
     }
 
+    private boolean isParallelParseDue() {
+        return parallelParseChunkSize > 0
+                && !parallelParseAttempted
+                && goodMeasurement
+                && parser.getBufferAddress() == recvBufStartOfMeasurement
+                && recvBufPos - recvBufStartOfMeasurement >= 2L * parallelParseChunkSize
+                && scheduler.isParallelParseEnabled();
+    }
+
     private void logParseError() {
-        int position = (int) (parser.getBufferAddress() - recvBufStartOfMeasurement);
+        logParseError(parser, recvBufStartOfMeasurement);
+    }
+
+    private void logParseError(LineTcpParser lineParser, long lineLo) {
+        int position = (int) (lineParser.getBufferAddress() - lineLo);
         assert position >= 0;
         LOG.error()
                 .$('[').$(fd)
-                .$("] could not parse measurement, ").$(parser.getErrorCode())
+                .$("] could not parse measurement, ").$(lineParser.getErrorCode())
                 .$(" at ").$(position)
                 .$(", line (may be mangled due to partial parsing): '")
-                .$(byteCharSequence.of(recvBufStartOfMeasurement, parser.getBufferAddress())).$("'")
+                .$(byteCharSequence.of(lineLo, lineParser.getBufferAddress())).$("'")
                 .$();
     }
 
+    /**
+     * Splits complete lines of the receive buffer into chunks, parses the chunks on other IO workers
+     * and schedules parsed lines in the order they were received. Scheduling can be interrupted by
+     * a full writer queue, in which case it resumes from the same line on the next call.
+     *
+     * @return null when all chunks are scheduled and parsing should continue from the end of the last chunk
+     */
+    private IOContextResult parseInParallel(NetworkIOJob netIoJob) {
+        if (parseChunkCount == 0) {
+            parallelParseAttempted = true;
+            if (!splitIntoChunks()) {
+                return null;
+            }
+            scheduler.parseInParallel(parseChunks, parseChunkCount, parseLatch);
+        }
+
+        while (parseChunkIndex < parseChunkCount) {
+            final LineTcpParseChunk chunk = parseChunks.getQuick(parseChunkIndex);
+            if (chunk.isFailed()) {
+                LOG.critical().$('[').$(fd).$("] could not parse receive buffer chunk").$();
+                metrics.health().incrementUnhandledErrors();
+                return IOContextResult.NEEDS_DISCONNECT;
+            }
+            for (int n = chunk.getLineCount(); parseLineIndex < n; parseLineIndex++) {
+                final LineTcpParser line = chunk.getLine(parseLineIndex);
+                if (chunk.isGoodLine(parseLineIndex)) {
+                    try {
+                        if (scheduler.scheduleEvent(getSecurityContext(), netIoJob, this, line)) {
+                            // Waiting for writer threads to drain queue, request callback as soon as possible
+                            if (checkQueueFullLogHysteresis()) {
+                                LOG.debug().$('[').$(fd).$("] queue full").$();
+                            }
+                            return IOContextResult.QUEUE_FULL;
+                        }
+                        continue;
+                    } catch (CairoException ex) {
+                        LOG.error()
+                                .$('[').$(fd).$("] could not process line data [table=").$(line.getMeasurementName())
+                                .$(", msg=").$(ex.getFlyweightMessage())
+                                .$(", errno=").$(ex.getErrno())
+                                .I$();
+                    } catch (Throwable ex) {
+                        LOG.critical()
+                                .$('[').$(fd).$("] could not process line data [table=").$(line.getMeasurementName())
+                                .$(", ex=").$(ex)
+                                .I$();
+                        // This is a critical error, so we treat it as an unhandled one.
+                        metrics.health().incrementUnhandledErrors();
+                        return IOContextResult.NEEDS_DISCONNECT;
+                    }
+                }
+                logParseError(line, chunk.getLineLo(parseLineIndex));
+                if (disconnectOnError) {
+                    return IOContextResult.NEEDS_DISCONNECT;
+                }
+            }
+            parseLineIndex = 0;
+            parseChunkIndex++;
+        }
+
+        // all chunks are scheduled, continue from the end of the last chunk
+        final long hi = parseChunks.getQuick(parseChunkCount - 1).getHi();
+        parseChunkCount = 0;
+        if (hi == recvBufPos) {
+            recvBufPos = recvBufStart;
+            resetParser();
+        } else {
+            resetParser(hi);
+        }
+        return null;
+    }
+
+    private boolean splitIntoChunks() {
+        int count = 0;
+        long lo = recvBufStartOfMeasurement;
+        while (recvBufPos - lo >= parallelParseChunkSize) {
+            final long hi = LineTcpParseChunk.findChunkHi(lo, lo + parallelParseChunkSize, recvBufPos);
+            if (hi == -1) {
+                break;
+            }
+            final LineTcpParseChunk chunk;
+            if (count < parseChunks.size()) {
+                chunk = parseChunks.getQuick(count);
+            } else {
+                chunk = new LineTcpParseChunk(configuration);
+                parseChunks.add(chunk);
+            }
+            chunk.of(lo, hi);
+            count++;
+            lo = hi;
+        }
+        if (count > 1) {
+            parseChunkCount = count;
+            parseChunkIndex = 0;
+            parseLineIndex = 0;
+            return true;
+        }
+        return false;
+    }
+
     private void startNewMeasurement() {
         parser.startNextMeasurement();
         recvBufStartOfMeasurement = parser.getBufferAddress();
@@ -313,7 +451,14 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
     }
 
     protected final IOContextResult parseMeasurements(NetworkIOJob netIoJob) {
+        parallelParseAttempted = false;
         while (true) {
+            if (parseChunkCount > 0 || isParallelParseDue()) {
+                final IOContextResult result = parseInParallel(netIoJob);
+                if (result != null) {
+                    return result;
+                }
+            }
             try {
                 ParseResult rc = goodMeasurement ? parser.parseMeasurement(recvBufPos) : parser.skipMeasurement(recvBufPos);
                 switch (rc) {
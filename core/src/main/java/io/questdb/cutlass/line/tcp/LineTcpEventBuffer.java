@@ -189,6 +189,17 @@ public class LineTcpEventBuffer {
         Unsafe.getUnsafe().putLong(address, structureVersion);
     }
 
+    public long addSymbol(long address, CharSequence value) {
+        final int length = value.length();
+        checkCapacity(address, Byte.BYTES + Integer.BYTES + 2 * length);
+        final long strPos = address + Byte.BYTES + Integer.BYTES; // skip field type and string length
+        tempSink.of(strPos, strPos + 2L * length);
+        tempSink.put(value);
+        Unsafe.getUnsafe().putByte(address, LineTcpParser.ENTITY_TYPE_TAG);
+        Unsafe.getUnsafe().putInt(address + Byte.BYTES, length);
+        return address + length * 2L + Integer.BYTES + Byte.BYTES;
+    }
+
     public long addSymbol(long address, DirectByteCharSequence value, boolean hasNonAsciiChars, DirectByteSymbolLookup symbolLookup) {
         final int maxLen = 2 * value.length();
         checkCapacity(address, Byte.BYTES + Integer.BYTES + maxLen);
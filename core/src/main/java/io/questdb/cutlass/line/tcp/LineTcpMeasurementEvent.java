@@ -34,6 +34,7 @@ import io.questdb.std.Numbers;
 import io.questdb.std.NumericException;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.str.DirectByteCharSequence;
+import io.questdb.std.str.StringSink;
 
 import java.io.Closeable;
 
@@ -43,6 +44,7 @@ import static io.questdb.cutlass.line.tcp.TableUpdateDetails.ThreadLocalDetails.
 class LineTcpMeasurementEvent implements Closeable {
     private static final Log LOG = LogFactory.getLog(LineTcpMeasurementEvent.class);
     private final boolean autoCreateNewColumns;
+    private final StringSink binaryValueSink = new StringSink();
     private final LineTcpEventBuffer buffer;
     private final MicrosecondClock clock;
     private final DefaultColumnTypes defaultColumnTypes;
@@ -121,6 +123,34 @@ class LineTcpMeasurementEvent implements Closeable {
         tableUpdateDetails.releaseWriter(commitOnWriterClose);
     }
 
+    private void addNewColumns(TableWriterAPI writer, long offset, int nEntities) {
+        boolean committed = false;
+        for (int nEntity = 0; nEntity < nEntities; nEntity++) {
+            final int colIndex = buffer.readInt(offset);
+            offset += Integer.BYTES;
+            if (colIndex < 0) {
+                final CharSequence columnName = buffer.readUtf16Chars(offset, -colIndex);
+                offset += -colIndex * 2L;
+                final byte entityType = buffer.readByte(offset);
+                offset += Byte.BYTES;
+                if (writer.getMetadata().getColumnIndexQuiet(columnName) < 0) {
+                    if (!committed) {
+                        // we have to commit before adding new columns as WalWriter doesn't do that automatically,
+                        // once is enough for all columns of the measurement
+                        writer.commit();
+                        committed = true;
+                    }
+                    TableUpdateDetails.addColumn(writer, columnName, defaultColumnTypes.MAPPED_COLUMN_TYPES[entityType]);
+                }
+                offset += buffer.columnValueLength(entityType, offset);
+            } else {
+                final byte entityType = buffer.readByte(offset);
+                offset += Byte.BYTES;
+                offset += buffer.columnValueLength(entityType, offset);
+            }
+        }
+    }
+
     void append() throws CommitFailedException {
         TableWriter.Row row = null;
         try {
@@ -138,9 +168,12 @@ class LineTcpMeasurementEvent implements Closeable {
             if (timestamp == LineTcpParser.NULL_TIMESTAMP) {
                 timestamp = clock.getTicks();
             }
-            row = writer.newRow(timestamp);
             final int nEntities = buffer.readInt(offset);
             offset += Integer.BYTES;
+            // create all new columns of the measurement before the row is started, the row
+            // would otherwise be cancelled and restarted once per new column
+            addNewColumns(writer, offset, nEntities);
+            row = writer.newRow(timestamp);
             final long writerMetadataVersion = writer.getMetadataVersion();
             for (int nEntity = 0; nEntity < nEntities; nEntity++) {
                 int colIndex = buffer.readInt(offset);
@@ -172,23 +205,14 @@ class LineTcpMeasurementEvent implements Closeable {
                     offset += Byte.BYTES;
                     colIndex = writer.getMetadata().getColumnIndexQuiet(columnName);
                     if (colIndex < 0) {
-                        // we have to cancel "active" row to avoid writer committing when
+                        // the column has gone since the new columns were added, e.g. it was dropped
+                        // concurrently; we have to cancel "active" row to avoid writer committing when
                         // column is added
                         row.cancel();
                         row = null;
-                        final int colType = defaultColumnTypes.MAPPED_COLUMN_TYPES[entityType];
                         // we have to commit before adding a new column as WalWriter doesn't do that automatically
                         writer.commit();
-                        try {
-                            writer.addColumn(columnName, colType);
-                        } catch (CairoException e) {
-                            colIndex = writer.getMetadata().getColumnIndexQuiet(columnName);
-                            if (colIndex < 0) {
-                                // the column is still not there, something must be wrong
-                                throw e;
-                            }
-                            // all good, someone added the column concurrently
-                        }
+                        TableUpdateDetails.addColumn(writer, columnName, defaultColumnTypes.MAPPED_COLUMN_TYPES[entityType]);
 
                         // Seek to beginning of entities
                         offset = buffer.getAddressAfterHeader();
@@ -294,7 +318,8 @@ class LineTcpMeasurementEvent implements Closeable {
             SecurityContext securityContext,
             TableUpdateDetails tud,
             LineTcpParser parser,
-            int workerId
+            int workerId,
+            int writerThreadId
     ) {
         writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_INCOMPLETE_EVENT;
         final TableUpdateDetails.ThreadLocalDetails localDetails = tud.getThreadLocalDetails(workerId);
@@ -436,11 +461,17 @@ class LineTcpMeasurementEvent implements Closeable {
                             break;
 
                         case ColumnType.SYMBOL:
-                            offset = buffer.addSymbol(
-                                    offset,
-                                    entity.getValue(),
-                                    parser.hasNonAsciiChars(), localDetails.getSymbolLookup(columnWriterIndex)
-                            );
+                            if (entity.isBinary()) {
+                                binaryValueSink.clear();
+                                binaryValueSink.put(entity.getFloatValue());
+                                offset = buffer.addSymbol(offset, binaryValueSink);
+                            } else {
+                                offset = buffer.addSymbol(
+                                        offset,
+                                        entity.getValue(),
+                                        parser.hasNonAsciiChars(), localDetails.getSymbolLookup(columnWriterIndex)
+                                );
+                            }
                             break;
 
                         default:
@@ -457,6 +488,14 @@ class LineTcpMeasurementEvent implements Closeable {
                                 offset = buffer.addString(offset, entityValue, parser.hasNonAsciiChars());
                                 break;
 
+                            case ColumnType.BINARY:
+                                // arrays are sent as text and parsed by the writer
+                                if (!ColumnType.isDoubleArray(colType)) {
+                                    throw castError("string", columnWriterIndex, colType, entity.getName());
+                                }
+                                offset = buffer.addString(offset, entityValue, parser.hasNonAsciiChars());
+                                break;
+
                             case ColumnType.CHAR:
                                 if (entityValue.length() == 1 && entityValue.byteAt(0) > -1) {
                                     offset = buffer.addChar(offset, entityValue.charAt(0));
@@ -573,12 +612,18 @@ class LineTcpMeasurementEvent implements Closeable {
                             break;
 
                         case ColumnType.SYMBOL:
-                            offset = buffer.addSymbol(
-                                    offset,
-                                    entity.getValue(),
-                                    parser.hasNonAsciiChars(),
-                                    localDetails.getSymbolLookup(columnWriterIndex)
-                            );
+                            if (entity.isBinary()) {
+                                binaryValueSink.clear();
+                                binaryValueSink.put(entity.getLongValue());
+                                offset = buffer.addSymbol(offset, binaryValueSink);
+                            } else {
+                                offset = buffer.addSymbol(
+                                        offset,
+                                        entity.getValue(),
+                                        parser.hasNonAsciiChars(),
+                                        localDetails.getSymbolLookup(columnWriterIndex)
+                                );
+                            }
                             break;
 
                         default:
@@ -609,7 +654,18 @@ class LineTcpMeasurementEvent implements Closeable {
         }
         buffer.addDesignatedTimestamp(buffer.getAddress() + Long.BYTES, timestamp);
         buffer.addNumOfColumns(buffer.getAddress() + 2 * Long.BYTES, entitiesWritten);
-        writerWorkerId = tud.getWriterThreadId();
+        // the table can be moved to another writer thread while the event is being populated,
+        // the event must be addressed to the writer thread of the queue it has been published to
+        writerWorkerId = writerThreadId;
+    }
+
+    void createHandoverEvent(TableUpdateDetails tableUpdateDetails) {
+        writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_HANDOVER;
+        this.tableUpdateDetails = tableUpdateDetails;
+    }
+
+    void createIncompleteEvent() {
+        writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_INCOMPLETE_EVENT;
     }
 
     void createWriterReleaseEvent(TableUpdateDetails tableUpdateDetails, boolean commitOnWriterClose) {
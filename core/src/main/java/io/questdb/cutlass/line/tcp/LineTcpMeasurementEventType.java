@@ -30,4 +30,8 @@ class LineTcpMeasurementEventType {
     static final int ALL_WRITERS_INCOMPLETE_EVENT = -2;
 
     static final int ALL_WRITERS_RELEASE_WRITER = -3;
+
+    // Published to the old writer thread when a table is moved to another writer thread, the event
+    // follows all events of the table queued before the move
+    static final int ALL_WRITERS_HANDOVER = -4;
 }
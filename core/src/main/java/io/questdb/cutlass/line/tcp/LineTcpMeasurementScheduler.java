@@ -28,37 +28,34 @@ import io.questdb.Telemetry;
 import io.questdb.TelemetryOrigin;
 import io.questdb.TelemetrySystemEvent;
 import io.questdb.cairo.*;
-import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryMARW;
-import io.questdb.cairo.wal.WalWriter;
-import io.questdb.cutlass.line.LineProtoTimestampAdapter;
+import io.questdb.cutlass.line.udp.LineUdpReceiverConfiguration;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
-import io.questdb.mp.MPSequence;
-import io.questdb.mp.RingQueue;
-import io.questdb.mp.SCSequence;
-import io.questdb.mp.WorkerPool;
+import io.questdb.metrics.VirtualLongGaugeWithOneLabel;
+import io.questdb.mp.*;
 import io.questdb.network.IODispatcher;
 import io.questdb.std.*;
 import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.std.str.ByteCharSequence;
+import io.questdb.std.str.CharSink;
 import io.questdb.std.str.DirectByteCharSequence;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.StringSink;
 import io.questdb.tasks.TelemetryTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.util.Arrays;
 import java.util.concurrent.locks.ReadWriteLock;
 
-import static io.questdb.cutlass.line.tcp.LineTcpMeasurementEvent.*;
-import static io.questdb.cutlass.line.tcp.TableUpdateDetails.ThreadLocalDetails.COLUMN_NOT_FOUND;
-import static io.questdb.cutlass.line.tcp.TableUpdateDetails.ThreadLocalDetails.DUPLICATED_COLUMN;
-
 public class LineTcpMeasurementScheduler implements Closeable {
     private static final Log LOG = LogFactory.getLog(LineTcpMeasurementScheduler.class);
+    // parse queue is shared by all connections, chunks that do not fit
+    // are parsed by the publishing thread
+    private static final int PARSE_TASKS_PER_IO_WORKER = 8;
     private final ObjList<TableUpdateDetails>[] assignedTables;
     private final boolean autoCreateNewColumns;
     private final boolean autoCreateNewTables;
@@ -69,16 +66,29 @@ public class LineTcpMeasurementScheduler implements Closeable {
     private final CairoEngine engine;
     private final LowerCaseCharSequenceObjHashMap<TableUpdateDetails> idleTableUpdateDetailsUtf16;
     private final long[] loadByWriterThread;
+    private final double maxLoadRatio;
+    private final long minRebalanceLoad;
     private final NetworkIOJob[] netIoJobs;
+    private final MPSequence parsePubSeq;
+    private final RingQueue<LineTcpParseTask> parseQueue;
     private final Path path = new Path();
     private final MPSequence[] pubSeq;
     private final RingQueue<LineTcpMeasurementEvent>[] queue;
+    private final SCSequence[] subSeq;
     private final StringSink[] tableNameSinks;
     private final TableStructureAdapter tableStructureAdapter;
     private final ReadWriteLock tableUpdateDetailsLock = new SimpleReadWriteLock();
     private final LowerCaseCharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf16;
     private final Telemetry<TelemetryTask> telemetry;
+    private final LineWalAppender walAppender;
+    private final long rebalanceInterval;
+    private final long workStealTimeoutNanos;
     private final long writerIdleTimeout;
+    private final int writerQueueTableBudget;
+    private volatile long nextRebalanceMillis;
+    // table moved to another writer thread, whose handover event could not be published yet
+    // because the old writer thread's queue was full
+    private volatile TableUpdateDetails pendingHandover;
 
     public LineTcpMeasurementScheduler(
             LineTcpReceiverConfiguration lineConfiguration,
@@ -86,6 +96,23 @@ public class LineTcpMeasurementScheduler implements Closeable {
             WorkerPool ioWorkerPool,
             IODispatcher<LineTcpConnectionContext> dispatcher,
             WorkerPool writerWorkerPool
+    ) {
+        this(lineConfiguration, engine, ioWorkerPool, dispatcher, writerWorkerPool, null, null);
+    }
+
+    /**
+     * @param udpConfiguration UDP receiver configuration, used when udpWorkerPool is not null
+     * @param udpWorkerPool    pool that serves UDP sockets, one socket per worker, null when UDP
+     *                         is not routed through this scheduler
+     */
+    public LineTcpMeasurementScheduler(
+            LineTcpReceiverConfiguration lineConfiguration,
+            CairoEngine engine,
+            WorkerPool ioWorkerPool,
+            IODispatcher<LineTcpConnectionContext> dispatcher,
+            WorkerPool writerWorkerPool,
+            @Nullable LineUdpReceiverConfiguration udpConfiguration,
+            @Nullable WorkerPool udpWorkerPool
     ) {
         this.engine = engine;
         this.telemetry = engine.getTelemetry();
@@ -94,8 +121,10 @@ public class LineTcpMeasurementScheduler implements Closeable {
         MillisecondClock milliClock = cairoConfiguration.getMillisecondClock();
         this.defaultColumnTypes = new DefaultColumnTypes(lineConfiguration);
         final int ioWorkerPoolSize = ioWorkerPool.getWorkerCount();
-        this.netIoJobs = new NetworkIOJob[ioWorkerPoolSize];
-        this.tableNameSinks = new StringSink[ioWorkerPoolSize];
+        final int udpSocketCount = udpWorkerPool != null ? udpWorkerPool.getWorkerCount() : 0;
+        // UDP sockets take worker ids after the TCP IO workers
+        this.netIoJobs = new NetworkIOJob[ioWorkerPoolSize + udpSocketCount];
+        this.tableNameSinks = new StringSink[ioWorkerPoolSize + udpSocketCount];
         for (int i = 0; i < ioWorkerPoolSize; i++) {
             tableNameSinks[i] = new StringSink();
             NetworkIOJob netIoJob = createNetworkIOJob(dispatcher, i);
@@ -103,6 +132,26 @@ public class LineTcpMeasurementScheduler implements Closeable {
             ioWorkerPool.assign(i, netIoJob);
             ioWorkerPool.freeOnExit(netIoJob);
         }
+        for (int i = 0; i < udpSocketCount; i++) {
+            final int workerId = ioWorkerPoolSize + i;
+            tableNameSinks[workerId] = new StringSink();
+            NetworkIOJob udpJob = new LineUdpNetworkIOJob(lineConfiguration, udpConfiguration, this, engine.getMetrics(), workerId);
+            netIoJobs[workerId] = udpJob;
+            udpWorkerPool.assign(i, udpJob);
+            udpWorkerPool.freeOnExit(udpJob);
+        }
+
+        if (ioWorkerPoolSize > 1 && lineConfiguration.getParallelParseChunkSize() > 0) {
+            parseQueue = new RingQueue<>(LineTcpParseTask::new, Numbers.ceilPow2(ioWorkerPoolSize * PARSE_TASKS_PER_IO_WORKER));
+            parsePubSeq = new MPSequence(parseQueue.getCycle());
+            final MCSequence parseSubSeq = new MCSequence(parseQueue.getCycle());
+            parsePubSeq.then(parseSubSeq).then(parsePubSeq);
+            ioWorkerPool.assign(new LineTcpParseJob(parseQueue, parseSubSeq));
+        } else {
+            parseQueue = null;
+            parsePubSeq = null;
+        }
+        workStealTimeoutNanos = cairoConfiguration.getWorkStealTimeoutNanos();
 
         // Worker count is set to 1 because we do not use this execution context
         // in worker threads.
@@ -113,11 +162,14 @@ public class LineTcpMeasurementScheduler implements Closeable {
         autoCreateNewColumns = lineConfiguration.getAutoCreateNewColumns();
         int maxMeasurementSize = lineConfiguration.getMaxMeasurementSize();
         int queueSize = lineConfiguration.getWriterQueueCapacity();
+        final int tableBudget = lineConfiguration.getWriterQueueTableBudget();
+        writerQueueTableBudget = tableBudget > 0 ? tableBudget : Integer.MAX_VALUE;
         long commitInterval = configuration.getCommitInterval();
         int nWriterThreads = writerWorkerPool.getWorkerCount();
         pubSeq = new MPSequence[nWriterThreads];
         //noinspection unchecked
         queue = new RingQueue[nWriterThreads];
+        subSeq = new SCSequence[nWriterThreads];
         //noinspection unchecked
         assignedTables = new ObjList[nWriterThreads];
         for (int i = 0; i < nWriterThreads; i++) {
@@ -141,15 +193,16 @@ public class LineTcpMeasurementScheduler implements Closeable {
             );
 
             queue[i] = q;
-            SCSequence subSeq = new SCSequence();
-            ps.then(subSeq).then(ps);
+            SCSequence ss = new SCSequence();
+            ps.then(ss).then(ps);
+            subSeq[i] = ss;
 
             assignedTables[i] = new ObjList<>();
 
             final LineTcpWriterJob lineTcpWriterJob = new LineTcpWriterJob(
                     i,
                     q,
-                    subSeq,
+                    ss,
                     milliClock,
                     commitInterval, this, engine.getMetrics(), assignedTables[i]);
             writerWorkerPool.assign(i, lineTcpWriterJob);
@@ -157,10 +210,30 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
         this.tableStructureAdapter = new TableStructureAdapter(cairoConfiguration, defaultColumnTypes, configuration.getDefaultPartitionBy());
         writerIdleTimeout = lineConfiguration.getWriterIdleTimeout();
+        maxLoadRatio = lineConfiguration.getMaxLoadRatio();
+        minRebalanceLoad = lineConfiguration.getNUpdatesPerLoadRebalance();
+        rebalanceInterval = lineConfiguration.getMaintenanceInterval();
+        nextRebalanceMillis = milliClock.getTicks() + rebalanceInterval;
+        this.walAppender = new LineWalAppender(lineConfiguration, cairoConfiguration.getMaxFileNameLength(), false);
+        engine.getMetrics().lineTcp().attachScheduler(this);
+    }
+
+    public void appendTableQueueDepths(VirtualLongGaugeWithOneLabel gauge, CharSink sink) {
+        tableUpdateDetailsLock.readLock().lock();
+        try {
+            ObjList<CharSequence> tableNames = tableUpdateDetailsUtf16.keys();
+            for (int n = 0, sz = tableNames.size(); n < sz; n++) {
+                final CharSequence tableName = tableNames.getQuick(n);
+                gauge.appendSample(sink, tableName, tableUpdateDetailsUtf16.get(tableName).getQueuedEvents());
+            }
+        } finally {
+            tableUpdateDetailsLock.readLock().unlock();
+        }
     }
 
     @Override
     public void close() {
+        engine.getMetrics().lineTcp().detachScheduler(this);
         tableUpdateDetailsLock.writeLock().lock();
         try {
             closeLocals(tableUpdateDetailsUtf16);
@@ -179,6 +252,7 @@ public class LineTcpMeasurementScheduler implements Closeable {
         for (int i = 0, n = queue.length; i < n; i++) {
             Misc.free(queue[i]);
         }
+        Misc.free(parseQueue);
         for (int i = 0, n = netIoJobs.length; i < n; i++) {
             netIoJobs[i].close();
         }
@@ -189,6 +263,22 @@ public class LineTcpMeasurementScheduler implements Closeable {
             int readerWorkerId,
             long millis
     ) {
+        if ((millis >= nextRebalanceMillis || pendingHandover != null) && loadByWriterThread.length > 1) {
+            tableUpdateDetailsLock.writeLock().lock();
+            try {
+                if (pendingHandover != null) {
+                    unsafePublishHandover();
+                }
+                // another network IO thread might have rebalanced already
+                if (millis >= nextRebalanceMillis) {
+                    unsafeRebalance();
+                    nextRebalanceMillis = millis + rebalanceInterval;
+                }
+            } finally {
+                tableUpdateDetailsLock.writeLock().unlock();
+            }
+        }
+
         for (int n = 0, sz = tableUpdateDetailsUtf8.size(); n < sz; n++) {
             final ByteCharSequence tableNameUtf8 = tableUpdateDetailsUtf8.keys().get(n);
             final TableUpdateDetails tud = tableUpdateDetailsUtf8.get(tableNameUtf8);
@@ -224,6 +314,10 @@ public class LineTcpMeasurementScheduler implements Closeable {
         return false;
     }
 
+    public boolean isParallelParseEnabled() {
+        return parseQueue != null;
+    }
+
     public void processWriterReleaseEvent(LineTcpMeasurementEvent event, int workerId) {
         tableUpdateDetailsLock.readLock().lock();
         try {
@@ -300,7 +394,7 @@ public class LineTcpMeasurementScheduler implements Closeable {
 
         if (tud.isWal()) {
             try {
-                appendToWal(securityContext, netIoJob, parser, tud);
+                walAppender.appendToWal(securityContext, parser, tud, netIoJob.getWorkerId());
             } catch (CommitFailedException ex) {
                 if (ex.isTableDropped()) {
                     // table dropped, nothing to worry about
@@ -332,314 +426,6 @@ public class LineTcpMeasurementScheduler implements Closeable {
         throw CairoException.critical(0).put("could not append to WAL [tableName=").put(measurementName).put(", error=").put(ex.getMessage()).put(']');
     }
 
-    private void appendToWal(SecurityContext securityContext, NetworkIOJob netIoJob, LineTcpParser parser, TableUpdateDetails tud) throws CommitFailedException {
-        final boolean stringToCharCastAllowed = configuration.isStringToCharCastAllowed();
-        LineProtoTimestampAdapter timestampAdapter = configuration.getTimestampAdapter();
-        // pass 1: create all columns that do not exist
-        final TableUpdateDetails.ThreadLocalDetails ld = tud.getThreadLocalDetails(netIoJob.getWorkerId());
-        ld.resetStateIfNecessary();
-        ld.clearColumnTypes();
-
-        WalWriter ww = (WalWriter) tud.getWriter();
-        TableRecordMetadata metadata = ww.getMetadata();
-
-        long timestamp = parser.getTimestamp();
-        if (timestamp != LineTcpParser.NULL_TIMESTAMP) {
-            timestamp = timestampAdapter.getMicros(timestamp);
-        } else {
-            timestamp = configuration.getMicrosecondClock().getTicks();
-        }
-
-        final int entCount = parser.getEntityCount();
-        for (int i = 0; i < entCount; i++) {
-            final LineTcpParser.ProtoEntity ent = parser.getEntity(i);
-            int columnIndex = ld.getColumnIndex(ent.getName(), parser.hasNonAsciiChars(), metadata);
-            int columnType = ColumnType.UNDEFINED;
-            if (columnIndex == COLUMN_NOT_FOUND) {
-                final String columnNameUtf16 = ld.getColNameUtf16();
-                if (autoCreateNewColumns && TableUtils.isValidColumnName(columnNameUtf16, cairoConfiguration.getMaxFileNameLength())) {
-                    columnIndex = metadata.getColumnIndexQuiet(columnNameUtf16);
-                    if (columnIndex < 0) {
-                        securityContext.authorizeAlterTableAddColumn(ww.getTableToken());
-                        tud.commit(false);
-                        try {
-                            ww.addColumn(columnNameUtf16, ld.getColumnType(ld.getColNameUtf8(), ent.getType()));
-                            columnIndex = metadata.getColumnIndexQuiet(columnNameUtf16);
-                        } catch (CairoException e) {
-                            columnIndex = metadata.getColumnIndexQuiet(columnNameUtf16);
-                            if (columnIndex < 0) {
-                                // the column is still not there, something must be wrong
-                                throw e;
-                            }
-                            // all good, someone added the column concurrently
-                        }
-                    }
-                    columnType = metadata.getColumnType(columnIndex);
-                } else if (!autoCreateNewColumns) {
-                    throw newColumnsNotAllowed(tud, columnNameUtf16);
-                } else {
-                    throw invalidColNameError(tud, columnNameUtf16);
-                }
-            } else if (columnIndex > -1) {
-                if (columnIndex == tud.getTimestampIndex()) {
-                    timestamp = timestampAdapter.getMicros(ent.getLongValue());
-                    columnIndex = DUPLICATED_COLUMN;
-                }
-                columnType = columnIndex < 0 ? ColumnType.UNDEFINED : metadata.getColumnType(columnIndex);
-            }
-            ld.addColumnType(columnIndex, columnType);
-        }
-
-        TableWriter.Row r = ww.newRow(timestamp);
-        try {
-            for (int i = 0; i < entCount; i++) {
-                final LineTcpParser.ProtoEntity ent = parser.getEntity(i);
-
-                short entType = ent.getType();
-                int colTypeAndIndex = ld.getColumnType(i);
-                int colType = Numbers.decodeLowShort(colTypeAndIndex);
-                int columnIndex = Numbers.decodeHighShort(colTypeAndIndex);
-
-                if (columnIndex < 0) {
-                    continue;
-                }
-
-                switch (entType) {
-                    case LineTcpParser.ENTITY_TYPE_TAG: {
-                        if (ColumnType.tagOf(colType) == ColumnType.SYMBOL) {
-                            r.putSymUtf8(columnIndex, ent.getValue(), parser.hasNonAsciiChars());
-                        } else {
-                            throw castError("tag", i, colType, ent.getName());
-                        }
-                        break;
-                    }
-                    case LineTcpParser.ENTITY_TYPE_INTEGER: {
-                        switch (ColumnType.tagOf(colType)) {
-                            case ColumnType.LONG:
-                                r.putLong(columnIndex, ent.getLongValue());
-                                break;
-
-                            case ColumnType.INT: {
-                                final long entityValue = ent.getLongValue();
-                                if (entityValue >= Integer.MIN_VALUE && entityValue <= Integer.MAX_VALUE) {
-                                    r.putInt(columnIndex, (int) entityValue);
-                                } else if (entityValue == Numbers.LONG_NaN) {
-                                    r.putInt(columnIndex, Numbers.INT_NaN);
-                                } else {
-                                    throw boundsError(entityValue, i, ColumnType.INT);
-                                }
-                                break;
-                            }
-                            case ColumnType.SHORT: {
-                                final long entityValue = ent.getLongValue();
-                                if (entityValue >= Short.MIN_VALUE && entityValue <= Short.MAX_VALUE) {
-                                    r.putShort(columnIndex, (short) entityValue);
-                                } else if (entityValue == Numbers.LONG_NaN) {
-                                    r.putShort(columnIndex, (short) 0);
-                                } else {
-                                    throw boundsError(entityValue, i, ColumnType.SHORT);
-                                }
-                                break;
-                            }
-                            case ColumnType.BYTE: {
-                                final long entityValue = ent.getLongValue();
-                                if (entityValue >= Byte.MIN_VALUE && entityValue <= Byte.MAX_VALUE) {
-                                    r.putByte(columnIndex, (byte) entityValue);
-                                } else if (entityValue == Numbers.LONG_NaN) {
-                                    r.putByte(columnIndex, (byte) 0);
-                                } else {
-                                    throw boundsError(entityValue, i, ColumnType.BYTE);
-                                }
-                                break;
-                            }
-                            case ColumnType.TIMESTAMP:
-                                r.putTimestamp(columnIndex, ent.getLongValue());
-                                break;
-
-                            case ColumnType.DATE:
-                                r.putDate(columnIndex, ent.getLongValue());
-                                break;
-
-                            case ColumnType.DOUBLE:
-                                r.putDouble(columnIndex, ent.getLongValue());
-                                break;
-
-                            case ColumnType.FLOAT:
-                                r.putFloat(columnIndex, ent.getLongValue());
-                                break;
-
-                            case ColumnType.SYMBOL:
-                                r.putSym(columnIndex, ent.getValue());
-                                break;
-
-                            default:
-                                throw castError("integer", i, colType, ent.getName());
-                        }
-                        break;
-                    }
-                    case LineTcpParser.ENTITY_TYPE_FLOAT: {
-                        switch (ColumnType.tagOf(colType)) {
-                            case ColumnType.DOUBLE:
-                                r.putDouble(columnIndex, ent.getFloatValue());
-                                break;
-
-                            case ColumnType.FLOAT:
-                                r.putFloat(columnIndex, (float) ent.getFloatValue());
-                                break;
-
-                            case ColumnType.SYMBOL:
-                                r.putSym(columnIndex, ent.getValue());
-                                break;
-
-                            default:
-                                throw castError("float", i, colType, ent.getName());
-                        }
-                        break;
-                    }
-                    case LineTcpParser.ENTITY_TYPE_STRING: {
-                        final int geoHashBits = ColumnType.getGeoHashBits(colType);
-                        final DirectByteCharSequence entityValue = ent.getValue();
-                        if (geoHashBits == 0) { // not geohash
-                            switch (ColumnType.tagOf(colType)) {
-                                case ColumnType.STRING:
-                                    r.putStrUtf8AsUtf16(columnIndex, entityValue, parser.hasNonAsciiChars());
-                                    break;
-
-                                case ColumnType.CHAR:
-                                    if (entityValue.length() == 1 && entityValue.byteAt(0) > -1) {
-                                        r.putChar(columnIndex, entityValue.charAt(0));
-                                    } else if (stringToCharCastAllowed) {
-                                        int encodedResult = Chars.utf8CharDecode(entityValue.getLo(), entityValue.getHi());
-                                        if (Numbers.decodeLowShort(encodedResult) > 0) {
-                                            r.putChar(columnIndex, (char) Numbers.decodeHighShort(encodedResult));
-                                        } else {
-                                            throw castError("string", i, colType, ent.getName());
-                                        }
-                                    } else {
-                                        throw castError("string", i, colType, ent.getName());
-                                    }
-                                    break;
-
-                                case ColumnType.SYMBOL:
-                                    r.putSymUtf8(columnIndex, entityValue, parser.hasNonAsciiChars());
-                                    break;
-                                case ColumnType.UUID:
-                                    r.putUuid(columnIndex, entityValue);
-                                    break;
-                                default:
-                                    throw castError("string", i, colType, ent.getName());
-                            }
-                        } else {
-                            long geoHash;
-                            try {
-                                DirectByteCharSequence value = ent.getValue();
-                                geoHash = GeoHashes.fromStringTruncatingNl(value.getLo(), value.getHi(), geoHashBits);
-                            } catch (NumericException e) {
-                                geoHash = GeoHashes.NULL;
-                            }
-                            r.putGeoHash(columnIndex, geoHash);
-                        }
-                        break;
-                    }
-                    case LineTcpParser.ENTITY_TYPE_LONG256: {
-                        switch (ColumnType.tagOf(colType)) {
-                            case ColumnType.LONG256:
-                                r.putLong256(columnIndex, ent.getValue());
-                                break;
-
-                            case ColumnType.SYMBOL:
-                                r.putSym(columnIndex, ent.getValue());
-                                break;
-
-                            default:
-                                throw castError("long256", i, colType, ent.getName());
-                        }
-                        break;
-                    }
-                    case LineTcpParser.ENTITY_TYPE_BOOLEAN: {
-                        switch (ColumnType.tagOf(colType)) {
-                            case ColumnType.BOOLEAN:
-                                r.putBool(columnIndex, ent.getBooleanValue());
-                                break;
-
-                            case ColumnType.BYTE:
-                                r.putByte(columnIndex, (byte) (ent.getBooleanValue() ? 1 : 0));
-                                break;
-
-                            case ColumnType.SHORT:
-                                r.putShort(columnIndex, (short) (ent.getBooleanValue() ? 1 : 0));
-                                break;
-
-                            case ColumnType.INT:
-                                r.putInt(columnIndex, ent.getBooleanValue() ? 1 : 0);
-                                break;
-
-                            case ColumnType.LONG:
-                                r.putLong(columnIndex, ent.getBooleanValue() ? 1 : 0);
-                                break;
-
-                            case ColumnType.FLOAT:
-                                r.putFloat(columnIndex, ent.getBooleanValue() ? 1 : 0);
-                                break;
-
-                            case ColumnType.DOUBLE:
-                                r.putDouble(columnIndex, ent.getBooleanValue() ? 1 : 0);
-                                break;
-
-                            case ColumnType.SYMBOL:
-                                r.putSym(columnIndex, ent.getValue());
-                                break;
-
-                            default:
-                                throw castError("boolean", i, colType, ent.getName());
-                        }
-                        break;
-                    }
-                    case LineTcpParser.ENTITY_TYPE_TIMESTAMP: {
-                        switch (ColumnType.tagOf(colType)) {
-                            case ColumnType.TIMESTAMP:
-                                r.putTimestamp(columnIndex, ent.getLongValue());
-                                break;
-
-                            case ColumnType.DATE:
-                                r.putTimestamp(columnIndex, ent.getLongValue() / 1000);
-                                break;
-
-                            case ColumnType.SYMBOL:
-                                r.putSym(columnIndex, ent.getValue());
-                                break;
-
-                            default:
-                                throw castError("timestamp", i, colType, ent.getName());
-                        }
-                        break;
-                    }
-                    // parser would reject this condition based on config
-                    case LineTcpParser.ENTITY_TYPE_SYMBOL: {
-                        if (ColumnType.tagOf(colType) == ColumnType.SYMBOL) {
-                            r.putSymUtf8(columnIndex, ent.getValue(), parser.hasNonAsciiChars());
-                        } else {
-                            throw castError("symbol", i, colType, ent.getName());
-                        }
-                        break;
-                    }
-                    default:
-                        // unsupported types are ignored
-                        break;
-                }
-            }
-            r.append();
-            tud.commitIfMaxUncommittedRowsCountReached();
-        } catch (CommitFailedException commitFailedException) {
-            throw commitFailedException;
-        } catch (Throwable th) {
-            LOG.error().$("could not write line protocol measurement [tableName=").$(tud.getTableNameUtf16()).$(", message=").$(th.getMessage()).$(th).I$();
-            if (r != null) {
-                r.cancel();
-            }
-        }
-    }
-
     private void closeLocals(LowerCaseCharSequenceObjHashMap<TableUpdateDetails> tudUtf16) {
         ObjList<CharSequence> tableNames = tudUtf16.keys();
         for (int n = 0, sz = tableNames.size(); n < sz; n++) {
@@ -654,21 +440,37 @@ public class LineTcpMeasurementScheduler implements Closeable {
             LineTcpParser parser,
             TableUpdateDetails tud
     ) {
-        final int writerThreadId = tud.getWriterThreadId();
-        long seq = getNextPublisherEventSequence(writerThreadId);
-        if (seq > -1) {
+        if (tud.getQueuedEvents() >= writerQueueTableBudget) {
+            // table is over its budget, the connection waits for the writer to catch up
+            // while other tables keep publishing to the same queue
+            return true;
+        }
+        while (true) {
+            final int writerThreadId = tud.getWriterThreadId();
+            long seq = getNextPublisherEventSequence(writerThreadId);
+            if (seq < 0) {
+                return true;
+            }
             try {
                 if (tud.isWriterInError()) {
                     throw CairoException.critical(0).put("writer is in error, aborting ILP pipeline");
                 }
-                queue[writerThreadId].get(seq).createMeasurementEvent(securityContext, tud, parser, netIoJob.getWorkerId());
+                final LineTcpMeasurementEvent event = queue[writerThreadId].get(seq);
+                if (tud.getWriterThreadId() != writerThreadId) {
+                    // The table has been moved to another writer thread after the slot was claimed, the
+                    // handover event is ahead of this slot in the old queue. Skip the slot and publish
+                    // the line to the new writer thread.
+                    event.createIncompleteEvent();
+                    continue;
+                }
+                event.createMeasurementEvent(securityContext, tud, parser, netIoJob.getWorkerId(), writerThreadId);
+                tud.incrementQueuedEvents();
             } finally {
                 pubSeq[writerThreadId].done(seq);
             }
             tud.incrementEventsProcessedSinceReshuffle();
             return false;
         }
-        return true;
     }
 
     private TableUpdateDetails getTableUpdateDetailsFromSharedArea(
@@ -818,8 +620,85 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
     }
 
+    private void unsafePublishHandover() {
+        final int fromThreadId = pendingHandover.getHandoverFromThreadId();
+        final long seq = getNextPublisherEventSequence(fromThreadId);
+        if (seq > -1) {
+            queue[fromThreadId].get(seq).createHandoverEvent(pendingHandover);
+            pubSeq[fromThreadId].done(seq);
+            pendingHandover = null;
+        }
+    }
+
+    private void unsafeRebalance() {
+        unsafeCalcThreadLoad();
+        int fromThreadId = 0;
+        int toThreadId = 0;
+        for (int i = 1, n = loadByWriterThread.length; i < n; i++) {
+            if (loadByWriterThread[i] > loadByWriterThread[fromThreadId]) {
+                fromThreadId = i;
+            }
+            if (loadByWriterThread[i] < loadByWriterThread[toThreadId]) {
+                toThreadId = i;
+            }
+        }
+
+        final long maxLoad = loadByWriterThread[fromThreadId];
+        final long minLoad = loadByWriterThread[toThreadId];
+        final ObjList<CharSequence> tableNames = tableUpdateDetailsUtf16.keys();
+        if (maxLoad >= minRebalanceLoad && maxLoad > minLoad * maxLoadRatio) {
+            // Move the busiest table that still narrows the gap between the threads. A thread
+            // with a single hot table cannot be helped, that table's load is the whole gap.
+            TableUpdateDetails candidate = null;
+            long candidateLoad = 0;
+            for (int n = 0, sz = tableNames.size(); n < sz; n++) {
+                final TableUpdateDetails tud = tableUpdateDetailsUtf16.get(tableNames.getQuick(n));
+                if (tud != null && tud.getHandoverFromThreadId() > -1) {
+                    // One move at a time. Two tables moving in opposite directions could each
+                    // wait for a handover event queued behind the other one.
+                    candidate = null;
+                    break;
+                }
+                if (tud != null && tud.getWriterThreadId() == fromThreadId && !tud.isWriterInError()) {
+                    final long load = tud.getEventsProcessedSinceReshuffle();
+                    if (load > candidateLoad && load < maxLoad - minLoad) {
+                        candidate = tud;
+                        candidateLoad = load;
+                    }
+                }
+            }
+
+            if (candidate != null) {
+                // Network IO threads publish new events of the table to the new writer thread from now on.
+                // Events already in the old writer's queue are followed by the handover event, the new
+                // writer thread does not touch the table until the old one has processed that event.
+                // The thread id must change before the handover event is published, a network IO thread
+                // that claims a slot in the old queue after that sees the new id and skips the slot.
+                candidate.startHandover(fromThreadId);
+                candidate.setWriterThreadId(toThreadId);
+                pendingHandover = candidate;
+                unsafePublishHandover();
+                LOG.info().$("rebalanced table [tableName=").$(candidate.getTableNameUtf16())
+                        .$(", fromThreadId=").$(fromThreadId)
+                        .$(", fromThreadLoad=").$(maxLoad)
+                        .$(", toThreadId=").$(toThreadId)
+                        .$(", toThreadLoad=").$(minLoad)
+                        .$(", tableLoad=").$(candidateLoad)
+                        .I$();
+            }
+        }
+
+        // load is measured over the rebalance interval, start the next one
+        for (int n = 0, sz = tableNames.size(); n < sz; n++) {
+            final TableUpdateDetails tud = tableUpdateDetailsUtf16.get(tableNames.getQuick(n));
+            if (tud != null) {
+                tud.resetEventsProcessedSinceReshuffle();
+            }
+        }
+    }
+
     protected NetworkIOJob createNetworkIOJob(IODispatcher<LineTcpConnectionContext> dispatcher, int workerId) {
-        return new LineTcpNetworkIOJob(configuration, this, dispatcher, workerId);
+        return new LineTcpNetworkIOJob(configuration, this, dispatcher, engine.getMetrics(), workerId);
     }
 
     long getNextPublisherEventSequence(int writerWorkerId) {
@@ -830,4 +709,69 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
         return seq;
     }
+
+    /**
+     * Returns a value that changes whenever a writer thread takes events off its queue. Network
+     * IO jobs compare it to the value they saw before parking a connection to tell whether
+     * the writer queues could have room for the connection's pending row.
+     */
+    long getWriterDrainMark() {
+        long mark = 0;
+        for (int i = 0, n = subSeq.length; i < n; i++) {
+            mark += subSeq[i].current();
+        }
+        return mark;
+    }
+
+    /**
+     * Parses chunks of a receive buffer. All chunks but the first one are published to the parse
+     * queue and picked up by other IO workers, the first chunk is parsed by the calling thread. The
+     * method returns when all chunks are parsed, chunks not yet picked up by other workers are
+     * parsed by the calling thread.
+     *
+     * @param chunks     chunks to parse, they must cover consecutive ranges of the receive buffer
+     * @param chunkCount number of chunks to parse
+     * @param latch      latch owned by the calling connection
+     */
+    void parseInParallel(ObjList<LineTcpParseChunk> chunks, int chunkCount, SOCountDownLatch latch) {
+        assert parseQueue != null;
+        latch.setCount(chunkCount);
+        for (int i = 1; i < chunkCount; i++) {
+            final LineTcpParseChunk chunk = chunks.getQuick(i);
+            long cursor;
+            while ((cursor = parsePubSeq.next()) == -2) {
+                Os.pause();
+            }
+            if (cursor == -1) {
+                // queue is full, parse in the current thread
+                if (chunk.tryLock(chunk.getOwnerSequence())) {
+                    chunk.parseAndCountDown(latch);
+                }
+                continue;
+            }
+            final LineTcpParseTask task = parseQueue.get(cursor);
+            task.chunk = chunk;
+            task.countDownLatch = latch;
+            task.sequence = chunk.getOwnerSequence();
+            parsePubSeq.done(cursor);
+        }
+
+        // parse the first chunk while the rest are brewing on the queue
+        final LineTcpParseChunk first = chunks.getQuick(0);
+        if (first.tryLock(first.getOwnerSequence())) {
+            first.parseAndCountDown(latch);
+        }
+
+        if (!latch.await(workStealTimeoutNanos)) {
+            // other chunks are still in-flight, steal the ones not picked up yet
+            for (int i = 1; i < chunkCount; i++) {
+                final LineTcpParseChunk chunk = chunks.getQuick(i);
+                if (chunk.tryLock(chunk.getOwnerSequence())) {
+                    chunk.parseAndCountDown(latch);
+                }
+            }
+            // wait for the ones we cannot steal
+            latch.await();
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.metrics.LongGauge;
+import io.questdb.metrics.MetricsRegistry;
+import io.questdb.metrics.VirtualLongGaugeWithOneLabel;
+import io.questdb.std.str.CharSink;
+
+public class LineTcpMetrics {
+    private final LongGauge backPressuredConnectionsGauge;
+    private volatile LineTcpMeasurementScheduler scheduler;
+
+    public LineTcpMetrics(MetricsRegistry metricsRegistry) {
+        this.backPressuredConnectionsGauge = metricsRegistry.newLongGauge("line_tcp_back_pressured_connections");
+        metricsRegistry.addScrapable(new VirtualLongGaugeWithOneLabel("line_tcp_table_queue_depth", "table", this::appendTableQueueDepths));
+    }
+
+    /**
+     * Connections that are not read because their next row goes to a table, or a writer queue,
+     * that is full.
+     */
+    public LongGauge backPressuredConnectionsGauge() {
+        return backPressuredConnectionsGauge;
+    }
+
+    private void appendTableQueueDepths(VirtualLongGaugeWithOneLabel gauge, CharSink sink) {
+        final LineTcpMeasurementScheduler scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.appendTableQueueDepths(gauge, sink);
+        }
+    }
+
+    void attachScheduler(LineTcpMeasurementScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    void detachScheduler(LineTcpMeasurementScheduler scheduler) {
+        if (this.scheduler == scheduler) {
+            this.scheduler = null;
+        }
+    }
+}
@@ -24,8 +24,10 @@
 
 package io.questdb.cutlass.line.tcp;
 
+import io.questdb.Metrics;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.metrics.LongGauge;
 import io.questdb.network.IODispatcher;
 import io.questdb.network.IOOperation;
 import io.questdb.network.IORequestProcessor;
@@ -42,6 +44,13 @@ import static io.questdb.network.IODispatcher.DISCONNECT_REASON_UNKNOWN_OPERATIO
 
 class LineTcpNetworkIOJob implements NetworkIOJob {
     private final static Log LOG = LogFactory.getLog(LineTcpNetworkIOJob.class);
+    // contexts parked for reasons other than a full writer queue, e.g. a locked table writer,
+    // are not re-armed by the writers and are retried at this interval
+    private static final long PARKED_RETRY_INTERVAL_MILLIS = 10;
+    private final LongGauge backPressuredConnectionsGauge;
+    // Contexts blocked on LineTcpMeasurementScheduler queue or on their table's budget, they are
+    // not registered for reads until they manage to schedule the pending measurement
+    private final ObjList<LineTcpConnectionContext> busyContexts = new ObjList<>();
     private final IODispatcher<LineTcpConnectionContext> dispatcher;
     private final long maintenanceInterval;
     private final MillisecondClock millisecondClock;
@@ -49,15 +58,18 @@ class LineTcpNetworkIOJob implements NetworkIOJob {
     private final ByteCharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf8 = new ByteCharSequenceObjHashMap<>();
     private final ObjList<SymbolCache> unusedSymbolCaches = new ObjList<>();
     private final int workerId;
-    // Context blocked on LineTcpMeasurementScheduler queue
-    private LineTcpConnectionContext busyContext = null;
     private final IORequestProcessor<LineTcpConnectionContext> onRequest = this::onRequest;
+    // writer drain mark seen before parked contexts were last retried, contexts parked after
+    // that are retried once the writers take more events off their queues
+    private long lastDrainMark = Long.MIN_VALUE;
     private long maintenanceJobDeadline;
+    private long parkedRetryDeadline;
 
     LineTcpNetworkIOJob(
             LineTcpReceiverConfiguration configuration,
             LineTcpMeasurementScheduler scheduler,
             IODispatcher<LineTcpConnectionContext> dispatcher,
+            Metrics metrics,
             int workerId
     ) {
         this.millisecondClock = configuration.getMillisecondClock();
@@ -66,6 +78,7 @@ class LineTcpNetworkIOJob implements NetworkIOJob {
         this.maintenanceJobDeadline = millisecondClock.getTicks() + maintenanceInterval;
         this.dispatcher = dispatcher;
         this.workerId = workerId;
+        this.backPressuredConnectionsGauge = metrics.lineTcp().backPressuredConnectionsGauge();
     }
 
     @Override
@@ -76,10 +89,12 @@ class LineTcpNetworkIOJob implements NetworkIOJob {
 
     @Override
     public void close() {
-        if (busyContext != null) {
+        for (int i = 0, n = busyContexts.size(); i < n; i++) {
+            final LineTcpConnectionContext busyContext = busyContexts.getQuick(i);
             busyContext.getDispatcher().disconnect(busyContext, DISCONNECT_REASON_RETRY_FAILED);
-            busyContext = null;
         }
+        backPressuredConnectionsGauge.add(-busyContexts.size());
+        busyContexts.clear();
         Misc.freeObjList(unusedSymbolCaches);
     }
 
@@ -118,14 +133,26 @@ class LineTcpNetworkIOJob implements NetworkIOJob {
     public boolean run(int workerId, @NotNull RunStatus runStatus) {
         assert this.workerId == workerId;
         boolean busy = false;
-        if (busyContext != null) {
-            if (handleIO(busyContext)) {
-                // queue is still full
-                return true;
+        if (busyContexts.size() > 0) {
+            // parked contexts are retried after the writers drained some events or when the
+            // retry interval elapses, the job stays idle in between
+            final long drainMark = scheduler.getWriterDrainMark();
+            final long millis = millisecondClock.getTicks();
+            if (drainMark != lastDrainMark || millis >= parkedRetryDeadline) {
+                lastDrainMark = drainMark;
+                parkedRetryDeadline = millis + PARKED_RETRY_INTERVAL_MILLIS;
+                for (int i = busyContexts.size() - 1; i > -1; i--) {
+                    final LineTcpConnectionContext busyContext = busyContexts.getQuick(i);
+                    if (handleIO(busyContext)) {
+                        // queue is still full
+                        continue;
+                    }
+                    LOG.debug().$("context is no longer waiting on a full queue [fd=").$(busyContext.getFd()).$(']').$();
+                    busyContexts.remove(i);
+                    backPressuredConnectionsGauge.dec();
+                    busy = true;
+                }
             }
-            LOG.debug().$("context is no longer waiting on a full queue [fd=").$(busyContext.getFd()).$(']').$();
-            busyContext = null;
-            busy = true;
         }
 
         if (dispatcher.processIOQueue(onRequest)) {
@@ -169,7 +196,9 @@ class LineTcpNetworkIOJob implements NetworkIOJob {
             return false;
         }
         if (handleIO(context)) {
-            busyContext = context;
+            // stop reading from this connection, other connections are still served
+            busyContexts.add(context);
+            backPressuredConnectionsGauge.inc();
             LOG.debug().$("context is waiting on a full queue [fd=").$(context.getFd()).$(']').$();
             return false;
         }
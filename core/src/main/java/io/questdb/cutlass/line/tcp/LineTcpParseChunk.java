@@ -0,0 +1,178 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.Unsafe;
+
+import static io.questdb.cutlass.line.tcp.LineTcpParser.*;
+
+/**
+ * Range of complete lines in the receive buffer of a connection, parsed independently of
+ * the rest of the buffer. Parsed lines are saved to a compact list of longs, reused from one
+ * receive buffer to the next, and restored into the chunk's parser one by one when the
+ * connection schedules them in the original order. Parsed entities point into the receive
+ * buffer, the buffer must not be compacted until the chunk is fully consumed.
+ */
+class LineTcpParseChunk {
+    // saved line: line start, good line flag, followed by the measurement saved by the parser
+    private static final int LINE_HEADER_SIZE = 2;
+    private static final long SEQUENCE_OFFSET;
+    private final IntList lineOffsets = new IntList();
+    private final LongList lines = new LongList();
+    private final LineTcpParser parser;
+    private boolean failed;
+    private long hi;
+    private long lo;
+    private long ownerSequence;
+    private volatile long sequence = 0L;
+
+    LineTcpParseChunk(LineTcpReceiverConfiguration configuration) {
+        this.parser = new LineTcpParser(configuration.isStringAsTagSupported(), configuration.isSymbolAsFieldSupported());
+    }
+
+    /**
+     * Finds the end of the line closest to, but not before, the target address. Only line
+     * ends that cannot be a part of escaped value or binary encoded value are considered,
+     * which makes it safe to start parsing the next chunk from the returned address without
+     * knowing the state of the parser that processed the preceding bytes.
+     *
+     * @param lo     address where the chunk starts, it must be start of a line
+     * @param target desired chunk end
+     * @param hi     end of received data
+     * @return address following the line end or -1 when there is no suitable line end
+     */
+    static long findChunkHi(long lo, long target, long hi) {
+        for (long p = Math.max(target - 1, lo + 1); p < hi; p++) {
+            if (isSafeLineEnd(lo, p)) {
+                return p + 1;
+            }
+        }
+        return -1;
+    }
+
+    long getHi() {
+        return hi;
+    }
+
+    /**
+     * Restores the line into the chunk's parser, the parser is valid until the next call.
+     */
+    LineTcpParser getLine(int index) {
+        parser.restoreMeasurement(lines, lineOffsets.getQuick(index) + LINE_HEADER_SIZE);
+        return parser;
+    }
+
+    int getLineCount() {
+        return lineOffsets.size();
+    }
+
+    long getLineLo(int index) {
+        return lines.getQuick(lineOffsets.getQuick(index));
+    }
+
+    long getOwnerSequence() {
+        return ownerSequence;
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    boolean isGoodLine(int index) {
+        return lines.getQuick(lineOffsets.getQuick(index) + 1) != 0;
+    }
+
+    LineTcpParseChunk of(long lo, long hi) {
+        this.lo = lo;
+        this.hi = hi;
+        this.lines.clear();
+        this.lineOffsets.clear();
+        this.failed = false;
+        this.ownerSequence = sequence;
+        return this;
+    }
+
+    void parseAndCountDown(SOCountDownLatch latch) {
+        try {
+            parse();
+        } catch (Throwable th) {
+            failed = true;
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    boolean tryLock(long expectedSequence) {
+        return Unsafe.cas(this, SEQUENCE_OFFSET, expectedSequence, expectedSequence + 1);
+    }
+
+    private static boolean isSafeLineEnd(long lo, long p) {
+        if (Unsafe.getUnsafe().getByte(p) != '\n') {
+            return false;
+        }
+        // empty lines, CRLF and escaped line ends are skipped to keep chunk boundaries unambiguous
+        final byte prev = Unsafe.getUnsafe().getByte(p - 1);
+        if (prev == '\n' || prev == '\r' || prev == '\\') {
+            return false;
+        }
+        // line end byte may be a part of binary value payload
+        for (long i = Math.max(lo + 1, p - Long.BYTES); i < p; i++) {
+            final byte b = Unsafe.getUnsafe().getByte(i);
+            if ((b == BINARY_FORMAT_DOUBLE || b == BINARY_FORMAT_TIMESTAMP) && Unsafe.getUnsafe().getByte(i - 1) == '=') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void parse() {
+        long lineLo = lo;
+        while (lineLo < hi) {
+            parser.of(lineLo);
+            final ParseResult result = parser.parseMeasurement(hi);
+            final boolean good = result == ParseResult.MEASUREMENT_COMPLETE;
+            final long lineHi;
+            if (good || (result == ParseResult.ERROR && parser.skipMeasurement(hi) == ParseResult.MEASUREMENT_COMPLETE)) {
+                lineHi = parser.getBufferAddress() + 1;
+            } else {
+                // chunk ends with a line end, running out of bytes means that
+                // the line end was a part of the value, treat the line as broken
+                lineHi = hi;
+            }
+            lineOffsets.add(lines.size());
+            lines.add(lineLo, good ? 1 : 0);
+            parser.saveMeasurement(lines);
+            lineLo = lineHi;
+        }
+    }
+
+    static {
+        SEQUENCE_OFFSET = Unsafe.getFieldOffset(LineTcpParseChunk.class, "sequence");
+    }
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.mp.AbstractQueueConsumerJob;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOCountDownLatch;
+import io.questdb.mp.Sequence;
+
+class LineTcpParseJob extends AbstractQueueConsumerJob<LineTcpParseTask> {
+
+    LineTcpParseJob(RingQueue<LineTcpParseTask> queue, Sequence subSeq) {
+        super(queue, subSeq);
+    }
+
+    @Override
+    protected boolean doRun(int workerId, long cursor, RunStatus runStatus) {
+        final LineTcpParseTask queueItem = queue.get(cursor);
+        // copy values and release queue item
+        final LineTcpParseChunk chunk = queueItem.chunk;
+        final SOCountDownLatch latch = queueItem.countDownLatch;
+        final long sequence = queueItem.sequence;
+        subSeq.done(cursor);
+
+        // the connection that published the chunk may have parsed it already
+        // while waiting for the rest of the chunks
+        if (chunk.tryLock(sequence)) {
+            chunk.parseAndCountDown(latch);
+            return true;
+        }
+        return false;
+    }
+}
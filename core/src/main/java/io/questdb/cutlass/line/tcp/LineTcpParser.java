@@ -27,6 +27,7 @@ package io.questdb.cutlass.line.tcp;
 import io.questdb.griffin.SqlKeywords;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.std.LongList;
 import io.questdb.std.Numbers;
 import io.questdb.std.NumericException;
 import io.questdb.std.ObjList;
@@ -35,6 +36,11 @@ import io.questdb.std.str.DirectByteCharSequence;
 
 public class LineTcpParser {
 
+    // binary field values are sent as "name==<format><8 bytes little-endian payload>",
+    // the designated timestamp as "=<format><8 bytes little-endian payload>"
+    public static final byte BINARY_FORMAT_DOUBLE = 16;
+    public static final byte BINARY_FORMAT_TIMESTAMP = 17;
+    public static final int BINARY_VALUE_SIZE = 2 + Long.BYTES; // '=' marker, format byte and payload
     public static final byte ENTITY_TYPE_BOOLEAN = 6;
     public static final byte ENTITY_TYPE_BYTE = 17;
     public static final byte ENTITY_TYPE_CACHED_TAG = 8;
@@ -65,6 +71,10 @@ public class LineTcpParser {
     private static final byte ENTITY_HANDLER_TABLE = 0;
     private static final byte ENTITY_HANDLER_TIMESTAMP = 3;
     private static final byte ENTITY_HANDLER_VALUE = 2;
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+    // saved entity: name lo, name hi, value lo, value hi, numeric value, type and binary flag
+    private static final int SAVED_ENTITY_SIZE = 6;
+    private static final long SAVED_NON_ASCII_FLAG = 1L << 62;
     private static final Log LOG = LogFactory.getLog(LineTcpParser.class);
     private static final boolean[] controlChars;
     private final DirectByteCharSequence charSeq = new DirectByteCharSequence();
@@ -72,6 +82,7 @@ public class LineTcpParser {
     private final DirectByteCharSequence measurementName = new DirectByteCharSequence();
     private final boolean stringAsTagSupported;
     private final boolean symbolAsFieldSupported;
+    private boolean binaryValue;
     private long bufAt;
     private ProtoEntity currentEntity;
     private byte entityHandler = -1;
@@ -166,6 +177,16 @@ public class LineTcpParser {
             }
 
             // slow path
+            if (b == '=' && bufAt == entityLo && isBinaryValueExpected()) {
+                // binary value, the payload is not scanned for control characters
+                if (bufAt + BINARY_VALUE_SIZE >= bufHi) {
+                    return ParseResult.BUFFER_UNDERFLOW;
+                }
+                if (!parseBinaryValue()) {
+                    return ParseResult.ERROR;
+                }
+                continue;
+            }
             hasNonAscii |= b < 0;
             boolean endOfLine = false;
             boolean appendByte = false;
@@ -293,6 +314,52 @@ public class LineTcpParser {
         }
     }
 
+    /**
+     * Restores a measurement saved by {@link #saveMeasurement(LongList)}, the parser then
+     * looks as if it has just parsed the measurement.
+     *
+     * @param src    list the measurement has been saved to
+     * @param offset offset of the measurement in the list
+     * @return offset following the measurement
+     */
+    int restoreMeasurement(LongList src, int offset) {
+        bufAt = src.getQuick(offset);
+        measurementName.of(src.getQuick(offset + 1), src.getQuick(offset + 2));
+        timestamp = src.getQuick(offset + 3);
+        final long flags = src.getQuick(offset + 4);
+        nEntities = (int) flags;
+        errorCode = ERROR_CODES[(int) (flags >>> 32) & 0xff];
+        hasNonAscii = (flags & SAVED_NON_ASCII_FLAG) != 0;
+        offset += 5;
+        for (int i = 0; i < nEntities; i++) {
+            final ProtoEntity entity;
+            if (i < entityCache.size()) {
+                entity = entityCache.getQuick(i);
+            } else {
+                entity = new ProtoEntity();
+                entityCache.add(entity);
+            }
+            entity.restore(src, offset);
+            offset += SAVED_ENTITY_SIZE;
+        }
+        return offset;
+    }
+
+    /**
+     * Appends the measurement to a list of longs, which is a lot more compact than keeping
+     * a parser instance per measurement. Names and values are saved as pointers, the buffer
+     * must not be compacted until the measurement is restored.
+     *
+     * @param dst list to append the measurement to
+     */
+    void saveMeasurement(LongList dst) {
+        dst.add(bufAt);
+        dst.add(measurementName.getLo(), measurementName.getHi(), timestamp, (long) nEntities | ((long) errorCode.ordinal() << 32) | (hasNonAscii ? SAVED_NON_ASCII_FLAG : 0));
+        for (int i = 0; i < nEntities; i++) {
+            entityCache.getQuick(i).save(dst);
+        }
+    }
+
     public ParseResult skipMeasurement(long bufHi) {
         assert bufAt != 0 && bufHi >= bufAt;
         while (bufAt < bufHi) {
@@ -321,6 +388,7 @@ public class LineTcpParser {
         scape = false;
         nextValueCanBeOpenQuote = false;
         hasNonAscii = false;
+        binaryValue = false;
     }
 
     private boolean completeEntity(byte endOfEntityByte, long bufHi) {
@@ -456,7 +524,9 @@ public class LineTcpParser {
     private boolean expectTimestamp(byte endOfEntityByte) {
         try {
             if (endOfEntityByte == (byte) '\n') {
-                if (entityLo < bufAt - nEscapedChars) {
+                if (binaryValue) {
+                    binaryValue = false;
+                } else if (entityLo < bufAt - nEscapedChars) {
                     timestamp = Numbers.parseLong(charSeq.of(entityLo, bufAt - nEscapedChars));
                 }
                 entityHandler = -1;
@@ -485,6 +555,40 @@ public class LineTcpParser {
         return ParseResult.ERROR;
     }
 
+    private boolean isBinaryValueExpected() {
+        return nEscapedChars == 0 && ((entityHandler == ENTITY_HANDLER_VALUE && tagsComplete) || entityHandler == ENTITY_HANDLER_TIMESTAMP);
+    }
+
+    private boolean parseBinaryValue() {
+        final byte format = Unsafe.getUnsafe().getByte(bufAt + 1);
+        final long payload = bufAt + 2;
+        final long valueHi = bufAt + BINARY_VALUE_SIZE;
+        final byte endOfEntityByte = Unsafe.getUnsafe().getByte(valueHi);
+        if (entityHandler == ENTITY_HANDLER_TIMESTAMP) {
+            if (endOfEntityByte != '\n' && endOfEntityByte != '\r') {
+                errorCode = ErrorCode.INVALID_FIELD_SEPARATOR;
+                return false;
+            }
+            if (format != BINARY_FORMAT_TIMESTAMP) {
+                errorCode = ErrorCode.INVALID_TIMESTAMP;
+                return false;
+            }
+            timestamp = Unsafe.getUnsafe().getLong(payload);
+        } else {
+            if (endOfEntityByte != ',' && endOfEntityByte != ' ' && endOfEntityByte != '\n' && endOfEntityByte != '\r') {
+                errorCode = ErrorCode.INVALID_FIELD_SEPARATOR;
+                return false;
+            }
+            if (!currentEntity.setBinaryValue(format, payload)) {
+                errorCode = ErrorCode.INVALID_FIELD_VALUE;
+                return false;
+            }
+        }
+        binaryValue = true;
+        bufAt = valueHi;
+        return true;
+    }
+
     private boolean prepareQuotedEntity(long openQuoteIdx, long bufHi) {
         // the byte at openQuoteIdx (bufAt + 1) is '"', from here it can only be
         // the start of a string value. Get it ready for immediate consumption by
@@ -557,6 +661,7 @@ public class LineTcpParser {
     public class ProtoEntity {
         private final DirectByteCharSequence name = new DirectByteCharSequence();
         private final DirectByteCharSequence value = new DirectByteCharSequence();
+        private boolean binary;
         private boolean booleanValue;
         private double floatValue;
         private long longValue;
@@ -582,10 +687,19 @@ public class LineTcpParser {
             return type;
         }
 
+        /**
+         * Raw value bytes. For binary-encoded doubles and timestamps these are the
+         * 8 payload bytes rather than text, check {@link #isBinary()} before using
+         * them as a string.
+         */
         public DirectByteCharSequence getValue() {
             return value;
         }
 
+        public boolean isBinary() {
+            return binary;
+        }
+
         public void shl(long shl) {
             name.shl(shl);
             value.shl(shl);
@@ -593,6 +707,7 @@ public class LineTcpParser {
 
         private void clear() {
             type = ENTITY_TYPE_NONE;
+            binary = false;
         }
 
         private boolean parse(byte last, int valueLen) {
@@ -677,11 +792,71 @@ public class LineTcpParser {
             return true;
         }
 
+        private boolean setBinaryValue(byte format, long payload) {
+            switch (format) {
+                case BINARY_FORMAT_DOUBLE:
+                    floatValue = Unsafe.getUnsafe().getDouble(payload);
+                    type = ENTITY_TYPE_FLOAT;
+                    break;
+                case BINARY_FORMAT_TIMESTAMP:
+                    longValue = Unsafe.getUnsafe().getLong(payload);
+                    type = ENTITY_TYPE_TIMESTAMP;
+                    break;
+                default:
+                    return false;
+            }
+            value.of(payload, payload + Long.BYTES);
+            binary = true;
+            return true;
+        }
+
+        private void restore(LongList src, int offset) {
+            name.of(src.getQuick(offset), src.getQuick(offset + 1));
+            value.of(src.getQuick(offset + 2), src.getQuick(offset + 3));
+            final long numericValue = src.getQuick(offset + 4);
+            final long typeAndFlag = src.getQuick(offset + 5);
+            type = (byte) typeAndFlag;
+            binary = typeAndFlag > 0xff;
+            switch (type) {
+                case ENTITY_TYPE_FLOAT:
+                    floatValue = Double.longBitsToDouble(numericValue);
+                    break;
+                case ENTITY_TYPE_BOOLEAN:
+                    booleanValue = numericValue != 0;
+                    break;
+                default:
+                    longValue = numericValue;
+                    break;
+            }
+        }
+
+        private void save(LongList dst) {
+            final long numericValue;
+            switch (type) {
+                case ENTITY_TYPE_FLOAT:
+                    numericValue = Double.doubleToRawLongBits(floatValue);
+                    break;
+                case ENTITY_TYPE_BOOLEAN:
+                    numericValue = booleanValue ? 1 : 0;
+                    break;
+                default:
+                    numericValue = longValue;
+                    break;
+            }
+            dst.add(name.getLo(), name.getHi(), value.getLo(), value.getHi());
+            dst.add(numericValue, (type & 0xff) | (binary ? 0x100 : 0));
+        }
+
         private void setName() {
             name.of(entityLo, bufAt - nEscapedChars);
         }
 
         private boolean setValue() {
+            if (binaryValue) {
+                // value has already been decoded by parseBinaryValue()
+                binaryValue = false;
+                return true;
+            }
             assert type == ENTITY_TYPE_NONE;
             long bufHi = bufAt - nEscapedChars;
             int valueLen = (int) (bufHi - entityLo);
@@ -26,12 +26,14 @@ package io.questdb.cutlass.line.tcp;
 
 import io.questdb.Metrics;
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cutlass.line.udp.LineUdpReceiverConfiguration;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.IOContextFactoryImpl;
 import io.questdb.network.IODispatcher;
 import io.questdb.network.IODispatchers;
 import io.questdb.std.Misc;
 import io.questdb.std.ObjectFactory;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 
@@ -46,6 +48,21 @@ public class LineTcpReceiver implements Closeable {
             CairoEngine engine,
             WorkerPool ioWorkerPool,
             WorkerPool writerWorkerPool
+    ) {
+        this(configuration, engine, ioWorkerPool, writerWorkerPool, null, null);
+    }
+
+    /**
+     * Creates receiver that also takes ILP over UDP. Each worker of the UDP pool opens its own
+     * socket on the UDP port, the sockets share the port via SO_REUSEPORT.
+     */
+    public LineTcpReceiver(
+            LineTcpReceiverConfiguration configuration,
+            CairoEngine engine,
+            WorkerPool ioWorkerPool,
+            WorkerPool writerWorkerPool,
+            @Nullable LineUdpReceiverConfiguration udpConfiguration,
+            @Nullable WorkerPool udpWorkerPool
     ) {
         this.scheduler = null;
         this.metrics = engine.getMetrics();
@@ -61,7 +78,15 @@ public class LineTcpReceiver implements Closeable {
                 contextFactory
         );
         ioWorkerPool.assign(dispatcher);
-        this.scheduler = new LineTcpMeasurementScheduler(configuration, engine, ioWorkerPool, dispatcher, writerWorkerPool);
+        this.scheduler = new LineTcpMeasurementScheduler(
+                configuration,
+                engine,
+                ioWorkerPool,
+                dispatcher,
+                writerWorkerPool,
+                udpConfiguration,
+                udpWorkerPool
+        );
 
         for (int i = 0, n = ioWorkerPool.getWorkerCount(); i < n; i++) {
             // http context factory has thread local pools
@@ -72,6 +72,14 @@ public interface LineTcpReceiverConfiguration {
 
     int getMaxFileNameLength();
 
+    /**
+     * Writer thread load ratio, above which a table is moved from the busiest
+     * to the least busy writer thread.
+     *
+     * @return ratio between the busiest and the least busy writer thread loads
+     */
+    double getMaxLoadRatio();
+
     int getMaxMeasurementSize();
 
     MicrosecondClock getMicrosecondClock();
@@ -82,6 +90,24 @@ public interface LineTcpReceiverConfiguration {
 
     NetworkFacade getNetworkFacade();
 
+    /**
+     * Minimum number of rows the busiest writer thread has to receive within a maintenance
+     * interval before its tables are considered for moving to another writer thread.
+     *
+     * @return number of rows
+     */
+    int getNUpdatesPerLoadRebalance();
+
+    /**
+     * Approximate size of a receive buffer chunk parsed by another IO worker. When a connection
+     * has received at least two chunks worth of complete lines, the buffer is split on line ends
+     * and the chunks are parsed in parallel. Parsed rows are still appended in the order they
+     * were received. Zero disables parallel parsing.
+     *
+     * @return chunk size in bytes
+     */
+    int getParallelParseChunkSize();
+
     long getSymbolCacheWaitUsBeforeReload();
 
     LineProtoTimestampAdapter getTimestampAdapter();
@@ -90,6 +116,16 @@ public interface LineTcpReceiverConfiguration {
 
     int getWriterQueueCapacity();
 
+    /**
+     * Maximum number of events of a single table that may wait in a writer queue. A connection
+     * sending rows to a table that is over its budget stops being read until the writer drains
+     * the table's events, other tables on the same writer keep their share of the queue.
+     * Zero lets a table take the whole queue.
+     *
+     * @return per-table number of queued events
+     */
+    int getWriterQueueTableBudget();
+
     WorkerPoolConfiguration getWriterWorkerPoolConfiguration();
 
     boolean isEnabled();
@@ -50,6 +50,9 @@ class LineTcpWriterJob implements Job, Closeable {
     private final LineTcpMeasurementScheduler scheduler;
     private final Sequence sequence;
     private final int workerId;
+    // set while the job drains its queue on close, writer jobs are closed one after another
+    // and the old writer thread of a moved table may not have drained its queue yet
+    private boolean closing;
     private long nextCommitTime;
 
     LineTcpWriterJob(
@@ -76,6 +79,7 @@ class LineTcpWriterJob implements Job, Closeable {
     @Override
     public void close() {
         LOG.info().$("line protocol writer closing [threadId=").$(workerId).$(']').$();
+        closing = true;
         // Finish all jobs in the queue before stopping
         for (int n = 0; n < queue.getCycle(); n++) {
             if (!run(workerId, Job.TERMINATING_STATUS)) {
@@ -131,6 +135,17 @@ class LineTcpWriterJob implements Job, Closeable {
         }
     }
 
+    private void awaitHandover(TableUpdateDetails tud) {
+        final int fromThreadId = tud.getHandoverFromThreadId();
+        if (fromThreadId > -1 && fromThreadId != workerId) {
+            // the table has been moved here, the old writer thread has to apply
+            // the events it has queued before this thread can touch the table
+            while (tud.getHandoverFromThreadId() > -1 && !closing) {
+                Os.pause();
+            }
+        }
+    }
+
     private boolean drainQueue() {
         boolean busy = false;
         while (true) {
@@ -151,6 +166,8 @@ class LineTcpWriterJob implements Job, Closeable {
                 final TableUpdateDetails tud = event.getTableUpdateDetails();
                 boolean closeWriter = false;
                 if (event.getWriterWorkerId() == workerId) {
+                    tud.decrementQueuedEvents();
+                    awaitHandover(tud);
                     try {
                         if (tud.isWriterInError()) {
                             closeWriter = true;
@@ -179,7 +196,10 @@ class LineTcpWriterJob implements Job, Closeable {
                     }
                 } else {
                     if (event.getWriterWorkerId() == LineTcpMeasurementEventType.ALL_WRITERS_RELEASE_WRITER) {
+                        awaitHandover(tud);
                         closeWriter = true;
+                    } else if (event.getWriterWorkerId() == LineTcpMeasurementEventType.ALL_WRITERS_HANDOVER) {
+                        handOverTable(tud);
                     }
                 }
 
@@ -197,6 +217,34 @@ class LineTcpWriterJob implements Job, Closeable {
         }
     }
 
+    private void handOverTable(TableUpdateDetails tud) {
+        // all events of the table queued before the move have been applied,
+        // commit them here rather than leave them to the new writer thread
+        try {
+            if (tud.getWriter() != null && !tud.isWriterInError()) {
+                tud.commit(false);
+            }
+        } catch (Throwable ex) {
+            LOG.critical()
+                    .$("commit failed [table=").$(tud.getTableToken())
+                    .$(",ex=").$(ex)
+                    .I$();
+            metrics.health().incrementUnhandledErrors();
+        } finally {
+            if (tud.isAssignedToJob()) {
+                assignedTables.remove(tud);
+                tud.setAssignedToJob(false);
+                nextCommitTime = millisecondClock.getTicks();
+            }
+            tud.completeHandover();
+        }
+        LOG.info()
+                .$("table moved to another writer thread [tableName=").$(tud.getTableToken())
+                .$(", fromThreadId=").$(workerId)
+                .$(", toThreadId=").$(tud.getWriterThreadId())
+                .I$();
+    }
+
     private void tickWriters() {
         for (int n = 0, sz = assignedTables.size(); n < sz; n++) {
             assignedTables.getQuick(n).tick();
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.Metrics;
+import io.questdb.cairo.security.SecurityContextFactory;
+import io.questdb.cutlass.line.udp.LineUdpReceiverConfiguration;
+import io.questdb.network.Net;
+import io.questdb.network.NetworkFacade;
+import io.questdb.std.Os;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+
+/**
+ * Context of a UDP socket that feeds the TCP receiver pipeline. Datagrams are appended to the
+ * receive buffer one after another. A datagram that does not end with a new line is terminated,
+ * so that a line never spans two datagrams. There is no peer to disconnect, lines that fail to
+ * parse are skipped regardless of the disconnect on error setting.
+ */
+class LineUdpConnectionContext extends LineTcpConnectionContext {
+    private final MillisecondClock milliClock;
+    private final int msgBufferSize;
+    private final int msgCount;
+    private final NetworkFacade udpNf;
+    private long msgVec;
+    private boolean received;
+
+    LineUdpConnectionContext(
+            LineTcpReceiverConfiguration configuration,
+            LineUdpReceiverConfiguration udpConfiguration,
+            LineTcpMeasurementScheduler scheduler,
+            Metrics metrics
+    ) {
+        super(configuration, scheduler, metrics, false);
+        this.milliClock = configuration.getMillisecondClock();
+        this.udpNf = udpConfiguration.getNetworkFacade();
+        // leave room for the line terminator
+        this.msgBufferSize = Math.min(udpConfiguration.getMsgBufferSize(), configuration.getNetMsgBufferSize() - 1);
+        // receive no more datagrams than the receive buffer can take in one go
+        this.msgCount = Math.max(1, Math.min(udpConfiguration.getMsgCount(), configuration.getNetMsgBufferSize() / (msgBufferSize + 1)));
+        if (Os.isLinux()) {
+            msgVec = udpNf.msgHeaders(msgBufferSize, msgCount);
+        }
+        securityContext = configuration.getFactoryProvider().getSecurityContextFactory().getInstance(null, SecurityContextFactory.ILP);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if (msgVec != 0) {
+            udpNf.freeMsgHeaders(msgVec);
+            msgVec = 0;
+        }
+    }
+
+    @Override
+    public IOContextResult handleIO(NetworkIOJob netIoJob) {
+        received = false;
+        if (!queueFull) {
+            // lines already in the buffer have to be scheduled before the buffer can be compacted
+            read();
+        }
+        try {
+            IOContextResult result = parseMeasurements(netIoJob);
+            queueFull = result == IOContextResult.QUEUE_FULL;
+            if (result == IOContextResult.NEEDS_DISCONNECT) {
+                // there is no connection to close, drop the buffered datagrams instead
+                recvBufPos = recvBufStart;
+                resetParser();
+                result = IOContextResult.NEEDS_READ;
+            }
+            doMaintenance(milliClock.getTicks());
+            return result;
+        } finally {
+            netIoJob.releaseWalTableDetails();
+        }
+    }
+
+    boolean hasReceived() {
+        return received;
+    }
+
+    @Override
+    protected boolean read() {
+        if (recvBufEnd - recvBufPos <= msgBufferSize) {
+            // make room for the largest datagram and its line terminator
+            compactBuffer(recvBufStartOfMeasurement);
+        }
+        if (msgVec != 0) {
+            final int count = (int) Math.min(msgCount, (recvBufEnd - recvBufPos) / (msgBufferSize + 1));
+            if (count > 0) {
+                final int n = udpNf.recvmmsg(fd, msgVec, count);
+                long p = msgVec;
+                for (int i = 0; i < n; i++) {
+                    final int len = (int) udpNf.getMMsgBufLen(p);
+                    Vect.memcpy(recvBufPos, udpNf.getMMsgBuf(p), len);
+                    recvBufPos += len;
+                    terminateLine(len);
+                    p += Net.MMSGHDR_SIZE;
+                }
+                received = n > 0;
+            }
+        } else if (recvBufEnd - recvBufPos > msgBufferSize) {
+            final int len = udpNf.recv(fd, recvBufPos, msgBufferSize);
+            if (len > 0) {
+                recvBufPos += len;
+                terminateLine(len);
+                received = true;
+            }
+        }
+        return received;
+    }
+
+    private void terminateLine(int len) {
+        if (len > 0 && Unsafe.getUnsafe().getByte(recvBufPos - 1) != '\n') {
+            Unsafe.getUnsafe().putByte(recvBufPos++, (byte) '\n');
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.Metrics;
+import io.questdb.cutlass.line.udp.LineUdpReceiverConfiguration;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.network.NetworkError;
+import io.questdb.network.NetworkFacade;
+import io.questdb.std.ByteCharSequenceObjHashMap;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.ByteCharSequence;
+import io.questdb.std.str.DirectByteCharSequence;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives datagrams from one of the UDP sockets that share the ILP UDP port via SO_REUSEPORT,
+ * parses them and passes the rows to the writer queues of the TCP receiver. The kernel spreads
+ * datagrams over the sockets, each socket is served by its own worker.
+ */
+class LineUdpNetworkIOJob implements NetworkIOJob {
+    private static final Log LOG = LogFactory.getLog(LineUdpNetworkIOJob.class);
+    private final LineUdpConnectionContext context;
+    private final long maintenanceInterval;
+    private final MillisecondClock millisecondClock;
+    private final NetworkFacade nf;
+    private final LineTcpMeasurementScheduler scheduler;
+    private final ByteCharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf8 = new ByteCharSequenceObjHashMap<>();
+    private final ObjList<SymbolCache> unusedSymbolCaches = new ObjList<>();
+    private final int workerId;
+    private int fd = -1;
+    private long maintenanceJobDeadline;
+
+    LineUdpNetworkIOJob(
+            LineTcpReceiverConfiguration configuration,
+            LineUdpReceiverConfiguration udpConfiguration,
+            LineTcpMeasurementScheduler scheduler,
+            Metrics metrics,
+            int workerId
+    ) {
+        this.millisecondClock = configuration.getMillisecondClock();
+        this.maintenanceInterval = configuration.getMaintenanceInterval();
+        this.scheduler = scheduler;
+        this.maintenanceJobDeadline = millisecondClock.getTicks() + maintenanceInterval;
+        this.workerId = workerId;
+        this.nf = udpConfiguration.getNetworkFacade();
+        this.context = new LineUdpConnectionContext(configuration, udpConfiguration, scheduler, metrics);
+        try {
+            fd = openSocket(udpConfiguration);
+            context.of(fd, null);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    @Override
+    public void addTableUpdateDetails(ByteCharSequence tableNameUtf8, TableUpdateDetails tableUpdateDetails) {
+        tableUpdateDetailsUtf8.put(tableNameUtf8, tableUpdateDetails);
+        tableUpdateDetails.addReference(workerId);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (fd > -1) {
+            if (nf.close(fd) != 0) {
+                LOG.error().$("could not close [fd=").$(fd).$(", errno=").$(nf.errno()).I$();
+            }
+            fd = -1;
+        }
+        Misc.freeObjList(unusedSymbolCaches);
+    }
+
+    @Override
+    public TableUpdateDetails getLocalTableDetails(DirectByteCharSequence tableNameUtf8) {
+        return tableUpdateDetailsUtf8.get(tableNameUtf8);
+    }
+
+    @Override
+    public ObjList<SymbolCache> getUnusedSymbolCaches() {
+        return unusedSymbolCaches;
+    }
+
+    @Override
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    @Override
+    public void releaseWalTableDetails() {
+        scheduler.releaseWalTableDetails(tableUpdateDetailsUtf8);
+    }
+
+    @Override
+    public TableUpdateDetails removeTableUpdateDetails(DirectByteCharSequence tableNameUtf8) {
+        final int keyIndex = tableUpdateDetailsUtf8.keyIndex(tableNameUtf8);
+        if (keyIndex < 0) {
+            TableUpdateDetails tud = tableUpdateDetailsUtf8.valueAtQuick(keyIndex);
+            tableUpdateDetailsUtf8.removeAt(keyIndex);
+            return tud;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean run(int workerId, @NotNull RunStatus runStatus) {
+        // worker id of the pool is not used, this job has its own slot after the TCP IO workers
+        boolean busy = false;
+        if (fd > -1) {
+            while (true) {
+                if (context.handleIO(this) == LineTcpConnectionContext.IOContextResult.QUEUE_FULL) {
+                    // keep datagrams in the socket buffer until writer threads drain their queues
+                    return true;
+                }
+                if (!context.hasReceived()) {
+                    break;
+                }
+                busy = true;
+            }
+        }
+
+        final long millis = millisecondClock.getTicks();
+        if (millis > maintenanceJobDeadline) {
+            busy = scheduler.doMaintenance(tableUpdateDetailsUtf8, this.workerId, millis);
+            if (!busy) {
+                maintenanceJobDeadline = millis + maintenanceInterval;
+            }
+        }
+        return busy;
+    }
+
+    private int openSocket(LineUdpReceiverConfiguration udpConfiguration) {
+        final int fd = nf.socketUdp();
+        if (fd < 0) {
+            throw NetworkError.instance(nf.errno(), "could not open UDP socket");
+        }
+        try {
+            if (nf.setReusePort(fd) != 0) {
+                throw NetworkError.instance(nf.errno(), "could not set SO_REUSEPORT [fd=").put(fd).put(']');
+            }
+            if (!nf.bindUdp(fd, udpConfiguration.getBindIPv4Address(), udpConfiguration.getPort())) {
+                throw NetworkError.instance(nf.errno()).couldNotBindSocket("udp-line-server", udpConfiguration.getBindIPv4Address(), udpConfiguration.getPort());
+            }
+        } catch (Throwable th) {
+            nf.close(fd);
+            throw th;
+        }
+        if (udpConfiguration.getReceiveBufferSize() != -1 && nf.setRcvBuf(fd, udpConfiguration.getReceiveBufferSize()) != 0) {
+            LOG.error()
+                    .$("could not set receive buffer size [fd=").$(fd)
+                    .$(", size=").$(udpConfiguration.getReceiveBufferSize())
+                    .$(", errno=").$(nf.errno())
+                    .I$();
+        }
+        LOG.info()
+                .$("receiving unicast on ")
+                .$ip(udpConfiguration.getBindIPv4Address())
+                .$(':')
+                .$(udpConfiguration.getPort())
+                .$(" [fd=").$(fd)
+                .$(", workerId=").$(workerId)
+                .I$();
+        return fd;
+    }
+}
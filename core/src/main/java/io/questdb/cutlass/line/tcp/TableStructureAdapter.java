@@ -34,7 +34,7 @@ import io.questdb.std.str.StringSink;
 
 import static io.questdb.std.Chars.utf8ToUtf16;
 
-class TableStructureAdapter implements TableStructure {
+public class TableStructureAdapter implements TableStructure {
     private static final String DEFAULT_TIMESTAMP_FIELD = "timestamp";
     private static final ThreadLocal<StringSink> tempSink = new ThreadLocal<>(StringSink::new);
     private final CairoConfiguration cairoConfiguration;
@@ -42,13 +42,28 @@ class TableStructureAdapter implements TableStructure {
     private final int defaultPartitionBy;
     private final ObjList<LineTcpParser.ProtoEntity> entities = new ObjList<>();
     private final LowerCaseCharSequenceHashSet entityNamesUtf16 = new LowerCaseCharSequenceHashSet();
+    private final boolean walForced;
     private CharSequence tableName;
     private int timestampIndex = -1;
 
     public TableStructureAdapter(CairoConfiguration configuration, DefaultColumnTypes defaultColumnTypes, int defaultPartitionBy) {
+        this(configuration, defaultColumnTypes, defaultPartitionBy, false);
+    }
+
+    /**
+     * @param walForced when true, partitioned tables are created as WAL tables regardless of cairo.wal.enabled.default,
+     *                  ILP over HTTP writes to WAL tables only
+     */
+    public TableStructureAdapter(
+            CairoConfiguration configuration,
+            DefaultColumnTypes defaultColumnTypes,
+            int defaultPartitionBy,
+            boolean walForced
+    ) {
         this.cairoConfiguration = configuration;
         this.defaultColumnTypes = defaultColumnTypes;
         this.defaultPartitionBy = defaultPartitionBy;
+        this.walForced = walForced;
     }
 
     @Override
@@ -118,6 +133,11 @@ class TableStructureAdapter implements TableStructure {
         return timestampIndex == -1 ? entities.size() : timestampIndex;
     }
 
+    @Override
+    public long getTtl() {
+        return 0;
+    }
+
     @Override
     public boolean isIndexed(int columnIndex) {
         return false;
@@ -130,10 +150,10 @@ class TableStructureAdapter implements TableStructure {
 
     @Override
     public boolean isWalEnabled() {
-        return cairoConfiguration.getWalEnabledDefault() && PartitionBy.isPartitioned(getPartitionBy());
+        return (walForced || cairoConfiguration.getWalEnabledDefault()) && PartitionBy.isPartitioned(getPartitionBy());
     }
 
-    TableStructureAdapter of(CharSequence tableName, LineTcpParser parser) {
+    public TableStructureAdapter of(CharSequence tableName, LineTcpParser parser) {
         this.tableName = tableName;
         entityNamesUtf16.clear();
         entities.clear();
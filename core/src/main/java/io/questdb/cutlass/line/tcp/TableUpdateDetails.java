@@ -29,6 +29,7 @@ import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
 import io.questdb.cairo.wal.MetadataService;
+import io.questdb.cairo.wal.WalWriter;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.*;
@@ -40,6 +41,7 @@ import io.questdb.std.str.StringSink;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.questdb.cairo.TableUtils.ANY_TABLE_VERSION;
 import static io.questdb.cairo.TableUtils.TXN_FILE_NAME;
@@ -54,6 +56,9 @@ public class TableUpdateDetails implements Closeable {
     private final CairoEngine engine;
     private final ThreadLocalDetails[] localDetailsArray;
     private final MillisecondClock millisecondClock;
+    // events published to a writer queue and not yet taken by the writer job,
+    // incremented by the network IO threads and decremented by the writer thread
+    private final AtomicInteger queuedEvents = new AtomicInteger();
     private final ByteCharSequence tableNameUtf8;
     private final TableToken tableToken;
     private final int timestampIndex;
@@ -62,13 +67,16 @@ public class TableUpdateDetails implements Closeable {
     // Number of rows processed since the last reshuffle, this is an estimate because it is incremented by
     // multiple threads without synchronisation
     private long eventsProcessedSinceReshuffle = 0;
+    // writer thread the table is being moved away from, -1 when the table is not being moved;
+    // the new writer thread must not touch the table until the old one processed the handover event
+    private volatile int handoverFromThreadId = -1;
     private long lastMeasurementMillis = Long.MAX_VALUE;
     private MetadataService metadataService;
     private int networkIOOwnerCount = 0;
     private long nextCommitTime;
     private TableWriterAPI writerAPI;
     private volatile boolean writerInError;
-    private int writerThreadId;
+    private volatile int writerThreadId;
 
     public TableUpdateDetails(
             LineTcpReceiverConfiguration configuration,
@@ -78,6 +86,48 @@ public class TableUpdateDetails implements Closeable {
             NetworkIOJob[] netIoJobs,
             DefaultColumnTypes defaultColumnTypes,
             ByteCharSequence tableNameUtf8
+    ) {
+        this(configuration, engine, writer, writerThreadId, netIoJobs.length, defaultColumnTypes, tableNameUtf8);
+        for (int i = 0, n = netIoJobs.length; i < n; i++) {
+            //noinspection resource
+            this.localDetailsArray[i] = new ThreadLocalDetails(
+                    configuration,
+                    netIoJobs[i].getUnusedSymbolCaches(),
+                    writer.getMetadata().getColumnCount()
+            );
+        }
+    }
+
+    /**
+     * Creates details with a single set of thread local details, for writers that are
+     * used outside the network IO jobs, e.g. by ILP over HTTP. The worker id is always 0.
+     */
+    public TableUpdateDetails(
+            LineTcpReceiverConfiguration configuration,
+            CairoEngine engine,
+            TableWriterAPI writer,
+            ObjList<SymbolCache> unusedSymbolCaches,
+            DefaultColumnTypes defaultColumnTypes,
+            ByteCharSequence tableNameUtf8
+    ) {
+        // WAL details are recognised by writer thread id -1
+        this(configuration, engine, writer, writer.supportsMultipleWriters() ? -1 : 0, 1, defaultColumnTypes, tableNameUtf8);
+        //noinspection resource
+        this.localDetailsArray[0] = new ThreadLocalDetails(
+                configuration,
+                unusedSymbolCaches,
+                writer.getMetadata().getColumnCount()
+        );
+    }
+
+    private TableUpdateDetails(
+            LineTcpReceiverConfiguration configuration,
+            CairoEngine engine,
+            TableWriterAPI writer,
+            int writerThreadId,
+            int localDetailsCount,
+            DefaultColumnTypes defaultColumnTypes,
+            ByteCharSequence tableNameUtf8
     ) {
         this.writerThreadId = writerThreadId;
         this.engine = engine;
@@ -93,19 +143,26 @@ public class TableUpdateDetails implements Closeable {
         this.commitInterval = configuration.getCommitInterval();
         this.nextCommitTime = millisecondClock.getTicks() + commitInterval;
 
-        final int n = netIoJobs.length;
-        this.localDetailsArray = new ThreadLocalDetails[n];
-        for (int i = 0; i < n; i++) {
-            //noinspection resource
-            this.localDetailsArray[i] = new ThreadLocalDetails(
-                    configuration,
-                    netIoJobs[i].getUnusedSymbolCaches(),
-                    writer.getMetadata().getColumnCount()
-            );
-        }
+        this.localDetailsArray = new ThreadLocalDetails[localDetailsCount];
         this.tableNameUtf8 = tableNameUtf8;
     }
 
+    /**
+     * Adds a column to the WAL table while the writer holds uncommitted rows. A WAL writer cannot
+     * alter the table inside a transaction, so the column is added by another WAL writer, and the writer
+     * of this table then applies the change the same way it does on commit, keeping its rows.
+     */
+    public void addColumnToUncommittedWal(CharSequence columnName, int columnType) {
+        try (WalWriter ddlWriter = engine.getWalWriter(tableToken)) {
+            addColumn(ddlWriter, columnName, columnType);
+        }
+        if (!((WalWriter) writerAPI).goActive(Long.MAX_VALUE)) {
+            writerInError = true;
+            throw CairoException.critical(0).put("could not add column to uncommitted rows [table=").put(tableToken.getTableName())
+                    .put(", columnName=").put(columnName).put(']');
+        }
+    }
+
     public void addReference(int workerId) {
         if (!isWal()) {
             networkIOOwnerCount++;
@@ -178,10 +235,26 @@ public class TableUpdateDetails implements Closeable {
         }
     }
 
+    /**
+     * Called by the old writer thread once it has applied all events of the table
+     * queued before the move, the new writer thread owns the table from now on.
+     */
+    public void completeHandover() {
+        handoverFromThreadId = -1;
+    }
+
+    public void decrementQueuedEvents() {
+        queuedEvents.decrementAndGet();
+    }
+
     public long getEventsProcessedSinceReshuffle() {
         return eventsProcessedSinceReshuffle;
     }
 
+    public int getHandoverFromThreadId() {
+        return handoverFromThreadId;
+    }
+
     public long getLastMeasurementMillis() {
         return lastMeasurementMillis;
     }
@@ -194,6 +267,10 @@ public class TableUpdateDetails implements Closeable {
         return networkIOOwnerCount;
     }
 
+    public int getQueuedEvents() {
+        return queuedEvents.get();
+    }
+
     public String getTableNameUtf16() {
         return tableToken.getTableName();
     }
@@ -214,6 +291,10 @@ public class TableUpdateDetails implements Closeable {
         ++eventsProcessedSinceReshuffle;
     }
 
+    public void incrementQueuedEvents() {
+        queuedEvents.incrementAndGet();
+    }
+
     public boolean isAssignedToJob() {
         return assignedToJob;
     }
@@ -238,6 +319,16 @@ public class TableUpdateDetails implements Closeable {
         }
     }
 
+    public void resetEventsProcessedSinceReshuffle() {
+        eventsProcessedSinceReshuffle = 0;
+    }
+
+    public void rollback() {
+        if (writerAPI != null) {
+            writerAPI.rollback();
+        }
+    }
+
     public void setAssignedToJob(boolean assignedToJob) {
         this.assignedToJob = assignedToJob;
     }
@@ -246,6 +337,14 @@ public class TableUpdateDetails implements Closeable {
         writerInError = true;
     }
 
+    public void setWriterThreadId(int writerThreadId) {
+        this.writerThreadId = writerThreadId;
+    }
+
+    public void startHandover(int fromThreadId) {
+        handoverFromThreadId = fromThreadId;
+    }
+
     public void tick() {
         if (metadataService != null) {
             metadataService.tick();
@@ -269,6 +368,18 @@ public class TableUpdateDetails implements Closeable {
         }
     }
 
+    static void addColumn(TableWriterAPI writer, CharSequence columnName, int colType) {
+        try {
+            writer.addColumn(columnName, colType);
+        } catch (CairoException e) {
+            if (writer.getMetadata().getColumnIndexQuiet(columnName) < 0) {
+                // the column is still not there, something must be wrong
+                throw e;
+            }
+            // all good, someone added the column concurrently
+        }
+    }
+
     long commitIfIntervalElapsed(long wallClockMillis) throws CommitFailedException {
         if (wallClockMillis < nextCommitTime) {
             return nextCommitTime;
@@ -371,6 +482,7 @@ public class TableUpdateDetails implements Closeable {
         private ByteCharSequence colNameUtf8;
         private int columnCount;
         private TableRecordMetadata latestKnownMetadata;
+        private long refreshedMetadataVersion = -1;
         private String symbolNameTemp;
         private TxReader txReader;
 
@@ -489,6 +601,48 @@ public class TableUpdateDetails implements Closeable {
             return writerColIndex;
         }
 
+        /**
+         * Replaces the known metadata with the latest one. When the only change is columns appended
+         * to the table, which is what ILP does when a measurement introduces new fields, existing
+         * columns keep their indexes, so the resolved column indexes, types and symbol caches remain
+         * valid and do not have to be rebuilt after every new column. The latest metadata is fetched
+         * once per writer metadata version, it is not fetched again for every row while the known
+         * version lags behind the writer.
+         */
+        private void refreshMetadata(long writerMetadataVersion) {
+            refreshedMetadataVersion = writerMetadataVersion;
+            final TableRecordMetadata metadata;
+            try {
+                metadata = engine.getMetadata(tableToken);
+            } catch (CairoException | TableReferenceOutOfDateException ex) {
+                // metadata is fetched again, and the error handled, by the caller
+                clear();
+                return;
+            }
+            final TableRecordMetadata knownMetadata = latestKnownMetadata;
+            if (metadata.getMetadataVersion() == knownMetadata.getMetadataVersion()) {
+                // the table has not changed since the known metadata was fetched
+                Misc.free(metadata);
+                return;
+            }
+            final int knownColumnCount = knownMetadata.getColumnCount();
+            boolean columnsAdded = metadata.getColumnCount() >= knownColumnCount
+                    && metadata.getTimestampIndex() == knownMetadata.getTimestampIndex();
+            for (int i = 0; columnsAdded && i < knownColumnCount; i++) {
+                columnsAdded = metadata.getWriterIndex(i) == knownMetadata.getWriterIndex(i)
+                        && metadata.getColumnType(i) == knownMetadata.getColumnType(i)
+                        && Chars.equals(metadata.getColumnName(i), knownMetadata.getColumnName(i));
+            }
+            if (columnsAdded) {
+                latestKnownMetadata = metadata;
+                Misc.free(knownMetadata);
+            } else {
+                // clear() frees latestKnownMetadata and sets it to null
+                clear();
+                latestKnownMetadata = metadata;
+            }
+        }
+
         private int resolveSymbolIndexAndName(TableRecordMetadata metadata, int colWriterIndex) {
             symbolNameTemp = null;
             int symIndex = -1;
@@ -660,9 +814,8 @@ public class TableUpdateDetails implements Closeable {
             // compared with the known metadata.
             if (latestKnownMetadata != null) {
                 long metadataVersion = writerAPI.getMetadataVersion();
-                if (latestKnownMetadata.getMetadataVersion() != metadataVersion) {
-                    // clear() frees latestKnownMetadata and sets it to null
-                    clear();
+                if (latestKnownMetadata.getMetadataVersion() != metadataVersion && refreshedMetadataVersion != metadataVersion) {
+                    refreshMetadata(metadataVersion);
                 }
             }
             if (latestKnownMetadata == null) {
@@ -110,6 +110,11 @@ public class DefaultLineUdpReceiverConfiguration implements LineUdpReceiverConfi
         return -1;
     }
 
+    @Override
+    public int getSocketCount() {
+        return 1;
+    }
+
     @Override
     public LineProtoTimestampAdapter getTimestampAdapter() {
         return LineProtoNanoTimestampAdapter.INSTANCE;
@@ -616,6 +616,11 @@ public class LineUdpParserImpl implements LineUdpParser, Closeable {
             return timestampIndex;
         }
 
+        @Override
+        public long getTtl() {
+            return 0;
+        }
+
         @Override
         public boolean isIndexed(int columnIndex) {
             return false;
@@ -59,6 +59,13 @@ public interface LineUdpReceiverConfiguration {
 
     int getReceiveBufferSize();
 
+    /**
+     * Number of sockets bound to the UDP port with SO_REUSEPORT. When greater than one and the TCP
+     * receiver is enabled, each socket is parsed on its own thread and rows are passed to the TCP
+     * receiver writer queues.
+     */
+    int getSocketCount();
+
     LineProtoTimestampAdapter getTimestampAdapter();
 
     boolean isEnabled();
@@ -1843,7 +1843,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
             sink.putIntDirect(INT_NULL_X);
             // this is special behaviour for binary fields to prevent binary data being hex encoded on the wire
             // format code
-            sink.putNetworkShort(ColumnType.isBinary(columnType) ? 1 : getColumnBinaryFlag(typeFlag)); // format code
+            sink.putNetworkShort(ColumnType.isBinary(columnType) || ColumnType.isDoubleArray(columnType) ? 1 : getColumnBinaryFlag(typeFlag)); // format code
         }
         sink.putLen(addr);
     }
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.replication;
+
+import io.questdb.network.DefaultIODispatcherConfiguration;
+import io.questdb.network.IODispatcherConfiguration;
+import io.questdb.network.NetworkFacade;
+import io.questdb.network.NetworkFacadeImpl;
+import io.questdb.std.Numbers;
+
+public class DefaultReplicationConfiguration implements ReplicationConfiguration {
+    private final IODispatcherConfiguration dispatcherConfiguration = new DefaultIODispatcherConfiguration() {
+        @Override
+        public int getBindPort() {
+            return 9100;
+        }
+
+        @Override
+        public String getDispatcherLogName() {
+            return "replication-server";
+        }
+    };
+
+    @Override
+    public int getBufferSize() {
+        return Numbers.SIZE_1MB;
+    }
+
+    @Override
+    public IODispatcherConfiguration getDispatcherConfiguration() {
+        return dispatcherConfiguration;
+    }
+
+    @Override
+    public NetworkFacade getNetworkFacade() {
+        return NetworkFacadeImpl.INSTANCE;
+    }
+
+    @Override
+    public long getPollInterval() {
+        return 1000;
+    }
+
+    @Override
+    public int getPrimaryIPv4Address() {
+        // 127.0.0.1
+        return 0x7f000001;
+    }
+
+    @Override
+    public int getPrimaryPort() {
+        return 9100;
+    }
+
+    @Override
+    public long getRetentionTimeout() {
+        return 600_000;
+    }
+
+    @Override
+    public int getRole() {
+        return ROLE_NONE;
+    }
+
+    @Override
+    public long getTimeout() {
+        return 30_000;
+    }
+}
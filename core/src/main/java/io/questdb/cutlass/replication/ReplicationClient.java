@@ -0,0 +1,459 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.replication;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.vm.MemoryFCRImpl;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
+import io.questdb.griffin.engine.ops.AlterOperation;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SimpleWaitingLock;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.network.NetworkFacade;
+import io.questdb.std.*;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.io.Closeable;
+
+import static io.questdb.cairo.wal.WalUtils.DROP_TABLE_WALID;
+import static io.questdb.cairo.wal.WalUtils.METADATA_WALID;
+import static io.questdb.cutlass.replication.ReplicationProtocol.*;
+
+/**
+ * Replica side of WAL replication. The job periodically asks the primary for the new
+ * transactions of all local WAL tables, writes the received WAL segment ranges into the
+ * table directories and appends the transactions to the local sequencer, so that the WAL
+ * apply jobs apply them as usual. The socket is non-blocking except for the connect.
+ * <p>
+ * Replica has to be initialised from a snapshot of the primary, tables created on the primary
+ * after that are not replicated. While the job exists, the engine rejects writes of its own.
+ */
+public class ReplicationClient extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(ReplicationClient.class);
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_RECV = 3;
+    private static final int STATE_REQUEST = 1;
+    private static final int STATE_SEND = 2;
+    private final MemoryFCRImpl alterMem = new MemoryFCRImpl();
+    private final AlterOperation alterOp = new AlterOperation();
+    private final BinaryAlterSerializer alterSerializer = new BinaryAlterSerializer();
+    private final int bufferSize;
+    private final CairoConfiguration cairoConfiguration;
+    private final MillisecondClock clock;
+    private final ReplicationConfiguration configuration;
+    private final CairoEngine engine;
+    private final StringSink errorMessage = new StringSink();
+    private final FilesFacade ff;
+    private final NetworkFacade nf;
+    private final Path path = new Path();
+    private final StringSink relativePath = new StringSink();
+    private final ObjList<TableToken> tableTokens = new ObjList<>();
+    private final ObjHashSet<TableToken> tableTokenBucket = new ObjHashSet<>();
+    private int fd = -1;
+    private int fileFd = -1;
+    private long fileOffset;
+    private long fileRemaining;
+    private long fromSeqTxn;
+    private long ioTimestamp;
+    private boolean lastRoundSuccessful;
+    private long recvBuf;
+    private int recvHi;
+    private int recvLo;
+    private int roundCount;
+    private long roundTimestamp;
+    private long sendBuf;
+    private int sendHi;
+    private int sendLo;
+    private int state = STATE_IDLE;
+    private TableToken tableToken;
+    private int tableTokenIndex;
+    private boolean walPurgeJobLocked;
+    private SimpleWaitingLock walPurgeJobRunLock;
+
+    public ReplicationClient(ReplicationConfiguration configuration, CairoEngine engine) {
+        this.configuration = configuration;
+        this.engine = engine;
+        this.cairoConfiguration = engine.getConfiguration();
+        this.clock = cairoConfiguration.getMillisecondClock();
+        this.ff = cairoConfiguration.getFilesFacade();
+        this.nf = configuration.getNetworkFacade();
+        this.bufferSize = configuration.getBufferSize();
+        this.recvBuf = Unsafe.malloc(bufferSize, MemoryTag.NATIVE_DEFAULT);
+        this.sendBuf = Unsafe.malloc(bufferSize, MemoryTag.NATIVE_DEFAULT);
+        engine.setReplica(true);
+    }
+
+    @Override
+    public void close() {
+        endRound(false);
+        engine.setReplica(false);
+        recvBuf = Unsafe.free(recvBuf, bufferSize, MemoryTag.NATIVE_DEFAULT);
+        sendBuf = Unsafe.free(sendBuf, bufferSize, MemoryTag.NATIVE_DEFAULT);
+        Misc.free(path);
+    }
+
+    @TestOnly
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    @TestOnly
+    public boolean isLastRoundSuccessful() {
+        return lastRoundSuccessful;
+    }
+
+    public void setWalPurgeJobRunLock(@Nullable SimpleWaitingLock walPurgeJobRunLock) {
+        this.walPurgeJobRunLock = walPurgeJobRunLock;
+    }
+
+    private void applyTxn(long lo, long hi) {
+        final long txn = Unsafe.getUnsafe().getLong(lo);
+        final long structureVersion = Unsafe.getUnsafe().getLong(lo + Long.BYTES);
+        final int walId = Unsafe.getUnsafe().getInt(lo + 2 * Long.BYTES);
+        final int segmentId = Unsafe.getUnsafe().getInt(lo + 2 * Long.BYTES + Integer.BYTES);
+        final int segmentTxn = Unsafe.getUnsafe().getInt(lo + 2 * Long.BYTES + 2 * Integer.BYTES);
+        final TableSequencerAPI sequencerAPI = engine.getTableSequencerAPI();
+        final long appliedTxn;
+        if (walId > 0) {
+            appliedTxn = sequencerAPI.nextTxn(tableToken, walId, structureVersion, segmentId, segmentTxn);
+        } else if (walId == METADATA_WALID) {
+            final long alterLo = lo + TXN_HEADER_SIZE - FRAME_HEADER_SIZE;
+            alterMem.of(alterLo, hi - alterLo);
+            alterSerializer.fromSink(alterOp, alterMem, 0, hi - alterLo);
+            appliedTxn = sequencerAPI.nextStructureTxn(tableToken, structureVersion - 1, alterOp);
+        } else if (walId == DROP_TABLE_WALID) {
+            engine.dropReplicatedTable(tableToken);
+            appliedTxn = txn;
+        } else {
+            throw CairoException.critical(0).put("unexpected replicated transaction [table=").put(tableToken.getDirName())
+                    .put(", txn=").put(txn)
+                    .put(", walId=").put(walId)
+                    .put(']');
+        }
+        if (appliedTxn != txn) {
+            throw CairoException.critical(0).put("replica diverged from primary [table=").put(tableToken.getDirName())
+                    .put(", primaryTxn=").put(txn)
+                    .put(", replicaTxn=").put(appliedTxn)
+                    .put(']');
+        }
+    }
+
+    private void closeFile() {
+        if (fileFd > -1) {
+            ff.close(fileFd);
+            fileFd = -1;
+        }
+        fileRemaining = 0;
+    }
+
+    private boolean connect() {
+        fd = nf.socketTcp(true);
+        if (fd < 0) {
+            LOG.error().$("could not open replication socket [errno=").$(nf.errno()).I$();
+            return false;
+        }
+        // there is no non-blocking connect, the primary is expected to be reachable quickly
+        final long sockaddr = nf.sockaddr(configuration.getPrimaryIPv4Address(), configuration.getPrimaryPort());
+        try {
+            if (nf.connect(fd, sockaddr) != 0) {
+                LOG.error().$("could not connect to primary [address=").$ip(configuration.getPrimaryIPv4Address())
+                        .$(':').$(configuration.getPrimaryPort())
+                        .$(", errno=").$(nf.errno())
+                        .I$();
+                return false;
+            }
+        } finally {
+            nf.freeSockAddr(sockaddr);
+        }
+        if (nf.configureNonBlocking(fd) < 0) {
+            LOG.error().$("could not configure replication socket [errno=").$(nf.errno()).I$();
+            return false;
+        }
+        return true;
+    }
+
+    private void endRound(boolean successful) {
+        if (fd > -1) {
+            nf.close(fd, LOG);
+            fd = -1;
+        }
+        closeFile();
+        unlockWalPurgeJob();
+        recvLo = recvHi = 0;
+        sendLo = sendHi = 0;
+        tableToken = null;
+        tableTokens.clear();
+        if (state != STATE_IDLE) {
+            lastRoundSuccessful = successful;
+            roundCount++;
+            roundTimestamp = clock.getTicks();
+            state = STATE_IDLE;
+        }
+    }
+
+    private void onEnd(long lo) {
+        final long lastSeqTxn = Unsafe.getUnsafe().getLong(lo);
+        unlockWalPurgeJob();
+        if (lastSeqTxn > fromSeqTxn) {
+            LOG.info().$("replicated [table=").$(tableToken)
+                    .$(", fromSeqTxn=").$(fromSeqTxn)
+                    .$(", toSeqTxn=").$(lastSeqTxn)
+                    .I$();
+            if (!engine.isTableDropped(tableToken)) {
+                engine.notifyWalTxnCommitted(tableToken, lastSeqTxn);
+            }
+        }
+        tableTokenIndex++;
+        state = STATE_REQUEST;
+    }
+
+    private void onFileRange(long lo, long hi) {
+        final long offset = Unsafe.getUnsafe().getLong(lo);
+        final long length = Unsafe.getUnsafe().getLong(lo + Long.BYTES);
+        relativePath.clear();
+        if (offset < 0 || length < 0 || !Chars.utf8toUtf16(lo + 2 * Long.BYTES, hi, relativePath) || Chars.contains(relativePath, "..")) {
+            throw CairoException.critical(0).put("invalid replicated file range [table=").put(tableToken.getDirName()).put(']');
+        }
+        path.of(cairoConfiguration.getRoot()).concat(tableToken).concat(relativePath).$();
+        if (ff.mkdirs(path, cairoConfiguration.getMkDirMode()) != 0) {
+            throw CairoException.critical(ff.errno()).put("could not create directories [path=").put(path).put(']');
+        }
+        fileFd = TableUtils.openRW(ff, path, LOG, cairoConfiguration.getWriterFileOpenOpts());
+        fileOffset = offset;
+        fileRemaining = length;
+        if (length == 0) {
+            closeFile();
+        }
+    }
+
+    private void onStatus(long lo, long hi) {
+        final int status = Unsafe.getUnsafe().getInt(lo);
+        if (status == STATUS_OK) {
+            return;
+        }
+        if (status == STATUS_TABLE_NOT_FOUND) {
+            LOG.info().$("table is not found on primary [table=").$(tableToken).I$();
+        } else {
+            errorMessage.clear();
+            Chars.utf8toUtf16(lo + Integer.BYTES, hi, errorMessage);
+            LOG.error().$("primary could not replicate table [table=").$(tableToken).$(", msg=").$(errorMessage).I$();
+        }
+        unlockWalPurgeJob();
+        tableTokenIndex++;
+        state = STATE_REQUEST;
+    }
+
+    private boolean parse() {
+        boolean busy = false;
+        while (state == STATE_RECV) {
+            if (fileRemaining > 0) {
+                final int len = (int) Math.min(recvHi - recvLo, fileRemaining);
+                if (len == 0) {
+                    break;
+                }
+                if (ff.write(fileFd, recvBuf + recvLo, len, fileOffset) != len) {
+                    throw CairoException.critical(ff.errno()).put("could not write replicated file [path=").put(path).put(']');
+                }
+                recvLo += len;
+                fileOffset += len;
+                fileRemaining -= len;
+                if (fileRemaining == 0) {
+                    closeFile();
+                }
+                busy = true;
+                continue;
+            }
+
+            if (recvHi - recvLo < FRAME_HEADER_SIZE) {
+                break;
+            }
+            final long lo = recvBuf + recvLo;
+            final int length = Unsafe.getUnsafe().getInt(lo);
+            if (length < FRAME_HEADER_SIZE || length > bufferSize) {
+                throw CairoException.critical(0).put("invalid replication frame [length=").put(length).put(']');
+            }
+            if (recvHi - recvLo < length) {
+                break;
+            }
+            final long hi = lo + length;
+            switch (Unsafe.getUnsafe().getInt(lo + Integer.BYTES)) {
+                case MSG_STATUS:
+                    onStatus(lo + FRAME_HEADER_SIZE, hi);
+                    break;
+                case MSG_FILE_RANGE:
+                    onFileRange(lo + FRAME_HEADER_SIZE, hi);
+                    break;
+                case MSG_TXN:
+                    applyTxn(lo + FRAME_HEADER_SIZE, hi);
+                    break;
+                case MSG_END:
+                    onEnd(lo + FRAME_HEADER_SIZE);
+                    break;
+                default:
+                    throw CairoException.critical(0).put("unexpected replication frame [type=")
+                            .put(Unsafe.getUnsafe().getInt(lo + Integer.BYTES)).put(']');
+            }
+            recvLo += length;
+            busy = true;
+        }
+        return busy;
+    }
+
+    private boolean recv() {
+        if (recvLo > 0) {
+            Vect.memmove(recvBuf, recvBuf + recvLo, recvHi - recvLo);
+            recvHi -= recvLo;
+            recvLo = 0;
+        }
+        final int n = nf.recv(fd, recvBuf + recvHi, bufferSize - recvHi);
+        if (n < 0) {
+            LOG.error().$("primary disconnected [errno=").$(nf.errno()).I$();
+            endRound(false);
+            return false;
+        }
+        if (n > 0) {
+            recvHi += n;
+            ioTimestamp = clock.getTicks();
+        }
+        return parse() || n > 0;
+    }
+
+    private boolean request() {
+        while (tableTokenIndex < tableTokens.size()) {
+            final TableToken tableToken = tableTokens.getQuick(tableTokenIndex);
+            if (!tableToken.isWal() || engine.isTableDropped(tableToken)) {
+                tableTokenIndex++;
+                continue;
+            }
+            // received segments would look orphaned to the WAL purge job until their transactions are in the sequencer
+            if (walPurgeJobRunLock != null) {
+                if (!walPurgeJobRunLock.tryLock()) {
+                    return false;
+                }
+                walPurgeJobLocked = true;
+            }
+            this.tableToken = tableToken;
+            fromSeqTxn = engine.getTableSequencerAPI().lastTxn(tableToken);
+            path.of(tableToken.getDirName());
+            final int length = FRAME_HEADER_SIZE + Integer.BYTES + Long.BYTES + path.length();
+            Unsafe.getUnsafe().putInt(sendBuf, length);
+            Unsafe.getUnsafe().putInt(sendBuf + Integer.BYTES, MSG_FETCH);
+            Unsafe.getUnsafe().putInt(sendBuf + FRAME_HEADER_SIZE, tableToken.getTableId());
+            Unsafe.getUnsafe().putLong(sendBuf + FRAME_HEADER_SIZE + Integer.BYTES, fromSeqTxn);
+            Vect.memcpy(sendBuf + FRAME_HEADER_SIZE + Integer.BYTES + Long.BYTES, path.address(), path.length());
+            sendLo = 0;
+            sendHi = length;
+            state = STATE_SEND;
+            return true;
+        }
+        tableToken = null;
+        Unsafe.getUnsafe().putInt(sendBuf, FRAME_HEADER_SIZE);
+        Unsafe.getUnsafe().putInt(sendBuf + Integer.BYTES, MSG_QUIT);
+        sendLo = 0;
+        sendHi = FRAME_HEADER_SIZE;
+        state = STATE_SEND;
+        return true;
+    }
+
+    private boolean send() {
+        final int n = nf.send(fd, sendBuf + sendLo, sendHi - sendLo);
+        if (n < 0) {
+            LOG.error().$("primary disconnected [errno=").$(nf.errno()).I$();
+            endRound(false);
+            return false;
+        }
+        if (n > 0) {
+            ioTimestamp = clock.getTicks();
+        }
+        sendLo += n;
+        if (sendLo < sendHi) {
+            return n > 0;
+        }
+        if (tableToken == null) {
+            // quit is sent, the round is complete
+            endRound(true);
+        } else {
+            state = STATE_RECV;
+        }
+        return true;
+    }
+
+    private void unlockWalPurgeJob() {
+        if (walPurgeJobLocked) {
+            walPurgeJobRunLock.unlock();
+            walPurgeJobLocked = false;
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long now = clock.getTicks();
+        if (state == STATE_IDLE) {
+            if (now - roundTimestamp < configuration.getPollInterval()) {
+                return false;
+            }
+            state = STATE_REQUEST;
+            if (!connect()) {
+                endRound(false);
+                return false;
+            }
+            engine.getTableTokens(tableTokenBucket, false);
+            for (int i = 0, n = tableTokenBucket.size(); i < n; i++) {
+                tableTokens.add(tableTokenBucket.get(i));
+            }
+            tableTokenIndex = 0;
+            ioTimestamp = now;
+        } else if (now - ioTimestamp > configuration.getTimeout()) {
+            LOG.error().$("replication timed out [table=").$(tableToken).I$();
+            endRound(false);
+            return false;
+        }
+
+        try {
+            switch (state) {
+                case STATE_REQUEST:
+                    return request();
+                case STATE_SEND:
+                    return send();
+                case STATE_RECV:
+                    return recv();
+                default:
+                    return false;
+            }
+        } catch (CairoException e) {
+            LOG.error().$("replication failed [table=").$(tableToken)
+                    .$(", msg=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+            endRound(false);
+            return false;
+        }
+    }
+}
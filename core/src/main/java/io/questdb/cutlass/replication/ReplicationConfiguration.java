@@ -0,0 +1,69 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.replication;
+
+import io.questdb.network.IODispatcherConfiguration;
+import io.questdb.network.NetworkFacade;
+
+public interface ReplicationConfiguration {
+    int ROLE_NONE = 0;
+    int ROLE_PRIMARY = 1;
+    int ROLE_REPLICA = 2;
+
+    int getBufferSize();
+
+    /**
+     * Dispatcher the primary accepts replica connections with.
+     */
+    IODispatcherConfiguration getDispatcherConfiguration();
+
+    NetworkFacade getNetworkFacade();
+
+    /**
+     * Interval in milliseconds between the replica's requests for new transactions.
+     */
+    long getPollInterval();
+
+    /**
+     * Address of the primary the replica connects to.
+     */
+    int getPrimaryIPv4Address();
+
+    int getPrimaryPort();
+
+    /**
+     * Time in milliseconds the primary keeps WAL segments for a replica after the replica's
+     * last request of the table.
+     */
+    long getRetentionTimeout();
+
+    int getRole();
+
+    /**
+     * Timeout in milliseconds of a single network read or write.
+     */
+    long getTimeout();
+}
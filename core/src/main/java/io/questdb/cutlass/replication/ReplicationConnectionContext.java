@@ -0,0 +1,486 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.replication;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.cairo.wal.WalEventCursor;
+import io.questdb.cairo.wal.WalEventReader;
+import io.questdb.cairo.wal.WalTxnType;
+import io.questdb.cairo.wal.seq.SequencerMetadata;
+import io.questdb.cairo.wal.seq.TableMetadataChangeLog;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.network.*;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+import static io.questdb.cairo.wal.WalUtils.*;
+import static io.questdb.cutlass.replication.ReplicationProtocol.*;
+
+/**
+ * Primary side of a replica connection. Each fetch is answered with the ranges of the WAL
+ * segment files the new transactions were written to, the transactions themselves and
+ * the last shipped transaction. The response is planned as a list of chunks, which are
+ * sent as the socket accepts them.
+ */
+public class ReplicationConnectionContext extends IOContext<ReplicationConnectionContext> {
+    private static final Log LOG = LogFactory.getLog(ReplicationConnectionContext.class);
+    private final BinaryAlterSerializer alterSerializer = new BinaryAlterSerializer();
+    private final int bufferSize;
+    private final CairoConfiguration cairoConfiguration;
+    // [fd, lo, hi) triplets, fd is -1 when the chunk is in responseMem
+    private final LongList chunks = new LongList();
+    private final CairoEngine engine;
+    private final WalEventReader eventReader;
+    private final FilesFacade ff;
+    private final IntList files = new IntList();
+    private final NetworkFacade nf;
+    private final Path path = new Path();
+    private final Path relativePath = new Path();
+    private final MemoryCARW responseMem;
+    private final LongIntHashMap segmentIndex = new LongIntHashMap();
+    private final SequencerMetadata segmentMetadata;
+    private final IntList segmentTxnHi = new IntList();
+    private final IntList segmentTxnLo = new IntList();
+    // (walId, segmentId) of the shipped transactions, in the order of first appearance
+    private final LongList segments = new LongList();
+    private final ReplicationServer server;
+    private final StringSink tableDirName = new StringSink();
+    private final MemoryCARW txnMem;
+    private int chunkIndex;
+    private long chunkPos;
+    private long recvBuf;
+    private int recvHi;
+    private int recvLo;
+    private long sendBuf;
+    private int sendHi;
+    private int sendLo;
+
+    public ReplicationConnectionContext(ReplicationServer server, ReplicationConfiguration configuration, CairoEngine engine) {
+        this.server = server;
+        this.engine = engine;
+        this.cairoConfiguration = engine.getConfiguration();
+        this.ff = cairoConfiguration.getFilesFacade();
+        this.nf = configuration.getDispatcherConfiguration().getNetworkFacade();
+        this.bufferSize = configuration.getBufferSize();
+        this.eventReader = new WalEventReader(ff);
+        this.segmentMetadata = new SequencerMetadata(ff, true);
+        this.responseMem = Vm.getCARWInstance(Numbers.SIZE_1MB, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+        this.txnMem = Vm.getCARWInstance(Numbers.SIZE_1MB, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+        this.recvBuf = Unsafe.malloc(bufferSize, MemoryTag.NATIVE_DEFAULT);
+        this.sendBuf = Unsafe.malloc(bufferSize, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        clearResponse();
+        recvLo = recvHi = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        recvBuf = Unsafe.free(recvBuf, bufferSize, MemoryTag.NATIVE_DEFAULT);
+        sendBuf = Unsafe.free(sendBuf, bufferSize, MemoryTag.NATIVE_DEFAULT);
+        Misc.free(responseMem);
+        Misc.free(txnMem);
+        Misc.free(eventReader);
+        Misc.free(segmentMetadata);
+        Misc.free(path);
+        Misc.free(relativePath);
+    }
+
+    @Override
+    public ReplicationConnectionContext of(int fd, IODispatcher<ReplicationConnectionContext> dispatcher) {
+        // pooled contexts are not cleared, drop whatever the previous connection left behind
+        clearResponse();
+        recvLo = recvHi = 0;
+        return super.of(fd, dispatcher);
+    }
+
+    private void addMemChunk(long lo) {
+        final long hi = responseMem.getAppendOffset();
+        final int n = chunks.size();
+        if (n > 0 && chunks.getQuick(n - 3) == -1 && chunks.getQuick(n - 1) == lo) {
+            chunks.setQuick(n - 1, hi);
+        } else {
+            chunks.add(-1);
+            chunks.add(lo, hi);
+        }
+    }
+
+    private void clearResponse() {
+        for (int i = 0, n = files.size(); i < n; i++) {
+            ff.close(files.getQuick(i));
+        }
+        files.clear();
+        chunks.clear();
+        chunkIndex = 0;
+        chunkPos = 0;
+        sendLo = sendHi = 0;
+        responseMem.jumpTo(0);
+    }
+
+    private boolean isSending() {
+        return sendLo < sendHi || chunkIndex < chunks.size();
+    }
+
+    private void onFetch(long lo, long hi) throws ServerDisconnectException {
+        if (hi - lo < Integer.BYTES + Long.BYTES) {
+            throw ServerDisconnectException.INSTANCE;
+        }
+        final int tableId = Unsafe.getUnsafe().getInt(lo);
+        final long fromSeqTxn = Unsafe.getUnsafe().getLong(lo + Integer.BYTES);
+        tableDirName.clear();
+        if (!Chars.utf8toUtf16(lo + Integer.BYTES + Long.BYTES, hi, tableDirName)) {
+            throw ServerDisconnectException.INSTANCE;
+        }
+
+        clearResponse();
+        final TableToken tableToken = engine.getTableTokenByDirName(Chars.toString(tableDirName), tableId);
+        if (tableToken == null || !tableToken.isWal()) {
+            putStatus(STATUS_TABLE_NOT_FOUND, null);
+            return;
+        }
+
+        // from now on, segments of the transactions the replica doesn't have are retained
+        server.onFetch(tableToken, fromSeqTxn);
+        try {
+            planTable(tableToken, fromSeqTxn);
+        } catch (CairoException e) {
+            LOG.error().$("could not prepare table for replication [table=").$(tableToken)
+                    .$(", fromSeqTxn=").$(fromSeqTxn)
+                    .$(", msg=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+            clearResponse();
+            putStatus(STATUS_ERROR, e.getFlyweightMessage());
+        }
+    }
+
+    private int openSegmentFile(int segmentPathLen, int relativePathLen, CharSequence name, CharSequence suffix) {
+        path.trimTo(segmentPathLen).concat(name);
+        relativePath.trimTo(relativePathLen).concat(name);
+        if (suffix != null) {
+            path.put(suffix);
+            relativePath.put(suffix);
+        }
+        final int fd = TableUtils.openRO(ff, path.$(), LOG);
+        files.add(fd);
+        return fd;
+    }
+
+    private boolean parseFrame() throws PeerDisconnectedException, ServerDisconnectException {
+        if (recvHi - recvLo < FRAME_HEADER_SIZE) {
+            return false;
+        }
+        final long lo = recvBuf + recvLo;
+        final int length = Unsafe.getUnsafe().getInt(lo);
+        if (length < FRAME_HEADER_SIZE || length > bufferSize) {
+            throw ServerDisconnectException.INSTANCE;
+        }
+        if (recvHi - recvLo < length) {
+            return false;
+        }
+        switch (Unsafe.getUnsafe().getInt(lo + Integer.BYTES)) {
+            case MSG_FETCH:
+                onFetch(lo + FRAME_HEADER_SIZE, lo + length);
+                break;
+            case MSG_QUIT:
+                throw PeerDisconnectedException.INSTANCE;
+            default:
+                throw ServerDisconnectException.INSTANCE;
+        }
+        recvLo += length;
+        return true;
+    }
+
+    private void planSegment(TableToken tableToken, int walId, int segmentId, int txnLo, int txnHi) {
+        path.of(cairoConfiguration.getRoot()).concat(tableToken).concat(WAL_NAME_BASE).put(walId).slash().put(segmentId);
+        final int segmentPathLen = path.length();
+        if (!ff.exists(path.$())) {
+            throw CairoException.critical(0).put("WAL segment is already purged, replica has to be restored from a snapshot [path=")
+                    .put(path).put(']');
+        }
+        relativePath.of(WAL_NAME_BASE).put(walId).slash().put(segmentId);
+        final int relativePathLen = relativePath.length();
+
+        // rows written by the shipped transactions, they are contiguous within the segment
+        long rowLo = -1;
+        long rowHi = -1;
+        try {
+            final WalEventCursor cursor = eventReader.of(path.trimTo(segmentPathLen), WAL_FORMAT_VERSION, txnLo);
+            do {
+                if (cursor.getTxn() > txnHi) {
+                    break;
+                }
+                if (cursor.getType() == WalTxnType.DATA) {
+                    final WalEventCursor.DataInfo dataInfo = cursor.getDataInfo();
+                    if (rowLo == -1) {
+                        rowLo = dataInfo.getStartRowID();
+                    }
+                    rowHi = dataInfo.getEndRowID();
+                }
+            } while (cursor.hasNext());
+        } finally {
+            eventReader.close();
+        }
+
+        int fd = openSegmentFile(segmentPathLen, relativePathLen, TableUtils.META_FILE_NAME, null);
+        putFileRange(fd, 0, ff.length(fd));
+
+        if (rowHi > rowLo) {
+            // committed column regions only grow, a column is added to a segment before its first row
+            segmentMetadata.open(path.trimTo(segmentPathLen), segmentPathLen);
+            for (int i = 0, n = segmentMetadata.getColumnCount(); i < n; i++) {
+                final int type = segmentMetadata.getColumnType(i);
+                if (type < 0) {
+                    continue;
+                }
+                final CharSequence name = segmentMetadata.getColumnName(i);
+                if (ColumnType.isVariableLength(type)) {
+                    fd = openSegmentFile(segmentPathLen, relativePathLen, name, TableUtils.FILE_SUFFIX_I);
+                    final long dataLo = ff.readNonNegativeLong(fd, rowLo << 3);
+                    final long dataHi = ff.readNonNegativeLong(fd, rowHi << 3);
+                    if (dataLo < 0 || dataHi < dataLo) {
+                        throw CairoException.critical(ff.errno()).put("could not read column index [path=").put(path).put(']');
+                    }
+                    putFileRange(fd, rowLo << 3, (rowHi + 1) << 3);
+                    fd = openSegmentFile(segmentPathLen, relativePathLen, name, TableUtils.FILE_SUFFIX_D);
+                    putFileRange(fd, dataLo, dataHi);
+                } else {
+                    // designated timestamp is stored along with the row id
+                    final int shl = i == segmentMetadata.getTimestampIndex() ? 4 : ColumnType.pow2SizeOf(type);
+                    fd = openSegmentFile(segmentPathLen, relativePathLen, name, TableUtils.FILE_SUFFIX_D);
+                    putFileRange(fd, rowLo << shl, rowHi << shl);
+                }
+            }
+        }
+
+        fd = openSegmentFile(segmentPathLen, relativePathLen, EVENT_INDEX_FILE_NAME, null);
+        final long eventLo = ff.readNonNegativeLong(fd, (long) txnLo << 3);
+        final long eventHi = ff.readNonNegativeLong(fd, (txnHi + 1L) << 3);
+        if (eventLo < WALE_HEADER_SIZE || eventHi < eventLo) {
+            throw CairoException.critical(ff.errno()).put("could not read WAL event index [path=").put(path).put(']');
+        }
+        putFileRange(fd, (long) txnLo << 3, (txnHi + 2L) << 3);
+        fd = openSegmentFile(segmentPathLen, relativePathLen, EVENT_FILE_NAME, null);
+        putFileRange(fd, eventLo, eventHi);
+
+        // events after txnHi may be committed to the segment by now, but they are not in the shipped
+        // part of the sequencer log; terminate the events and the header of the replica's copy at txnHi
+        long frameLo = putFileRangeHeader(eventHi, Integer.BYTES);
+        responseMem.putInt(-1);
+        addMemChunk(frameLo);
+        frameLo = putFileRangeHeader(WALE_MAX_TXN_OFFSET_32, WALE_HEADER_SIZE);
+        responseMem.putInt(txnHi);
+        responseMem.putInt(WAL_FORMAT_VERSION);
+        addMemChunk(frameLo);
+    }
+
+    private void planTable(TableToken tableToken, long fromSeqTxn) {
+        final TableSequencerAPI sequencerAPI = engine.getTableSequencerAPI();
+        final long lastSeqTxn = sequencerAPI.lastTxn(tableToken);
+        putStatus(STATUS_OK, null);
+
+        txnMem.jumpTo(0);
+        segments.clear();
+        segmentIndex.clear();
+        segmentTxnLo.clear();
+        segmentTxnHi.clear();
+        long lastShippedTxn = fromSeqTxn;
+        try (TransactionLogCursor cursor = sequencerAPI.getCursor(tableToken, fromSeqTxn)) {
+            // transactions committed after lastTxn are shipped on the next fetch
+            while (cursor.hasNext() && cursor.getTxn() <= lastSeqTxn) {
+                final int walId = cursor.getWalId();
+                final long frameLo = txnMem.getAppendOffset();
+                txnMem.putInt(0);
+                txnMem.putInt(MSG_TXN);
+                txnMem.putLong(cursor.getTxn());
+                txnMem.putLong(cursor.getStructureVersion());
+                txnMem.putInt(walId);
+                txnMem.putInt(cursor.getSegmentId());
+                txnMem.putInt(cursor.getSegmentTxn());
+                if (walId > 0) {
+                    trackSegment(walId, cursor.getSegmentId(), cursor.getSegmentTxn());
+                } else if (walId == METADATA_WALID) {
+                    try (TableMetadataChangeLog log = sequencerAPI.getMetadataChangeLog(tableToken, cursor.getStructureVersion() - 1)) {
+                        if (!log.hasNext()) {
+                            throw CairoException.critical(0).put("could not read structure change [table=").put(tableToken.getDirName())
+                                    .put(", structureVersion=").put(cursor.getStructureVersion())
+                                    .put(']');
+                        }
+                        alterSerializer.toSink(log.next(), txnMem);
+                    }
+                }
+                txnMem.putInt(frameLo, (int) (txnMem.getAppendOffset() - frameLo));
+                lastShippedTxn = cursor.getTxn();
+            }
+        }
+
+        for (int i = 0, n = segments.size(); i < n; i++) {
+            final long segment = segments.getQuick(i);
+            planSegment(
+                    tableToken,
+                    Numbers.decodeHighInt(segment),
+                    Numbers.decodeLowInt(segment),
+                    segmentTxnLo.getQuick(i),
+                    segmentTxnHi.getQuick(i)
+            );
+        }
+
+        final long frameLo = responseMem.getAppendOffset();
+        responseMem.putBlockOfBytes(txnMem.addressOf(0), txnMem.getAppendOffset());
+        responseMem.putInt(FRAME_HEADER_SIZE + Long.BYTES);
+        responseMem.putInt(MSG_END);
+        responseMem.putLong(lastShippedTxn);
+        addMemChunk(frameLo);
+        LOG.debug().$("replicating table [table=").$(tableToken)
+                .$(", fromSeqTxn=").$(fromSeqTxn)
+                .$(", toSeqTxn=").$(lastShippedTxn)
+                .$(", segments=").$(segments.size())
+                .I$();
+    }
+
+    private void putFileRange(int fd, long lo, long hi) {
+        if (hi > lo) {
+            addMemChunk(putFileRangeHeader(lo, hi - lo));
+            chunks.add(fd);
+            chunks.add(lo, hi);
+        }
+    }
+
+    private long putFileRangeHeader(long offset, long length) {
+        final long frameLo = responseMem.getAppendOffset();
+        responseMem.putInt(0);
+        responseMem.putInt(MSG_FILE_RANGE);
+        responseMem.putLong(offset);
+        responseMem.putLong(length);
+        responseMem.putBlockOfBytes(relativePath.address(), relativePath.length());
+        responseMem.putInt(frameLo, (int) (responseMem.getAppendOffset() - frameLo));
+        return frameLo;
+    }
+
+    private void putStatus(int status, CharSequence message) {
+        final long frameLo = responseMem.getAppendOffset();
+        responseMem.putInt(0);
+        responseMem.putInt(MSG_STATUS);
+        responseMem.putInt(status);
+        if (message != null) {
+            // Path encodes the message into UTF-8
+            relativePath.of(message);
+            responseMem.putBlockOfBytes(relativePath.address(), Math.min(relativePath.length(), bufferSize / 2));
+        }
+        responseMem.putInt(frameLo, (int) (responseMem.getAppendOffset() - frameLo));
+        addMemChunk(frameLo);
+    }
+
+    private void recv() throws PeerDisconnectedException, PeerIsSlowToWriteException {
+        if (recvLo > 0) {
+            Vect.memmove(recvBuf, recvBuf + recvLo, recvHi - recvLo);
+            recvHi -= recvLo;
+            recvLo = 0;
+        }
+        final int n = nf.recv(fd, recvBuf + recvHi, bufferSize - recvHi);
+        if (n < 0) {
+            throw PeerDisconnectedException.INSTANCE;
+        }
+        if (n == 0) {
+            throw PeerIsSlowToWriteException.INSTANCE;
+        }
+        recvHi += n;
+    }
+
+    private void send() throws PeerDisconnectedException, PeerIsSlowToReadException {
+        while (true) {
+            if (sendLo < sendHi) {
+                final int n = nf.send(fd, sendBuf + sendLo, sendHi - sendLo);
+                if (n < 0) {
+                    throw PeerDisconnectedException.INSTANCE;
+                }
+                sendLo += n;
+                if (sendLo < sendHi) {
+                    throw PeerIsSlowToReadException.INSTANCE;
+                }
+            }
+            if (chunkIndex == chunks.size()) {
+                clearResponse();
+                return;
+            }
+
+            final int chunkFd = (int) chunks.getQuick(chunkIndex);
+            final long chunkHi = chunks.getQuick(chunkIndex + 2);
+            if (chunkPos < chunks.getQuick(chunkIndex + 1)) {
+                chunkPos = chunks.getQuick(chunkIndex + 1);
+            }
+            final int len = (int) Math.min(chunkHi - chunkPos, bufferSize);
+            if (chunkFd == -1) {
+                Vect.memcpy(sendBuf, responseMem.addressOf(chunkPos), len);
+            } else if (ff.read(chunkFd, sendBuf, len, chunkPos) != len) {
+                throw CairoException.critical(ff.errno()).put("could not read replicated file [fd=").put(chunkFd)
+                        .put(", offset=").put(chunkPos)
+                        .put(", len=").put(len)
+                        .put(']');
+            }
+            sendLo = 0;
+            sendHi = len;
+            chunkPos += len;
+            if (chunkPos == chunkHi) {
+                chunkIndex += 3;
+                chunkPos = 0;
+            }
+        }
+    }
+
+    private void trackSegment(int walId, int segmentId, int segmentTxn) {
+        final long segment = Numbers.encodeLowHighInts(segmentId, walId);
+        final int index = segmentIndex.keyIndex(segment);
+        if (index > -1) {
+            segmentIndex.putAt(index, segment, segments.size());
+            segments.add(segment);
+            segmentTxnLo.add(segmentTxn);
+            segmentTxnHi.add(segmentTxn);
+        } else {
+            segmentTxnHi.setQuick(segmentIndex.valueAt(index), segmentTxn);
+        }
+    }
+
+    void handleClientOperation() throws PeerDisconnectedException, PeerIsSlowToReadException, PeerIsSlowToWriteException, ServerDisconnectException {
+        while (true) {
+            if (isSending()) {
+                send();
+            }
+            if (!parseFrame()) {
+                recv();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.replication;
+
+/**
+ * Frames exchanged by the replica and the primary. Every frame starts with an int length,
+ * which includes the header, and an int frame type.
+ * <p>
+ * Replica sends {@link #MSG_FETCH} with the table id, the last sequencer transaction it has
+ * and the table directory name. Primary replies with {@link #MSG_STATUS}. On success it follows
+ * with {@link #MSG_FILE_RANGE} frames, each is followed by the raw bytes to be written at the
+ * given offset of the file, then with a {@link #MSG_TXN} frame for every new sequencer transaction
+ * and finally with {@link #MSG_END}. Segment ranges are shipped before the transactions referring
+ * to them. Replica ends the round with {@link #MSG_QUIT}.
+ */
+final class ReplicationProtocol {
+    // int length, int type
+    static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    // long lastSeqTxn
+    static final int MSG_END = 5;
+    // int tableId, long fromSeqTxn, UTF-8 table directory name
+    static final int MSG_FETCH = 1;
+    // long offset, long length, UTF-8 path relative to the table directory
+    static final int MSG_FILE_RANGE = 3;
+    static final int MSG_QUIT = 6;
+    // int status, UTF-8 error message
+    static final int MSG_STATUS = 2;
+    // long txn, long structureVersion, int walId, int segmentId, int segmentTxn, serialized structure change
+    static final int MSG_TXN = 4;
+    static final int STATUS_ERROR = 2;
+    static final int STATUS_OK = 0;
+    static final int STATUS_TABLE_NOT_FOUND = 1;
+    static final int TXN_HEADER_SIZE = FRAME_HEADER_SIZE + 2 * Long.BYTES + 3 * Integer.BYTES;
+
+    private ReplicationProtocol() {
+    }
+}
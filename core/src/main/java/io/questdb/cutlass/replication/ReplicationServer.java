@@ -0,0 +1,156 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.replication;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.WalRetention;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.Job;
+import io.questdb.mp.WorkerPool;
+import io.questdb.network.*;
+import io.questdb.std.ConcurrentHashMap;
+import io.questdb.std.Misc;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+import static io.questdb.network.IODispatcher.*;
+
+/**
+ * Primary side of WAL replication. Replica connections are served by the IO dispatcher
+ * on the given worker pool, see {@link ReplicationConnectionContext}. WAL segments of the
+ * transactions a replica has not fetched yet are kept from the WAL purge job until the
+ * replica catches up or stops asking for the table.
+ */
+public class ReplicationServer implements WalRetention, Closeable {
+    private static final Log LOG = LogFactory.getLog(ReplicationServer.class);
+    private final MillisecondClock clock;
+    private final ReplicationConfiguration configuration;
+    private final IOContextFactoryImpl<ReplicationConnectionContext> contextFactory;
+    private final IODispatcher<ReplicationConnectionContext> dispatcher;
+    // table dir name -> the last sequencer txn the replica has
+    private final ConcurrentHashMap<ReplicaSeqTxn> replicaSeqTxns = new ConcurrentHashMap<>();
+
+    public ReplicationServer(ReplicationConfiguration configuration, CairoEngine engine, WorkerPool workerPool) {
+        this.configuration = configuration;
+        this.clock = engine.getConfiguration().getMillisecondClock();
+        this.contextFactory = new IOContextFactoryImpl<>(
+                () -> new ReplicationConnectionContext(this, configuration, engine),
+                configuration.getDispatcherConfiguration().getLimit()
+        );
+        this.dispatcher = IODispatchers.create(configuration.getDispatcherConfiguration(), contextFactory);
+
+        workerPool.assign(dispatcher);
+        for (int i = 0, n = workerPool.getWorkerCount(); i < n; i++) {
+            workerPool.assign(i, new Job() {
+                private final IORequestProcessor<ReplicationConnectionContext> processor = (operation, context) -> {
+                    try {
+                        if (operation == IOOperation.HEARTBEAT) {
+                            context.getDispatcher().registerChannel(context, IOOperation.HEARTBEAT);
+                            return false;
+                        }
+                        context.handleClientOperation();
+                        context.getDispatcher().registerChannel(context, IOOperation.READ);
+                        return true;
+                    } catch (PeerIsSlowToWriteException e) {
+                        context.getDispatcher().registerChannel(context, IOOperation.READ);
+                    } catch (PeerIsSlowToReadException e) {
+                        context.getDispatcher().registerChannel(context, IOOperation.WRITE);
+                    } catch (PeerDisconnectedException e) {
+                        context.getDispatcher().disconnect(
+                                context,
+                                operation == IOOperation.READ
+                                        ? DISCONNECT_REASON_PEER_DISCONNECT_AT_RECV
+                                        : DISCONNECT_REASON_PEER_DISCONNECT_AT_SEND
+                        );
+                    } catch (ServerDisconnectException e) {
+                        context.getDispatcher().disconnect(context, DISCONNECT_REASON_PROTOCOL_VIOLATION);
+                    } catch (Throwable e) { // must remain last in catch list!
+                        LOG.critical().$("internal error [ex=").$(e).$(']').$();
+                        context.getDispatcher().disconnect(context, DISCONNECT_REASON_SERVER_ERROR);
+                    }
+                    return false;
+                };
+
+                @Override
+                public boolean run(int workerId, @NotNull RunStatus runStatus) {
+                    return dispatcher.processIOQueue(processor);
+                }
+            });
+
+            // context factory has thread local pools
+            // therefore we need each thread to clean their thread locals individually
+            workerPool.assignThreadLocalCleaner(i, contextFactory::freeThreadLocal);
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.free(dispatcher);
+        Misc.free(contextFactory);
+    }
+
+    public int getPort() {
+        return dispatcher.getPort();
+    }
+
+    @Override
+    public long getPurgeableSeqTxn(TableToken tableToken, long appliedSeqTxn) {
+        final ReplicaSeqTxn replicaSeqTxn = replicaSeqTxns.get(tableToken.getDirName());
+        if (replicaSeqTxn == null) {
+            return appliedSeqTxn;
+        }
+        if (clock.getTicks() - replicaSeqTxn.fetchTimestamp >= configuration.getRetentionTimeout()) {
+            // the replica has gone, stop holding WAL segments for it
+            if (replicaSeqTxns.remove(tableToken.getDirName(), replicaSeqTxn)) {
+                LOG.info().$("replica retention expired [table=").$(tableToken)
+                        .$(", seqTxn=").$(replicaSeqTxn.seqTxn)
+                        .I$();
+            }
+            return appliedSeqTxn;
+        }
+        return Math.min(appliedSeqTxn, replicaSeqTxn.seqTxn);
+    }
+
+    void onFetch(TableToken tableToken, long fromSeqTxn) {
+        ReplicaSeqTxn replicaSeqTxn = replicaSeqTxns.get(tableToken.getDirName());
+        if (replicaSeqTxn == null) {
+            replicaSeqTxn = new ReplicaSeqTxn();
+        }
+        replicaSeqTxn.seqTxn = fromSeqTxn;
+        replicaSeqTxn.fetchTimestamp = clock.getTicks();
+        // put again, the entry may have just expired
+        replicaSeqTxns.put(tableToken.getDirName(), replicaSeqTxn);
+    }
+
+    private static class ReplicaSeqTxn {
+        // when the replica last requested the table, in milliseconds
+        private volatile long fetchTimestamp;
+        private volatile long seqTxn;
+    }
+}
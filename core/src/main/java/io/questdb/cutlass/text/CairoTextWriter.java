@@ -451,6 +451,11 @@ public class CairoTextWriter implements Closeable, Mutable {
             return timestampIndex;
         }
 
+        @Override
+        public long getTtl() {
+            return 0;
+        }
+
         @Override
         public boolean isIndexed(int columnIndex) {
             return types.getQuick(columnIndex).isIndexed();
@@ -1589,6 +1589,11 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
             return timestampColumnIndex;
         }
 
+        @Override
+        public long getTtl() {
+            return 0;
+        }
+
         @Override
         public boolean isIndexed(int columnIndex) {
             return !ignoreColumnIndexedFlag && Numbers.decodeHighInt(columnBits.getQuick(columnIndex)) != 0;
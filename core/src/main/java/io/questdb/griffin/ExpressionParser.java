@@ -1004,7 +1004,8 @@ public class ExpressionParser {
                             node.paramCount = 2;
                         }
                         opStack.push(node);
-                    } else if (caseCount > 0 || nonLiteralBranches.excludes(thisBranch)) {
+                    } else if (caseCount > 0 || (nonLiteralBranches.excludes(thisBranch) && thisBranch != BRANCH_RIGHT_BRACKET)) {
+                        // literal after array element access, e.g. "arr[1] alias", ends the expression
                         // here we handle literals, in case of "case" statement some of these literals
                         // are going to flush operation stack
                         if (Chars.toLowerCaseAscii(thisChar) == 'c' && SqlKeywords.isCaseKeyword(tok)) {
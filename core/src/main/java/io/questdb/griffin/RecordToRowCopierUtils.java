@@ -638,6 +638,8 @@ public class RecordToRowCopierUtils {
                             asm.invokeInterface(wPutGeoStr, 2);
                             break;
                         case ColumnType.STRING:
+                        case ColumnType.BINARY:
+                            // DOUBLE[] is the only binary type assignable from string, writer parses the text
                             asm.invokeInterface(wPutStr, 2);
                             break;
                         case ColumnType.UUID:
@@ -2162,7 +2162,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     int index = metadata.getColumnIndexQuiet(column);
 
                     // check if column type is supported
-                    if (ColumnType.isBinary(metadata.getColumnType(index))) {
+                    final int orderByColumnType = metadata.getColumnType(index);
+                    if (ColumnType.isBinary(orderByColumnType) || ColumnType.isDoubleArray(orderByColumnType)) {
                         // find position of offending column
 
                         ObjList<ExpressionNode> nodes = model.getOrderBy();
@@ -4605,7 +4606,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     .put(ColumnType.nameOf(columnType));
         }
 
-        return ColumnType.isString(columnType) ? Record.GET_STR : Record.GET_SYM;
+        return ColumnType.isSymbol(columnType) ? Record.GET_SYM : Record.GET_STR;
     }
 
     private RecordMetadata widenSetMetadata(RecordMetadata typesA, RecordMetadata typesB) {
@@ -587,7 +587,7 @@ public class SqlCompiler implements Closeable {
 
             tok = expectToken(lexer, "column type");
 
-            int type = ColumnType.tagOf(tok);
+            int type = ColumnType.typeOf(tok);
             if (type == -1) {
                 throw SqlException.$(lexer.lastTokenPosition(), "invalid type");
             }
@@ -619,6 +619,14 @@ public class SqlCompiler implements Closeable {
             }
 
             tok = SqlUtil.fetchNext(lexer);
+            if (type == ColumnType.DOUBLE && tok != null && Chars.equals(tok, '[')) {
+                tok = SqlUtil.fetchNext(lexer);
+                if (tok == null || !Chars.equals(tok, ']')) {
+                    throw SqlException.position(lexer.getPosition()).put("']' expected");
+                }
+                type = ColumnType.DOUBLE_ARRAY;
+                tok = SqlUtil.fetchNext(lexer);
+            }
             final int indexValueBlockCapacity;
             final boolean cache;
             int symbolCapacity;
@@ -1067,6 +1075,9 @@ public class SqlCompiler implements Closeable {
                 throw SqlException.$(paramNamePosition, "o3MaxLag must be non negative");
             }
             return compiledQuery.ofAlter(alterOperationBuilder.ofSetO3MaxLag(tableNamePosition, tableToken, tableId, o3MaxLag).build());
+        } else if (isTtlKeyword(paramName)) {
+            final long ttl = SqlUtil.expectMicros(value, paramNamePosition);
+            return compiledQuery.ofAlter(alterOperationBuilder.ofSetParamTtl(tableNamePosition, tableToken, tableId, ttl).build());
         } else {
             throw SqlException.$(paramNamePosition, "unknown parameter '").put(paramName).put('\'');
         }
@@ -1535,6 +1546,7 @@ public class SqlCompiler implements Closeable {
         try (TableReader rdr = executionContext.getReader(tableToken)) {
             model.setO3MaxLag(rdr.getO3MaxLag());
             model.setMaxUncommittedRows(rdr.getMaxUncommittedRows());
+            model.setTtl(rdr.getMetadata().getTtl());
             TableReaderMetadata rdrMetadata = rdr.getMetadata();
             for (int i = 0; i < rdrMetadata.getColumnCount(); i++) {
                 int columnType = rdrMetadata.getColumnType(i);
@@ -2231,7 +2243,7 @@ public class SqlCompiler implements Closeable {
                 int tableColumnIndex = tableColumnNames.indexOf(updateColumnName);
                 int tableColumnType = tableColumnTypes.get(tableColumnIndex);
 
-                if (virtualColumnType != tableColumnType) {
+                if (virtualColumnType != tableColumnType && !(ColumnType.isDoubleArray(tableColumnType) && ColumnType.isString(virtualColumnType))) {
                     if (!ColumnType.isSymbolOrString(tableColumnType) || !ColumnType.isAssignableFrom(virtualColumnType, ColumnType.STRING)) {
                         // get column position
                         ExpressionNode setRhs = updateQueryModel.getNestedModel().getColumns().getQuick(i).getAst();
@@ -2868,6 +2880,11 @@ public class SqlCompiler implements Closeable {
             return timestampIndex;
         }
 
+        @Override
+        public long getTtl() {
+            return model.getTtl();
+        }
+
         @Override
         public boolean isIndexed(int columnIndex) {
             return model.isIndexed(columnIndex);
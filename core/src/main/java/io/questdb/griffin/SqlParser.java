@@ -549,6 +549,7 @@ public class SqlParser {
 
         int maxUncommittedRows = configuration.getMaxUncommittedRows();
         long o3MaxLag = configuration.getO3MaxLag();
+        long ttl = 0;
 
         if (tok != null && isWithKeyword(tok)) {
             ExpressionNode expr;
@@ -562,6 +563,11 @@ public class SqlParser {
                         }
                     } else if (isO3MaxLagKeyword(expr.lhs.token)) {
                         o3MaxLag = SqlUtil.expectMicros(expr.rhs.token, lexer.getPosition());
+                    } else if (isTtlKeyword(expr.lhs.token)) {
+                        if (!PartitionBy.isPartitioned(model.getPartitionBy())) {
+                            throw SqlException.position(lexer.getPosition()).put("TTL can only be used on partitioned tables");
+                        }
+                        ttl = SqlUtil.expectMicros(expr.rhs.token, lexer.getPosition());
                     } else {
                         throw SqlException.position(lexer.getPosition()).put(" unrecognized ").put(expr.lhs.token).put(" after WITH");
                     }
@@ -582,6 +588,7 @@ public class SqlParser {
         }
         model.setMaxUncommittedRows(maxUncommittedRows);
         model.setO3MaxLag(o3MaxLag);
+        model.setTtl(ttl);
 
         if (tok != null && isInKeyword(tok)) {
             tok = tok(lexer, "volume");
@@ -2103,7 +2110,19 @@ public class SqlParser {
             expectTok(lexer, ')');
             return ColumnType.getGeoHashTypeWithBits(bits);
         }
-        return type;
+        if (ColumnType.DOUBLE == type) {
+            final CharSequence next = SqlUtil.fetchNext(lexer);
+            if (next != null) {
+                if (Chars.equals(next, '[')) {
+                    expectTok(lexer, ']');
+                    return ColumnType.DOUBLE_ARRAY;
+                }
+                lexer.unparseLast();
+            }
+            return ColumnType.DOUBLE;
+        }
+        // tags cannot tell VARCHAR from STRING
+        return ColumnType.typeOf(tok);
     }
 
     private @NotNull CharSequence tok(GenericLexer lexer, String expectedList) throws SqlException {
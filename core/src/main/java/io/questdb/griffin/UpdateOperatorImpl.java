@@ -24,6 +24,7 @@
 
 package io.questdb.griffin;
 
+import io.questdb.MessageBus;
 import io.questdb.cairo.*;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.*;
@@ -34,8 +35,13 @@ import io.questdb.cairo.vm.api.MemoryCMR;
 import io.questdb.griffin.engine.ops.UpdateOperation;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.SOUnboundedCountDownLatch;
+import io.questdb.mp.Sequence;
 import io.questdb.std.*;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.tasks.UpdatePartitionTask;
 
 import static io.questdb.cairo.ColumnType.isVariableLength;
 import static io.questdb.cairo.TableUtils.dFile;
@@ -43,29 +49,36 @@ import static io.questdb.cairo.TableUtils.iFile;
 
 public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
     private static final Log LOG = LogFactory.getLog(UpdateOperatorImpl.class);
+    private final ObjList<PartitionUpdate> activePartitionUpdates = new ObjList<>();
+    private final CairoConfiguration configuration;
     private final long dataAppendPageSize;
-    private final ObjList<MemoryCMARW> dstColumns = new ObjList<>();
     private final FilesFacade ff;
     private final long fileOpenOpts;
+    private final MessageBus messageBus;
+    private final SOUnboundedCountDownLatch partitionUpdateDoneLatch = new SOUnboundedCountDownLatch();
+    private final ObjList<PartitionUpdate> partitionUpdatePool = new ObjList<>();
     private final Path path;
     private final PurgingOperator purgingOperator;
+    private final LongList reindexPartitionTimestamps = new LongList();
     private final int rootLen;
     private final TableWriter tableWriter;
-    private final ObjList<MemoryCMR> srcColumns = new ObjList<>();
-    private IndexBuilder indexBuilder;
     private final IntList updateColumnIndexes = new IntList();
+    private final IntList updateValueTypes = new IntList();
+    private int queuedPartitionUpdateCount;
 
     public UpdateOperatorImpl(
             CairoConfiguration configuration,
+            MessageBus messageBus,
             TableWriter tableWriter,
             Path path,
             int rootLen,
             PurgingOperator purgingOperator
     ) {
+        this.configuration = configuration;
+        this.messageBus = messageBus;
         this.tableWriter = tableWriter;
         this.rootLen = rootLen;
         this.purgingOperator = purgingOperator;
-        this.indexBuilder = new IndexBuilder(configuration);
         this.dataAppendPageSize = configuration.getDataAppendPageSize();
         this.fileOpenOpts = configuration.getWriterFileOpenOpts();
         this.ff = configuration.getFilesFacade();
@@ -74,7 +87,7 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
 
     @Override
     public void close() {
-        indexBuilder = Misc.free(indexBuilder);
+        Misc.freeObjListAndClear(partitionUpdatePool);
     }
 
     public long executeUpdate(SqlExecutionContext sqlExecutionContext, UpdateOperation op) throws TableReferenceOutOfDateException {
@@ -108,16 +121,17 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
 
             // Build index column map from table to update to values returned from the update statement row cursors
             updateColumnIndexes.clear();
+            updateValueTypes.clear();
+            boolean hasIndexedColumns = false;
             for (int i = 0; i < affectedColumnCount; i++) {
                 CharSequence columnName = updateMetadata.getColumnName(i);
                 int tableColumnIndex = tableMetadata.getColumnIndex(columnName);
                 assert tableColumnIndex >= 0;
                 updateColumnIndexes.add(tableColumnIndex);
+                updateValueTypes.add(updateMetadata.getColumnType(i));
+                hasIndexedColumns |= tableMetadata.isColumnIndexed(tableColumnIndex);
             }
 
-            // Create update memory list of all columns to be updated
-            configureColumns(tableMetadata, affectedColumnCount);
-
             // Start execution frame by frame
             // Partition to update
             int partitionIndex = -1;
@@ -125,8 +139,10 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
 
             // Update may be queued and requester already disconnected, force check someone still waits for it
             op.forceTestTimeout();
-            // Row by row updates for now
-            // This should happen parallel per file (partition and column)
+            // Rows are updated one by one on this thread. Once the cursor moves on to the next partition,
+            // the rest of the previous partition is copied on the worker pool, and indexes are rebuilt
+            // in parallel once all partitions are written. Column versions are changed by this thread only.
+            PartitionUpdate partitionUpdate = null;
             try (RecordCursor recordCursor = factory.getCursor(sqlExecutionContext)) {
                 Record masterRecord = recordCursor.getRecord();
 
@@ -167,26 +183,13 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
                                     .$(", minRow=").$(minRow)
                                     .I$();
 
-                            copyColumns(
-                                    partitionIndex,
-                                    affectedColumnCount,
-                                    prevRow,
-                                    minRow
-                            );
-
-                            updateEffectiveColumnTops(
-                                    tableWriter,
-                                    partitionIndex,
-                                    updateColumnIndexes,
-                                    affectedColumnCount,
-                                    minRow
-                            );
-
-                            rebuildIndexes(tableWriter.getPartitionTimestamp(partitionIndex), tableMetadata, tableWriter);
+                            finishPartition(partitionUpdate, partitionIndex, affectedColumnCount, prevRow, minRow, hasIndexedColumns);
+                            partitionUpdate = null;
                         }
 
-                        openColumns(srcColumns, rowPartitionIndex, false);
-                        openColumns(dstColumns, rowPartitionIndex, true);
+                        partitionUpdate = acquirePartitionUpdate(tableMetadata, affectedColumnCount);
+                        openColumns(partitionUpdate.srcColumns, rowPartitionIndex, false);
+                        openColumns(partitionUpdate.dstColumns, rowPartitionIndex, true);
 
                         partitionIndex = rowPartitionIndex;
                         prevRow = 0;
@@ -194,6 +197,7 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
                     }
 
                     appendRowUpdate(
+                            partitionUpdate,
                             rowPartitionIndex,
                             affectedColumnCount,
                             prevRow,
@@ -209,26 +213,33 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
                 }
 
                 if (partitionIndex > -1) {
-                    copyColumns(partitionIndex, affectedColumnCount, prevRow, minRow);
+                    finishPartition(partitionUpdate, partitionIndex, affectedColumnCount, prevRow, minRow, hasIndexedColumns);
+                    partitionUpdate = null;
+                }
 
-                    updateEffectiveColumnTops(
-                            tableWriter,
-                            partitionIndex,
-                            updateColumnIndexes,
-                            affectedColumnCount,
-                            minRow
-                    );
+                awaitPartitionUpdates();
+                checkPartitionUpdateErrors();
+                releasePartitionUpdates();
 
-                    rebuildIndexes(tableWriter.getPartitionTimestamp(partitionIndex), tableMetadata, tableWriter);
+                // Column versions do not change beyond this point, indexes can be rebuilt concurrently
+                for (int i = 0, n = reindexPartitionTimestamps.size(); i < n; i++) {
+                    final PartitionUpdate reindexUpdate = acquirePartitionUpdate(tableMetadata, affectedColumnCount);
+                    reindexUpdate.ofReindex(reindexPartitionTimestamps.getQuick(i));
+                    dispatchPartitionUpdate(reindexUpdate);
                 }
+                awaitPartitionUpdates();
+                checkPartitionUpdateErrors();
             } finally {
-                Misc.freeObjList(srcColumns);
-                Misc.freeObjList(dstColumns);
-                // todo: we are opening columns incrementally, e.g. if we don't have enough objects
-                //   but here we're always clearing columns, making incremental "open" pointless
-                //   perhaps we should keep N column object max to kick around ?
-                srcColumns.clear();
-                dstColumns.clear();
+                if (partitionUpdate != null) {
+                    activePartitionUpdates.add(partitionUpdate);
+                }
+                // tasks may still be running if we got here on an error
+                awaitPartitionUpdates();
+                releasePartitionUpdates();
+                reindexPartitionTimestamps.clear();
+                for (int i = 0, n = partitionUpdatePool.size(); i < n; i++) {
+                    partitionUpdatePool.getQuick(i).clear();
+                }
             }
 
             if (partitionIndex > -1) {
@@ -272,6 +283,126 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
         return firstUpdatedPartitionRowId;
     }
 
+    private static void copyColumn(
+            long prevRow,
+            long maxRow,
+            MemoryCMR srcFixMem,
+            MemoryCMR srcVarMem,
+            MemoryCMARW dstFixMem,
+            MemoryCMARW dstVarMem,
+            long newColumnTop,
+            long oldColumnTop,
+            int columnType
+    ) {
+        assert newColumnTop <= oldColumnTop || oldColumnTop < 0;
+
+        final int shl = getFixedColumnSize(columnType);
+
+        if (oldColumnTop == -1 && prevRow > 0) {
+            // Column did not exist at the partition
+            fillUpdatesGapWithNull(columnType, prevRow, maxRow, dstFixMem, dstVarMem, shl);
+        }
+
+        if (oldColumnTop == 0) {
+            // Column fully exists in the partition
+            copyValues(
+                    prevRow,
+                    maxRow,
+                    srcFixMem,
+                    srcVarMem,
+                    dstFixMem,
+                    dstVarMem,
+                    columnType,
+                    shl
+            );
+        }
+
+        if (oldColumnTop > 0) {
+            if (prevRow >= oldColumnTop) {
+                copyValues(
+                        prevRow - oldColumnTop,
+                        maxRow - oldColumnTop,
+                        srcFixMem,
+                        srcVarMem, dstFixMem,
+                        dstVarMem,
+                        columnType,
+                        shl
+                );
+            } else {
+                // prevRow < oldColumnTop
+                if (maxRow <= oldColumnTop) {
+                    if (prevRow > 0) {
+                        fillUpdatesGapWithNull(
+                                columnType,
+                                prevRow,
+                                maxRow,
+                                dstFixMem,
+                                dstVarMem,
+                                shl
+                        );
+                    }
+                } else {
+                    // prevRow < oldColumnTop &&  oldColumnTop < maxRow
+                    if (prevRow > newColumnTop) {
+                        fillUpdatesGapWithNull(
+                                columnType,
+                                prevRow,
+                                oldColumnTop,
+                                dstFixMem,
+                                dstVarMem,
+                                shl
+                        );
+                    }
+                    copyValues(
+                            0,
+                            maxRow - oldColumnTop,
+                            srcFixMem,
+                            srcVarMem,
+                            dstFixMem,
+                            dstVarMem,
+                            columnType,
+                            shl
+                    );
+                }
+            }
+        }
+    }
+
+    private static void copyValues(
+            long fromRowId,
+            long toRowId,
+            MemoryCMR srcFixMem,
+            MemoryCMR srcVarMem,
+            MemoryCMARW dstFixMem,
+            MemoryCMARW dstVarMem,
+            int columnType,
+            int shl
+    ) {
+        long address = srcFixMem.addressOf(fromRowId << shl);
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.STRING:
+            case ColumnType.BINARY:
+                long varStartOffset = srcFixMem.getLong(fromRowId * Long.BYTES);
+                long varEndOffset = srcFixMem.getLong((toRowId) * Long.BYTES);
+                long varAddress = srcVarMem.addressOf(varStartOffset);
+                long copyToOffset = dstVarMem.getAppendOffset();
+                dstVarMem.putBlockOfBytes(varAddress, varEndOffset - varStartOffset);
+                dstFixMem.extend((toRowId + 1) << shl);
+                Vect.shiftCopyFixedSizeColumnData(
+                        varStartOffset - copyToOffset,
+                        address + Long.BYTES,
+                        0,
+                        toRowId - fromRowId - 1,
+                        dstFixMem.getAppendAddress()
+                );
+                dstFixMem.jumpTo((toRowId + 1) << shl);
+                break;
+            default:
+                dstFixMem.putBlockOfBytes(address, (toRowId - fromRowId) << shl);
+                break;
+        }
+    }
+
     private static void fillUpdatesGapWithNull(
             int columnType,
             long fromRow, // inclusive
@@ -280,7 +411,7 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
             MemoryCMARW dstVarMem,
             int shl
     ) {
-        final short columnTag = ColumnType.tagOf(columnType);
+        final short columnTag = ColumnType.storageTagOf(columnType);
         switch (columnTag) {
             case ColumnType.STRING:
                 for (long row = fromRow; row < toRow; row++) {
@@ -329,7 +460,35 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
         }
     }
 
+    private PartitionUpdate acquirePartitionUpdate(RecordMetadata metadata, int columnCount) {
+        checkPartitionUpdateErrors();
+        PartitionUpdate partitionUpdate = null;
+        // recycle partitions the workers are done with to keep the number of objects
+        // proportional to the queue capacity rather than to the number of partitions
+        for (int i = 0, n = activePartitionUpdates.size(); i < n; i++) {
+            final PartitionUpdate activeUpdate = activePartitionUpdates.getQuick(i);
+            if (activeUpdate.done) {
+                activePartitionUpdates.remove(i);
+                activeUpdate.reset();
+                partitionUpdate = activeUpdate;
+                break;
+            }
+        }
+        if (partitionUpdate == null) {
+            final int n = partitionUpdatePool.size();
+            if (n > 0) {
+                partitionUpdate = partitionUpdatePool.getQuick(n - 1);
+                partitionUpdatePool.setPos(n - 1);
+            } else {
+                partitionUpdate = new PartitionUpdate();
+            }
+        }
+        partitionUpdate.configureColumns(metadata, columnCount);
+        return partitionUpdate;
+    }
+
     private void appendRowUpdate(
+            PartitionUpdate partitionUpdate,
             int rowPartitionIndex,
             int affectedColumnCount,
             long prevRow,
@@ -339,6 +498,8 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
     ) {
         final TableRecordMetadata tableMetadata = tableWriter.getMetadata();
         final long partitionTimestamp = tableWriter.getPartitionTimestamp(rowPartitionIndex);
+        final ObjList<MemoryCMR> srcColumns = partitionUpdate.srcColumns;
+        final ObjList<MemoryCMARW> dstColumns = partitionUpdate.dstColumns;
         for (int i = 0; i < affectedColumnCount; i++) {
             MemoryCMR srcFixMem = srcColumns.get(2 * i);
             MemoryCMARW dstFixMem = dstColumns.get(2 * i);
@@ -416,10 +577,19 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
                     );
                     break;
                 case ColumnType.STRING:
-                    dstFixMem.putLong(dstVarMem.putStr(masterRecord.getStr(i)));
+                    if (ColumnType.isVarchar(columnType)) {
+                        dstFixMem.putLong(Varchars.append(dstVarMem, masterRecord.getStr(i)));
+                    } else {
+                        dstFixMem.putLong(dstVarMem.putStr(masterRecord.getStr(i)));
+                    }
                     break;
                 case ColumnType.BINARY:
-                    dstFixMem.putLong(dstVarMem.putBin(masterRecord.getBin(i)));
+                    if (ColumnType.isDoubleArray(columnType) && ColumnType.isString(updateValueTypes.getQuick(i))) {
+                        // arrays can be set from their text form
+                        dstFixMem.putLong(DoubleArrays.append(dstVarMem, masterRecord.getStr(i)));
+                    } else {
+                        dstFixMem.putLong(dstVarMem.putBin(masterRecord.getBin(i)));
+                    }
                     break;
                 case ColumnType.LONG128:
                     // fall-through
@@ -435,177 +605,76 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
         }
     }
 
-    private void configureColumns(RecordMetadata metadata, int columnCount) {
-        for (int i = dstColumns.size(); i < columnCount; i++) {
-            int columnType = metadata.getColumnType(updateColumnIndexes.get(i));
-            switch (columnType) {
-                default:
-                    srcColumns.add(Vm.getCMRInstance());
-                    srcColumns.add(null);
-                    dstColumns.add(Vm.getCMARWInstance());
-                    dstColumns.add(null);
-                    break;
-                case ColumnType.STRING:
-                case ColumnType.BINARY:
-                    // Primary and secondary
-                    srcColumns.add(Vm.getCMRInstance());
-                    srcColumns.add(Vm.getCMRInstance());
-                    dstColumns.add(Vm.getCMARWInstance());
-                    dstColumns.add(Vm.getCMARWInstance());
-                    break;
+    private void awaitPartitionUpdates() {
+        // This is work stealing, can run partition updates of other tables
+        final RingQueue<UpdatePartitionTask> queue = messageBus.getUpdatePartitionQueue();
+        final Sequence subSeq = messageBus.getUpdatePartitionSubSeq();
+        while (!partitionUpdateDoneLatch.done(queuedPartitionUpdateCount)) {
+            long cursor = subSeq.next();
+            if (cursor > -1) {
+                UpdatePartitionJob.runPartitionUpdate(queue.get(cursor), cursor, subSeq);
+            } else if (cursor == -1) {
+                partitionUpdateDoneLatch.await(queuedPartitionUpdateCount);
+            } else {
+                Os.pause();
             }
         }
     }
 
-    private void copyColumn(
-            long prevRow,
-            long maxRow,
-            MemoryCMR srcFixMem,
-            MemoryCMR srcVarMem,
-            MemoryCMARW dstFixMem,
-            MemoryCMARW dstVarMem,
-            long newColumnTop,
-            long oldColumnTop,
-            int columnType
-    ) {
-        assert newColumnTop <= oldColumnTop || oldColumnTop < 0;
-
-        final int shl = getFixedColumnSize(columnType);
-
-        if (oldColumnTop == -1 && prevRow > 0) {
-            // Column did not exist at the partition
-            fillUpdatesGapWithNull(columnType, prevRow, maxRow, dstFixMem, dstVarMem, shl);
-        }
-
-        if (oldColumnTop == 0) {
-            // Column fully exists in the partition
-            copyValues(
-                    prevRow,
-                    maxRow,
-                    srcFixMem,
-                    srcVarMem,
-                    dstFixMem,
-                    dstVarMem,
-                    columnType,
-                    shl
-            );
+    private void checkPartitionUpdateErrors() {
+        for (int i = 0, n = activePartitionUpdates.size(); i < n; i++) {
+            final PartitionUpdate partitionUpdate = activePartitionUpdates.getQuick(i);
+            if (partitionUpdate.done && partitionUpdate.failed) {
+                throw CairoException.critical(partitionUpdate.errno)
+                        .put("could not update partition [table=").put(tableWriter.getTableToken().getTableName())
+                        .put(", partitionTimestamp=").ts(partitionUpdate.partitionTimestamp)
+                        .put(", msg=").put(partitionUpdate.errorMessage)
+                        .put(']');
+            }
         }
+    }
 
-        if (oldColumnTop > 0) {
-            if (prevRow >= oldColumnTop) {
-                copyValues(
-                        prevRow - oldColumnTop,
-                        maxRow - oldColumnTop,
-                        srcFixMem,
-                        srcVarMem, dstFixMem,
-                        dstVarMem,
-                        columnType,
-                        shl
-                );
-            } else {
-                // prevRow < oldColumnTop
-                if (maxRow <= oldColumnTop) {
-                    if (prevRow > 0) {
-                        fillUpdatesGapWithNull(
-                                columnType,
-                                prevRow,
-                                maxRow,
-                                dstFixMem,
-                                dstVarMem,
-                                shl
-                        );
-                    }
-                } else {
-                    // prevRow < oldColumnTop &&  oldColumnTop < maxRow
-                    if (prevRow > newColumnTop) {
-                        fillUpdatesGapWithNull(
-                                columnType,
-                                prevRow,
-                                oldColumnTop,
-                                dstFixMem,
-                                dstVarMem,
-                                shl
-                        );
-                    }
-                    copyValues(
-                            0,
-                            maxRow - oldColumnTop,
-                            srcFixMem,
-                            srcVarMem,
-                            dstFixMem,
-                            dstVarMem,
-                            columnType,
-                            shl
-                    );
-                }
-            }
+    private void dispatchPartitionUpdate(PartitionUpdate partitionUpdate) {
+        activePartitionUpdates.add(partitionUpdate);
+        final Sequence pubSeq = messageBus.getUpdatePartitionPubSeq();
+        long cursor = pubSeq.next();
+        if (cursor > -1) {
+            messageBus.getUpdatePartitionQueue().get(cursor).of(partitionUpdateDoneLatch, partitionUpdate);
+            queuedPartitionUpdateCount++;
+            pubSeq.done(cursor);
+        } else {
+            // queue is full, do the work ourselves
+            partitionUpdate.run();
         }
     }
 
-    private void copyColumns(int partitionIndex, int affectedColumnCount, long prevRow, long minRow) {
-        final TableRecordMetadata tableMetadata = tableWriter.getMetadata();
+    private void finishPartition(
+            PartitionUpdate partitionUpdate,
+            int partitionIndex,
+            int affectedColumnCount,
+            long prevRow,
+            long minRow,
+            boolean hasIndexedColumns
+    ) {
         final long partitionTimestamp = tableWriter.getPartitionTimestamp(partitionIndex);
-        final long maxRow = tableWriter.getPartitionSize(partitionIndex);
+        partitionUpdate.ofCopy(partitionTimestamp, prevRow, tableWriter.getPartitionSize(partitionIndex), minRow);
         for (int i = 0; i < affectedColumnCount; i++) {
-            MemoryCMR srcFixMem = srcColumns.get(2 * i);
-            MemoryCMR srcVarMem = srcColumns.get(2 * i + 1);
-            MemoryCMARW dstFixMem = dstColumns.get(2 * i);
-            MemoryCMARW dstVarMem = dstColumns.get(2 * i + 1);
-
-            final int columnIndex = updateColumnIndexes.getQuick(i);
-            final long oldColumnTop = tableWriter.getColumnTop(partitionTimestamp, columnIndex, -1);
-            final long newColumnTop = calculatedEffectiveColumnTop(minRow, oldColumnTop);
-            final int columnType = tableMetadata.getColumnType(columnIndex);
-
-            if (maxRow > prevRow) {
-                copyColumn(
-                        prevRow,
-                        maxRow,
-                        srcFixMem,
-                        srcVarMem,
-                        dstFixMem,
-                        dstVarMem,
-                        newColumnTop,
-                        oldColumnTop,
-                        columnType
-                );
-            }
+            // workers must not read column versions while this thread keeps changing them
+            partitionUpdate.columnTops.add(tableWriter.getColumnTop(partitionTimestamp, updateColumnIndexes.getQuick(i), -1));
         }
-    }
 
-    private void copyValues(
-            long fromRowId,
-            long toRowId,
-            MemoryCMR srcFixMem,
-            MemoryCMR srcVarMem,
-            MemoryCMARW dstFixMem,
-            MemoryCMARW dstVarMem,
-            int columnType,
-            int shl
-    ) {
-        long address = srcFixMem.addressOf(fromRowId << shl);
-        switch (ColumnType.tagOf(columnType)) {
-            case ColumnType.STRING:
-            case ColumnType.BINARY:
-                long varStartOffset = srcFixMem.getLong(fromRowId * Long.BYTES);
-                long varEndOffset = srcFixMem.getLong((toRowId) * Long.BYTES);
-                long varAddress = srcVarMem.addressOf(varStartOffset);
-                long copyToOffset = dstVarMem.getAppendOffset();
-                dstVarMem.putBlockOfBytes(varAddress, varEndOffset - varStartOffset);
-                dstFixMem.extend((toRowId + 1) << shl);
-                Vect.shiftCopyFixedSizeColumnData(
-                        varStartOffset - copyToOffset,
-                        address + Long.BYTES,
-                        0,
-                        toRowId - fromRowId - 1,
-                        dstFixMem.getAppendAddress()
-                );
-                dstFixMem.jumpTo((toRowId + 1) << shl);
-                break;
-            default:
-                dstFixMem.putBlockOfBytes(address, (toRowId - fromRowId) << shl);
-                break;
+        updateEffectiveColumnTops(
+                tableWriter,
+                partitionIndex,
+                updateColumnIndexes,
+                affectedColumnCount,
+                minRow
+        );
+
+        if (hasIndexedColumns) {
+            reindexPartitionTimestamps.add(partitionTimestamp);
         }
+        dispatchPartitionUpdate(partitionUpdate);
     }
 
     private void openColumns(ObjList<? extends MemoryCM> columns, int partitionIndex, boolean forWrite) {
@@ -686,21 +755,172 @@ public class UpdateOperatorImpl implements QuietCloseable, UpdateOperator {
         }
     }
 
-    private void rebuildIndexes(
-            long partitionTimestamp,
-            TableRecordMetadata tableMetadata,
-            TableWriter tableWriter
-    ) {
-        int pathTrimToLen = path.length();
-        indexBuilder.of(path.trimTo(rootLen));
-        for (int i = 0, n = updateColumnIndexes.size(); i < n; i++) {
-            int columnIndex = updateColumnIndexes.get(i);
-            if (tableMetadata.isColumnIndexed(columnIndex)) {
-                CharSequence colName = tableMetadata.getColumnName(columnIndex);
-                indexBuilder.reindexAfterUpdate(ff, partitionTimestamp, colName, tableWriter);
+    private void releasePartitionUpdates() {
+        for (int i = 0, n = activePartitionUpdates.size(); i < n; i++) {
+            final PartitionUpdate partitionUpdate = activePartitionUpdates.getQuick(i);
+            partitionUpdate.reset();
+            partitionUpdatePool.add(partitionUpdate);
+        }
+        activePartitionUpdates.clear();
+        partitionUpdateDoneLatch.reset();
+        queuedPartitionUpdateCount = 0;
+    }
+
+    /**
+     * Work left in a partition once the UPDATE cursor has moved past it. The partition is either
+     * copied from the last updated row to the end of the partition, or its indexes of the updated columns
+     * are rebuilt. Everything the worker thread needs, including column tops, is captured by the thread
+     * running the UPDATE before the task is published.
+     */
+    public class PartitionUpdate implements QuietCloseable, Mutable {
+        private final LongList columnTops = new LongList();
+        private final ObjList<MemoryCMARW> dstColumns = new ObjList<>();
+        private final StringSink errorMessage = new StringSink();
+        private final ObjList<MemoryCMR> srcColumns = new ObjList<>();
+        private volatile boolean done;
+        private int errno;
+        private boolean failed;
+        private IndexBuilder indexBuilder;
+        private long maxRow;
+        private long minRow;
+        private long partitionTimestamp;
+        private long prevRow;
+        private boolean reindex;
+
+        @Override
+        public void clear() {
+            reset();
+            Misc.freeObjListAndClear(srcColumns);
+            Misc.freeObjListAndClear(dstColumns);
+        }
+
+        @Override
+        public void close() {
+            clear();
+            indexBuilder = Misc.free(indexBuilder);
+        }
+
+        public void run() {
+            try {
+                if (reindex) {
+                    rebuildIndexes();
+                } else {
+                    copyColumns();
+                }
+            } catch (Throwable th) {
+                LOG.error().$("could not update partition [table=").$(tableWriter.getTableToken())
+                        .$(", partitionTimestamp=").$ts(partitionTimestamp)
+                        .$(", e=").$(th)
+                        .I$();
+                if (th instanceof CairoException) {
+                    errno = ((CairoException) th).getErrno();
+                    errorMessage.put(((CairoException) th).getFlyweightMessage());
+                } else {
+                    errorMessage.put(th.getClass().getName()).put(": ").put(th.getMessage());
+                }
+                failed = true;
+            } finally {
+                done = true;
+            }
+        }
+
+        private void configureColumns(RecordMetadata metadata, int columnCount) {
+            for (int i = dstColumns.size() / 2; i < columnCount; i++) {
+                int columnType = metadata.getColumnType(updateColumnIndexes.get(i));
+                switch (columnType) {
+                    default:
+                        srcColumns.add(Vm.getCMRInstance());
+                        srcColumns.add(null);
+                        dstColumns.add(Vm.getCMARWInstance());
+                        dstColumns.add(null);
+                        break;
+                    case ColumnType.STRING:
+                    case ColumnType.BINARY:
+                    case ColumnType.VARCHAR:
+                    case ColumnType.DOUBLE_ARRAY:
+                        // Primary and secondary
+                        srcColumns.add(Vm.getCMRInstance());
+                        srcColumns.add(Vm.getCMRInstance());
+                        dstColumns.add(Vm.getCMARWInstance());
+                        dstColumns.add(Vm.getCMARWInstance());
+                        break;
+                }
+            }
+        }
+
+        private void copyColumns() {
+            final TableRecordMetadata tableMetadata = tableWriter.getMetadata();
+            try {
+                for (int i = 0, n = columnTops.size(); i < n; i++) {
+                    MemoryCMR srcFixMem = srcColumns.get(2 * i);
+                    MemoryCMR srcVarMem = srcColumns.get(2 * i + 1);
+                    MemoryCMARW dstFixMem = dstColumns.get(2 * i);
+                    MemoryCMARW dstVarMem = dstColumns.get(2 * i + 1);
+
+                    final long oldColumnTop = columnTops.getQuick(i);
+                    final long newColumnTop = calculatedEffectiveColumnTop(minRow, oldColumnTop);
+                    final int columnType = tableMetadata.getColumnType(updateColumnIndexes.getQuick(i));
+
+                    if (maxRow > prevRow) {
+                        copyColumn(
+                                prevRow,
+                                maxRow,
+                                srcFixMem,
+                                srcVarMem,
+                                dstFixMem,
+                                dstVarMem,
+                                newColumnTop,
+                                oldColumnTop,
+                                columnType
+                        );
+                    }
+                }
+            } finally {
+                Misc.freeObjListAndKeepObjects(srcColumns);
+                Misc.freeObjListAndKeepObjects(dstColumns);
+            }
+        }
+
+        private void ofCopy(long partitionTimestamp, long prevRow, long maxRow, long minRow) {
+            this.reindex = false;
+            this.partitionTimestamp = partitionTimestamp;
+            this.prevRow = prevRow;
+            this.maxRow = maxRow;
+            this.minRow = minRow;
+        }
+
+        private void ofReindex(long partitionTimestamp) {
+            this.reindex = true;
+            this.partitionTimestamp = partitionTimestamp;
+            if (indexBuilder == null) {
+                indexBuilder = new IndexBuilder(configuration);
+            }
+            indexBuilder.of(path.trimTo(rootLen));
+        }
+
+        private void rebuildIndexes() {
+            final TableRecordMetadata tableMetadata = tableWriter.getMetadata();
+            try {
+                for (int i = 0, n = updateColumnIndexes.size(); i < n; i++) {
+                    int columnIndex = updateColumnIndexes.get(i);
+                    if (tableMetadata.isColumnIndexed(columnIndex)) {
+                        CharSequence colName = tableMetadata.getColumnName(columnIndex);
+                        indexBuilder.reindexAfterUpdate(ff, partitionTimestamp, colName, tableWriter);
+                    }
+                }
+            } finally {
+                indexBuilder.clear();
             }
         }
-        indexBuilder.clear();
-        path.trimTo(pathTrimToLen);
+
+        private void reset() {
+            Misc.freeObjListAndKeepObjects(srcColumns);
+            Misc.freeObjListAndKeepObjects(dstColumns);
+            columnTops.clear();
+            errorMessage.clear();
+            errno = 0;
+            failed = false;
+            done = false;
+        }
     }
 }
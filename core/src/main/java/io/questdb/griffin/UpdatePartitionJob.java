@@ -0,0 +1,61 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin;
+
+import io.questdb.MessageBus;
+import io.questdb.mp.AbstractQueueConsumerJob;
+import io.questdb.mp.CountDownLatchSPI;
+import io.questdb.mp.Sequence;
+import io.questdb.tasks.UpdatePartitionTask;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finishes partitions rewritten by UPDATE: copies the rows past the last updated one
+ * and rebuilds indexes of the updated columns. Tasks are published by {@link UpdateOperatorImpl},
+ * which also runs them itself while it waits for the workers.
+ */
+public class UpdatePartitionJob extends AbstractQueueConsumerJob<UpdatePartitionTask> {
+    public UpdatePartitionJob(MessageBus messageBus) {
+        super(messageBus.getUpdatePartitionQueue(), messageBus.getUpdatePartitionSubSeq());
+    }
+
+    public static void runPartitionUpdate(UpdatePartitionTask task, long cursor, @NotNull Sequence subSeq) {
+        final UpdateOperatorImpl.PartitionUpdate partitionUpdate = task.getPartitionUpdate();
+        final CountDownLatchSPI countDownLatchSPI = task.getCountDownLatchSPI();
+        subSeq.done(cursor);
+
+        try {
+            partitionUpdate.run();
+        } finally {
+            countDownLatchSPI.countDown();
+        }
+    }
+
+    @Override
+    protected boolean doRun(int workerId, long cursor, RunStatus runStatus) {
+        runPartitionUpdate(queue.get(cursor), cursor, subSeq);
+        return true;
+    }
+}
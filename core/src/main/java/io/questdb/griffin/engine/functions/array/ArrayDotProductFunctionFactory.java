@@ -0,0 +1,79 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.array;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.DoubleArrays;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+
+public class ArrayDotProductFunctionFactory implements FunctionFactory {
+    @Override
+    public String getSignature() {
+        return "array_dot(UU)";
+    }
+
+    @Override
+    public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) {
+        return new DotProductFunction(args.getQuick(0), args.getQuick(1));
+    }
+
+    private static class DotProductFunction extends DoubleFunction implements BinaryFunction {
+        private final Function left;
+        private final Function right;
+
+        public DotProductFunction(Function left, Function right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public double getDouble(Record rec) {
+            return DoubleArrays.dot(left.getBin(rec), right.getBin(rec));
+        }
+
+        @Override
+        public Function getLeft() {
+            return left;
+        }
+
+        @Override
+        public String getName() {
+            return "array_dot";
+        }
+
+        @Override
+        public Function getRight() {
+            return right;
+        }
+    }
+}
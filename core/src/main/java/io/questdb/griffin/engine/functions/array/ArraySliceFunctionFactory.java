@@ -0,0 +1,151 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.functions.array;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.DoubleArrays;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BinFunction;
+import io.questdb.griffin.engine.functions.TernaryFunction;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.IntList;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.Vect;
+
+// Elements of DOUBLE[] value between lo and hi, both 1-based and inclusive as in PostgreSQL arr[lo:hi].
+// The slice is a view over the source value, elements are not copied.
+public class ArraySliceFunctionFactory implements FunctionFactory {
+    @Override
+    public String getSignature() {
+        return "array_slice(UII)";
+    }
+
+    @Override
+    public Function newInstance(int position, ObjList<Function> args, IntList argPositions, CairoConfiguration configuration, SqlExecutionContext sqlExecutionContext) {
+        return new SliceFunction(args.getQuick(0), args.getQuick(1), args.getQuick(2));
+    }
+
+    private static class SliceFunction extends BinFunction implements TernaryFunction {
+        private final Function arrayFunction;
+        private final Function hiFunction;
+        private final Function loFunction;
+        private final SliceView view = new SliceView();
+
+        public SliceFunction(Function arrayFunction, Function loFunction, Function hiFunction) {
+            this.arrayFunction = arrayFunction;
+            this.loFunction = loFunction;
+            this.hiFunction = hiFunction;
+        }
+
+        @Override
+        public BinarySequence getBin(Record rec) {
+            final BinarySequence array = arrayFunction.getBin(rec);
+            if (array == null) {
+                return null;
+            }
+            final int count = DoubleArrays.getCount(array);
+            int lo = loFunction.getInt(rec);
+            int hi = hiFunction.getInt(rec);
+            lo = lo == Numbers.INT_NaN ? 1 : Math.max(lo, 1);
+            hi = hi == Numbers.INT_NaN ? count : Math.min(hi, count);
+            return view.of(array, (long) (lo - 1) << 3, hi < lo ? 0 : (long) (hi - lo + 1) << 3);
+        }
+
+        @Override
+        public long getBinLen(Record rec) {
+            final BinarySequence slice = getBin(rec);
+            return slice != null ? slice.length() : -1;
+        }
+
+        @Override
+        public Function getCenter() {
+            return loFunction;
+        }
+
+        @Override
+        public Function getLeft() {
+            return arrayFunction;
+        }
+
+        @Override
+        public String getName() {
+            return "array_slice";
+        }
+
+        @Override
+        public Function getRight() {
+            return hiFunction;
+        }
+
+        @Override
+        public boolean isReadThreadSafe() {
+            return false;
+        }
+    }
+
+    private static class SliceView implements BinarySequence {
+        private BinarySequence array;
+        private long len;
+        private long offset;
+
+        @Override
+        public byte byteAt(long index) {
+            return array.byteAt(offset + index);
+        }
+
+        @Override
+        public void copyTo(long address, long start, long length) {
+            final long arrayAddress = array.getAddress();
+            if (arrayAddress != 0) {
+                Vect.memcpy(address, arrayAddress + offset + start, Math.min(length, len - start));
+            } else {
+                BinarySequence.super.copyTo(address, start, length);
+            }
+        }
+
+        @Override
+        public long getAddress() {
+            final long arrayAddress = array.getAddress();
+            return arrayAddress != 0 ? arrayAddress + offset : 0;
+        }
+
+        @Override
+        public long length() {
+            return len;
+        }
+
+        SliceView of(BinarySequence array, long offset, long len) {
+            this.array = array;
+            this.offset = offset;
+            this.len = len;
+            return this;
+        }
+    }
+}
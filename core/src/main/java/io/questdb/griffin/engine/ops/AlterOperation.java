@@ -54,6 +54,7 @@ public class AlterOperation extends AbstractOperation implements Mutable {
     public final static short RENAME_COLUMN = 9;
     public final static short SET_PARAM_COMMIT_LAG = 11;
     public final static short SET_PARAM_MAX_UNCOMMITTED_ROWS = 10;
+    public final static short SET_PARAM_TTL = 13;
     private final static Log LOG = LogFactory.getLog(AlterOperation.class);
     private final DirectCharSequenceList directExtraStrInfo = new DirectCharSequenceList();
     // This is only used to serialize partition name in form 2020-02-12 or 2020-02 or 2020
@@ -122,6 +123,9 @@ public class AlterOperation extends AbstractOperation implements Mutable {
                 case SET_PARAM_COMMIT_LAG:
                     applyParamO3MaxLag(svc);
                     break;
+                case SET_PARAM_TTL:
+                    applyParamTtl(svc);
+                    break;
                 default:
                     LOG.error()
                             .$("invalid alter table command [code=").$(command)
@@ -276,9 +280,9 @@ public class AlterOperation extends AbstractOperation implements Mutable {
             sink.putLong(extraInfo.getQuick(i));
         }
 
-        sink.putInt(extraStrInfo.size());
-        for (int i = 0, n = extraStrInfo.size(); i < n; i++) {
-            sink.putStr(extraStrInfo.getStrA(i));
+        sink.putInt(activeExtraStrInfo.size());
+        for (int i = 0, n = activeExtraStrInfo.size(); i < n; i++) {
+            sink.putStr(activeExtraStrInfo.getStrA(i));
         }
     }
 
@@ -401,6 +405,16 @@ public class AlterOperation extends AbstractOperation implements Mutable {
         }
     }
 
+    private void applyParamTtl(MetadataService svc) {
+        long ttl = extraInfo.get(0);
+        try {
+            svc.setMetaTtl(ttl);
+        } catch (CairoException e) {
+            e.position(tableNamePosition);
+            throw e;
+        }
+    }
+
     private void applyParamUncommittedRows(MetadataService svc) {
         int maxUncommittedRows = (int) extraInfo.get(0);
         try {
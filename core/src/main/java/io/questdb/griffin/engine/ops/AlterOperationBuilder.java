@@ -214,6 +214,15 @@ public class AlterOperationBuilder {
         return this;
     }
 
+    public AlterOperationBuilder ofSetParamTtl(int tableNamePosition, TableToken tableToken, int tableId, long ttl) {
+        this.command = SET_PARAM_TTL;
+        this.tableNamePosition = tableNamePosition;
+        this.tableToken = tableToken;
+        this.extraInfo.add(ttl);
+        this.tableId = tableId;
+        return this;
+    }
+
     public AlterOperationBuilder ofSetParamUncommittedRows(int tableNamePosition, TableToken tableToken, int tableId, int maxUncommittedRows) {
         this.command = SET_PARAM_MAX_UNCOMMITTED_ROWS;
         this.tableNamePosition = tableNamePosition;
@@ -25,6 +25,8 @@
 package io.questdb.griffin.engine.table;
 
 import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.PartitionScanCounter;
 import io.questdb.cairo.TableReader;
 import io.questdb.cairo.sql.*;
 import io.questdb.cairo.vm.NullMemoryMR;
@@ -33,6 +35,7 @@ import io.questdb.std.*;
 import org.jetbrains.annotations.Nullable;
 
 public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
+    private final ColdPartitionScan coldPartitionScan;
     private final int columnCount;
     private final IntList columnIndexes;
     private final LongList columnPageAddress = new LongList();
@@ -55,6 +58,8 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
     private long reenterPartitionLo;
 
     public BwdTableReaderPageFrameCursor(
+            CairoConfiguration configuration,
+            PartitionScanCounter scanCounter,
             IntList columnIndexes,
             IntList columnSizes,
             int workerCount,
@@ -67,10 +72,14 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
         this.workerCount = workerCount;
         this.pageFrameMinRows = pageFrameMinRows;
         this.pageFrameMaxRows = pageFrameMaxRows;
+        this.coldPartitionScan = new ColdPartitionScan(configuration, scanCounter, columnIndexes);
     }
 
     @Override
     public void close() {
+        if (dataFrameCursor != null) {
+            coldPartitionScan.release();
+        }
         dataFrameCursor = Misc.free(dataFrameCursor);
     }
 
@@ -97,6 +106,7 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
         DataFrame dataFrame = dataFrameCursor.next();
         if (dataFrame != null) {
             reenterPartitionIndex = dataFrame.getPartitionIndex();
+            coldPartitionScan.onPartition(reenterPartitionIndex);
             final long lo = dataFrame.getRowLo();
             final long hi = dataFrame.getRowHi();
             currentPageFrameRowLimit = Math.min(
@@ -111,6 +121,7 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
     public BwdTableReaderPageFrameCursor of(DataFrameCursor dataFrameCursor) {
         this.dataFrameCursor = dataFrameCursor;
         reader = dataFrameCursor.getTableReader();
+        coldPartitionScan.of(reader);
         toTop();
         return this;
     }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.PartitionBy;
+import io.questdb.cairo.PartitionScanCounter;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.vm.api.MemoryMR;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.IntList;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+
+/**
+ * Keeps scans of historical data from evicting the hot part of the page cache. A partition is cold when
+ * its whole time range is older than cairo.sql.cold.partition.age. Columns of cold partitions are advised
+ * for sequential access when the scan enters the partition, the kernel reads them ahead aggressively and
+ * reclaims the pages they occupy before the pages of other files. When the scan leaves a cold partition, the
+ * pages of its columns are dropped from the page cache, unless another scan is still in the partition.
+ */
+class ColdPartitionScan {
+    private final MicrosecondClock clock;
+    private final long coldPartitionAge;
+    private final IntList columnIndexes;
+    private final FilesFacade ff;
+    // number of scans in each cold partition, shared by the scans of the engine
+    private final PartitionScanCounter scanCounter;
+    private PartitionBy.PartitionCeilMethod ceilMethod;
+    private int coldPartitionIndex = -1;
+    private long coldTimestampHi;
+    private TableReader reader;
+
+    ColdPartitionScan(CairoConfiguration configuration, PartitionScanCounter scanCounter, IntList columnIndexes) {
+        this.scanCounter = scanCounter;
+        this.clock = configuration.getMicrosecondClock();
+        this.coldPartitionAge = configuration.getSqlColdPartitionAge();
+        this.columnIndexes = columnIndexes;
+        this.ff = configuration.getFilesFacade();
+    }
+
+    void of(TableReader reader) {
+        this.reader = reader;
+        coldPartitionIndex = -1;
+        ceilMethod = coldPartitionAge > 0 ? PartitionBy.getPartitionCeilMethod(reader.getPartitionedBy()) : null;
+        coldTimestampHi = clock.getTicks() - coldPartitionAge;
+    }
+
+    void onPartition(int partitionIndex) {
+        if (ceilMethod != null && partitionIndex != coldPartitionIndex) {
+            release();
+            if (ceilMethod.ceil(reader.getPartitionTimestampByIndex(partitionIndex)) <= coldTimestampHi) {
+                coldPartitionIndex = partitionIndex;
+                scanCounter.enter(reader.getMetadata().getTableId(), reader.getPartitionTimestampByIndex(partitionIndex));
+                advise(partitionIndex, true);
+            }
+        }
+    }
+
+    void release() {
+        if (coldPartitionIndex > -1) {
+            if (scanCounter.leave(reader.getMetadata().getTableId(), reader.getPartitionTimestampByIndex(coldPartitionIndex))) {
+                advise(coldPartitionIndex, false);
+            }
+            coldPartitionIndex = -1;
+        }
+    }
+
+    private void advise(MemoryR column, boolean scanStart) {
+        if (column instanceof MemoryMR) {
+            final MemoryMR mem = (MemoryMR) column;
+            final long size = mem.size();
+            if (mem.getFd() > -1 && size > 0) {
+                if (scanStart) {
+                    ff.madvise(mem.getPageAddress(0), size, Files.POSIX_MADV_SEQUENTIAL);
+                } else {
+                    ff.madvise(mem.getPageAddress(0), size, Files.POSIX_MADV_NORMAL);
+                    ff.fadvise(mem.getFd(), 0, size, Files.POSIX_FADV_DONTNEED);
+                }
+            }
+        }
+    }
+
+    private void advise(int partitionIndex, boolean scanStart) {
+        final int base = reader.getColumnBase(partitionIndex);
+        for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+            final int columnIndex = columnIndexes.getQuick(i);
+            final int primaryIndex = TableReader.getPrimaryColumnIndex(base, columnIndex);
+            advise(reader.getColumn(primaryIndex), scanStart);
+            if (ColumnType.isVariableLength(reader.getMetadata().getColumnType(columnIndex))) {
+                advise(reader.getColumn(primaryIndex + 1), scanStart);
+            }
+        }
+    }
+}
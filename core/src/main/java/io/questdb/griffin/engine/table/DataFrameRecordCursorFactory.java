@@ -171,6 +171,8 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
     ) {
         if (bwdPageFrameCursor == null) {
             bwdPageFrameCursor = new BwdTableReaderPageFrameCursor(
+                    executionContext.getCairoEngine().getConfiguration(),
+                    executionContext.getCairoEngine().getPartitionScanCounter(),
                     columnIndexes,
                     columnSizes,
                     executionContext.getSharedWorkerCount(),
@@ -187,6 +189,8 @@ public class DataFrameRecordCursorFactory extends AbstractDataFrameRecordCursorF
     ) {
         if (fwdPageFrameCursor == null) {
             fwdPageFrameCursor = new FwdTableReaderPageFrameCursor(
+                    executionContext.getCairoEngine().getConfiguration(),
+                    executionContext.getCairoEngine().getPartitionScanCounter(),
                     columnIndexes,
                     columnSizes,
                     executionContext.getSharedWorkerCount(),
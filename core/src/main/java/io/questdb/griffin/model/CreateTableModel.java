@@ -47,6 +47,7 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
     private ExpressionNode partitionBy;
     private QueryModel queryModel;
     private ExpressionNode timestamp;
+    private long ttl;
     private CharSequence volumeAlias;
     private boolean walEnabled;
 
@@ -185,6 +186,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return timestamp == null ? -1 : getColumnIndex(timestamp.token);
     }
 
+    @Override
+    public long getTtl() {
+        return ttl;
+    }
+
     public CharSequence getVolumeAlias() {
         return volumeAlias;
     }
@@ -249,6 +255,10 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         this.timestamp = timestamp;
     }
 
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
     public void setVolumeAlias(CharSequence volumeAlias) {
         // set if the create table statement contains IN VOLUME 'volumeAlias'.
         // volumePath will be resolved by the compiler
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.str.CharSink;
+
+/**
+ * Read only gauge with one label, for stats whose label values are not known upfront,
+ * such as table names. Samples are supplied by the provider on every scrape.
+ */
+public class VirtualLongGaugeWithOneLabel implements Scrapable {
+    private final CharSequence labelName0;
+    private final CharSequence name;
+    private final SampleProvider provider;
+
+    public VirtualLongGaugeWithOneLabel(CharSequence name, CharSequence labelName0, SampleProvider provider) {
+        this.name = name;
+        this.labelName0 = labelName0;
+        this.provider = provider;
+    }
+
+    public void appendSample(CharSink sink, CharSequence labelValue0, long value) {
+        sink.put(PrometheusFormatUtils.METRIC_NAME_PREFIX);
+        sink.put(name);
+        sink.put('{');
+        PrometheusFormatUtils.appendLabel(sink, labelName0, labelValue0);
+        sink.put('}');
+        PrometheusFormatUtils.appendSampleLineSuffix(sink, value);
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(CharSink sink) {
+        sink.put(PrometheusFormatUtils.TYPE_PREFIX);
+        sink.put(name);
+        sink.put(" gauge\n");
+        provider.appendSamples(this, sink);
+        PrometheusFormatUtils.appendNewLine(sink);
+    }
+
+    @FunctionalInterface
+    public interface SampleProvider {
+        /**
+         * Appends samples to the sink, one {@link #appendSample(CharSink, CharSequence, long)} call per label value.
+         */
+        void appendSamples(VirtualLongGaugeWithOneLabel gauge, CharSink sink);
+    }
+}
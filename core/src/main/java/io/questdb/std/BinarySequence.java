@@ -42,5 +42,14 @@ public interface BinarySequence {
         }
     }
 
+    /**
+     * Address of the first byte when the sequence is backed by contiguous native memory.
+     *
+     * @return address or 0 when bytes are only available via {@link #byteAt(long)}
+     */
+    default long getAddress() {
+        return 0;
+    }
+
     long length();
 }
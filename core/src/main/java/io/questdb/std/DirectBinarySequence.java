@@ -39,6 +39,11 @@ public class DirectBinarySequence implements BinarySequence, Mutable {
         len = 0;
     }
 
+    @Override
+    public long getAddress() {
+        return address;
+    }
+
     @Override
     public long length() {
         return len;
@@ -33,11 +33,15 @@ public interface IOURing extends Closeable {
     @Override
     void close();
 
+    long enqueueFsync(int fd);
+
     @TestOnly
     long enqueueNop();
 
     long enqueueRead(int fd, long offset, long bufPtr, int len);
 
+    long enqueueWrite(int fd, long offset, long bufPtr, int len);
+
     long getCqeId();
 
     int getCqeRes();
@@ -91,6 +91,11 @@ public class IOURingImpl implements IOURing {
         closed = true;
     }
 
+    @Override
+    public long enqueueFsync(int fd) {
+        return enqueueSqe(IORING_OP_FSYNC, fd, 0, 0, 0);
+    }
+
     @Override
     @TestOnly
     public long enqueueNop() {
@@ -102,6 +107,11 @@ public class IOURingImpl implements IOURing {
         return enqueueSqe(IORING_OP_READ, fd, offset, bufAddr, len);
     }
 
+    @Override
+    public long enqueueWrite(int fd, long offset, long bufAddr, int len) {
+        return enqueueSqe(IORING_OP_WRITE, fd, offset, bufAddr, len);
+    }
+
     @Override
     public long getCqeId() {
         if (cachedIndex < cachedSize) {
@@ -50,6 +50,7 @@ open module io.questdb {
     exports io.questdb.cutlass.line.udp;
     exports io.questdb.cutlass.line.tcp;
     exports io.questdb.cutlass.pgwire;
+    exports io.questdb.cutlass.replication;
     exports io.questdb.cutlass.text;
     exports io.questdb.cutlass.text.types;
 
@@ -126,6 +127,12 @@ open module io.questdb {
             // [] operators
             io.questdb.griffin.engine.functions.array.StrArrayDereferenceFunctionFactory,
             io.questdb.griffin.engine.functions.array.IntArrayDereferenceHackFunctionFactory,
+            io.questdb.griffin.engine.functions.array.DoubleArrayDereferenceFunctionFactory,
+            // array functions
+            io.questdb.griffin.engine.functions.array.ArrayDotProductFunctionFactory,
+            io.questdb.griffin.engine.functions.array.ArrayLengthFunctionFactory,
+            io.questdb.griffin.engine.functions.array.ArraySliceFunctionFactory,
+            io.questdb.griffin.engine.functions.array.ArraySumFunctionFactory,
             // '=' operators
             io.questdb.griffin.engine.functions.eq.EqStrFunctionFactory,
             io.questdb.griffin.engine.functions.eq.EqByteFunctionFactory,
@@ -369,6 +369,10 @@ public abstract class AbstractCairoTest extends AbstractTest {
         node1.getConfigurationOverrides().setSampleByIndexSearchPageSize(sampleByIndexSearchPageSize);
     }
 
+    protected static void configOverrideSqlColdPartitionAge(long sqlColdPartitionAge) {
+        node1.getConfigurationOverrides().setSqlColdPartitionAge(sqlColdPartitionAge);
+    }
+
     @SuppressWarnings("SameParameterValue")
     protected static void configOverrideSqlJoinMetadataMaxResizes(int sqlJoinMetadataMaxResizes) {
         node1.getConfigurationOverrides().setSqlJoinMetadataMaxResizes(sqlJoinMetadataMaxResizes);
@@ -379,11 +383,35 @@ public abstract class AbstractCairoTest extends AbstractTest {
         node1.getConfigurationOverrides().setSqlJoinMetadataPageSize(sqlJoinMetadataPageSize);
     }
 
+    protected static void configOverrideWalPurgeDeleteLimit(int walPurgeDeleteLimit) {
+        node1.getConfigurationOverrides().setWalPurgeDeleteLimit(walPurgeDeleteLimit);
+    }
+
+    protected static void configOverrideWalRetentionAge(long walRetentionAge) {
+        node1.getConfigurationOverrides().setWalRetentionAge(walRetentionAge);
+    }
+
+    protected static void configOverrideWalRetentionSize(long walRetentionSize) {
+        node1.getConfigurationOverrides().setWalRetentionSize(walRetentionSize);
+    }
+
+    protected static void configOverrideWalSegmentRolloverAge(long walSegmentRolloverAge) {
+        node1.getConfigurationOverrides().setWalSegmentRolloverAge(walSegmentRolloverAge);
+    }
+
     @SuppressWarnings("SameParameterValue")
     protected static void configOverrideWalSegmentRolloverRowCount(long walSegmentRolloverRowCount) {
         node1.getConfigurationOverrides().setWalSegmentRolloverRowCount(walSegmentRolloverRowCount);
     }
 
+    protected static void configOverrideWalSegmentRolloverSize(long walSegmentRolloverSize) {
+        node1.getConfigurationOverrides().setWalSegmentRolloverSize(walSegmentRolloverSize);
+    }
+
+    protected static void configOverrideWalTxnLogChunkSize(int walTxnLogChunkSize) {
+        node1.getConfigurationOverrides().setWalTxnLogChunkSize(walTxnLogChunkSize);
+    }
+
     protected static void configureForBackups() throws IOException {
         backupDir = temp.newFolder().getAbsolutePath();
         backupDirTimestampFormat = new TimestampFormatCompiler().compile("ddMMMyyyy");
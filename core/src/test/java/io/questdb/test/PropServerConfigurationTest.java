@@ -29,6 +29,7 @@ import io.questdb.cairo.*;
 import io.questdb.cutlass.json.JsonException;
 import io.questdb.cutlass.line.*;
 import io.questdb.cutlass.pgwire.DefaultPGWireConfiguration;
+import io.questdb.cutlass.replication.ReplicationConfiguration;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.network.EpollFacadeImpl;
@@ -91,6 +92,7 @@ public class PropServerConfigurationTest {
         Assert.assertFalse(configuration.getHttpServerConfiguration().getHttpContextConfiguration().getDumpNetworkTraffic());
         Assert.assertFalse(configuration.getHttpServerConfiguration().getHttpContextConfiguration().allowDeflateBeforeSend());
         Assert.assertTrue(configuration.getHttpServerConfiguration().isQueryCacheEnabled());
+        Assert.assertTrue(configuration.getHttpServerConfiguration().isLineHttpEnabled());
         Assert.assertEquals(4, configuration.getHttpServerConfiguration().getQueryCacheBlockCount());
         Assert.assertEquals(4, configuration.getHttpServerConfiguration().getQueryCacheRowCount());
 
@@ -226,10 +228,21 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(2048, configuration.getLineUdpReceiverConfiguration().getMsgBufferSize());
         Assert.assertEquals(10000, configuration.getLineUdpReceiverConfiguration().getMsgCount());
         Assert.assertEquals(8388608, configuration.getLineUdpReceiverConfiguration().getReceiveBufferSize());
+        Assert.assertEquals(1, configuration.getLineUdpReceiverConfiguration().getSocketCount());
         Assert.assertFalse(configuration.getLineUdpReceiverConfiguration().isEnabled());
         Assert.assertEquals(-1, configuration.getLineUdpReceiverConfiguration().ownThreadAffinity());
         Assert.assertFalse(configuration.getLineUdpReceiverConfiguration().ownThread());
 
+        Assert.assertEquals(ReplicationConfiguration.ROLE_NONE, configuration.getReplicationConfiguration().getRole());
+        Assert.assertEquals(0, configuration.getReplicationConfiguration().getDispatcherConfiguration().getBindIPv4Address());
+        Assert.assertEquals(9100, configuration.getReplicationConfiguration().getDispatcherConfiguration().getBindPort());
+        Assert.assertEquals(2130706433, configuration.getReplicationConfiguration().getPrimaryIPv4Address());
+        Assert.assertEquals(9100, configuration.getReplicationConfiguration().getPrimaryPort());
+        Assert.assertEquals(1048576, configuration.getReplicationConfiguration().getBufferSize());
+        Assert.assertEquals(1000, configuration.getReplicationConfiguration().getPollInterval());
+        Assert.assertEquals(30000, configuration.getReplicationConfiguration().getTimeout());
+        Assert.assertEquals(600_000, configuration.getReplicationConfiguration().getRetentionTimeout());
+
         Assert.assertTrue(configuration.getCairoConfiguration().isSqlParallelFilterEnabled());
         Assert.assertTrue(configuration.getCairoConfiguration().isSqlParallelFilterPreTouchEnabled());
         Assert.assertEquals(1_000_000, configuration.getCairoConfiguration().getSqlPageFrameMaxRows());
@@ -299,6 +312,7 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(32768, configuration.getLineTcpReceiverConfiguration().getNetMsgBufferSize());
         Assert.assertEquals(32768, configuration.getLineTcpReceiverConfiguration().getMaxMeasurementSize());
         Assert.assertEquals(128, configuration.getLineTcpReceiverConfiguration().getWriterQueueCapacity());
+        Assert.assertEquals(0, configuration.getLineTcpReceiverConfiguration().getWriterQueueTableBudget());
         Assert.assertEquals(1, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getWorkerCount());
         Assert.assertEquals(10, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getYieldThreshold());
         Assert.assertEquals(10_000, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getSleepThreshold());
@@ -308,6 +322,9 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(10_000, configuration.getLineTcpReceiverConfiguration().getIOWorkerPoolConfiguration().getSleepThreshold());
         Assert.assertFalse(configuration.getLineTcpReceiverConfiguration().getIOWorkerPoolConfiguration().haltOnError());
         Assert.assertEquals(1000, configuration.getLineTcpReceiverConfiguration().getMaintenanceInterval());
+        Assert.assertEquals(1.9, configuration.getLineTcpReceiverConfiguration().getMaxLoadRatio(), 0.000001);
+        Assert.assertEquals(10_000, configuration.getLineTcpReceiverConfiguration().getNUpdatesPerLoadRebalance());
+        Assert.assertEquals(0, configuration.getLineTcpReceiverConfiguration().getParallelParseChunkSize());
         Assert.assertEquals(PropServerConfiguration.COMMIT_INTERVAL_DEFAULT, configuration.getLineTcpReceiverConfiguration().getCommitIntervalDefault());
         Assert.assertEquals(PartitionBy.DAY, configuration.getLineTcpReceiverConfiguration().getDefaultPartitionBy());
         Assert.assertEquals(500, configuration.getLineTcpReceiverConfiguration().getWriterIdleTimeout());
@@ -737,6 +754,13 @@ public class PropServerConfigurationTest {
         new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
     }
 
+    @Test(expected = ServerConfigurationException.class)
+    public void testInvalidReplicationRole() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("replication.role", "leader");
+        new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+    }
+
     @Test
     public void testInvalidValidationResult() {
         Properties properties = new Properties();
@@ -888,6 +912,29 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(PartitionBy.YEAR, configuration.getLineUdpReceiverConfiguration().getDefaultPartitionBy());
     }
 
+    @Test
+    public void testReplication() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("replication.role", "replica");
+        properties.setProperty("replication.primary", "10.2.3.4:9200");
+        properties.setProperty("replication.poll.interval", "250");
+        properties.setProperty("replication.buffer.size", "64k");
+        properties.setProperty("replication.retention.timeout", "5000");
+        PropServerConfiguration configuration = new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+        Assert.assertEquals(ReplicationConfiguration.ROLE_REPLICA, configuration.getReplicationConfiguration().getRole());
+        Assert.assertEquals(167904004, configuration.getReplicationConfiguration().getPrimaryIPv4Address());
+        Assert.assertEquals(9200, configuration.getReplicationConfiguration().getPrimaryPort());
+        Assert.assertEquals(250, configuration.getReplicationConfiguration().getPollInterval());
+        Assert.assertEquals(65536, configuration.getReplicationConfiguration().getBufferSize());
+        Assert.assertEquals(5000, configuration.getReplicationConfiguration().getRetentionTimeout());
+
+        properties.setProperty("replication.role", "primary");
+        properties.setProperty("replication.bind.to", "0.0.0.0:9300");
+        configuration = new PropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+        Assert.assertEquals(ReplicationConfiguration.ROLE_PRIMARY, configuration.getReplicationConfiguration().getRole());
+        Assert.assertEquals(9300, configuration.getReplicationConfiguration().getDispatcherConfiguration().getBindPort());
+    }
+
     @Test
     public void testSetAllFromFile() throws Exception {
         try (InputStream is = PropServerConfigurationTest.class.getResourceAsStream("/server.conf")) {
@@ -908,6 +955,7 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(128, configuration.getHttpServerConfiguration().getHttpContextConfiguration().getSendBufferSize());
             Assert.assertEquals("index2.html", configuration.getHttpServerConfiguration().getStaticContentProcessorConfiguration().getIndexFileName());
             Assert.assertFalse(configuration.getHttpServerConfiguration().isQueryCacheEnabled());
+            Assert.assertFalse(configuration.getHttpServerConfiguration().isLineHttpEnabled());
             Assert.assertEquals(32, configuration.getHttpServerConfiguration().getQueryCacheBlockCount());
             Assert.assertEquals(16, configuration.getHttpServerConfiguration().getQueryCacheRowCount());
 
@@ -1061,6 +1109,7 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(4 * 1024 * 1024, configuration.getLineUdpReceiverConfiguration().getMsgBufferSize());
             Assert.assertEquals(4000, configuration.getLineUdpReceiverConfiguration().getMsgCount());
             Assert.assertEquals(512, configuration.getLineUdpReceiverConfiguration().getReceiveBufferSize());
+            Assert.assertEquals(4, configuration.getLineUdpReceiverConfiguration().getSocketCount());
             Assert.assertEquals(PartitionBy.MONTH, configuration.getLineUdpReceiverConfiguration().getDefaultPartitionBy());
             Assert.assertFalse(configuration.getLineUdpReceiverConfiguration().isEnabled());
             Assert.assertEquals(2, configuration.getLineUdpReceiverConfiguration().ownThreadAffinity());
@@ -1106,6 +1155,7 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(2049, configuration.getLineTcpReceiverConfiguration().getNetMsgBufferSize());
             Assert.assertEquals(128, configuration.getLineTcpReceiverConfiguration().getMaxMeasurementSize());
             Assert.assertEquals(256, configuration.getLineTcpReceiverConfiguration().getWriterQueueCapacity());
+            Assert.assertEquals(64, configuration.getLineTcpReceiverConfiguration().getWriterQueueTableBudget());
             Assert.assertEquals(2, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getWorkerCount());
             Assert.assertArrayEquals(new int[]{1, 2}, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getWorkerAffinity());
             Assert.assertEquals(20, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getYieldThreshold());
@@ -1117,6 +1167,9 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(10_003, configuration.getLineTcpReceiverConfiguration().getIOWorkerPoolConfiguration().getSleepThreshold());
             Assert.assertTrue(configuration.getLineTcpReceiverConfiguration().getIOWorkerPoolConfiguration().haltOnError());
             Assert.assertEquals(1000, configuration.getLineTcpReceiverConfiguration().getMaintenanceInterval());
+            Assert.assertEquals(2.5, configuration.getLineTcpReceiverConfiguration().getMaxLoadRatio(), 0.000001);
+            Assert.assertEquals(500, configuration.getLineTcpReceiverConfiguration().getNUpdatesPerLoadRebalance());
+            Assert.assertEquals(512, configuration.getLineTcpReceiverConfiguration().getParallelParseChunkSize());
             Assert.assertEquals(PartitionBy.MONTH, configuration.getLineTcpReceiverConfiguration().getDefaultPartitionBy());
             Assert.assertEquals(5_000, configuration.getLineTcpReceiverConfiguration().getWriterIdleTimeout());
             Assert.assertEquals(16, configuration.getCairoConfiguration().getPartitionPurgeListCapacity());
@@ -31,6 +31,7 @@ import io.questdb.cutlass.http.HttpServerConfiguration;
 import io.questdb.cutlass.line.tcp.LineTcpReceiverConfiguration;
 import io.questdb.cutlass.line.udp.LineUdpReceiverConfiguration;
 import io.questdb.cutlass.pgwire.PGWireConfiguration;
+import io.questdb.cutlass.replication.ReplicationConfiguration;
 import io.questdb.metrics.HealthMetrics;
 import io.questdb.metrics.MetricsConfiguration;
 import io.questdb.mp.WorkerPool;
@@ -193,6 +194,11 @@ public class WorkerPoolManagerTest {
                 return null;
             }
 
+            @Override
+            public ReplicationConfiguration getReplicationConfiguration() {
+                return null;
+            }
+
             @Override
             public WorkerPoolConfiguration getWalApplyPoolConfiguration() {
                 return null;
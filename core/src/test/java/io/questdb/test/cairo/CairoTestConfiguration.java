@@ -233,6 +233,11 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getSpinLockTimeout() > -1 ? overrides.getSpinLockTimeout() : 5000L;
     }
 
+    @Override
+    public long getSqlColdPartitionAge() {
+        return overrides.getSqlColdPartitionAge() < 0 ? super.getSqlColdPartitionAge() : overrides.getSqlColdPartitionAge();
+    }
+
     @Override
     public int getSqlCopyBufferSize() {
         return overrides.getSqlCopyBufferSize();
@@ -298,6 +303,11 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getDefaultTableWriteMode() < 0 ? super.getWalEnabledDefault() : overrides.getDefaultTableWriteMode() == 1;
     }
 
+    @Override
+    public int getWalPurgeDeleteLimit() {
+        return overrides.getWalPurgeDeleteLimit() < 0 ? super.getWalPurgeDeleteLimit() : overrides.getWalPurgeDeleteLimit();
+    }
+
     @Override
     public long getWalPurgeInterval() {
         return overrides.getWalPurgeInterval() < 0 ? super.getWalPurgeInterval() : overrides.getWalPurgeInterval();
@@ -308,11 +318,36 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getRecreateDistressedSequencerAttempts();
     }
 
+    @Override
+    public long getWalRetentionAge() {
+        return overrides.getWalRetentionAge() < 0 ? super.getWalRetentionAge() : overrides.getWalRetentionAge();
+    }
+
+    @Override
+    public long getWalRetentionSize() {
+        return overrides.getWalRetentionSize() < 0 ? super.getWalRetentionSize() : overrides.getWalRetentionSize();
+    }
+
+    @Override
+    public long getWalSegmentRolloverAge() {
+        return overrides.getWalSegmentRolloverAge() < 0 ? super.getWalSegmentRolloverAge() : overrides.getWalSegmentRolloverAge();
+    }
+
     @Override
     public long getWalSegmentRolloverRowCount() {
         return overrides.getWalSegmentRolloverRowCount() < 0 ? super.getWalSegmentRolloverRowCount() : overrides.getWalSegmentRolloverRowCount();
     }
 
+    @Override
+    public long getWalSegmentRolloverSize() {
+        return overrides.getWalSegmentRolloverSize() < 0 ? super.getWalSegmentRolloverSize() : overrides.getWalSegmentRolloverSize();
+    }
+
+    @Override
+    public int getWalTxnLogChunkSize() {
+        return overrides.getWalTxnLogChunkSize() < 0 ? super.getWalTxnLogChunkSize() : overrides.getWalTxnLogChunkSize();
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return overrides.getWalTxnNotificationQueueCapacity() > 0 ? overrides.getWalTxnNotificationQueueCapacity() : 256;
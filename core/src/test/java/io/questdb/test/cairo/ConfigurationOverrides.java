@@ -115,6 +115,8 @@ public interface ConfigurationOverrides {
 
     long getSpinLockTimeout();
 
+    long getSqlColdPartitionAge();
+
     int getSqlCopyBufferSize();
 
     int getSqlJoinMetadataMaxResizes();
@@ -127,10 +129,22 @@ public interface ConfigurationOverrides {
 
     long getWalApplyTableTimeQuote();
 
+    int getWalPurgeDeleteLimit();
+
     long getWalPurgeInterval();
 
+    long getWalRetentionAge();
+
+    long getWalRetentionSize();
+
+    long getWalSegmentRolloverAge();
+
     long getWalSegmentRolloverRowCount();
 
+    long getWalSegmentRolloverSize();
+
+    int getWalTxnLogChunkSize();
+
     int getWalTxnNotificationQueueCapacity();
 
     long getWriterAsyncCommandBusyWaitTimeout();
@@ -253,6 +267,8 @@ public interface ConfigurationOverrides {
 
     void setSpinLockTimeout(long spinLockTimeout);
 
+    void setSqlColdPartitionAge(long sqlColdPartitionAge);
+
     void setSqlCopyBufferSize(int sqlCopyBufferSize);
 
     void setSqlJoinMetadataMaxResizes(int sqlJoinMetadataMaxResizes);
@@ -263,10 +279,22 @@ public interface ConfigurationOverrides {
 
     void setWalApplyTableTimeQuote(long walApplyTableTimeQuote);
 
+    void setWalPurgeDeleteLimit(int walPurgeDeleteLimit);
+
     void setWalPurgeInterval(long walPurgeInterval);
 
+    void setWalRetentionAge(long walRetentionAge);
+
+    void setWalRetentionSize(long walRetentionSize);
+
+    void setWalSegmentRolloverAge(long walSegmentRolloverAge);
+
     void setWalSegmentRolloverRowCount(long walSegmentRolloverRowCount);
 
+    void setWalSegmentRolloverSize(long walSegmentRolloverSize);
+
+    void setWalTxnLogChunkSize(int walTxnLogChunkSize);
+
     void setWalTxnNotificationQueueCapacity(int walTxnNotificationQueueCapacity);
 
     void setWriterAsyncCommandBusyWaitTimeout(long writerAsyncCommandBusyWaitTimeout);
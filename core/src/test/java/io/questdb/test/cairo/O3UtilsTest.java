@@ -0,0 +1,121 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo;
+
+import io.questdb.cairo.O3IOURingPool;
+import io.questdb.cairo.O3Utils;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class O3UtilsTest extends AbstractTest {
+    private static final IOURingFacade rf = new IOURingFacadeImpl();
+
+    @Test
+    public void testWriteFallsBackWhenIOURingFails() throws Exception {
+        final IOURingFacade rf = new IOURingFacadeImpl() {
+            @Override
+            public long create(int capacity) {
+                return -42;
+            }
+        };
+        assertWrite(rf, 3 * Numbers.SIZE_1MB + 17, 0);
+    }
+
+    @Test
+    public void testWriteIOURing() throws Exception {
+        Assume.assumeTrue(rf.isAvailable());
+        // more chunks than the ring capacity
+        assertWrite(rf, 37 * Numbers.SIZE_1MB + 13, 4096);
+    }
+
+    @Test
+    public void testWriteIOURingReusesRing() throws Exception {
+        Assume.assumeTrue(rf.isAvailable());
+        final int[] created = new int[1];
+        final IOURingFacade rf = new IOURingFacadeImpl() {
+            @Override
+            public long create(int capacity) {
+                created[0]++;
+                return super.create(capacity);
+            }
+        };
+        assertWrite(rf, 5 * Numbers.SIZE_1MB + 3, 0);
+        Assert.assertEquals(1, created[0]);
+    }
+
+    @Test
+    public void testWriteIOURingSingleChunk() throws Exception {
+        Assume.assumeTrue(rf.isAvailable());
+        assertWrite(rf, 1024, 8);
+    }
+
+    @Test
+    public void testWriteNoIOURing() throws Exception {
+        assertWrite(null, 2 * Numbers.SIZE_1MB + 1, 3);
+    }
+
+    private static void assertWrite(IOURingFacade rf, long len, long offset) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final FilesFacade ff = TestFilesFacadeImpl.INSTANCE;
+            try (
+                    Path path = new Path();
+                    O3IOURingPool ringPool = rf != null ? new O3IOURingPool(rf, 16) : null
+            ) {
+                final int fd = ff.openRW(path.of(temp.newFile().getAbsolutePath()).$(), 0);
+                Assert.assertTrue(fd > -1);
+                final int fd2 = ff.openRW(path.of(temp.newFile().getAbsolutePath()).$(), 0);
+                Assert.assertTrue(fd2 > -1);
+                final long buf = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+                final long readBuf = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+                try {
+                    final Rnd rnd = new Rnd();
+                    for (long i = 0; i < len; i++) {
+                        Unsafe.getUnsafe().putByte(buf + i, rnd.nextByte());
+                    }
+                    // the second round runs on the ring of the first one
+                    for (int i = 0; i < 2; i++) {
+                        Assert.assertEquals(len, O3Utils.write(ff, ringPool, fd, buf, len, offset));
+                        O3Utils.fsync(ff, ringPool, fd, fd2);
+                    }
+                    Assert.assertEquals(len + offset, ff.length(fd));
+                    Assert.assertEquals(len, ff.read(fd, readBuf, len, offset));
+                    Assert.assertTrue(Vect.memeq(buf, readBuf, len));
+                } finally {
+                    ff.close(fd);
+                    ff.close(fd2);
+                    Unsafe.free(buf, len, MemoryTag.NATIVE_DEFAULT);
+                    Unsafe.free(readBuf, len, MemoryTag.NATIVE_DEFAULT);
+                }
+            }
+        });
+    }
+}
@@ -50,6 +50,7 @@ public class Overrides implements ConfigurationOverrides {
     private final MicrosecondClock defaultMicrosecondClock = () -> currentMicros >= 0 ? currentMicros : MicrosecondClockImpl.INSTANCE.getTicks();
     private int o3PartitionSplitMaxCount = -1;
     private long partitionO3SplitThreshold;
+    private long sqlColdPartitionAge = -1;
     private MicrosecondClock testMicrosClock = defaultMicrosecondClock;
     private long dataAppendPageSize = -1;
     private CharSequence defaultMapType;
@@ -89,8 +90,14 @@ public class Overrides implements ConfigurationOverrides {
     private int sqlJoinMetadataPageSize = -1;
     private int tableRegistryCompactionThreshold;
     private long walApplyTableTimeQuote = -1;
+    private int walPurgeDeleteLimit = -1;
     private long walPurgeInterval = -1;
+    private long walRetentionAge = -1;
+    private long walRetentionSize = -1;
+    private long walSegmentRolloverAge = -1;
     private long walSegmentRolloverRowCount = -1;
+    private long walSegmentRolloverSize = -1;
+    private int walTxnLogChunkSize = -1;
     private int walTxnNotificationQueueCapacity = -1;
     private long writerAsyncCommandBusyWaitTimeout = -1;
     private long writerAsyncCommandMaxTimeout = -1;
@@ -303,6 +310,11 @@ public class Overrides implements ConfigurationOverrides {
         return spinLockTimeout;
     }
 
+    @Override
+    public long getSqlColdPartitionAge() {
+        return sqlColdPartitionAge;
+    }
+
     @Override
     public int getSqlCopyBufferSize() {
         return sqlCopyBufferSize;
@@ -333,16 +345,46 @@ public class Overrides implements ConfigurationOverrides {
         return walApplyTableTimeQuote;
     }
 
+    @Override
+    public int getWalPurgeDeleteLimit() {
+        return walPurgeDeleteLimit;
+    }
+
     @Override
     public long getWalPurgeInterval() {
         return walPurgeInterval;
     }
 
+    @Override
+    public long getWalRetentionAge() {
+        return walRetentionAge;
+    }
+
+    @Override
+    public long getWalRetentionSize() {
+        return walRetentionSize;
+    }
+
+    @Override
+    public long getWalSegmentRolloverAge() {
+        return walSegmentRolloverAge;
+    }
+
     @Override
     public long getWalSegmentRolloverRowCount() {
         return walSegmentRolloverRowCount;
     }
 
+    @Override
+    public long getWalSegmentRolloverSize() {
+        return walSegmentRolloverSize;
+    }
+
+    @Override
+    public int getWalTxnLogChunkSize() {
+        return walTxnLogChunkSize;
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return walTxnNotificationQueueCapacity;
@@ -444,6 +486,7 @@ public class Overrides implements ConfigurationOverrides {
         dataAppendPageSize = -1;
         o3QuickSortEnabled = false;
         walSegmentRolloverRowCount = -1;
+        walTxnLogChunkSize = -1;
         mangleTableDirNames = true;
         walPurgeInterval = -1;
         tableRegistryCompactionThreshold = -1;
@@ -451,6 +494,12 @@ public class Overrides implements ConfigurationOverrides {
         walApplyTableTimeQuote = -1;
         repeatMigrationsFromVersion = -1;
         factoryProvider = null;
+        walSegmentRolloverSize = -1;
+        walSegmentRolloverAge = -1;
+        walPurgeDeleteLimit = -1;
+        walRetentionAge = -1;
+        walRetentionSize = -1;
+        sqlColdPartitionAge = -1;
     }
 
     @Override
@@ -693,6 +742,11 @@ public class Overrides implements ConfigurationOverrides {
         this.spinLockTimeout = spinLockTimeout;
     }
 
+    @Override
+    public void setSqlColdPartitionAge(long sqlColdPartitionAge) {
+        this.sqlColdPartitionAge = sqlColdPartitionAge;
+    }
+
     @Override
     public void setSqlCopyBufferSize(int sqlCopyBufferSize) {
         this.sqlCopyBufferSize = sqlCopyBufferSize;
@@ -717,16 +771,46 @@ public class Overrides implements ConfigurationOverrides {
         this.walApplyTableTimeQuote = walApplyTableTimeQuote;
     }
 
+    @Override
+    public void setWalPurgeDeleteLimit(int walPurgeDeleteLimit) {
+        this.walPurgeDeleteLimit = walPurgeDeleteLimit;
+    }
+
     @Override
     public void setWalPurgeInterval(long walPurgeInterval) {
         this.walPurgeInterval = walPurgeInterval;
     }
 
+    @Override
+    public void setWalRetentionAge(long walRetentionAge) {
+        this.walRetentionAge = walRetentionAge;
+    }
+
+    @Override
+    public void setWalRetentionSize(long walRetentionSize) {
+        this.walRetentionSize = walRetentionSize;
+    }
+
+    @Override
+    public void setWalSegmentRolloverAge(long walSegmentRolloverAge) {
+        this.walSegmentRolloverAge = walSegmentRolloverAge;
+    }
+
     @Override
     public void setWalSegmentRolloverRowCount(long walSegmentRolloverRowCount) {
         this.walSegmentRolloverRowCount = walSegmentRolloverRowCount;
     }
 
+    @Override
+    public void setWalSegmentRolloverSize(long walSegmentRolloverSize) {
+        this.walSegmentRolloverSize = walSegmentRolloverSize;
+    }
+
+    @Override
+    public void setWalTxnLogChunkSize(int walTxnLogChunkSize) {
+        this.walTxnLogChunkSize = walTxnLogChunkSize;
+    }
+
     @Override
     public void setWalTxnNotificationQueueCapacity(int walTxnNotificationQueueCapacity) {
         this.walTxnNotificationQueueCapacity = walTxnNotificationQueueCapacity;
@@ -136,6 +136,68 @@ public class SymbolMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testAppendBeyondCapacityAndReopen() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 10_000;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                // capacity is well below symbol count, the lookup table must grow
+                create(path, "x", 16, true);
+                Rnd rnd = new Rnd();
+
+                try (
+                        SymbolMapWriter writer = new SymbolMapWriter(
+                                configuration,
+                                path,
+                                "x",
+                                COLUMN_NAME_TXN_NONE,
+                                0,
+                                -1,
+                                NOOP_COLLECTOR
+                        )
+                ) {
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+                }
+
+                try (
+                        SymbolMapWriter writer = new SymbolMapWriter(
+                                configuration,
+                                path,
+                                "x",
+                                COLUMN_NAME_TXN_NONE,
+                                N,
+                                -1,
+                                NOOP_COLLECTOR
+                        )
+                ) {
+                    Assert.assertTrue(writer.isCached());
+
+                    // the lookup table is rebuilt from the symbol files
+                    rnd.reset();
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(N + i, writer.put(rnd.nextChars(8)));
+                    }
+
+                    // rolled back values must not be found
+                    writer.rollback(N);
+                    Assert.assertEquals(N, writer.getSymbolCount());
+                    Assert.assertEquals(N, writer.put("rolled back"));
+
+                    rnd.reset();
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+                }
+            }
+        });
+    }
+
     @Test
     public void testConcurrentSymbolTableAccess() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -743,6 +805,10 @@ public class SymbolMapTest extends AbstractCairoTest {
 
                     writer.rollback(5);
 
+                    // keys below rollback point are still found
+                    Assert.assertEquals(0, writer.put("A1"));
+                    Assert.assertEquals(4, writer.put("A5"));
+
                     Assert.assertEquals(5, writer.put("A6"));
                     Assert.assertEquals(6, writer.put("A7"));
                     Assert.assertEquals(7, writer.put("A8"));
@@ -950,4 +1016,50 @@ public class SymbolMapTest extends AbstractCairoTest {
             }
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTruncateBeforePut() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 1024;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", N, true);
+                try (
+                        SymbolMapWriter writer = new SymbolMapWriter(
+                                configuration,
+                                path,
+                                "x",
+                                COLUMN_NAME_TXN_NONE,
+                                0,
+                                -1,
+                                NOOP_COLLECTOR
+                        )
+                ) {
+                    Assert.assertEquals(0, writer.put("A1"));
+                    Assert.assertEquals(1, writer.put("A2"));
+                }
+
+                // lookup table of the reopened writer is not loaded before the first put
+                try (
+                        SymbolMapWriter writer = new SymbolMapWriter(
+                                configuration,
+                                path,
+                                "x",
+                                COLUMN_NAME_TXN_NONE,
+                                2,
+                                -1,
+                                NOOP_COLLECTOR
+                        )
+                ) {
+                    writer.truncate();
+                    Assert.assertEquals(0, writer.getSymbolCount());
+
+                    Assert.assertEquals(0, writer.put("A2"));
+                    Assert.assertEquals(1, writer.put("A3"));
+                    Assert.assertEquals(0, writer.put("A2"));
+                    Assert.assertEquals(2, writer.put("A1"));
+                    Assert.assertEquals(3, writer.getSymbolCount());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo.wal;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.WalApplyScheduler;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WalApplySchedulerTest extends AbstractCairoTest {
+    private static final TableToken TABLE_A = new TableToken("a", "a~1", 1, true);
+    private static final TableToken TABLE_B = new TableToken("b", "b~2", 2, true);
+    private static final TableToken TABLE_C = new TableToken("c", "c~3", 3, true);
+    // wait times are compared in buckets of the table time quota, 1 second by default
+    private static final long WAIT_BUCKET = 1_000_000L;
+
+    @Test
+    public void testDoneReleasesTable() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables(null));
+        scheduler.notify(TABLE_A, 1, 1);
+        scheduler.notify(TABLE_A, 2, 2);
+        Assert.assertEquals(1, scheduler.getScheduledTableCount());
+
+        WalApplyScheduler.Table table = scheduler.next();
+        Assert.assertSame(TABLE_A, table.getTableToken());
+        Assert.assertEquals(2, table.getScheduledTxn());
+        // the table is handed out to one job at a time
+        Assert.assertNull(scheduler.next());
+
+        scheduler.done(table, 2, 4);
+        Assert.assertEquals(0, scheduler.getScheduledTableCount());
+        Assert.assertNull(scheduler.next());
+    }
+
+    @Test
+    public void testEjectedTableWaitsBehindQueuedTables() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables(null));
+        scheduler.notify(TABLE_A, 100, 1);
+        scheduler.notify(TABLE_B, 1, WAIT_BUCKET + 2);
+
+        WalApplyScheduler.Table table = scheduler.next();
+        Assert.assertSame(TABLE_A, table.getTableToken());
+        scheduler.notify(TABLE_C, 1, WAIT_BUCKET + 4);
+        // the job ran out of time quota and notified the rest of the transactions
+        scheduler.notify(TABLE_A, 100, WAIT_BUCKET + 5);
+        scheduler.done(table, 50, WAIT_BUCKET + 6);
+        Assert.assertEquals(3, scheduler.getScheduledTableCount());
+
+        assertNext(scheduler, TABLE_B, WAIT_BUCKET + 7);
+        assertNext(scheduler, TABLE_C, WAIT_BUCKET + 7);
+        assertNext(scheduler, TABLE_A, WAIT_BUCKET + 7);
+    }
+
+    @Test
+    public void testManyTables() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables(null));
+        final int tableCount = 100;
+        for (int i = 0; i < tableCount; i++) {
+            // lag decreases with the table id
+            scheduler.notify(new TableToken("t" + i, "t" + i + "~" + i, i, true), tableCount - i, i);
+        }
+        for (int i = tableCount - 1; i > -1; i--) {
+            WalApplyScheduler.Table table = scheduler.next();
+            Assert.assertEquals(i, table.getTableToken().getTableId());
+            scheduler.done(table, table.getScheduledTxn(), tableCount);
+        }
+        Assert.assertNull(scheduler.next());
+        Assert.assertEquals(0, scheduler.getScheduledTableCount());
+    }
+
+    @Test
+    public void testOrderByWaitTime() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables(null));
+        scheduler.notify(TABLE_B, 10, 1);
+        scheduler.notify(TABLE_A, 10, WAIT_BUCKET + 2);
+        scheduler.notify(TABLE_B, 20, WAIT_BUCKET + 3);
+
+        assertNext(scheduler, TABLE_B, WAIT_BUCKET + 4);
+        assertNext(scheduler, TABLE_A, WAIT_BUCKET + 4);
+    }
+
+    @Test
+    public void testPriorityTableFirst() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables(" C,b "));
+        Assert.assertTrue(scheduler.isPriorityTable(TABLE_B));
+        Assert.assertTrue(scheduler.isPriorityTable(TABLE_C));
+        Assert.assertFalse(scheduler.isPriorityTable(TABLE_A));
+
+        scheduler.notify(TABLE_A, 1, 1);
+        Assert.assertFalse(scheduler.hasWaitingPriorityTable());
+        scheduler.notify(TABLE_B, 1, 2);
+        scheduler.notify(TABLE_C, 1, 3);
+        Assert.assertTrue(scheduler.hasWaitingPriorityTable());
+
+        WalApplyScheduler.Table b = scheduler.next();
+        Assert.assertSame(TABLE_B, b.getTableToken());
+        Assert.assertTrue(b.isPriority());
+        Assert.assertTrue(scheduler.hasWaitingPriorityTable());
+
+        WalApplyScheduler.Table c = scheduler.next();
+        Assert.assertSame(TABLE_C, c.getTableToken());
+        Assert.assertFalse(scheduler.hasWaitingPriorityTable());
+
+        scheduler.notify(TABLE_B, 2, 5);
+        scheduler.done(b, 1, 6);
+        Assert.assertTrue(scheduler.hasWaitingPriorityTable());
+        scheduler.done(c, 1, 6);
+
+        assertNext(scheduler, TABLE_B, 7);
+        Assert.assertFalse(scheduler.hasWaitingPriorityTable());
+        assertNext(scheduler, TABLE_A, 7);
+    }
+
+    @Test
+    public void testRenamedTablePriority() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables("b"));
+        scheduler.notify(TABLE_C, 1, 1);
+        scheduler.notify(TABLE_A, 1, 2);
+        Assert.assertFalse(scheduler.hasWaitingPriorityTable());
+
+        // the table is renamed into the priority list while it waits
+        final TableToken renamedA = new TableToken("b", "a~1", 1, true);
+        scheduler.notify(renamedA, 2, 3);
+        Assert.assertTrue(scheduler.hasWaitingPriorityTable());
+        WalApplyScheduler.Table table = scheduler.next();
+        Assert.assertSame(renamedA, table.getTableToken());
+        Assert.assertTrue(table.isPriority());
+        Assert.assertFalse(scheduler.hasWaitingPriorityTable());
+
+        // and out of it while it is applied
+        scheduler.notify(TABLE_A, 3, 4);
+        scheduler.done(table, 2, 5);
+        Assert.assertFalse(scheduler.hasWaitingPriorityTable());
+        assertNext(scheduler, TABLE_C, 6);
+        assertNext(scheduler, TABLE_A, 6);
+        Assert.assertEquals(0, scheduler.getScheduledTableCount());
+    }
+
+    @Test
+    public void testSmallerLagFirstOnTie() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables(null));
+        scheduler.notify(TABLE_A, 1000, 1);
+        scheduler.notify(TABLE_B, 3, 1);
+
+        assertNext(scheduler, TABLE_B, 2);
+        assertNext(scheduler, TABLE_A, 2);
+    }
+
+    @Test
+    public void testSmallerLagFirstWithinWaitBucket() {
+        WalApplyScheduler scheduler = new WalApplyScheduler(priorityTables(null));
+        scheduler.notify(TABLE_A, 1000, 1);
+        scheduler.notify(TABLE_B, 3, WAIT_BUCKET / 2);
+        scheduler.notify(TABLE_C, 1, WAIT_BUCKET + 1);
+
+        // B waits shorter than A, but within the same bucket, the lag decides
+        assertNext(scheduler, TABLE_B, WAIT_BUCKET + 2);
+        assertNext(scheduler, TABLE_A, WAIT_BUCKET + 2);
+        assertNext(scheduler, TABLE_C, WAIT_BUCKET + 2);
+    }
+
+    private static void assertNext(WalApplyScheduler scheduler, TableToken expected, long now) {
+        WalApplyScheduler.Table table = scheduler.next();
+        Assert.assertNotNull(table);
+        Assert.assertSame(expected, table.getTableToken());
+        scheduler.done(table, table.getScheduledTxn(), now);
+    }
+
+    private static CairoConfiguration priorityTables(String tableNames) {
+        return new DefaultCairoConfiguration(root) {
+            @Override
+            public String getWalApplyPriorityTables() {
+                return tableNames;
+            }
+        };
+    }
+}
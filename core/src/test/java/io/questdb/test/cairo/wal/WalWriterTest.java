@@ -2338,6 +2338,101 @@ public class WalWriterTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testRollIdleSegmentByAge() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            TableToken tableToken = createTable(tableName);
+            configOverrideWalSegmentRolloverAge(1000);
+            currentMicros = 0;
+
+            try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                TableWriter.Row row = walWriter.newRow(0);
+                row.putByte(0, (byte) 1);
+                row.append();
+                walWriter.commit();
+            }
+
+            // the writer is idle in the pool, the segment is not rolled until it is old enough
+            currentMicros = 500_000L;
+            engine.tickIdleWalWriters();
+            assertSegmentExistence(false, tableName, 1, 1);
+
+            currentMicros = 1_000_000L;
+            engine.tickIdleWalWriters();
+            assertSegmentExistence(true, tableName, 1, 1);
+
+            try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                assertEquals(0, walWriter.getSegmentRowCount());
+                TableWriter.Row row = walWriter.newRow(0);
+                row.putByte(0, (byte) 2);
+                row.append();
+                walWriter.commit();
+            }
+
+            drainWalQueue();
+            assertSql("select count() from " + tableName, "count\n2\n");
+        });
+    }
+
+    @Test
+    public void testRollSegmentByAge() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            TableToken tableToken = createTable(tableName);
+            configOverrideWalSegmentRolloverAge(1000);
+            currentMicros = 0;
+
+            try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                for (int i = 0; i < 3; i++) {
+                    currentMicros = i * 500_000L;
+                    TableWriter.Row row = walWriter.newRow(0);
+                    row.putByte(0, (byte) i);
+                    row.append();
+                    walWriter.commit();
+                    assertEquals(i + 1, walWriter.getSegmentRowCount());
+                }
+
+                // the segment is 1s old, the next row goes to a new segment
+                TableWriter.Row row = walWriter.newRow(0);
+                row.putByte(0, (byte) 3);
+                row.append();
+                walWriter.commit();
+                assertEquals(1, walWriter.getSegmentRowCount());
+            }
+            assertSegmentExistence(true, tableName, 1, 1);
+            assertSegmentExistence(false, tableName, 1, 2);
+
+            drainWalQueue();
+            assertSql("select count() from " + tableName, "count\n4\n");
+        });
+    }
+
+    @Test
+    public void testRollSegmentBySize() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            TableToken tableToken = createTable(tableName);
+            configOverrideWalSegmentRolloverSize(256);
+
+            final int rowCount = 100;
+            try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                for (int i = 0; i < rowCount; i++) {
+                    TableWriter.Row row = walWriter.newRow(0);
+                    row.putByte(0, (byte) i);
+                    row.putStr(1, "abcdefgh");
+                    row.append();
+                    walWriter.commit();
+                }
+                assertTrue(walWriter.getSegmentRowCount() < rowCount);
+            }
+            assertSegmentExistence(true, tableName, 1, 1);
+
+            drainWalQueue();
+            assertSql("select count() from " + tableName, "count\n100\n");
+        });
+    }
+
     @Test
     public void testRollToNextSegment() throws Exception {
         assertMemoryLeak(() -> {
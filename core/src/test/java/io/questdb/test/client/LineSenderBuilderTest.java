@@ -97,6 +97,19 @@ public class LineSenderBuilderTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testAsyncFlushDoubleSet() throws Exception {
+        assertMemoryLeak(() -> {
+            Sender.LineSenderBuilder builder = Sender.builder().enableAsyncFlush();
+            try {
+                builder.enableAsyncFlush();
+                fail("should not allow double async flush set");
+            } catch (LineSenderException e) {
+                TestUtils.assertContains(e.getMessage(), "already enabled");
+            }
+        });
+    }
+
     @Test
     public void testAuthDoubleSet() throws Exception {
         assertMemoryLeak(() -> {
@@ -138,6 +151,31 @@ public class LineSenderBuilderTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testAutoFlushRowsDoubleSet() throws Exception {
+        assertMemoryLeak(() -> {
+            Sender.LineSenderBuilder builder = Sender.builder().autoFlushRows(100);
+            try {
+                builder.autoFlushRows(200);
+                fail("should not allow double auto flush rows set");
+            } catch (LineSenderException e) {
+                TestUtils.assertContains(e.getMessage(), "already configured");
+            }
+        });
+    }
+
+    @Test
+    public void testAutoFlushRowsNotPositive() throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                Sender.builder().autoFlushRows(0);
+                fail("should not allow zero auto flush rows");
+            } catch (LineSenderException e) {
+                TestUtils.assertContains(e.getMessage(), "must be positive");
+            }
+        });
+    }
+
     @Test
     public void testBufferSizeDoubleSet() throws Exception {
         assertMemoryLeak(() -> {
@@ -151,6 +189,19 @@ public class LineSenderBuilderTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testConnectionCountDoubleSet() throws Exception {
+        assertMemoryLeak(() -> {
+            Sender.LineSenderBuilder builder = Sender.builder().connectionCount(2);
+            try {
+                builder.connectionCount(4);
+                fail("should not allow double connection count set");
+            } catch (LineSenderException e) {
+                TestUtils.assertContains(e.getMessage(), "already configured");
+            }
+        });
+    }
+
     @Test
     public void testConnectPlain() throws Exception {
         runInContext(r -> {
@@ -490,6 +541,35 @@ public class LineSenderBuilderTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testReconnectWithAuth() throws Exception {
+        assertMemoryLeak(() -> {
+            Sender.LineSenderBuilder builder = Sender.builder().address(LOCALHOST)
+                    .enableAuth("foo").authToken(AUTH_TOKEN_KEY1)
+                    .enableAsyncFlush()
+                    .reconnectTimeoutMillis(1_000);
+            try {
+                builder.build();
+                fail("reconnect should not be allowed with authentication");
+            } catch (LineSenderException e) {
+                TestUtils.assertContains(e.getMessage(), "reconnect is not supported with authentication");
+            }
+        });
+    }
+
+    @Test
+    public void testReconnectWithoutAsyncFlush() throws Exception {
+        assertMemoryLeak(() -> {
+            Sender.LineSenderBuilder builder = Sender.builder().address(LOCALHOST).reconnectTimeoutMillis(1_000);
+            try {
+                builder.build();
+                fail("reconnect should require async flush");
+            } catch (LineSenderException e) {
+                TestUtils.assertContains(e.getMessage(), "async flush was not enabled");
+            }
+        });
+    }
+
     @Test
     public void testTlsDoubleSet() throws Exception {
         assertMemoryLeak(() -> {
@@ -260,6 +260,20 @@ public class HttpQueryTestBuilder {
                     }
                 });
 
+                if (httpConfiguration.isLineHttpEnabled()) {
+                    httpServer.bind(new HttpRequestProcessorFactory() {
+                        @Override
+                        public String getUrl() {
+                            return "/write";
+                        }
+
+                        @Override
+                        public HttpRequestProcessor newInstance() {
+                            return new LineHttpProcessor(engine, httpConfiguration.getLineHttpProcessorConfiguration());
+                        }
+                    });
+                }
+
                 QueryCache.configure(httpConfiguration, metrics);
 
                 workerPool.start(LOG);
@@ -0,0 +1,352 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.http;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.wal.ApplyWal2TableJob;
+import io.questdb.cairo.wal.CheckWalTransactionsJob;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.network.NetworkFacadeImpl;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractTest;
+import io.questdb.test.cairo.DefaultTestCairoConfiguration;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Test;
+
+public class LineHttpProcessorTest extends AbstractTest {
+    private static final String NO_CONTENT_RESPONSE = "HTTP/1.1 204 No Content\r\n" +
+            "Server: questDB/1.0\r\n" +
+            "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+            "Content-Type: text/html; charset=utf-8\r\n" +
+            "\r\n";
+
+    @Test
+    public void testBadLineRollsBackWholeRequest() throws Exception {
+        testWrite(0, engine -> {
+            send("cpu,host=a usage=1.0 1000000000\n", NO_CONTENT_RESPONSE);
+            send(
+                    "cpu,host=b usage=2.0 2000000000\n" +
+                            "cpu,host=c usage=\"abc\" 3000000000\n",
+                    errorResponse("could not process line data [line=2, table=cpu, error=cast error for line protocol string [columnWriterIndex=1, columnType=DOUBLE, name=usage]]")
+            );
+            drainWalQueue(engine);
+            assertSql(
+                    engine,
+                    "cpu",
+                    "host\tusage\ttimestamp\n" +
+                            "a\t1.0\t1970-01-01T00:00:01.000000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testChunkedContent() throws Exception {
+        // receive buffer is smaller than the request, chunks and lines arrive in pieces
+        testWrite(64, engine -> {
+            final StringBuilder lines = new StringBuilder();
+            final StringBuilder expected = new StringBuilder("sensor\tvalue\ttimestamp\n");
+            for (int i = 0; i < 20; i++) {
+                lines.append("weather,sensor=s").append(i % 3).append(" value=").append(i).append("i ").append(i + 1).append("000000000\n");
+                expected.append('s').append(i % 3).append('\t').append(i).append('\t')
+                        .append("1970-01-01T00:00:").append(i < 9 ? "0" : "").append(i + 1).append(".000000Z\n");
+            }
+            // chunks do not follow line boundaries
+            final StringBuilder body = new StringBuilder();
+            for (int lo = 0, size = 1, n = lines.length(); lo < n; lo += size, size = size * 3 % 97 + 1) {
+                final int hi = Math.min(lo + size, n);
+                body.append(Integer.toHexString(hi - lo));
+                if (lo == 0) {
+                    body.append(";ext=1");
+                }
+                body.append("\r\n").append(lines, lo, hi).append("\r\n");
+            }
+            body.append("0\r\nX-Trailer: 1\r\n\r\n");
+            sendChunked(body.toString(), NO_CONTENT_RESPONSE);
+            drainWalQueue(engine);
+            assertSql(engine, "weather", expected.toString());
+        });
+    }
+
+    @Test
+    public void testChunkedContentMalformed() throws Exception {
+        testWrite(0, engine -> {
+            send("cpu,host=a usage=1.0 1000000000\n", NO_CONTENT_RESPONSE);
+            // chunk data is longer than its size, the client is disconnected and the rows are rolled back
+            new SendAndReceiveRequestBuilder()
+                    .withNetworkFacade(NetworkFacadeImpl.INSTANCE)
+                    .withExpectReceiveDisconnect(true)
+                    .execute(
+                            "POST /write HTTP/1.1\r\n" +
+                                    "Host: localhost:9000\r\n" +
+                                    "Transfer-Encoding: chunked\r\n" +
+                                    "\r\n" +
+                                    "10\r\ncpu,host=b usage=2.0 2000000000\n\r\n" +
+                                    "0\r\n\r\n",
+                            ""
+                    );
+            drainWalQueue(engine);
+            assertSql(
+                    engine,
+                    "cpu",
+                    "host\tusage\ttimestamp\n" +
+                            "a\t1.0\t1970-01-01T00:00:01.000000Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testContentLengthRequired() throws Exception {
+        testWrite(0, engine -> new SendAndReceiveRequestBuilder()
+                .withNetworkFacade(NetworkFacadeImpl.INSTANCE)
+                .execute(
+                        "POST /write HTTP/1.1\r\n" +
+                                "Host: localhost:9000\r\n" +
+                                "\r\n",
+                        "HTTP/1.1 411 Length Required\r\n" +
+                                "Server: questDB/1.0\r\n" +
+                                "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                                "Transfer-Encoding: chunked\r\n" +
+                                "Content-Type: text/plain; charset=utf-8\r\n" +
+                                "\r\n" +
+                                "4b\r\n" +
+                                "Bad request. Content-Length or chunked Transfer-Encoding header expected.\r\n" +
+                                "\r\n" +
+                                "00\r\n" +
+                                "\r\n"
+                ));
+    }
+
+    @Test
+    public void testLinesSplitBetweenReceiveBuffers() throws Exception {
+        // receive buffer is smaller than the request, lines arrive in pieces
+        testWrite(64, engine -> {
+            final StringBuilder lines = new StringBuilder();
+            final StringBuilder expected = new StringBuilder("sensor\tvalue\tlabel\ttimestamp\n");
+            for (int i = 0; i < 20; i++) {
+                lines.append("weather,sensor=s").append(i % 3).append(" value=").append(i).append("i,label=\"reading ").append(i).append("\" ").append(i + 1).append("000000000\n");
+                expected.append('s').append(i % 3).append('\t').append(i).append("\treading ").append(i).append('\t')
+                        .append("1970-01-01T00:00:").append(i < 9 ? "0" : "").append(i + 1).append(".000000Z\n");
+            }
+            // the last line does not have to be terminated
+            lines.setLength(lines.length() - 1);
+            send(lines.toString(), NO_CONTENT_RESPONSE);
+            drainWalQueue(engine);
+            assertSql(engine, "weather", expected.toString());
+        });
+    }
+
+    @Test
+    public void testNewColumnAfterRows() throws Exception {
+        testWrite(0, engine -> {
+            send("cpu,host=a usage=1.0 1000000000\n", NO_CONTENT_RESPONSE);
+            // rows of the request before the new column stay uncommitted and get nulls
+            send(
+                    "cpu,host=b usage=2.0 2000000000\n" +
+                            "cpu,host=c usage=3.0,temp=50.0 3000000000\n" +
+                            "cpu,host=d usage=4.0,temp=60.0,fan=1i 4000000000\n",
+                    NO_CONTENT_RESPONSE
+            );
+            drainWalQueue(engine);
+            assertSql(
+                    engine,
+                    "cpu",
+                    "host\tusage\ttimestamp\ttemp\tfan\n" +
+                            "a\t1.0\t1970-01-01T00:00:01.000000Z\tNaN\tNaN\n" +
+                            "b\t2.0\t1970-01-01T00:00:02.000000Z\tNaN\tNaN\n" +
+                            "c\t3.0\t1970-01-01T00:00:03.000000Z\t50.0\tNaN\n" +
+                            "d\t4.0\t1970-01-01T00:00:04.000000Z\t60.0\t1\n"
+            );
+        });
+    }
+
+    @Test
+    public void testNewColumnAfterRowsThenBadLineRollsBack() throws Exception {
+        testWrite(0, engine -> {
+            send("cpu,host=a usage=1.0 1000000000\n", NO_CONTENT_RESPONSE);
+            send(
+                    "cpu,host=b usage=2.0 2000000000\n" +
+                            "cpu,host=c usage=3.0,temp=50.0 3000000000\n" +
+                            "cpu,host=d usage=\"abc\" 4000000000\n",
+                    errorResponse("could not process line data [line=3, table=cpu, error=cast error for line protocol string [columnWriterIndex=1, columnType=DOUBLE, name=usage]]")
+            );
+            drainWalQueue(engine);
+            // the new column stays, rows of the failed request do not
+            assertSql(
+                    engine,
+                    "cpu",
+                    "host\tusage\ttimestamp\ttemp\n" +
+                            "a\t1.0\t1970-01-01T00:00:01.000000Z\tNaN\n"
+            );
+        });
+    }
+
+    @Test
+    public void testNewColumnThenBadLineRollsBack() throws Exception {
+        testWrite(0, engine -> {
+            send("cpu,host=a usage=1.0 1000000000\n", NO_CONTENT_RESPONSE);
+            send(
+                    "cpu,host=b usage=2.0,temp=50.0 2000000000\n" +
+                            "cpu,host=c usage=\"abc\" 3000000000\n",
+                    errorResponse("could not process line data [line=2, table=cpu, error=cast error for line protocol string [columnWriterIndex=1, columnType=DOUBLE, name=usage]]")
+            );
+            drainWalQueue(engine);
+            // the new column stays, rows of the failed request do not
+            assertSql(
+                    engine,
+                    "cpu",
+                    "host\tusage\ttimestamp\ttemp\n" +
+                            "a\t1.0\t1970-01-01T00:00:01.000000Z\tNaN\n"
+            );
+        });
+    }
+
+    @Test
+    public void testNonWalTableRejected() throws Exception {
+        testWrite(0, engine -> {
+            try (
+                    SqlCompiler compiler = new SqlCompiler(engine);
+                    SqlExecutionContextImpl executionContext = TestUtils.createSqlExecutionCtx(engine, 1)
+            ) {
+                compiler.compile("create table metrics (name symbol, value long, timestamp timestamp) timestamp(timestamp) partition by day bypass wal", executionContext);
+            }
+            send(
+                    "metrics,name=cpu value=10i 1000000000\n",
+                    errorResponse("could not process line data [line=1, table=metrics, error=cannot write to non-WAL table over HTTP, convert the table to WAL [table=metrics]]")
+            );
+            assertSql(engine, "metrics", "name\tvalue\ttimestamp\n");
+        });
+    }
+
+    @Test
+    public void testParseErrorRejectsRequest() throws Exception {
+        testWrite(0, engine -> {
+            send(
+                    "trades,sym=a price=1.5 1000000000\n" +
+                            "trades,sym=b price=2.5 2000000000x\n",
+                    errorResponse("could not parse measurement [line=2, error=INVALID_TIMESTAMP]")
+            );
+            drainWalQueue(engine);
+            assertSql(engine, "trades", "sym\tprice\ttimestamp\n");
+        });
+    }
+
+    @Test
+    public void testWriteWalTable() throws Exception {
+        testWrite(0, engine -> {
+            try (
+                    SqlCompiler compiler = new SqlCompiler(engine);
+                    SqlExecutionContextImpl executionContext = TestUtils.createSqlExecutionCtx(engine, 1)
+            ) {
+                compiler.compile("create table metrics (name symbol, value long, timestamp timestamp) timestamp(timestamp) partition by day wal", executionContext);
+            }
+            send(
+                    "metrics,name=cpu value=10i,extra=1.5 1000000000\n" +
+                            "metrics,name=mem value=20i 2000000000\n",
+                    NO_CONTENT_RESPONSE
+            );
+            drainWalQueue(engine);
+            assertSql(
+                    engine,
+                    "metrics",
+                    "name\tvalue\ttimestamp\textra\n" +
+                            "cpu\t10\t1970-01-01T00:00:01.000000Z\t1.5\n" +
+                            "mem\t20\t1970-01-01T00:00:02.000000Z\tNaN\n"
+            );
+        });
+    }
+
+    private static void assertSql(CairoEngine engine, String sql, String expected) throws SqlException {
+        try (
+                SqlCompiler compiler = new SqlCompiler(engine);
+                SqlExecutionContextImpl executionContext = TestUtils.createSqlExecutionCtx(engine, 1)
+        ) {
+            TestUtils.assertSql(compiler, executionContext, sql, new StringSink(), expected);
+        }
+    }
+
+    private static void drainWalQueue(CairoEngine engine) {
+        try (final ApplyWal2TableJob walApplyJob = new ApplyWal2TableJob(engine, 1, 1, null)) {
+            walApplyJob.drain(0);
+            new CheckWalTransactionsJob(engine).run(0);
+            walApplyJob.drain(0);
+        }
+    }
+
+    private static String errorResponse(String message) {
+        final String body = message + "\r\n";
+        return "HTTP/1.1 400 Bad request\r\n" +
+                "Server: questDB/1.0\r\n" +
+                "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                "Transfer-Encoding: chunked\r\n" +
+                "Content-Type: text/plain; charset=utf-8\r\n" +
+                "\r\n" +
+                Integer.toHexString(body.length()) + "\r\n" +
+                body +
+                "\r\n" +
+                "00\r\n" +
+                "\r\n";
+    }
+
+    private static void send(String lines, String response) {
+        new SendAndReceiveRequestBuilder()
+                .withNetworkFacade(NetworkFacadeImpl.INSTANCE)
+                .execute(
+                        "POST /write HTTP/1.1\r\n" +
+                                "Host: localhost:9000\r\n" +
+                                "Content-Length: " + lines.length() + "\r\n" +
+                                "\r\n" +
+                                lines,
+                        response
+                );
+    }
+
+    private static void sendChunked(String body, String response) {
+        new SendAndReceiveRequestBuilder()
+                .withNetworkFacade(NetworkFacadeImpl.INSTANCE)
+                .execute(
+                        "POST /write HTTP/1.1\r\n" +
+                                "Host: localhost:9000\r\n" +
+                                "Transfer-Encoding: chunked\r\n" +
+                                "\r\n" +
+                                body,
+                        response
+                );
+    }
+
+    private void testWrite(int receiveBufferSize, HttpQueryTestBuilder.HttpClientCode code) throws Exception {
+        final HttpServerConfigurationBuilder serverConfigurationBuilder = new HttpServerConfigurationBuilder();
+        if (receiveBufferSize > 0) {
+            serverConfigurationBuilder.withReceiveBufferSize(receiveBufferSize);
+        }
+        new HttpQueryTestBuilder()
+                .withWorkerCount(1)
+                .withTempFolder(root)
+                .withHttpServerConfigBuilder(serverConfigurationBuilder)
+                .run(new DefaultTestCairoConfiguration(root), code);
+    }
+}
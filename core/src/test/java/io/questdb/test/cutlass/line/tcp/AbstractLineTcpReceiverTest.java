@@ -98,10 +98,13 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
     protected double commitIntervalFraction = 0.5;
     protected boolean disconnectOnError = false;
     protected long maintenanceInterval = 25;
+    protected double maxLoadRatio = 1.9;
     protected int maxMeasurementSize = 256;
     protected long minIdleMsBeforeWriterRelease = 30000;
     protected int msgBufferSize = 256 * 1024;
+    protected int nUpdatesPerLoadRebalance = 10_000;
     protected NetworkFacade nf = NetworkFacadeImpl.INSTANCE;
+    protected int parallelParseChunkSize = 0;
     private final FactoryProvider factoryProvider = new DefaultFactoryProvider() {
         @Override
         public AuthenticatorFactory getAuthenticatorFactory() {
@@ -115,6 +118,7 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
     };
     protected int partitionByDefault = PartitionBy.DAY;
     protected boolean symbolAsFieldSupported;
+    protected int writerQueueTableBudget;
     protected final LineTcpReceiverConfiguration lineConfiguration = new DefaultLineTcpReceiverConfiguration() {
         @Override
         public boolean getAutoCreateNewColumns() {
@@ -165,6 +169,11 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
             return maintenanceInterval;
         }
 
+        @Override
+        public double getMaxLoadRatio() {
+            return maxLoadRatio;
+        }
+
         @Override
         public int getMaxMeasurementSize() {
             return maxMeasurementSize;
@@ -185,6 +194,16 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
             return nf;
         }
 
+        @Override
+        public int getNUpdatesPerLoadRebalance() {
+            return nUpdatesPerLoadRebalance;
+        }
+
+        @Override
+        public int getParallelParseChunkSize() {
+            return parallelParseChunkSize;
+        }
+
         @Override
         public long getWriterIdleTimeout() {
             return minIdleMsBeforeWriterRelease;
@@ -195,6 +214,11 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
             return 4;
         }
 
+        @Override
+        public int getWriterQueueTableBudget() {
+            return writerQueueTableBudget;
+        }
+
         @Override
         public boolean isSymbolAsFieldSupported() {
             return symbolAsFieldSupported;
@@ -240,11 +264,15 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
         msgBufferSize = 256 * 1024;
         minIdleMsBeforeWriterRelease = 30000;
         maintenanceInterval = 25;
+        maxLoadRatio = 1.9;
+        nUpdatesPerLoadRebalance = 10_000;
+        parallelParseChunkSize = 0;
         commitIntervalFraction = 0.5;
         commitIntervalDefault = 2000;
         partitionByDefault = PartitionBy.DAY;
         disconnectOnError = false;
         symbolAsFieldSupported = false;
+        writerQueueTableBudget = 0;
         nf = NetworkFacadeImpl.INSTANCE;
     }
 
@@ -34,6 +34,61 @@ import org.junit.Test;
 
 public class LineTcpParserTest extends BaseLineTcpContextTest {
 
+    @Test
+    public void testBinaryValues() throws Exception {
+        // raw bits of the double contain '\n', ',', ' ' and '=' bytes, which must not be treated as separators
+        final double d = Double.longBitsToDouble(0x3f0a2c3d0a203d0aL);
+        TestUtils.assertMemoryLeak(() -> {
+            final int len = 128;
+            long mem = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            try {
+                long p = putAscii(mem, "t,s=x d==");
+                p = putBinary(p, LineTcpParser.BINARY_FORMAT_DOUBLE, Double.doubleToRawLongBits(d));
+                p = putAscii(p, ",l=5i,ts==");
+                p = putBinary(p, LineTcpParser.BINARY_FORMAT_TIMESTAMP, 1234567L);
+                p = putAscii(p, " =");
+                p = putBinary(p, LineTcpParser.BINARY_FORMAT_TIMESTAMP, 987654321L);
+                p = putAscii(p, "\n");
+
+                // feed the line byte by byte to make sure parsing resumes inside binary values
+                final LineTcpParser parser = new LineTcpParser(false, false);
+                for (long hi = mem; hi <= p; hi++) {
+                    parser.of(mem);
+                    LineTcpParser.ParseResult result = parser.parseMeasurement(hi);
+                    if (hi < p) {
+                        Assert.assertEquals(LineTcpParser.ParseResult.BUFFER_UNDERFLOW, result);
+                    } else {
+                        Assert.assertEquals(LineTcpParser.ParseResult.MEASUREMENT_COMPLETE, result);
+                    }
+                }
+
+                Assert.assertEquals(4, parser.getEntityCount());
+                Assert.assertEquals(LineTcpParser.ENTITY_TYPE_TAG, parser.getEntity(0).getType());
+                Assert.assertEquals(LineTcpParser.ENTITY_TYPE_FLOAT, parser.getEntity(1).getType());
+                Assert.assertEquals("d", parser.getEntity(1).getName().toString());
+                Assert.assertEquals(d, parser.getEntity(1).getFloatValue(), 0);
+                Assert.assertEquals(LineTcpParser.ENTITY_TYPE_INTEGER, parser.getEntity(2).getType());
+                Assert.assertEquals(5, parser.getEntity(2).getLongValue());
+                Assert.assertEquals(LineTcpParser.ENTITY_TYPE_TIMESTAMP, parser.getEntity(3).getType());
+                Assert.assertEquals("ts", parser.getEntity(3).getName().toString());
+                Assert.assertEquals(1234567L, parser.getEntity(3).getLongValue());
+                Assert.assertEquals(987654321L, parser.getTimestamp());
+            } finally {
+                Unsafe.free(mem, len, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
+    @Test
+    public void testBinaryValuesInvalid() throws Exception {
+        assertBinaryError("t d==", (byte) 42, " 1\n", LineTcpParser.ErrorCode.INVALID_FIELD_VALUE);
+        assertBinaryError("t d==", LineTcpParser.BINARY_FORMAT_DOUBLE, "x\n", LineTcpParser.ErrorCode.INVALID_FIELD_SEPARATOR);
+        assertBinaryError("t d=1.0 =", LineTcpParser.BINARY_FORMAT_DOUBLE, "\n", LineTcpParser.ErrorCode.INVALID_TIMESTAMP);
+        assertBinaryError("t d=1.0 =", LineTcpParser.BINARY_FORMAT_TIMESTAMP, ",\n", LineTcpParser.ErrorCode.INVALID_FIELD_SEPARATOR);
+        // tags cannot be binary
+        assertBinaryError("t,s==", LineTcpParser.BINARY_FORMAT_DOUBLE, " d=1.0\n", LineTcpParser.ErrorCode.INVALID_FIELD_SEPARATOR);
+    }
+
     @Test
     public void testGetValueType() throws Exception {
         assertType(LineTcpParser.ENTITY_TYPE_TAG, "null");
@@ -105,6 +160,24 @@ public class LineTcpParserTest extends BaseLineTcpContextTest {
         assertType(LineTcpParser.ENTITY_TYPE_INTEGER, "9223372036854775807i");
     }
 
+    private static void assertBinaryError(String prefix, byte format, String suffix, LineTcpParser.ErrorCode expectedErrorCode) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final int len = 128;
+            long mem = Unsafe.malloc(len, MemoryTag.NATIVE_DEFAULT);
+            try {
+                long p = putAscii(mem, prefix);
+                p = putBinary(p, format, 0);
+                p = putAscii(p, suffix);
+                final LineTcpParser parser = new LineTcpParser(false, false);
+                parser.of(mem);
+                Assert.assertEquals(LineTcpParser.ParseResult.ERROR, parser.parseMeasurement(p));
+                Assert.assertEquals(expectedErrorCode, parser.getErrorCode());
+            } finally {
+                Unsafe.free(mem, len, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
     private static void assertError(int type, String value) throws Exception {
         assertType(type, value, value, LineTcpParser.ParseResult.ERROR, false, false);
     }
@@ -157,4 +230,17 @@ public class LineTcpParserTest extends BaseLineTcpContextTest {
             }
         });
     }
+
+    private static long putAscii(long p, String value) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            Unsafe.getUnsafe().putByte(p++, (byte) value.charAt(i));
+        }
+        return p;
+    }
+
+    private static long putBinary(long p, byte format, long value) {
+        Unsafe.getUnsafe().putByte(p, format);
+        Unsafe.getUnsafe().putLong(p + 1, value);
+        return p + 1 + Long.BYTES;
+    }
 }
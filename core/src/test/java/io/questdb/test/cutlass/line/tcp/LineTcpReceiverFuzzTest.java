@@ -65,6 +65,14 @@ public class LineTcpReceiverFuzzTest extends AbstractLineTcpReceiverFuzzTest {
         runTest();
     }
 
+    @Test
+    public void testAllMixedParallelParse() throws Exception {
+        parallelParseChunkSize = 64;
+        initLoadParameters(50, Os.isWindows() ? 3 : 5, 5, 5, 50);
+        initFuzzParameters(3, 4, 5, 10, 5, true, true, true, true);
+        runTest();
+    }
+
     @Test
     public void testAllMixedSplitPart() throws Exception {
         initLoadParameters(50, Os.isWindows() ? 3 : 5, 5, 1, 50);
@@ -106,6 +114,15 @@ public class LineTcpReceiverFuzzTest extends AbstractLineTcpReceiverFuzzTest {
         runTest();
     }
 
+    @Test
+    public void testLoadRebalanceTables() throws Exception {
+        // move tables between writer threads on every maintenance cycle
+        maxLoadRatio = 1;
+        nUpdatesPerLoadRebalance = 1;
+        initLoadParameters(100, Os.isWindows() ? 3 : 5, 7, 12, 20);
+        runTest();
+    }
+
     @Test
     public void testLoadSendSymbolsWithSpace() throws Exception {
         initLoadParameters(100, Os.isWindows() ? 3 : 5, 4, 8, 20);
@@ -141,6 +158,29 @@ public class LineTcpReceiverFuzzTest extends AbstractLineTcpReceiverFuzzTest {
         });
     }
 
+    @Test
+    public void testParallelParseKeepsRowOrder() throws Exception {
+        parallelParseChunkSize = 128;
+        final int lineCount = 500;
+        final StringBuilder lines = new StringBuilder();
+        final StringBuilder expected = new StringBuilder("tag\ti\ts\ttimestamp\n");
+        for (int i = 0; i < lineCount; i++) {
+            // rows share the timestamp, the table keeps them in the order they were received
+            lines.append("table,tag=a\\ b i=").append(i).append("i,s=\"x\\\"y\" 1000\n");
+            if (i % 10 == 0) {
+                // lines that fail to parse are skipped
+                lines.append("table,tag=a i=1i 1x\n");
+            }
+            expected.append("a b\t").append(i).append("\tx\"y\t1970-01-01T00:00:00.000001Z\n");
+        }
+
+        runInContext((receiver) -> {
+            send("table", WAIT_ENGINE_TABLE_RELEASE, () -> sendToSocket(lines.toString()));
+            mayDrainWalQueue();
+            assertTable(expected, "table");
+        }, false, 250);
+    }
+
     @Test
     public void testReorderingAddSkipDuplicateColumnsWithNonAscii() throws Exception {
         initLoadParameters(100, Os.isWindows() ? 3 : 5, 5, 5, 50);
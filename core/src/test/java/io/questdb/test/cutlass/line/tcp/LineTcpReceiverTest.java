@@ -36,8 +36,11 @@ import io.questdb.cairo.vm.api.MemoryMARW;
 import io.questdb.cutlass.line.AbstractLineSender;
 import io.questdb.cutlass.line.LineSenderException;
 import io.questdb.cutlass.line.LineTcpSender;
+import io.questdb.cutlass.line.LineUdpSender;
 import io.questdb.cutlass.line.tcp.LineTcpReceiver;
 import io.questdb.cutlass.line.tcp.PlainTcpLineChannel;
+import io.questdb.cutlass.line.udp.DefaultLineUdpReceiverConfiguration;
+import io.questdb.cutlass.line.udp.LineUdpReceiverConfiguration;
 import io.questdb.griffin.CompiledQuery;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
@@ -555,6 +558,47 @@ public class LineTcpReceiverTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testManyNewColumnsInOneLine() throws Exception {
+        maxMeasurementSize = 4096;
+        final int newFieldCount = 20;
+        runInContext((receiver) -> {
+            final StringBuilder lineData = new StringBuilder("feed,sym=a v=1i 1000000000\n");
+            lineData.append("feed,sym=b,t0=x ");
+            for (int i = 0; i < newFieldCount; i++) {
+                lineData.append(i > 0 ? "," : "").append('f').append(i).append('=').append(i).append('i');
+            }
+            lineData.append(" 2000000000\n");
+            // existing symbol is written after the new columns were added
+            lineData.append("feed,sym=a,t0=y v=3i,f5=55i 3000000000\n");
+            sendLinger(lineData.toString(), "feed");
+
+            mayDrainWalQueue();
+            if (walEnabled) {
+                Assert.assertTrue(isWalTable("feed"));
+            }
+            final StringSink expected = new StringSink();
+            expected.put("sym\tv\ttimestamp\tt0");
+            for (int i = 0; i < newFieldCount; i++) {
+                expected.put("\tf").put(i);
+            }
+            expected.put("\na\t1\t1970-01-01T00:00:01.000000Z\t");
+            for (int i = 0; i < newFieldCount; i++) {
+                expected.put("\tNaN");
+            }
+            expected.put("\nb\tNaN\t1970-01-01T00:00:02.000000Z\tx");
+            for (int i = 0; i < newFieldCount; i++) {
+                expected.put('\t').put(i);
+            }
+            expected.put("\na\t3\t1970-01-01T00:00:03.000000Z\ty");
+            for (int i = 0; i < newFieldCount; i++) {
+                expected.put('\t').put(i == 5 ? "55" : "NaN");
+            }
+            expected.put('\n');
+            assertTable(expected, "feed");
+        });
+    }
+
     @Test
     public void testMetaDataSizeToHitExactly16K() throws Exception {
         final String tableName = "метеорологично_време";
@@ -1014,6 +1058,46 @@ public class LineTcpReceiverTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testTableQueueBudgetDoesNotBlockOtherTables() throws Exception {
+        // WAL tables are appended by the IO threads and never queued
+        Assume.assumeFalse(walEnabled);
+        writerQueueTableBudget = 2;
+        assertMemoryLeak(() -> {
+            final WorkerPool writerPool = new TestWorkerPool(1, metrics);
+            try (LineTcpReceiver ignored = new LineTcpReceiver(lineConfiguration, engine, sharedWorkerPool, writerPool)) {
+                sharedWorkerPool.start(LOG);
+                try {
+                    final long backPressured = metrics.lineTcp().backPressuredConnectionsGauge().getValue();
+                    final StringSink sink = new StringSink();
+                    try (Socket busy = newSocket(); Socket quiet = newSocket()) {
+                        // writer is not running, the third row is over the table's budget
+                        sendToSocket(busy, "busy v=1i 1000\nbusy v=2i 2000\nbusy v=3i 3000\nbusy v=4i 4000\n");
+                        TestUtils.assertEventually(() -> Assert.assertEquals(backPressured + 1, metrics.lineTcp().backPressuredConnectionsGauge().getValue()));
+
+                        // the other table still gets its share of the writer queue
+                        sendToSocket(quiet, "quiet v=1i 1000\nquiet v=2i 2000\n");
+                        TestUtils.assertEventually(() -> {
+                            sink.clear();
+                            metrics.scrapeIntoPrometheus(sink);
+                            TestUtils.assertContains(sink, "questdb_line_tcp_table_queue_depth{table=\"busy\"} 2\n");
+                            TestUtils.assertContains(sink, "questdb_line_tcp_table_queue_depth{table=\"quiet\"} 2\n");
+                        });
+                    }
+
+                    writerPool.start(LOG);
+                    assertTableSizeEventually(engine, "busy", 4);
+                    assertTableSizeEventually(engine, "quiet", 2);
+                    TestUtils.assertEventually(() -> Assert.assertEquals(backPressured, metrics.lineTcp().backPressuredConnectionsGauge().getValue()));
+                } finally {
+                    writerPool.halt();
+                    sharedWorkerPool.halt();
+                    Path.clearThreadLocals();
+                }
+            }
+        });
+    }
+
     @Test
     public void testTableTableIdChangedOnRecreate() throws Exception {
         assertMemoryLeak(() -> {
@@ -1150,6 +1234,75 @@ public class LineTcpReceiverTest extends AbstractLineTcpReceiverTest {
         test(null, null, 200, 1_000, false);
     }
 
+    @Test
+    public void testUdpSocketsShareWriterQueues() throws Exception {
+        final int localhost = Net.parseIPv4("127.0.0.1");
+        final LineUdpReceiverConfiguration udpConfiguration = new DefaultLineUdpReceiverConfiguration() {
+            @Override
+            public int getBindIPv4Address() {
+                return localhost;
+            }
+
+            @Override
+            public int getPort() {
+                return bindPort;
+            }
+
+            @Override
+            public int getSocketCount() {
+                return 2;
+            }
+
+            @Override
+            public boolean isUnicast() {
+                return true;
+            }
+        };
+        assertMemoryLeak(() -> {
+            final WorkerPool udpPool = new TestWorkerPool(udpConfiguration.getSocketCount(), metrics);
+            try (LineTcpReceiver ignored = new LineTcpReceiver(lineConfiguration, engine, sharedWorkerPool, sharedWorkerPool, udpConfiguration, udpPool)) {
+                sharedWorkerPool.start(LOG);
+                udpPool.start(LOG);
+                try {
+                    // every sender has its own source port, the kernel may pick different sockets for them
+                    for (int s = 0; s < 4; s++) {
+                        try (LineUdpSender sender = new LineUdpSender(NetworkFacadeImpl.INSTANCE, 0, localhost, bindPort, 200, 1)) {
+                            for (int i = 0; i < 25; i++) {
+                                sender.metric("udp").tag("sender", "s" + s).field("v", i).$((s * 25L + i) * 1_000_000_000L);
+                            }
+                            sender.flush();
+                        }
+                    }
+
+                    TestUtils.assertEventually(() -> {
+                        mayDrainWalQueue();
+                        assertTableExists(engine, "udp");
+                        try (TableReader reader = getReader("udp")) {
+                            Assert.assertEquals(100, reader.size());
+                        }
+                    });
+                    if (walEnabled) {
+                        Assert.assertTrue(isWalTable("udp"));
+                    }
+                    final StringSink expected = new StringSink();
+                    expected.put("sender\tv\ttimestamp\n");
+                    for (int s = 0; s < 4; s++) {
+                        for (int i = 0; i < 25; i++) {
+                            expected.put('s').put(s).put('\t').put(i).put('\t');
+                            TimestampFormatUtils.appendDateTimeUSec(expected, (s * 25L + i) * Timestamps.SECOND_MICROS);
+                            expected.put('\n');
+                        }
+                    }
+                    assertTable(expected, "udp");
+                } finally {
+                    udpPool.halt();
+                    sharedWorkerPool.halt();
+                    Path.clearThreadLocals();
+                }
+            }
+        });
+    }
+
     @Test
     public void testUnicodeTableName() throws Exception {
         byte[] utf8Bytes = "ल".getBytes(Files.UTF_8);
@@ -1365,10 +1518,15 @@ public class LineTcpReceiverTest extends AbstractLineTcpReceiverTest {
         Assume.assumeFalse(walEnabled);
 
         runInContext((receiver) -> {
+            // new columns are added before the row is started, so fail the writer
+            // when it adds the new column to the table metadata
             ff = new TestFilesFacadeImpl() {
                 @Override
-                public int rmdir(Path path) {
-                    return 5;
+                public int openRW(LPSZ name, long opts) {
+                    if (Chars.contains(name, TableUtils.META_SWAP_FILE_NAME)) {
+                        return -1;
+                    }
+                    return super.openRW(name, opts);
                 }
             };
 
@@ -29,11 +29,12 @@ import io.questdb.client.Sender;
 import io.questdb.cutlass.line.LineChannel;
 import io.questdb.cutlass.line.LineSenderException;
 import io.questdb.cutlass.line.LineTcpSender;
+import io.questdb.cutlass.line.PooledLineTcpSender;
 import io.questdb.cutlass.auth.AuthUtils;
+import io.questdb.cutlass.line.tcp.AsyncLineChannel;
 import io.questdb.griffin.model.IntervalUtils;
 import io.questdb.network.Net;
-import io.questdb.std.Chars;
-import io.questdb.std.Os;
+import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
 import io.questdb.std.str.StringSink;
 import io.questdb.test.CreateTableTestUtils;
@@ -57,6 +58,106 @@ public class LineTcpSenderTest extends AbstractLineTcpReceiverTest {
     private final static String TOKEN = "UvuVb1USHGRRT08gEnwN2zGZrvM4MsLQ5brgF6SVkAw=";
     private final static PrivateKey AUTH_PRIVATE_KEY1 = AuthUtils.toPrivateKey(TOKEN);
 
+    @Test
+    public void testAsyncChannelReplaysFailedBuffer() throws Exception {
+        assertMemoryLeak(() -> {
+            final StringSink sent = new StringSink();
+            final DummyLineChannel failing = new DummyLineChannel() {
+                @Override
+                public void send(long ptr, int len) {
+                    throw new LineSenderException("send error");
+                }
+            };
+            final DummyLineChannel recording = new DummyLineChannel() {
+                @Override
+                public void send(long ptr, int len) {
+                    for (int i = 0; i < len; i++) {
+                        sent.put((char) Unsafe.getUnsafe().getByte(ptr + i));
+                    }
+                }
+            };
+            final int[] connects = {0};
+            final String line = "mytable x=1i\n";
+            final long buf = Unsafe.malloc(line.length(), MemoryTag.NATIVE_DEFAULT);
+            try {
+                Chars.asciiStrCpy(line, buf);
+                try (AsyncLineChannel channel = new AsyncLineChannel(failing, () -> {
+                    connects[0]++;
+                    return recording;
+                }, 1024, 10_000)) {
+                    channel.send(buf, line.length());
+                }
+            } finally {
+                Unsafe.free(buf, line.length(), MemoryTag.NATIVE_DEFAULT);
+            }
+            assertEquals(1, connects[0]);
+            assertEquals(1, failing.closeCounter);
+            assertEquals(1, recording.closeCounter);
+            TestUtils.assertEquals(line, sent);
+        });
+    }
+
+    @Test
+    public void testAsyncChannelReplaysWholeLines() throws Exception {
+        // the second line is split between the two sends
+        assertAsyncChannelReplaysWholeLines(
+                "a x=1i\nb x=2i\nc x=3i\n",
+                10,
+                7,
+                "a x=1i\n|",
+                "b x=2i\nc x=3i\n|"
+        );
+    }
+
+    @Test
+    public void testAsyncChannelReplaysWholeLinesWithBinaryValue() throws Exception {
+        // binary double 0x40240A0A0A0A0A0A, the first send ends right after a 0x0A byte of the value
+        assertAsyncChannelReplaysWholeLines(
+                "a x=1i\nb d==\u0010\n\n\n\n\n\n$@\nc x=3i\n",
+                14,
+                7,
+                "a x=1i\n|",
+                "b d==\u0010\n\n\n\n\n\n$@\nc x=3i\n|"
+        );
+    }
+
+    @Test
+    public void testAsyncChannelReplaysWholeLinesWithEscapedNewline() throws Exception {
+        // the first send ends right after the escaped line end
+        assertAsyncChannelReplaysWholeLines(
+                "a x=1i\nb s=\"p\\\nq\"\nc x=3i\n",
+                15,
+                7,
+                "a x=1i\n|",
+                "b s=\"p\\\nq\"\nc x=3i\n|"
+        );
+    }
+
+    @Test
+    public void testAsyncChannelReportsSendError() throws Exception {
+        assertMemoryLeak(() -> {
+            final DummyLineChannel failing = new DummyLineChannel() {
+                @Override
+                public void send(long ptr, int len) {
+                    throw new LineSenderException("send error");
+                }
+            };
+            final String line = "mytable x=1i\n";
+            final long buf = Unsafe.malloc(line.length(), MemoryTag.NATIVE_DEFAULT);
+            try (AsyncLineChannel channel = new AsyncLineChannel(failing, null, 16, 0)) {
+                Chars.asciiStrCpy(line, buf);
+                channel.send(buf, line.length());
+                channel.close();
+                fail("send error should be reported");
+            } catch (LineSenderException e) {
+                assertContains(e.getMessage(), "send error");
+            } finally {
+                Unsafe.free(buf, line.length(), MemoryTag.NATIVE_DEFAULT);
+            }
+            assertEquals(1, failing.closeCounter);
+        });
+    }
+
     @Test
     public void testAuthSuccess() throws Exception {
         authKeyId = AUTH_KEY_ID1;
@@ -110,6 +211,94 @@ public class LineTcpSenderTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testBuilderAsyncFlush() throws Exception {
+        runInContext(r -> {
+            try (Sender sender = Sender.builder()
+                    .address("127.0.0.1")
+                    .port(bindPort)
+                    .bufferCapacity(1024)
+                    .enableAsyncFlush()
+                    .autoFlushRows(100)
+                    .reconnectTimeoutMillis(1_000)
+                    .build()) {
+                for (int i = 0; i < 1_000; i++) {
+                    sender.table("mytable").symbol("sym", "s" + (i % 7)).longColumn("l", i).atNow();
+                }
+                sender.flush();
+                assertTableSizeEventually(engine, "mytable", 1_000);
+            }
+        });
+    }
+
+    @Test
+    public void testBuilderAutoFlushRows() throws Exception {
+        runInContext(r -> {
+            try (Sender sender = Sender.builder()
+                    .address("127.0.0.1")
+                    .port(bindPort)
+                    .autoFlushRows(5)
+                    .build()) {
+                for (int i = 0; i < 7; i++) {
+                    sender.table("mytable").longColumn("l", i).atNow();
+                }
+                // the last 2 rows stay in the buffer until the sender is flushed
+                assertTableSizeEventually(engine, "mytable", 5);
+            }
+        });
+    }
+
+    @Test
+    public void testBuilderBinaryEncoding() throws Exception {
+        runInContext(r -> {
+            try (Sender sender = Sender.builder()
+                    .address("127.0.0.1")
+                    .port(bindPort)
+                    .enableBinaryEncoding()
+                    .build()) {
+
+                long ts = IntervalUtils.parseFloorPartialTimestamp("2022-02-25");
+                sender.table("mytable")
+                        .symbol("sym", "a")
+                        .doubleColumn("d", 1.5)
+                        .doubleColumn("nan", Double.NaN)
+                        // raw bits of this value contain '\n', ',' and '=' bytes
+                        .doubleColumn("ctrl", Double.longBitsToDouble(0x3f0a2c3d0a203d0aL))
+                        .longColumn("l", 42)
+                        .timestampColumn("ts_col", ts + 1)
+                        .at(ts * 1000);
+                sender.flush();
+
+                assertTableSizeEventually(engine, "mytable", 1);
+                try (TableReader reader = getReader("mytable")) {
+                    TestUtils.assertReader("sym\td\tnan\tctrl\tl\tts_col\ttimestamp\n" +
+                            "a\t1.5\tNaN\t" + Double.longBitsToDouble(0x3f0a2c3d0a203d0aL) + "\t42\t2022-02-25T00:00:00.000001Z\t2022-02-25T00:00:00.000000Z\n", reader, new StringSink());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testBuilderConnectionPool() throws Exception {
+        runInContext(r -> {
+            try (Sender sender = Sender.builder()
+                    .address("127.0.0.1")
+                    .port(bindPort)
+                    .connectionCount(3)
+                    .build()) {
+                assertEquals(3, ((PooledLineTcpSender) sender).getConnectionCount());
+                long ts = IntervalUtils.parseFloorPartialTimestamp("2022-02-25");
+                for (int i = 0; i < 100; i++) {
+                    sender.table("t" + (i % 4)).longColumn("l", i).at((ts + i) * 1000);
+                }
+                sender.flush();
+                for (int i = 0; i < 4; i++) {
+                    assertTableSizeEventually(engine, "t" + i, 25);
+                }
+            }
+        });
+    }
+
     @Test
     public void testBuilderPlainText_addressWithExplicitIpAndPort() throws Exception {
         runInContext(r -> {
@@ -354,6 +543,46 @@ public class LineTcpSenderTest extends AbstractLineTcpReceiverTest {
         });
     }
 
+    @Test
+    public void testPooledSenderRoutesTablesToLeastLoadedConnection() {
+        final ObjList<Sender> senders = new ObjList<>();
+        final ObjList<DummyLineChannel> channels = new ObjList<>();
+        final IntList sentRows = new IntList();
+        for (int i = 0; i < 3; i++) {
+            final int index = i;
+            sentRows.add(0);
+            final DummyLineChannel channel = new DummyLineChannel() {
+                @Override
+                public void send(long ptr, int len) {
+                    for (int j = 0; j < len; j++) {
+                        if (Unsafe.getUnsafe().getByte(ptr + j) == '\n') {
+                            sentRows.increment(index);
+                        }
+                    }
+                }
+            };
+            channels.add(channel);
+            senders.add(new LineTcpSender(channel, 1024));
+        }
+        try (PooledLineTcpSender sender = new PooledLineTcpSender(senders)) {
+            for (int i = 0; i < 10; i++) {
+                sender.table("a").longColumn("l", i).atNow();
+            }
+            sender.table("b").longColumn("l", 0).atNow();
+            sender.table("c").longColumn("l", 0).atNow();
+            // table names are case-insensitive
+            sender.table("A").longColumn("l", 10).atNow();
+            sender.table("d").longColumn("l", 0).atNow();
+            sender.flush();
+        }
+        assertEquals(11, sentRows.getQuick(0));
+        assertEquals(2, sentRows.getQuick(1));
+        assertEquals(1, sentRows.getQuick(2));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, channels.getQuick(i).closeCounter);
+        }
+    }
+
     @Test
     public void testServerIgnoresUnfinishedRows() throws Exception {
         String tableName = "myTable";
@@ -561,6 +790,57 @@ public class LineTcpSenderTest extends AbstractLineTcpReceiverTest {
         }
     }
 
+    private static void putChunk(StringSink sink, long ptr, int len) {
+        for (int i = 0; i < len; i++) {
+            sink.put((char) Unsafe.getUnsafe().getByte(ptr + i));
+        }
+        sink.put('|');
+    }
+
+    private void assertAsyncChannelReplaysWholeLines(
+            String lines,
+            int firstSendLen,
+            int firstLinesLen,
+            String expectedBeforeFailure,
+            String expectedAfterReconnect
+    ) throws Exception {
+        assertMemoryLeak(() -> {
+            final StringSink sentBeforeFailure = new StringSink();
+            final StringSink sentAfterReconnect = new StringSink();
+            final DummyLineChannel failing = new DummyLineChannel() {
+                private int sendCount;
+
+                @Override
+                public void send(long ptr, int len) {
+                    if (sendCount++ > 0) {
+                        throw new LineSenderException("send error");
+                    }
+                    putChunk(sentBeforeFailure, ptr, len);
+                }
+            };
+            final DummyLineChannel recording = new DummyLineChannel() {
+                @Override
+                public void send(long ptr, int len) {
+                    putChunk(sentAfterReconnect, ptr, len);
+                }
+            };
+            final long buf = Unsafe.malloc(lines.length(), MemoryTag.NATIVE_DEFAULT);
+            try {
+                Chars.asciiStrCpy(lines, buf);
+                try (AsyncLineChannel channel = new AsyncLineChannel(failing, () -> recording, 16, 10_000)) {
+                    final int restLen = lines.length() - firstSendLen;
+                    channel.send(buf, firstSendLen, firstLinesLen);
+                    channel.send(buf + firstSendLen, restLen, restLen);
+                }
+            } finally {
+                Unsafe.free(buf, lines.length(), MemoryTag.NATIVE_DEFAULT);
+            }
+            // every buffer ends with a complete line, the replayed one starts with a complete line
+            TestUtils.assertEquals(expectedBeforeFailure, sentBeforeFailure);
+            TestUtils.assertEquals(expectedAfterReconnect, sentAfterReconnect);
+        });
+    }
+
     private void assertSymbolsCannotBeWrittenAfterOtherType(Consumer<Sender> otherTypeWriter) throws Exception {
         runInContext(r -> {
             try (Sender sender = Sender.builder()
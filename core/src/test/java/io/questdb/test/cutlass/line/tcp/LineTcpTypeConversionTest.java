@@ -24,6 +24,7 @@
 
 package io.questdb.test.cutlass.line.tcp;
 
+import io.questdb.cutlass.line.tcp.LineTcpParser;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
@@ -123,6 +124,24 @@ public class LineTcpTypeConversionTest extends BaseLineTcpContextTest {
         );
     }
 
+    @Test
+    public void testConversionToDoubleArray() throws Exception {
+        resetTime();
+        String table = "convTest";
+        // only string fields carry arrays, values that do not parse are rejected
+        testConversion(table,
+                "create table " + table + " (testCol DOUBLE[], time TIMESTAMP) timestamp(time) partition by day" + (walEnabled ? " WAL;" : ";"),
+                table + " testCol=\"{1.5,2}\" " + nextTime() + "\n" +
+                        table + " testCol=\"questdb\" " + nextTime() + "\n" +
+                        table + " testCol=1.5 " + nextTime() + "\n" +
+                        table + ",testCol=q " + nextTime() + "\n" +
+                        table + " testCol=\"[3]\" " + nextTime() + "\n",
+                "testCol\ttime\n" +
+                        "00000000 00 00 00 00 00 00 f8 3f 00 00 00 00 00 00 00 40\t2016-06-13T17:43:50.100401Z\n" +
+                        "00000000 00 00 00 00 00 00 08 40\t2016-06-13T17:43:50.100405Z\n"
+        );
+    }
+
     @Test
     public void testConversionToFloat() throws Exception {
         testConversionToType("FLOAT", "testCol\ttime\n" +
@@ -181,6 +200,28 @@ public class LineTcpTypeConversionTest extends BaseLineTcpContextTest {
         );
     }
 
+    @Test
+    public void testBinaryConversionToDouble() throws Exception {
+        testBinaryConversionToType("DOUBLE", "testCol\ttime\n" +
+                "10.01953125\t2016-06-13T17:43:50.100401Z\n"
+        );
+    }
+
+    @Test
+    public void testBinaryConversionToSymbol() throws Exception {
+        testBinaryConversionToType("SYMBOL", "testCol\ttime\n" +
+                "10.01953125\t2016-06-13T17:43:50.100401Z\n" +
+                "1465855326685706\t2016-06-13T17:43:50.100402Z\n"
+        );
+    }
+
+    @Test
+    public void testBinaryConversionToTimestamp() throws Exception {
+        testBinaryConversionToType("TIMESTAMP", "testCol\ttime\n" +
+                "2016-06-13T22:02:06.685706Z\t2016-06-13T17:43:50.100402Z\n"
+        );
+    }
+
     @Test
     public void testConversionToString() throws Exception {
         testConversionToType("STRING", "testCol\ttime\n" +
@@ -243,6 +284,18 @@ public class LineTcpTypeConversionTest extends BaseLineTcpContextTest {
         );
     }
 
+    private static String binaryValue(byte format, long value) {
+        // payload bytes are kept below 0x80 to survive the UTF-8 encoding of the receive buffer
+        final StringBuilder sb = new StringBuilder();
+        sb.append((char) format);
+        for (int i = 0; i < Long.BYTES; i++) {
+            final char b = (char) ((value >>> (i * 8)) & 0xff);
+            Assert.assertTrue(b < 0x80);
+            sb.append(b);
+        }
+        return sb.toString();
+    }
+
     private void mayDrainWalQueue() {
         if (walEnabled) {
             drainWalQueue();
@@ -282,6 +335,18 @@ public class LineTcpTypeConversionTest extends BaseLineTcpContextTest {
         });
     }
 
+    private void testBinaryConversionToType(String type, String expected) throws Exception {
+        resetTime();
+        String table = "convTest";
+        // both payloads contain '\n' bytes
+        testConversion(table,
+                "create table " + table + " (testCol " + type + ", time TIMESTAMP) timestamp(time) partition by day" + (walEnabled ? " WAL;" : ";"),
+                table + " testCol==" + binaryValue(LineTcpParser.BINARY_FORMAT_DOUBLE, Double.doubleToRawLongBits(10.01953125)) + " " + nextTime() + "\n" +
+                        table + " testCol==" + binaryValue(LineTcpParser.BINARY_FORMAT_TIMESTAMP, 1465855326685706L) + " " + nextTime() + "\n",
+                expected
+        );
+    }
+
     private void testConversionToType(String type, String expected) throws Exception {
         resetTime();
         String table = "convTest";
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.replication;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.wal.WalPurgeJob;
+import io.questdb.cutlass.replication.DefaultReplicationConfiguration;
+import io.questdb.cutlass.replication.ReplicationClient;
+import io.questdb.cutlass.replication.ReplicationServer;
+import io.questdb.griffin.SqlException;
+import io.questdb.mp.WorkerPool;
+import io.questdb.test.QuestDBTestNode;
+import io.questdb.test.griffin.AbstractMultiNodeTest;
+import io.questdb.test.mp.TestWorkerPool;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReplicationTest extends AbstractMultiNodeTest {
+    private static final DefaultReplicationConfiguration replicationConfiguration = new DefaultReplicationConfiguration() {
+        @Override
+        public long getPollInterval() {
+            return 0;
+        }
+    };
+
+    @Test
+    public void testPrimaryRetainsWalUntilReplicaFetches() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final QuestDBTestNode replica = nodes.get(1);
+            createTable(tableName);
+
+            try (
+                    WorkerPool workerPool = new TestWorkerPool(1);
+                    ReplicationServer server = new ReplicationServer(replicationConfiguration, engine, workerPool);
+                    ReplicationClient client = new ReplicationClient(replicationConfiguration, replica.getEngine())
+            ) {
+                engine.addWalRetention(server);
+                try {
+                    workerPool.start(LOG);
+                    replicate(client);
+
+                    compile("insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')");
+                    drainWalQueue();
+                    engine.releaseInactive();
+
+                    // the replica has not fetched the transaction yet
+                    runWalPurgeJob();
+                    assertWalExistence(true, tableName, 1);
+
+                    replicate(client);
+                    // the primary learns that the replica has the transaction on its next fetch
+                    runWalPurgeJob();
+                    assertWalExistence(true, tableName, 1);
+
+                    replicate(client);
+                    runWalPurgeJob();
+                    assertWalExistence(false, tableName, 1);
+                } finally {
+                    workerPool.halt();
+                    engine.removeWalRetention(server);
+                }
+            }
+
+            drainWalQueue(replica);
+            assertReplicaSql(replica, tableName, "x\tts\n" +
+                    "1\t2022-02-24T00:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testPrimaryStopsRetainingWalOfIdleReplica() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final QuestDBTestNode replica = nodes.get(1);
+            createTable(tableName);
+
+            final DefaultReplicationConfiguration expiringConfiguration = new DefaultReplicationConfiguration() {
+                @Override
+                public long getRetentionTimeout() {
+                    return 0;
+                }
+            };
+            try (
+                    WorkerPool workerPool = new TestWorkerPool(1);
+                    ReplicationServer server = new ReplicationServer(expiringConfiguration, engine, workerPool);
+                    ReplicationClient client = new ReplicationClient(expiringConfiguration, replica.getEngine())
+            ) {
+                engine.addWalRetention(server);
+                try {
+                    workerPool.start(LOG);
+                    replicate(client);
+
+                    compile("insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')");
+                    drainWalQueue();
+                    engine.releaseInactive();
+
+                    // the replica has not fetched the transaction, but its retention has expired
+                    runWalPurgeJob();
+                    assertWalExistence(false, tableName, 1);
+                } finally {
+                    workerPool.halt();
+                    engine.removeWalRetention(server);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testReplicaRejectsWrites() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final QuestDBTestNode replica = nodes.get(1);
+            createTable(tableName);
+
+            try (ReplicationClient ignore = new ReplicationClient(replicationConfiguration, replica.getEngine())) {
+                try {
+                    compile(
+                            "insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')",
+                            replica.getSqlCompiler(),
+                            replica.getSqlExecutionContext()
+                    );
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "read-only replica");
+                }
+            }
+
+            // writes are accepted again once the instance stops replicating
+            compile(
+                    "insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')",
+                    replica.getSqlCompiler(),
+                    replica.getSqlExecutionContext()
+            );
+            drainWalQueue(replica);
+            assertReplicaSql(replica, tableName, "x\tts\n" +
+                    "1\t2022-02-24T00:00:00.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testReplicate() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final QuestDBTestNode replica = nodes.get(1);
+            createTable(tableName);
+
+            try (
+                    WorkerPool workerPool = new TestWorkerPool(1);
+                    ReplicationServer server = new ReplicationServer(replicationConfiguration, engine, workerPool);
+                    ReplicationClient client = new ReplicationClient(replicationConfiguration, replica.getEngine())
+            ) {
+                try {
+                    workerPool.start(LOG);
+
+                    compile("insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')");
+                    compile("insert into " + tableName + " values (2, '2022-02-25T00:00:00.000000Z')");
+                    replicate(client);
+                    drainWalQueue(replica);
+                    assertReplicaSql(replica, tableName, "x\tts\n" +
+                            "1\t2022-02-24T00:00:00.000000Z\n" +
+                            "2\t2022-02-25T00:00:00.000000Z\n");
+
+                    compile("alter table " + tableName + " add column s symbol");
+                    compile("insert into " + tableName + " values (3, '2022-02-26T00:00:00.000000Z', 'abc')");
+                    replicate(client);
+                    drainWalQueue(replica);
+                    assertReplicaSql(replica, tableName, "x\tts\ts\n" +
+                            "1\t2022-02-24T00:00:00.000000Z\t\n" +
+                            "2\t2022-02-25T00:00:00.000000Z\t\n" +
+                            "3\t2022-02-26T00:00:00.000000Z\tabc\n");
+
+                    // nothing new to fetch
+                    replicate(client);
+                    drainWalQueue(replica);
+                    Assert.assertEquals(4, replica.getEngine().getTableSequencerAPI().lastTxn(replica.getEngine().verifyTableName(tableName)));
+                } finally {
+                    workerPool.halt();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testReplicateIncrementally() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final QuestDBTestNode replica = nodes.get(1);
+            final String ddl = "create table " + tableName + " (x long, s symbol, str string, ts timestamp) timestamp(ts) partition by DAY WAL";
+            compile(ddl);
+            replica.getSqlCompiler().compile(ddl, replica.getSqlExecutionContext());
+
+            try (
+                    WorkerPool workerPool = new TestWorkerPool(1);
+                    ReplicationServer server = new ReplicationServer(replicationConfiguration, engine, workerPool);
+                    ReplicationClient client = new ReplicationClient(replicationConfiguration, replica.getEngine())
+            ) {
+                try {
+                    workerPool.start(LOG);
+
+                    // all transactions go to the same WAL segment, each fetch ships only its new part
+                    compile("insert into " + tableName + " values (1, 'a', 'foo', '2022-02-24T00:00:00.000000Z')");
+                    replicate(client);
+                    Assert.assertTrue(client.isLastRoundSuccessful());
+                    drainWalQueue(replica);
+                    // replica purges the applied segment, the next fetch has to restore what it needs
+                    runWalPurgeJob(replica.getEngine());
+
+                    compile("insert into " + tableName + " values (2, 'b', 'bar', '2022-02-25T00:00:00.000000Z')");
+                    compile("insert into " + tableName + " values (3, 'a', null, '2022-02-26T00:00:00.000000Z')");
+                    replicate(client);
+                    Assert.assertTrue(client.isLastRoundSuccessful());
+                    drainWalQueue(replica);
+
+                    compile("insert into " + tableName + " values (4, 'c', 'baz', '2022-02-23T00:00:00.000000Z')");
+                    replicate(client);
+                    Assert.assertTrue(client.isLastRoundSuccessful());
+                    drainWalQueue(replica);
+
+                    assertReplicaSql(replica, tableName, "x\ts\tstr\tts\n" +
+                            "4\tc\tbaz\t2022-02-23T00:00:00.000000Z\n" +
+                            "1\ta\tfoo\t2022-02-24T00:00:00.000000Z\n" +
+                            "2\tb\tbar\t2022-02-25T00:00:00.000000Z\n" +
+                            "3\ta\t\t2022-02-26T00:00:00.000000Z\n");
+                } finally {
+                    workerPool.halt();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testReplicateNoPrimary() throws Exception {
+        assertMemoryLeak(() -> {
+            try (ReplicationClient client = new ReplicationClient(replicationConfiguration, nodes.get(1).getEngine())) {
+                replicate(client);
+                Assert.assertFalse(client.isLastRoundSuccessful());
+            }
+        });
+    }
+
+    private static void assertReplicaSql(QuestDBTestNode replica, String tableName, String expected) throws SqlException {
+        TestUtils.assertSql(replica.getSqlCompiler(), replica.getSqlExecutionContext(), tableName, sink, expected);
+    }
+
+    private static void createTable(String tableName) throws SqlException {
+        final String ddl = "create table " + tableName + " (x long, ts timestamp) timestamp(ts) partition by DAY WAL";
+        compile(ddl);
+        final QuestDBTestNode replica = nodes.get(1);
+        replica.getSqlCompiler().compile(ddl, replica.getSqlExecutionContext());
+    }
+
+    private static void replicate(ReplicationClient client) {
+        final int roundCount = client.getRoundCount();
+        while (client.getRoundCount() == roundCount) {
+            client.run(0);
+        }
+    }
+
+    private static void runWalPurgeJob(CairoEngine engine) {
+        try (WalPurgeJob job = new WalPurgeJob(engine, engine.getConfiguration().getFilesFacade(), engine.getConfiguration().getMicrosecondClock())) {
+            job.drain(0);
+        }
+    }
+}
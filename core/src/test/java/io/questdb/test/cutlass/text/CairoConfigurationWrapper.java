@@ -551,6 +551,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getSqlCharacterStoreSequencePoolCapacity();
     }
 
+    @Override
+    public long getSqlColdPartitionAge() {
+        return conf.getSqlColdPartitionAge();
+    }
+
     @Override
     public int getSqlColumnPoolCapacity() {
         return conf.getSqlColumnPoolCapacity();
@@ -776,6 +781,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getStrFunctionMaxBufferLength();
     }
 
+    @Override
+    public int getSymbolCapacityAutoScaleFactor() {
+        return conf.getSymbolCapacityAutoScaleFactor();
+    }
+
     @Override
     public CharSequence getSystemTableNamePrefix() {
         return conf.getSystemTableNamePrefix();
@@ -806,6 +816,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getTxnScoreboardEntryCount();
     }
 
+    @Override
+    public int getUpdatePartitionQueueCapacity() {
+        return conf.getUpdatePartitionQueueCapacity();
+    }
+
     @Override
     public int getVectorAggregateQueueCapacity() {
         return conf.getVectorAggregateQueueCapacity();
@@ -821,6 +836,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getWalApplyLookAheadTransactionCount();
     }
 
+    @Override
+    public String getWalApplyPriorityTables() {
+        return conf.getWalApplyPriorityTables();
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return conf.getWalApplyTableTimeQuota();
@@ -836,26 +856,61 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.getWalEnabledDefault();
     }
 
+    @Override
+    public int getWalPurgeDeleteLimit() {
+        return conf.getWalPurgeDeleteLimit();
+    }
+
     @Override
     public long getWalPurgeInterval() {
         return conf.getWalPurgeInterval();
     }
 
+    @Override
+    public int getWalPurgeWorkerCount() {
+        return conf.getWalPurgeWorkerCount();
+    }
+
     @Override
     public int getWalRecreateDistressedSequencerAttempts() {
         return conf.getWalRecreateDistressedSequencerAttempts();
     }
 
+    @Override
+    public long getWalRetentionAge() {
+        return conf.getWalRetentionAge();
+    }
+
+    @Override
+    public long getWalRetentionSize() {
+        return conf.getWalRetentionSize();
+    }
+
+    @Override
+    public long getWalSegmentRolloverAge() {
+        return conf.getWalSegmentRolloverAge();
+    }
+
     @Override
     public long getWalSegmentRolloverRowCount() {
         return conf.getWalSegmentRolloverRowCount();
     }
 
+    @Override
+    public long getWalSegmentRolloverSize() {
+        return conf.getWalSegmentRolloverSize();
+    }
+
     @Override
     public double getWalSquashUncommittedRowsMultiplier() {
         return conf.getWalSquashUncommittedRowsMultiplier();
     }
 
+    @Override
+    public int getWalTxnLogChunkSize() {
+        return conf.getWalTxnLogChunkSize();
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return conf.getWalTxnNotificationQueueCapacity();
@@ -906,6 +961,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return conf.isIOURingEnabled();
     }
 
+    @Override
+    public boolean isO3IOURingEnabled() {
+        return conf.isO3IOURingEnabled();
+    }
+
     @Override
     public boolean isO3QuickSortEnabled() {
         return conf.isO3QuickSortEnabled();
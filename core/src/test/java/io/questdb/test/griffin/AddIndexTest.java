@@ -25,8 +25,11 @@
 package io.questdb.test.griffin;
 
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnIndexerJob;
 import io.questdb.griffin.SqlException;
+import io.questdb.mp.WorkerPool;
 import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.mp.TestWorkerPool;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
@@ -113,6 +116,61 @@ public class AddIndexTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testAddIndexToManyPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new TestWorkerPool(4);
+            pool.assign(new ColumnIndexerJob(engine.getMessageBus()));
+            pool.start();
+            try {
+                compiler.compile(
+                        "create table trades as (\n" +
+                                "    select \n" +
+                                "        rnd_symbol('ABB', 'HBC', 'DXR') sym, \n" +
+                                "        rnd_double() price, \n" +
+                                "        timestamp_sequence(172800000000, 3600000000) ts \n" +
+                                "    from long_sequence(2400)\n" +
+                                ") timestamp(ts) partition by DAY",
+                        sqlExecutionContext
+                );
+                compile("alter table trades add column sym2 symbol", sqlExecutionContext);
+                compiler.compile(
+                        "insert into trades \n" +
+                                "    select \n" +
+                                "        rnd_symbol('ABB', 'HBC', 'DXR') sym, \n" +
+                                "        rnd_double() price, \n" +
+                                "        timestamp_sequence(172800000000 + 2400 * 3600000000, 3600000000) ts, \n" +
+                                "        rnd_symbol('ABB', 'HBC', 'DXR') sym2 \n" +
+                                "    from long_sequence(2400)\n",
+                        sqlExecutionContext
+                );
+
+                compile("alter table trades alter column sym add index", sqlExecutionContext);
+                compile("alter table trades alter column sym2 add index", sqlExecutionContext);
+
+                // filter on a string cast cannot use the index
+                TestUtils.assertSqlCursors(
+                        compiler,
+                        sqlExecutionContext,
+                        "select * from trades where cast(sym as string) = 'ABB'",
+                        "select * from trades where sym = 'ABB'",
+                        LOG
+                );
+                TestUtils.assertSqlCursors(
+                        compiler,
+                        sqlExecutionContext,
+                        "select * from trades where cast(sym2 as string) = 'ABB'",
+                        "select * from trades where sym2 = 'ABB'",
+                        LOG
+                );
+                assertSql("select count() from trades where sym2 = null", "count\n" +
+                        "2400\n");
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
     @Test
     public void testAlterTableAlterColumnSyntaxError1() throws Exception {
         assertFailure(
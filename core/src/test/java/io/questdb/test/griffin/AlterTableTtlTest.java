@@ -0,0 +1,175 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.TableReader;
+import io.questdb.griffin.SqlException;
+import io.questdb.std.datetime.microtime.TimestampFormatUtils;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AlterTableTtlTest extends AbstractGriffinTest {
+
+    @Test
+    public void testCreateTableWithTtl() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (a int, ts timestamp) timestamp(ts) partition by DAY with ttl=2d");
+            compile("insert into x select x, timestamp_sequence('2023-01-01', 12 * 3600000000L) from long_sequence(10)");
+
+            // max timestamp is 2023-01-05T12, partitions ending on or before 2023-01-03T12 expire
+            assertSql(
+                    "select min(ts), max(ts), count() from x",
+                    "min\tmax\tcount\n" +
+                            "2023-01-03T00:00:00.000000Z\t2023-01-05T12:00:00.000000Z\t6\n"
+            );
+            assertSql(
+                    "select name from table_partitions('x')",
+                    "name\n" +
+                            "2023-01-03\n" +
+                            "2023-01-04\n" +
+                            "2023-01-05\n"
+            );
+        });
+    }
+
+    @Test
+    public void testCreateTableWithTtlNonPartitioned() throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                compile("create table x (a int, ts timestamp) timestamp(ts) with ttl=2d");
+                Assert.fail();
+            } catch (SqlException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "TTL can only be used on partitioned tables");
+            }
+        });
+    }
+
+    @Test
+    public void testSetTtl() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (a int, ts timestamp) timestamp(ts) partition by DAY");
+            compile("insert into x select x, timestamp_sequence('2023-01-01', 12 * 3600000000L) from long_sequence(10)");
+
+            try (TableReader reader = getReader("x")) {
+                Assert.assertEquals(0, reader.getMetadata().getTtl());
+                Assert.assertEquals(5, reader.getPartitionCount());
+
+                compile("alter table x set param ttl = 36h");
+
+                // open reader keeps its view until reload
+                Assert.assertEquals(10, reader.size());
+                reader.reload();
+                Assert.assertEquals(36 * 3600000000L, reader.getMetadata().getTtl());
+                Assert.assertEquals(2, reader.getPartitionCount());
+                Assert.assertEquals(4, reader.size());
+            }
+
+            // partitions keep expiring as new data arrives
+            executeInsert("insert into x values (11, '2023-01-06T12:00:00.000000Z')");
+            assertSql(
+                    "select min(ts), max(ts), count() from x",
+                    "min\tmax\tcount\n" +
+                            "2023-01-05T00:00:00.000000Z\t2023-01-06T12:00:00.000000Z\t3\n"
+            );
+
+            compile("alter table x set param ttl = 0d");
+            executeInsert("insert into x values (12, '2023-01-09T00:00:00.000000Z')");
+            assertSql(
+                    "select min(ts), max(ts), count() from x",
+                    "min\tmax\tcount\n" +
+                            "2023-01-05T00:00:00.000000Z\t2023-01-09T00:00:00.000000Z\t4\n"
+            );
+        });
+    }
+
+    @Test
+    public void testSetTtlNonPartitioned() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (a int, ts timestamp) timestamp(ts)");
+            try {
+                compile("alter table x set param ttl = 2d");
+                Assert.fail();
+            } catch (Exception e) {
+                TestUtils.assertContains(e.getMessage(), "TTL can only be used on partitioned tables");
+            }
+        });
+    }
+
+    @Test
+    public void testTtlFutureTimestamp() throws Exception {
+        assertMemoryLeak(() -> {
+            currentMicros = TimestampFormatUtils.parseTimestamp("2023-01-05T12:00:00.000000Z");
+            try {
+                compile("create table x (a int, ts timestamp) timestamp(ts) partition by DAY with ttl=2d");
+                compile("insert into x select x, timestamp_sequence('2023-01-01', 12 * 3600000000L) from long_sequence(10)");
+
+                // row far in the future does not expire the data written up to now
+                executeInsert("insert into x values (11, '2030-01-01T00:00:00.000000Z')");
+                assertSql(
+                        "select min(ts), max(ts), count() from x",
+                        "min\tmax\tcount\n" +
+                                "2023-01-03T00:00:00.000000Z\t2030-01-01T00:00:00.000000Z\t7\n"
+                );
+
+                // as the time passes, partitions expire against the clock
+                currentMicros = TimestampFormatUtils.parseTimestamp("2023-01-07T00:00:00.000000Z");
+                executeInsert("insert into x values (12, '2023-01-05T13:00:00.000000Z')");
+                assertSql(
+                        "select name from table_partitions('x')",
+                        "name\n" +
+                                "2023-01-05\n" +
+                                "2030-01-01\n"
+                );
+            } finally {
+                currentMicros = -1;
+            }
+        });
+    }
+
+    @Test
+    public void testTtlWal() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (a int, ts timestamp) timestamp(ts) partition by DAY WAL with ttl=2d");
+            compile("insert into x select x, timestamp_sequence('2023-01-01', 12 * 3600000000L) from long_sequence(10)");
+            drainWalQueue();
+
+            assertSql(
+                    "select min(ts), max(ts), count() from x",
+                    "min\tmax\tcount\n" +
+                            "2023-01-03T00:00:00.000000Z\t2023-01-05T12:00:00.000000Z\t6\n"
+            );
+
+            compile("alter table x set param ttl = 1d");
+            drainWalQueue();
+            assertSql(
+                    "select min(ts), max(ts), count() from x",
+                    "min\tmax\tcount\n" +
+                            "2023-01-04T00:00:00.000000Z\t2023-01-05T12:00:00.000000Z\t4\n"
+            );
+        });
+    }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.griffin.CompiledQuery;
+import io.questdb.griffin.SqlException;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoubleArrayTest extends AbstractGriffinTest {
+
+    @Test
+    public void testAddColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, ts timestamp) timestamp(ts) partition by day");
+            executeInsert("insert into x values (1, '2023-01-01T00:00:00.000000Z')");
+            compile("alter table x add column v double[]");
+            executeInsert("insert into x values (2, '2023-01-01T02:00:00.000000Z', '{1,2}')");
+            // out of order, lands between a row in the column top and a row with a value
+            executeInsert("insert into x values (3, '2023-01-01T01:00:00.000000Z', '{3,4,5}')");
+            assertSql(
+                    "select i, array_length(v), array_sum(v) from x",
+                    "i\tarray_length\tarray_sum\n" +
+                            "1\tNaN\tNaN\n" +
+                            "3\t3\t12.0\n" +
+                            "2\t2\t3.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testColumnType() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v double[], d double)");
+            assertSql(
+                    "select \"column\", type from table_columns('x')",
+                    "column\ttype\n" +
+                            "v\tDOUBLE[]\n" +
+                            "d\tDOUBLE\n"
+            );
+        });
+    }
+
+    @Test
+    public void testElementFunctions() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v double[])");
+            executeInsert("insert into x values ('{1,2,3,4,5}'), ('[0.5, 1.5]'), (null), ('{}')");
+            assertSql(
+                    "select array_length(v) n, array_sum(v) s, array_dot(v, v) dot, " +
+                            "array_length(array_slice(v, 2, 4)) sn, array_sum(array_slice(v, 2, 4)) ss from x",
+                    "n\ts\tdot\tsn\tss\n" +
+                            "5\t15.0\t55.0\t3\t9.0\n" +
+                            "2\t2.0\t2.5\t1\t1.5\n" +
+                            "NaN\tNaN\tNaN\tNaN\tNaN\n" +
+                            "0\tNaN\t0.0\t0\tNaN\n"
+            );
+            // index is 1-based, out of range elements are null
+            assertSql(
+                    "select v[2] e, v[6] o from x",
+                    "e\to\n" +
+                            "2.0\tNaN\n" +
+                            "1.5\tNaN\n" +
+                            "NaN\tNaN\n" +
+                            "NaN\tNaN\n"
+            );
+        });
+    }
+
+    @Test
+    public void testInvalidValue() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, v double[])");
+            try {
+                executeInsert("insert into x values (1, '{1,a}')");
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "invalid DOUBLE[] value [value={1,a}]");
+            }
+            executeInsert("insert into x values (2, '{1}')");
+            assertSql(
+                    "select i, array_sum(v) from x",
+                    "i\tarray_sum\n" +
+                            "2\t1.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testOrderByUnsupported() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, v double[])");
+            try {
+                assertSql("select * from x order by v", "");
+                Assert.fail();
+            } catch (SqlException e) {
+                Assert.assertEquals(25, e.getPosition());
+                TestUtils.assertContains(e.getFlyweightMessage(), "unsupported column type: DOUBLE[]");
+            }
+        });
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, v double[])");
+            executeInsert("insert into x values (1, '{1,2}'), (2, null)");
+            executeOperation("update x set v = '{7,8,9}' where i = 2", CompiledQuery.UPDATE);
+            assertSql(
+                    "select i, array_sum(v) from x",
+                    "i\tarray_sum\n" +
+                            "1\t3.0\n" +
+                            "2\t24.0\n"
+            );
+        });
+    }
+
+    @Test
+    public void testWal() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v double[], ts timestamp) timestamp(ts) partition by day wal");
+            executeInsert("insert into x values ('{1,2}', '2023-01-01T02:00:00.000000Z')");
+            executeInsert("insert into x values ('{3}', '2023-01-01T01:00:00.000000Z')");
+            drainWalQueue();
+            executeInsert("insert into x values ('{4,5,6}', '2023-01-01T00:00:00.000000Z')");
+            drainWalQueue();
+            assertSql(
+                    "select array_sum(v), v[1], ts from x",
+                    "array_sum\t[]\tts\n" +
+                            "15.0\t4.0\t2023-01-01T00:00:00.000000Z\n" +
+                            "3.0\t3.0\t2023-01-01T01:00:00.000000Z\n" +
+                            "3.0\t1.0\t2023-01-01T02:00:00.000000Z\n"
+            );
+        });
+    }
+}
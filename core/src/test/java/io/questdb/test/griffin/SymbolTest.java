@@ -23,7 +23,11 @@
  ******************************************************************************/
 package io.questdb.test.griffin;
 
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableWriter;
+import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.test.AbstractGriffinTest;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class SymbolTest extends AbstractGriffinTest {
@@ -54,4 +58,71 @@ public class SymbolTest extends AbstractGriffinTest {
             }
         });
     }
+
+    @Test
+    public void testSymbolCapacityScalesOutsideOfCommit() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (s symbol capacity 16, ts timestamp) timestamp(ts) partition by DAY");
+            try (
+                    TableReader reader = getReader("x");
+                    TableWriter writer = getWriter("x")
+            ) {
+                final long metadataVersion = reader.getMetadata().getMetadataVersion();
+                for (int i = 0; i < 100; i++) {
+                    TableWriter.Row row = writer.newRow(i * Timestamps.HOUR_MICROS);
+                    row.putSym(0, "s" + i);
+                    row.append();
+                }
+                writer.commit();
+
+                // commit does not rebuild the map
+                Assert.assertTrue(reader.reload());
+                Assert.assertEquals(16, reader.getSymbolMapReader(0).getSymbolCapacity());
+
+                // the map is rebuilt and swapped in when the writer is idle
+                writer.tick();
+                Assert.assertTrue(reader.reload());
+                Assert.assertEquals(256, reader.getSymbolMapReader(0).getSymbolCapacity());
+                Assert.assertEquals(metadataVersion + 1, reader.getMetadata().getMetadataVersion());
+                Assert.assertEquals(99, reader.getSymbolMapReader(0).keyOf("s99"));
+
+                TableWriter.Row row = writer.newRow(100 * Timestamps.HOUR_MICROS);
+                row.putSym(0, "s100");
+                row.append();
+                writer.commit();
+            }
+            assertSql("select count() from x where s in ('s0', 's99', 's100')", "count\n3\n");
+        });
+    }
+
+    @Test
+    public void testSymbolCapacityScalesWithSymbolCount() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (s symbol capacity 16 index, ts timestamp) timestamp(ts) partition by DAY");
+            try (TableReader reader = getReader("x")) {
+                // 200 values exceed capacity times the default scale factor of 4
+                compile("insert into x select 's' || (x % 200), timestamp_sequence(0, 1000000000) from long_sequence(1000)");
+                assertSql("select symbolCapacity from table_columns('x') where column = 's'", "symbolCapacity\n512\n");
+
+                // reader opened before the first rebuild catches up with the second one
+                compile("insert into x select 't' || x, timestamp_sequence(1000000000000, 1000000) from long_sequence(3000)");
+                assertSql("select symbolCapacity from table_columns('x') where column = 's'", "symbolCapacity\n8192\n");
+
+                Assert.assertTrue(reader.reload());
+                Assert.assertEquals(8192, reader.getSymbolMapReader(0).getSymbolCapacity());
+                Assert.assertEquals(3200, reader.getSymbolMapReader(0).getSymbolCount());
+                Assert.assertEquals(198, reader.getSymbolMapReader(0).keyOf("s199"));
+                Assert.assertEquals("t3000", reader.getSymbolMapReader(0).valueOf(3199).toString());
+            }
+
+            assertSql("select count(), count_distinct(s) from x where s in ('s42', 't42')", "count\tcount_distinct\n6\t2\n");
+            assertSql("select s, ts from x where s = 's199' limit 2", "s\tts\n" +
+                    "s199\t1970-01-03T07:00:00.000000Z\n" +
+                    "s199\t1970-01-05T14:33:20.000000Z\n");
+
+            // new values keep their keys after the rebuild
+            compile("insert into x values ('s1', '1970-01-12T00:00:00.000000Z'), ('u1', '1970-01-12T00:00:00.000000Z')");
+            assertSql("select count() from x where s in ('s1', 'u1')", "count\n7\n");
+        });
+    }
 }
@@ -29,6 +29,7 @@ import io.questdb.cairo.security.ReadOnlySecurityContext;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.*;
 import io.questdb.griffin.engine.ops.UpdateOperation;
+import io.questdb.mp.WorkerPool;
 import io.questdb.std.Chars;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Rnd;
@@ -37,6 +38,7 @@ import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.test.AbstractGriffinTest;
 import io.questdb.test.cairo.TableModel;
+import io.questdb.test.mp.TestWorkerPool;
 import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
@@ -1142,6 +1144,37 @@ public class UpdateTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testUpdateMultiPartitionsWorkerPool() throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new TestWorkerPool(4);
+            TestUtils.setupWorkerPool(pool, engine);
+            pool.start();
+            try {
+                compiler.compile("create table up as" +
+                        " (select timestamp_sequence(0, 864000000) ts," +
+                        " cast(x as int) x," +
+                        " cast(case when x % 2 = 0 then 'a' else 'b' end as symbol) sym," +
+                        " rnd_str(3, 5, 1) s" +
+                        " from long_sequence(3000))," +
+                        " index(sym) timestamp(ts) partition by DAY" + (walEnabled ? " WAL" : ""), sqlExecutionContext);
+
+                executeUpdate("UPDATE up SET x = -x, sym = 'cc', s = 'abc' where x % 3 = 0");
+
+                assertSql("select sym, count(), sum(x) from up where sym = 'cc'", "sym\tcount\tsum\n" +
+                        "cc\t1000\t-1501500\n");
+                assertSql("select sym, count() from up where sym = 'a'", "sym\tcount\n" +
+                        "a\t1000\n");
+                assertSql("select count(), min(ts), max(ts) from up where s = 'abc' and x % 3 = 0", "count\tmin\tmax\n" +
+                        "1000\t1970-01-01T00:28:48.000000Z\t1970-01-30T23:45:36.000000Z\n");
+                assertSql("select count() from up where x > 0 and x % 3 <> 0", "count\n" +
+                        "2000\n");
+            } finally {
+                pool.halt();
+            }
+        });
+    }
+
     @Test
     public void testUpdateNoFilter() throws Exception {
         assertMemoryLeak(() -> {
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.griffin.CompiledQuery;
+import io.questdb.test.AbstractGriffinTest;
+import org.junit.Test;
+
+public class VarcharTest extends AbstractGriffinTest {
+
+    @Test
+    public void testAddColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, ts timestamp) timestamp(ts) partition by day");
+            executeInsert("insert into x values (1, '2023-01-01T00:00:00.000000Z')");
+            compile("alter table x add column v utf8");
+            executeInsert("insert into x values (2, '2023-01-01T02:00:00.000000Z', 'b')");
+            // out of order, lands between a row in the column top and a row with a value
+            executeInsert("insert into x values (3, '2023-01-01T01:00:00.000000Z', 'ü')");
+            assertSql(
+                    "x",
+                    "i\tts\tv\n" +
+                            "1\t2023-01-01T00:00:00.000000Z\t\n" +
+                            "3\t2023-01-01T01:00:00.000000Z\tü\n" +
+                            "2\t2023-01-01T02:00:00.000000Z\tb\n"
+            );
+        });
+    }
+
+    @Test
+    public void testColumnType() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v utf8, s string)");
+            assertSql(
+                    "select \"column\", type from table_columns('x')",
+                    "column\ttype\n" +
+                            "v\tUTF8\n" +
+                            "s\tSTRING\n"
+            );
+        });
+    }
+
+    @Test
+    public void testCreateTableAsSelect() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v utf8)");
+            executeInsert("insert into x values ('a'), ('bé'), (null)");
+            compile("create table y as (select * from x)");
+            compile("create table z as (select v, cast(v as string) c from x)");
+            assertSql(
+                    "select \"column\", type from table_columns('y')",
+                    "column\ttype\n" +
+                            "v\tUTF8\n"
+            );
+            assertSql(
+                    "select \"column\", type from table_columns('z')",
+                    "column\ttype\n" +
+                            "v\tSTRING\n" +
+                            "c\tSTRING\n"
+            );
+            assertSql(
+                    "y",
+                    "v\n" +
+                            "a\n" +
+                            "bé\n" +
+                            "\n"
+            );
+        });
+    }
+
+    @Test
+    public void testFilterAndAggregate() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v utf8, ts timestamp) timestamp(ts) partition by hour");
+            executeInsert("insert into x values ('ab', 0), ('abc', 1000000000), ('дом', 2000000000), ('', 3000000000), (null, 4000000000), ('ab', 5000000000), ('дом', 6000000000)");
+            assertSql(
+                    "select * from x where v = 'ab'",
+                    "v\tts\n" +
+                            "ab\t1970-01-01T00:00:00.000000Z\n" +
+                            "ab\t1970-01-01T01:23:20.000000Z\n"
+            );
+            assertSql(
+                    "select * from x where v like 'д%'",
+                    "v\tts\n" +
+                            "дом\t1970-01-01T00:33:20.000000Z\n" +
+                            "дом\t1970-01-01T01:40:00.000000Z\n"
+            );
+            assertSql(
+                    "select v, length(v), count() from x order by v",
+                    "v\tlength\tcount\n" +
+                            "\t-1\t1\n" +
+                            "\t0\t1\n" +
+                            "ab\t2\t2\n" +
+                            "abc\t3\t1\n" +
+                            "дом\t3\t2\n"
+            );
+        });
+    }
+
+    @Test
+    public void testInsertAsSelect() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v utf8, ts timestamp) timestamp(ts) partition by day");
+            compile("insert into x select rnd_str('a', 'bé', '😀', null), timestamp_sequence(0, 1000000) from long_sequence(1000)");
+            assertSql(
+                    "select v, length(v), count() from x order by v",
+                    "v\tlength\tcount\n" +
+                            "\t-1\t271\n" +
+                            "a\t1\t265\n" +
+                            "bé\t2\t252\n" +
+                            "😀\t2\t212\n"
+            );
+        });
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (i int, v utf8, ts timestamp) timestamp(ts) partition by day");
+            executeInsert("insert into x values (1, 'a', 0), (2, 'b', 1), (3, null, 2)");
+            executeOperation("update x set v = 'ж' || v where i > 1", CompiledQuery.UPDATE);
+            assertSql(
+                    "x",
+                    "i\tv\tts\n" +
+                            "1\ta\t1970-01-01T00:00:00.000000Z\n" +
+                            "2\tжb\t1970-01-01T00:00:00.000001Z\n" +
+                            "3\tж\t1970-01-01T00:00:00.000002Z\n"
+            );
+        });
+    }
+
+    @Test
+    public void testVarcharKeywordIsString() throws Exception {
+        assertMemoryLeak(() -> {
+            // varchar is the PostgreSQL name of STRING, existing scripts keep their column type
+            compile("create table x (v varchar, u utf8)");
+            compile("create table y as (select cast(u as varchar) c from x)");
+            assertSql(
+                    "select \"column\", type from table_columns('x')",
+                    "column\ttype\n" +
+                            "v\tSTRING\n" +
+                            "u\tUTF8\n"
+            );
+            assertSql(
+                    "select \"column\", type from table_columns('y')",
+                    "column\ttype\n" +
+                            "c\tSTRING\n"
+            );
+        });
+    }
+
+    @Test
+    public void testWal() throws Exception {
+        assertMemoryLeak(() -> {
+            compile("create table x (v utf8, ts timestamp) timestamp(ts) partition by day wal");
+            executeInsert("insert into x values ('abc', '2023-01-01T02:00:00.000000Z'), ('дом', '2023-01-01T01:00:00.000000Z'), (null, '2023-01-01T00:00:00.000000Z')");
+            drainWalQueue();
+            executeInsert("insert into x values ('😀', '2023-01-01T01:30:00.000000Z')");
+            drainWalQueue();
+            assertSql(
+                    "x",
+                    "v\tts\n" +
+                            "\t2023-01-01T00:00:00.000000Z\n" +
+                            "дом\t2023-01-01T01:00:00.000000Z\n" +
+                            "😀\t2023-01-01T01:30:00.000000Z\n" +
+                            "abc\t2023-01-01T02:00:00.000000Z\n"
+            );
+        });
+    }
+}
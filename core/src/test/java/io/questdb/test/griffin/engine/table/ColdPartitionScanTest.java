@@ -0,0 +1,147 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+public class ColdPartitionScanTest extends AbstractGriffinTest {
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final FilesFacade ff = new TestFilesFacadeImpl() {
+        @Override
+        public void fadvise(int fd, long offset, long len, int advise) {
+            if (advise == Files.POSIX_FADV_DONTNEED) {
+                dropped.incrementAndGet();
+            }
+            super.fadvise(fd, offset, len, advise);
+        }
+
+        @Override
+        public void madvise(long address, long len, int advise) {
+            if (advise == Files.POSIX_MADV_SEQUENTIAL) {
+                sequential.incrementAndGet();
+            }
+            super.madvise(address, len, advise);
+        }
+    };
+    private final AtomicInteger sequential = new AtomicInteger();
+
+    @Test
+    public void testColdPartitionsDroppedFromPageCache() throws Exception {
+        // both partitions are decades old
+        configOverrideSqlColdPartitionAge(Timestamps.DAY_MICROS);
+        assertDroppedPartitions(2);
+    }
+
+    @Test
+    public void testConcurrentScanKeepsPartition() throws Exception {
+        configOverrideSqlColdPartitionAge(Timestamps.DAY_MICROS);
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            try (
+                    RecordCursorFactory factory1 = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory();
+                    RecordCursorFactory factory2 = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory();
+                    PageFrameCursor cursor1 = factory1.getPageFrameCursor(sqlExecutionContext, ORDER_ASC);
+                    PageFrameCursor cursor2 = factory2.getPageFrameCursor(sqlExecutionContext, ORDER_ASC)
+            ) {
+                Assert.assertNotNull(cursor1.next());
+                Assert.assertNotNull(cursor2.next());
+                // the second scan is still in the first partition
+                Assert.assertNotNull(cursor1.next());
+                Assert.assertEquals(0, dropped.get());
+                Assert.assertNotNull(cursor2.next());
+                Assert.assertEquals(2, dropped.get());
+                cursor1.close();
+                Assert.assertEquals(2, dropped.get());
+            }
+            Assert.assertEquals(4, dropped.get());
+        });
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        assertDroppedPartitions(0);
+    }
+
+    @Test
+    public void testHotPartitionsKept() throws Exception {
+        configOverrideSqlColdPartitionAge(Timestamps.DAY_MICROS);
+        // 1970-01-03T01:00, only the first partition ends before the cold boundary
+        currentMicros = 2 * Timestamps.DAY_MICROS + Timestamps.HOUR_MICROS;
+        try {
+            assertDroppedPartitions(1);
+        } finally {
+            currentMicros = -1;
+        }
+    }
+
+    @Test
+    public void testPartitionDroppedOnLeave() throws Exception {
+        configOverrideSqlColdPartitionAge(Timestamps.DAY_MICROS);
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            try (
+                    RecordCursorFactory factory = compiler.compile("x", sqlExecutionContext).getRecordCursorFactory();
+                    PageFrameCursor cursor = factory.getPageFrameCursor(sqlExecutionContext, ORDER_ASC)
+            ) {
+                Assert.assertNotNull(cursor.next());
+                Assert.assertEquals(0, dropped.get());
+                // x and ts columns of the first partition are dropped when the scan moves on
+                Assert.assertNotNull(cursor.next());
+                Assert.assertEquals(2, dropped.get());
+                Assert.assertNull(cursor.next());
+            }
+            Assert.assertEquals(4, dropped.get());
+        });
+    }
+
+    private void assertDroppedPartitions(int expected) throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            assertSql("select sum(x) from x", "sum\n1176\n");
+            // one fixed size column per scanned partition
+            Assert.assertEquals(expected, sequential.get());
+            Assert.assertEquals(expected, dropped.get());
+        });
+    }
+
+    private void createTable() throws Exception {
+        compiler.compile("create table x as (select x, timestamp_sequence(0, 3600000000) ts from long_sequence(48)) timestamp(ts) partition by day", sqlExecutionContext);
+        sequential.set(0);
+        dropped.set(0);
+    }
+}
@@ -24,17 +24,22 @@
 
 package io.questdb.test.griffin.wal;
 
+import io.questdb.cairo.CairoException;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.TableWriter;
 import io.questdb.cairo.wal.WalPurgeJob;
 import io.questdb.cairo.wal.WalUtils;
 import io.questdb.cairo.wal.WalWriter;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.griffin.SqlException;
 import io.questdb.griffin.model.IntervalUtils;
 import io.questdb.mp.SimpleWaitingLock;
 import io.questdb.std.*;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.NativeLPSZ;
+import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.Path;
 import io.questdb.test.AbstractGriffinTest;
 import io.questdb.test.std.TestFilesFacadeImpl;
@@ -107,6 +112,26 @@ public class WalPurgeJobTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testDeleteLimit() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            createWalTables(tableName, 2);
+            drainWalQueue();
+            engine.releaseInactive();
+
+            // each table has a segment and a WAL directory to delete
+            configOverrideWalPurgeDeleteLimit(2);
+            runWalPurgeJob();
+
+            // only one table is cleaned up per run, the other one waits for the next run
+            Assert.assertEquals(1, countWalDirs(tableName, 2));
+
+            runWalPurgeJob();
+            Assert.assertEquals(0, countWalDirs(tableName, 2));
+        });
+    }
+
     @Test
     public void testDirectorySequencerRace() throws Exception {
         // We need to enter a state where `tableName`:
@@ -396,6 +421,51 @@ public class WalPurgeJobTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testParallelSweep() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            final int tableCount = 16;
+            createWalTables(tableName, tableCount);
+            drainWalQueue();
+            engine.releaseInactive();
+            Assert.assertEquals(tableCount, countWalDirs(tableName, tableCount));
+
+            final int helperCount = 3;
+            final AtomicBoolean done = new AtomicBoolean();
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final ObjList<Thread> threads = new ObjList<>();
+            try (WalPurgeJob job = new WalPurgeJob(engine)) {
+                for (int i = 0; i < helperCount; i++) {
+                    final Thread thread = new Thread(() -> {
+                        try (WalPurgeJob.HelperJob helperJob = job.newHelperJob()) {
+                            while (!done.get()) {
+                                if (!helperJob.run(0)) {
+                                    Os.pause();
+                                }
+                            }
+                        } catch (Throwable th) {
+                            error.set(th);
+                        } finally {
+                            Path.clearThreadLocals();
+                        }
+                    });
+                    thread.start();
+                    threads.add(thread);
+                }
+                job.drain(0);
+            } finally {
+                done.set(true);
+                for (int i = 0, n = threads.size(); i < n; i++) {
+                    threads.getQuick(i).join();
+                }
+            }
+
+            Assert.assertNull(error.get());
+            Assert.assertEquals(0, countWalDirs(tableName, tableCount));
+        });
+    }
+
     @Test
     public void testPendingSegmentTasks() throws Exception {
         assertMemoryLeak(() -> {
@@ -556,6 +626,64 @@ public class WalPurgeJobTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testRetentionAge() throws Exception {
+        configOverrideWalRetentionAge(60_000);
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            currentMicros = IntervalUtils.parseFloorPartialTimestamp("2022-02-24T00:00:00");
+            compile("create table " + tableName + " (x long, ts timestamp) timestamp(ts) partition by DAY WAL");
+            executeInsert("insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')");
+            drainWalQueue();
+            engine.releaseInactive();
+
+            // applied segments are retained until they are older than the retention age
+            currentMicros += 59 * Timestamps.SECOND_MICROS;
+            runWalPurgeJob();
+            assertWalExistence(true, tableName, 1);
+            assertSegmentExistence(true, tableName, 1, 0);
+
+            currentMicros += 2 * Timestamps.SECOND_MICROS;
+            runWalPurgeJob();
+            assertWalExistence(false, tableName, 1);
+        });
+    }
+
+    @Test
+    public void testRetentionSize() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            compile("create table " + tableName + " (x long, ts timestamp) timestamp(ts) partition by DAY WAL");
+            executeInsert("insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')");
+            // inserting data with the added column creates a new segment
+            compile("alter table " + tableName + " add column s string");
+            executeInsert("insert into " + tableName + " values (2, '2022-02-24T00:00:01.000000Z', 'x')");
+            drainWalQueue();
+            engine.releaseInactive();
+
+            final long segment0Size;
+            final long segment1Size;
+            try (Path path = new Path()) {
+                final TableToken tableToken = engine.verifyTableName(tableName);
+                path.of(configuration.getRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(1);
+                final int walLen = path.length();
+                segment0Size = TestFilesFacadeImpl.INSTANCE.getDirSize(path.slash().put(0).$());
+                segment1Size = TestFilesFacadeImpl.INSTANCE.getDirSize(path.trimTo(walLen).slash().put(1).$());
+            }
+
+            // only the newest segment fits the limit
+            configOverrideWalRetentionSize(segment1Size + segment0Size / 2);
+            runWalPurgeJob();
+            assertWalExistence(true, tableName, 1);
+            assertSegmentExistence(false, tableName, 1, 0);
+            assertSegmentExistence(true, tableName, 1, 1);
+
+            configOverrideWalRetentionSize(segment1Size / 2);
+            runWalPurgeJob();
+            assertWalExistence(false, tableName, 1);
+        });
+    }
+
     @Test
     public void testRmWalDirFailure() throws Exception {
         String tableName = testName.getMethodName();
@@ -887,6 +1015,58 @@ public class WalPurgeJobTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testTxnLogChunksPurged() throws Exception {
+        configOverrideWalTxnLogChunkSize(4);
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            compile("create table " + tableName + "("
+                    + "x long,"
+                    + "ts timestamp"
+                    + ") timestamp(ts) partition by DAY WAL");
+            for (int i = 0; i < 9; i++) {
+                compile("insert into " + tableName + " values (" + i + ", '2022-02-24T00:00:0" + i + ".000000Z')");
+            }
+            compile("alter table " + tableName + " add column s string");
+            compile("insert into " + tableName + " values (9, '2022-02-24T00:00:09.000000Z', 'a')");
+
+            // 11 transactions span 3 chunks
+            assertTxnLogChunkExistence(true, tableName, 0);
+            assertTxnLogChunkExistence(true, tableName, 1);
+            assertTxnLogChunkExistence(true, tableName, 2);
+            assertTxnLogChunkExistence(false, tableName, 3);
+
+            drainWalQueue();
+            assertSql("select count(), sum(x), max(s) from " + tableName, "count\tsum\tmax\n" +
+                    "10\t45\ta\n");
+
+            engine.releaseInactive();
+            runWalPurgeJob();
+
+            // the last chunk holds the applied transaction, it is retained
+            assertTxnLogChunkExistence(false, tableName, 0);
+            assertTxnLogChunkExistence(false, tableName, 1);
+            assertTxnLogChunkExistence(true, tableName, 2);
+
+            // purged transactions cannot be read
+            try (TransactionLogCursor ignore = engine.getTableSequencerAPI().getCursor(engine.verifyTableName(tableName), 0)) {
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "transaction log is purged");
+            }
+
+            // reopen the sequencer and continue from the retained chunk
+            engine.getTableSequencerAPI().releaseAll();
+            compile("insert into " + tableName + " values (10, '2022-02-24T00:00:10.000000Z', 'b')");
+            compile("insert into " + tableName + " values (11, '2022-02-24T00:00:11.000000Z', 'c')");
+            assertTxnLogChunkExistence(true, tableName, 3);
+
+            drainWalQueue();
+            assertSql("select count(), sum(x), max(s) from " + tableName, "count\tsum\tmax\n" +
+                    "12\t66\tc\n");
+        });
+    }
+
     @Test
     public void testUntrackedSegment() throws Exception {
         // Test a segment that was created but never tracked by the sequencer.
@@ -912,6 +1092,45 @@ public class WalPurgeJobTest extends AbstractGriffinTest {
         });
     }
 
+    @Test
+    public void testTxnLogUnknownFormatRejected() throws Exception {
+        configOverrideWalTxnLogChunkSize(4);
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            compile("create table " + tableName + "(x long, ts timestamp) timestamp(ts) partition by DAY WAL");
+            compile("insert into " + tableName + " values (1, '2022-02-24T00:00:01.000000Z')");
+            engine.getTableSequencerAPI().releaseAll();
+
+            final TableToken tableToken = engine.verifyTableName(tableName);
+            final FilesFacade ff = engine.getConfiguration().getFilesFacade();
+            final long buf = Unsafe.malloc(Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+            try (Path path = new Path()) {
+                path.of(engine.getConfiguration().getRoot()).concat(tableToken).concat(WalUtils.SEQ_DIR)
+                        .concat(WalUtils.TXNLOG_FILE_NAME).$();
+                final int fd = TableUtils.openRW(ff, path, LOG, configuration.getWriterFileOpenOpts());
+                try {
+                    Assert.assertEquals(Integer.BYTES, ff.read(fd, buf, Integer.BYTES, 0));
+                    Assert.assertEquals(WalUtils.TXNLOG_FORMAT_VERSION_CHUNKED, Unsafe.getUnsafe().getInt(buf));
+                    // a log written by a future version
+                    Unsafe.getUnsafe().putInt(buf, WalUtils.TXNLOG_FORMAT_VERSION_CHUNKED + 1);
+                    Assert.assertEquals(Integer.BYTES, ff.write(fd, buf, Integer.BYTES, 0));
+                } finally {
+                    ff.close(fd);
+                }
+            } finally {
+                Unsafe.free(buf, Integer.BYTES, MemoryTag.NATIVE_DEFAULT);
+            }
+
+            try {
+                compile("insert into " + tableName + " values (2, '2022-02-24T00:00:02.000000Z')");
+                Assert.fail("unknown transaction log format must be rejected");
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "unsupported transaction log format");
+                TestUtils.assertContains(e.getFlyweightMessage(), "formatVersion=2");
+            }
+        });
+    }
+
     @Test
     public void testWalDirnamePatterns() throws Exception {
         // We create a directory called "waldo" inside the table dir and ensure it's not deleted.
@@ -1055,6 +1274,39 @@ public class WalPurgeJobTest extends AbstractGriffinTest {
         }
     }
 
+    private void assertTxnLogChunkExistence(boolean expectExists, String tableName, long chunkId) {
+        final TableToken tableToken = engine.verifyTableName(tableName);
+        try (Path path = new Path()) {
+            path.of(engine.getConfiguration().getRoot()).concat(tableToken).concat(WalUtils.SEQ_DIR)
+                    .concat(WalUtils.TXNLOG_FILE_NAME).put('.').put(chunkId).$();
+            Assert.assertEquals(Chars.toString(path), expectExists, TestFilesFacadeImpl.INSTANCE.exists(path));
+        }
+    }
+
+    private int countWalDirs(String tableNamePrefix, int tableCount) {
+        int count = 0;
+        try (Path path = new Path()) {
+            for (int i = 0; i < tableCount; i++) {
+                final TableToken tableToken = engine.verifyTableName(tableNamePrefix + "_" + i);
+                path.of(configuration.getRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(1).$();
+                if (TestFilesFacadeImpl.INSTANCE.exists(path)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void createWalTables(String tableNamePrefix, int tableCount) throws SqlException {
+        for (int i = 0; i < tableCount; i++) {
+            compile("create table " + tableNamePrefix + "_" + i + " as (" +
+                    "select x, " +
+                    " timestamp_sequence('2022-02-24', 1000000L) ts " +
+                    " from long_sequence(5)" +
+                    ") timestamp(ts) partition by DAY WAL");
+        }
+    }
+
     private void logDeletionEvents(List<DeletionEvent> events) {
         System.err.println("Deletion events:");
         for (DeletionEvent event : events) {
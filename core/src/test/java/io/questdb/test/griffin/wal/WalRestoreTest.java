@@ -0,0 +1,216 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.wal;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.WalRestore;
+import io.questdb.griffin.model.IntervalUtils;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractGriffinTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WalRestoreTest extends AbstractGriffinTest {
+    private String snapshotRoot;
+
+    @Test
+    public void testRestoreFailsOnStructureChangeAfterTarget() throws Exception {
+        configOverrideWalRetentionAge(3_600_000);
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final long ts = createTableAndSnapshot(tableName);
+            currentMicros = ts + Timestamps.SECOND_MICROS;
+            compile("alter table " + tableName + " add column s string");
+            drainWalQueue();
+            final String walRoot = copyWalRoot(tableName);
+
+            final TableToken tableToken = restoreSnapshot(tableName);
+            try (WalRestore walRestore = new WalRestore(configuration)) {
+                walRestore.restoreTable(walRoot, tableToken.getDirName(), ts, Long.MAX_VALUE);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "table structure changed after the restore target");
+            }
+        });
+    }
+
+    @Test
+    public void testRestoreFailsWhenWalNotRetained() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final long ts = createTableAndSnapshot(tableName);
+            currentMicros = ts + Timestamps.SECOND_MICROS;
+            executeInsert("insert into " + tableName + " values (2, '2022-02-24T00:00:01.000000Z')");
+            drainWalQueue();
+            engine.releaseInactive();
+            runWalPurgeJob();
+            final String walRoot = copyWalRoot(tableName);
+
+            final TableToken tableToken = restoreSnapshot(tableName);
+            try (WalRestore walRestore = new WalRestore(configuration)) {
+                walRestore.restoreTable(walRoot, tableToken.getDirName(), Long.MAX_VALUE, Long.MAX_VALUE);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "WAL segment is not retained");
+            }
+        });
+    }
+
+    @Test
+    public void testRestoreToSeqTxn() throws Exception {
+        configOverrideWalRetentionAge(3_600_000);
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final long ts = createTableAndSnapshot(tableName);
+            insertRows(tableName, ts);
+            final String walRoot = copyWalRoot(tableName);
+
+            final TableToken tableToken = restoreSnapshot(tableName);
+            try (WalRestore walRestore = new WalRestore(configuration)) {
+                Assert.assertEquals(3, walRestore.restoreTable(walRoot, tableToken.getDirName(), Long.MAX_VALUE, 3));
+            }
+            drainWalQueue();
+            assertSql(tableName, "x\tts\n" +
+                    "1\t2022-02-24T00:00:00.000000Z\n" +
+                    "2\t2022-02-24T00:00:01.000000Z\n" +
+                    "3\t2022-02-24T00:00:02.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testRestoreToTimestamp() throws Exception {
+        configOverrideWalRetentionAge(3_600_000);
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final long ts = createTableAndSnapshot(tableName);
+            insertRows(tableName, ts);
+            final String walRoot = copyWalRoot(tableName);
+
+            restoreSnapshot(tableName);
+            try (WalRestore walRestore = new WalRestore(configuration)) {
+                // the bad batch is committed a minute after the last good one
+                Assert.assertEquals(1, walRestore.restoreToTimestamp(walRoot, ts + 2 * Timestamps.SECOND_MICROS));
+            }
+            drainWalQueue();
+            assertSql(tableName, "x\tts\n" +
+                    "1\t2022-02-24T00:00:00.000000Z\n" +
+                    "2\t2022-02-24T00:00:01.000000Z\n" +
+                    "3\t2022-02-24T00:00:02.000000Z\n");
+        });
+    }
+
+    @Test
+    public void testRestoreToTimestampLeavesAllTablesOnFailure() throws Exception {
+        configOverrideWalRetentionAge(3_600_000);
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            final String otherTableName = tableName + "_other";
+            final long ts = createTableAndSnapshot(tableName);
+            currentMicros = ts;
+            compile("create table " + otherTableName + " (x long, ts timestamp) timestamp(ts) partition by DAY WAL");
+            drainWalQueue();
+            engine.releaseInactive();
+            copyTable(configuration.getRoot(), snapshotRoot, engine.verifyTableName(otherTableName));
+
+            // the first table can be restored, the other one cannot
+            insertRows(tableName, ts);
+            compile("alter table " + otherTableName + " add column s string");
+            drainWalQueue();
+            final String walRoot = copyWalRoot(tableName);
+            copyTable(configuration.getRoot(), walRoot, engine.verifyTableName(otherTableName));
+
+            restoreSnapshot(tableName);
+            restoreSnapshot(otherTableName);
+            try (WalRestore walRestore = new WalRestore(configuration)) {
+                walRestore.restoreToTimestamp(walRoot, ts + 2 * Timestamps.SECOND_MICROS);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "table structure changed after the restore target");
+            }
+            drainWalQueue();
+            assertSql(tableName, "x\tts\n" +
+                    "1\t2022-02-24T00:00:00.000000Z\n");
+        });
+    }
+
+    private static void copyTable(CharSequence srcRoot, CharSequence dstRoot, TableToken tableToken) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        try (Path src = new Path(); Path dst = new Path()) {
+            src.of(srcRoot).concat(tableToken).$();
+            dst.of(dstRoot).concat(tableToken).$();
+            if (ff.exists(dst)) {
+                Assert.assertEquals(0, ff.rmdir(dst));
+            }
+            Assert.assertEquals(0, ff.copyRecursive(src, dst, configuration.getMkDirMode()));
+        }
+    }
+
+    private String copyWalRoot(String tableName) {
+        final String walRoot = TestUtils.unchecked(() -> temp.newFolder().getAbsolutePath());
+        copyTable(configuration.getRoot(), walRoot, engine.verifyTableName(tableName));
+        return walRoot;
+    }
+
+    private long createTableAndSnapshot(String tableName) throws Exception {
+        final long ts = IntervalUtils.parseFloorPartialTimestamp("2022-02-24T00:00:00");
+        currentMicros = ts;
+        compile("create table " + tableName + " (x long, ts timestamp) timestamp(ts) partition by DAY WAL");
+        executeInsert("insert into " + tableName + " values (1, '2022-02-24T00:00:00.000000Z')");
+        drainWalQueue();
+        engine.releaseInactive();
+
+        // a copy of the table files stands in for the snapshot
+        snapshotRoot = temp.newFolder().getAbsolutePath();
+        copyTable(configuration.getRoot(), snapshotRoot, engine.verifyTableName(tableName));
+        return ts;
+    }
+
+    private void insertRows(String tableName, long ts) throws Exception {
+        for (int i = 2; i < 4; i++) {
+            currentMicros = ts + (i - 1) * Timestamps.SECOND_MICROS;
+            executeInsert("insert into " + tableName + " values (" + i + ", '2022-02-24T00:00:0" + (i - 1) + ".000000Z')");
+            drainWalQueue();
+        }
+        currentMicros = ts + Timestamps.MINUTE_MICROS;
+        executeInsert("insert into " + tableName + " values (-1, '2022-02-24T00:00:03.000000Z')");
+        drainWalQueue();
+        engine.releaseInactive();
+        runWalPurgeJob();
+    }
+
+    private TableToken restoreSnapshot(String tableName) {
+        final TableToken tableToken = engine.verifyTableName(tableName);
+        engine.releaseInactive();
+        engine.getTableSequencerAPI().closeSequencer(tableToken);
+        engine.getTableSequencerAPI().releaseInactive();
+        copyTable(snapshotRoot, configuration.getRoot(), tableToken);
+        return tableToken;
+    }
+}
@@ -200,4 +200,51 @@ public class IOURingImplTest extends AbstractTest {
             }
         });
     }
+
+    @Test
+    public void testWriteAndFsync() throws Exception {
+        Assume.assumeTrue(rf.isAvailable());
+
+        TestUtils.assertMemoryLeak(() -> {
+            final int inFlight = 8;
+            final int chunkLen = 16;
+            try (Path path = new Path()) {
+                int fd = Files.openRW(path.of(temp.newFile().getAbsolutePath()).$());
+                Assert.assertTrue(fd > -1);
+                long buf = Unsafe.malloc(inFlight * chunkLen, MemoryTag.NATIVE_DEFAULT);
+                long readBuf = Unsafe.malloc(inFlight * chunkLen, MemoryTag.NATIVE_DEFAULT);
+
+                try (IOURing ring = rf.newInstance(inFlight)) {
+                    for (int i = 0; i < inFlight * chunkLen; i++) {
+                        Unsafe.getUnsafe().putByte(buf + i, (byte) ('a' + i % 26));
+                    }
+                    // write chunks in reverse order to make sure offsets are respected
+                    for (int i = inFlight - 1; i > -1; i--) {
+                        Assert.assertTrue(ring.enqueueWrite(fd, (long) i * chunkLen, buf + (long) i * chunkLen, chunkLen) > -1);
+                    }
+                    Assert.assertEquals(inFlight, ring.submit());
+                    for (int i = 0; i < inFlight; i++) {
+                        while (!ring.nextCqe()) {
+                            Os.pause();
+                        }
+                        Assert.assertEquals(chunkLen, ring.getCqeRes());
+                    }
+
+                    long id = ring.enqueueFsync(fd);
+                    Assert.assertTrue(id > -1);
+                    Assert.assertEquals(1, ring.submitAndWait());
+                    Assert.assertTrue(ring.nextCqe());
+                    Assert.assertEquals(id, ring.getCqeId());
+                    Assert.assertEquals(0, ring.getCqeRes());
+
+                    Assert.assertEquals(inFlight * chunkLen, Files.read(fd, readBuf, inFlight * chunkLen, 0));
+                    Assert.assertTrue(Vect.memeq(buf, readBuf, inFlight * chunkLen));
+                } finally {
+                    Files.close(fd);
+                    Unsafe.free(buf, inFlight * chunkLen, MemoryTag.NATIVE_DEFAULT);
+                    Unsafe.free(readBuf, inFlight * chunkLen, MemoryTag.NATIVE_DEFAULT);
+                }
+            }
+        });
+    }
 }
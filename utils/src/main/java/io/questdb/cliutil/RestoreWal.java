@@ -0,0 +1,99 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cliutil;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.wal.WalRestore;
+import io.questdb.griffin.model.IntervalUtils;
+import io.questdb.log.LogFactory;
+import io.questdb.std.NumericException;
+import io.questdb.std.Numbers;
+
+public class RestoreWal {
+
+    /*
+     * Rolls WAL tables of a database restored from a snapshot forward by replaying the WAL retained
+     * by the database the snapshot was taken from. Transactions are applied when the restored
+     * database starts.
+     *
+     *  Command line arguments: <db_root> <wal_root> -t <timestamp> | <db_root> <wal_root> -s <seq_txn> -n <table_dir>
+     */
+    public static void main(String[] args) {
+        LogFactory.configureSync();
+        if (args.length != 4 && args.length != 6) {
+            printUsage();
+            return;
+        }
+
+        final String dbRoot = args[0];
+        final String walRoot = args[1];
+        long timestamp = Long.MAX_VALUE;
+        long seqTxn = Long.MAX_VALUE;
+        String tableDirName = null;
+        try {
+            for (int i = 2, n = args.length; i < n; i += 2) {
+                switch (args[i]) {
+                    case "-t":
+                        timestamp = IntervalUtils.parseFloorPartialTimestamp(args[i + 1]);
+                        break;
+                    case "-s":
+                        seqTxn = Numbers.parseLong(args[i + 1]);
+                        break;
+                    case "-n":
+                        tableDirName = args[i + 1];
+                        break;
+                    default:
+                        printUsage();
+                        return;
+                }
+            }
+        } catch (NumericException e) {
+            System.err.println("invalid argument");
+            printUsage();
+            return;
+        }
+        if ((seqTxn != Long.MAX_VALUE) != (tableDirName != null)) {
+            printUsage();
+            return;
+        }
+
+        try (WalRestore walRestore = new WalRestore(new DefaultCairoConfiguration(dbRoot))) {
+            if (tableDirName != null) {
+                System.out.println("restored to seqTxn " + walRestore.restoreTable(walRoot, tableDirName, timestamp, seqTxn));
+            } else {
+                System.out.println("restored tables: " + walRestore.restoreToTimestamp(walRoot, timestamp));
+            }
+        } catch (CairoException e) {
+            System.err.println(e.getFlyweightMessage());
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("usage: " + RestoreWal.class.getName() + " <db_root> <wal_root> -t <timestamp>");
+        System.out.println("       " + RestoreWal.class.getName() + " <db_root> <wal_root> -s <seq_txn> -n <table_dir>");
+    }
+}